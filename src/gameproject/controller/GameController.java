@@ -1,18 +1,39 @@
 package gameproject.controller;
 
+import gameproject.model.AttemptHistory;
 import gameproject.model.GameModel;
 import gameproject.model.GameState;
+import gameproject.model.LargeArrayChallenge;
 import gameproject.model.LevelConfig;
+import gameproject.model.LevelPack;
+import gameproject.model.LevelSource;
 import gameproject.model.ProgressTracker;
 import gameproject.model.NarrativeSystem;
+import gameproject.model.SessionSnapshot;
+import gameproject.service.DifficultyCalibrator;
+import gameproject.service.GameClock;
+import gameproject.service.LevelGenerator;
+import gameproject.service.MoveSolver;
+import gameproject.service.SortednessAnalytics;
 import gameproject.view.*;
+import gameproject.ui.MetricsHud;
 import gameproject.ui.TimSortVisualization;
 import gameproject.ui.TimSortVisualization.LevelProgressData;
+import gameproject.util.AnimationClock;
 import gameproject.util.ResourceManager;
 import gameproject.util.GameConstants;
+import gameproject.util.UiMetrics;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,12 +57,27 @@ public class GameController {
     private EnhancedStoryView enhancedStoryView;
     private GameView gameView;
     private TimSortVisualization timSortVisualization;
+    private LargeArrayChallengeView largeArrayChallengeView;
+    private MetricsHud metricsHud;
     
-    private List<LevelConfig> allLevels;
+    private LevelSource levels;
     private boolean inLevelTransition = false;
+    private final AnimationClock.Group animations = AnimationClock.getInstance().createGroup();
     
     public Map<Integer, TimSortVisualization.LevelProgressData> levelProgressMap = new HashMap<>();
     
+    // Current attempt: its time and steps against the level's budgets
+    private GameClock attemptClock = new GameClock(0, 0);
+    private boolean attemptFinished = false;
+    
+    // Difficulty and array size the attempt is calibrated under (null = not calibrated)
+    private String attemptDifficulty;
+    private int attemptItems;
+    private final MoveSolver moveSolver = new MoveSolver();
+    
+    // Phase a story attempt started in (1, or the phase a saved level resumed at)
+    private int storyStartPhase = 1;
+    
     
     
     /**
@@ -54,18 +90,14 @@ public class GameController {
         this.narrativeSystem = NarrativeSystem.getInstance();
         this.model = new GameModel();
         
+        // Restore any mid-level progress from the previous session
+        restoreSavedLevelProgress();
+        
         // Initialize narrative system with controller reference
         this.narrativeSystem.initialize(this);
         
-        // Load all level configurations
-        this.allLevels = LevelConfig.createAllLevels();
-        
-        // Set up the main frame
-        mainFrame = new JFrame(GameConstants.GAME_TITLE);
-        mainFrame.setSize(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-        mainFrame.setResizable(false);
-        mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        mainFrame.setLocationRelativeTo(null);
+        // Open the level source; levels are read when they are started
+        this.levels = openLevels();
         
         // Set up the main panel with card layout
         mainPanel = new JPanel();
@@ -81,9 +113,73 @@ public class GameController {
         mainPanel.add(enhancedStoryView, "enhancedStory");
         mainPanel.add(gameView, "game");
         mainPanel.add(timSortVisualization, "timSortVisualization");
+        mainPanel.add(largeArrayChallengeView, "largeArrayChallenge");
+        
+        // Without a display (e.g. the rendering benchmark) the views are used offscreen
+        if (GraphicsEnvironment.isHeadless()) {
+            return;
+        }
+        
+        // Set up the main frame
+        mainFrame = new JFrame(GameConstants.GAME_TITLE);
+        mainFrame.setSize(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+        mainFrame.setResizable(false);
+        // Closing the window exits like the menu's Exit button, so queued saves get written
+        mainFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        mainFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                exitGame();
+            }
+        });
+        mainFrame.setLocationRelativeTo(null);
         
         // Add main panel to the frame
         mainFrame.add(mainPanel);
+        
+        // Metrics HUD above every view (F3 toggles it, F4 exports the samples)
+        installMetricsHud();
+    }
+    
+    /**
+     * Add the metrics HUD to the frame and bind its keys
+     */
+    private void installMetricsHud() {
+        metricsHud = new MetricsHud();
+        mainFrame.getLayeredPane().add(metricsHud, JLayeredPane.DRAG_LAYER);
+        
+        JRootPane rootPane = mainFrame.getRootPane();
+        InputMap inputMap = rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleMetricsHud");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F4, 0), "exportMetrics");
+        rootPane.getActionMap().put("toggleMetricsHud", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                metricsHud.toggle();
+            }
+        });
+        rootPane.getActionMap().put("exportMetrics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportMetrics();
+            }
+        });
+        
+        if (GameConstants.SHOW_METRICS_HUD) {
+            metricsHud.toggle();
+        }
+    }
+    
+    /**
+     * Write the collected UI metric samples to a timestamped CSV file
+     */
+    private void exportMetrics() {
+        File file = new File("ui-metrics-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".csv");
+        try {
+            UiMetrics.getInstance().exportCsv(file);
+        } catch (IOException e) {
+            System.out.println("Error exporting UI metrics: " + e.getMessage());
+        }
     }
     
     /**
@@ -95,6 +191,7 @@ public class GameController {
         enhancedStoryView = new EnhancedStoryView(this);
         gameView = new GameView(this);
         timSortVisualization = new TimSortVisualization(this);
+        largeArrayChallengeView = new LargeArrayChallengeView(this);
     }
     
     /**
@@ -111,6 +208,7 @@ public class GameController {
      */
     public void showMainMenu() {
         model.setCurrentState(GameState.MAIN_MENU);
+        abandonAttempt();
         cardLayout.show(mainPanel, "mainMenu");
     }
     
@@ -123,6 +221,7 @@ public class GameController {
 
         // Set game state to level selection
         model.setCurrentState(GameState.LEVEL_SELECTION);
+        abandonAttempt();
 
         // CRITICAL FIX: Make sure progress is saved and refreshed
         progressTracker.saveProgress();
@@ -142,6 +241,7 @@ public class GameController {
         inLevelTransition = false;
 
         model.setCurrentState(GameState.STORY_MODE);
+        beginStoryAttempt("Beginner");
         cardLayout.show(mainPanel, "enhancedStory");
         enhancedStoryView.startStory();
     }
@@ -179,6 +279,9 @@ public class GameController {
 
         // CRITICAL FIX: Ensure the ability button is enabled
         timSortVisualization.setAbilityButtonEnabled(true);
+        
+        // The attempt's time only runs while a phase is played
+        attemptClock.resume();
     
         switch (phase) {
             case 1:
@@ -187,7 +290,6 @@ public class GameController {
                 model.setCurrentLevel(1);
 
                 // Show TimSort visualization for phase 1
-                timSortVisualization.setPhase(1); // Explicitly set phase
                 cardLayout.show(mainPanel, "timSortVisualization");
                 break;
 
@@ -197,7 +299,6 @@ public class GameController {
                 model.setCurrentLevel(2);
 
                 // Show TimSort visualization for phase 2
-                timSortVisualization.setPhase(2); // Explicitly set phase
                 cardLayout.show(mainPanel, "timSortVisualization");
                 break;
 
@@ -207,7 +308,6 @@ public class GameController {
                 model.setCurrentLevel(3);
 
                 // Show TimSort visualization for phase 3
-                timSortVisualization.setPhase(3); // Explicitly set phase
                 cardLayout.show(mainPanel, "timSortVisualization");
                 break;
 
@@ -219,11 +319,9 @@ public class GameController {
         }
     
         // Reset transition flag after a short delay
-        Timer resetTimer = new Timer(500, e -> {
+        animations.after(500, () -> {
             inLevelTransition = false;
         });
-        resetTimer.setRepeats(false);
-        resetTimer.start();
     }
 
     
@@ -271,6 +369,7 @@ public class GameController {
      */
     public void returnToStoryMode() {
         model.setCurrentState(GameState.STORY_MODE);
+        attemptClock.pause();
         cardLayout.show(mainPanel, "enhancedStory");
 
         // Get current phase and potion types
@@ -291,6 +390,15 @@ public class GameController {
     public void onBossBattleComplete(boolean success, int bossLevel) {
         model.setBossBattleCompleted(true);
         model.setCurrentState(GameState.STORY_MODE);
+        attemptClock.pause();
+        if (!success) {
+            // A lost boss battle ends the attempt
+            abandonAttempt();
+        }
+
+        // The TimSort session for this level is over
+        SessionSnapshot.delete(bossLevel);
+        clearLevelProgress(bossLevel);
 
         // Add debug logging
         System.out.println("DEBUG: onBossBattleComplete called - success: " + success + ", bossLevel: " + bossLevel);
@@ -326,11 +434,22 @@ public class GameController {
         model.setCurrentDifficulty(difficulty);
 
         // Set game state based on level configuration
-        for (LevelConfig config : allLevels) {
-            if (config.getDifficulty().equals(difficulty) && config.getLevelNumber() == level) {
-                model.setCurrentState(config.getAlgorithmType());
-                break;
-            }
+        LevelConfig levelConfig = levels.getLevel(difficulty, level);
+        if (levelConfig != null) {
+            model.setCurrentState(levelConfig.getAlgorithmType());
+        }
+
+        // Start a new attempt: puzzles are timed against the level's budgets from now on,
+        // story levels only while their phases are played
+        if (isStoryLevel(difficulty, level)) {
+            beginStoryAttempt(difficulty);
+        } else if (levelConfig != null) {
+            beginAttempt(new GameClock(levelConfig.getTimeLimit(), levelConfig.getMaxSteps()),
+                    difficulty, levelConfig.getInitialArray().length);
+            attemptClock.start();
+        } else {
+            beginAttempt(new GameClock(0, 0), null, 0);
+            attemptClock.start();
         }
 
         // Special handling for Level 3
@@ -341,32 +460,8 @@ public class GameController {
             timSortVisualization.resetAllPhases();
             timSortVisualization.setGameLevel(3);
 
-            // Check if we have saved progress for Level 3
-            if (levelProgressMap != null && levelProgressMap.containsKey(3)) {
-                // Resume from saved phase
-                LevelProgressData progressData = levelProgressMap.get(3);
-                int savedPhase = progressData.getPhase();
-
-                // Set saved potion types if applicable
-                if (progressData.getLeftPotionType() != null) {
-                    model.setLeftPotionType(progressData.getLeftPotionType());
-                }
-                if (progressData.getRightPotionType() != null) {
-                    model.setRightPotionType(progressData.getRightPotionType());
-                }
-
-                System.out.println("DEBUG: Resuming Level 3 at phase " + savedPhase);
-
-                // Start at the saved phase
-                if (savedPhase > 1) {
-                    // Start from the saved phase
-                    startPhaseGameplay(savedPhase);
-                } else {
-                    // Start from beginning if phase is 1 or invalid
-                    startLevel3FromSelection();
-                }
-            } else {
-                // No saved progress, start from beginning
+            // Resume from saved progress if there is any, otherwise start from the beginning
+            if (!resumeSavedLevel(3)) {
                 startLevel3FromSelection();
             }
         } 
@@ -378,32 +473,8 @@ public class GameController {
             timSortVisualization.resetAllPhases();
             timSortVisualization.setGameLevel(2);
 
-            // Check if we have saved progress for Level 2
-            if (levelProgressMap != null && levelProgressMap.containsKey(2)) {
-                // Resume from saved phase
-                LevelProgressData progressData = levelProgressMap.get(2);
-                int savedPhase = progressData.getPhase();
-
-                // Set saved potion types if applicable
-                if (progressData.getLeftPotionType() != null) {
-                    model.setLeftPotionType(progressData.getLeftPotionType());
-                }
-                if (progressData.getRightPotionType() != null) {
-                    model.setRightPotionType(progressData.getRightPotionType());
-                }
-
-                System.out.println("DEBUG: Resuming Level 2 at phase " + savedPhase);
-
-                // Start at the saved phase
-                if (savedPhase > 1) {
-                    // Start from the saved phase
-                    startPhaseGameplay(savedPhase);
-                } else {
-                    // Start from beginning if phase is 1 or invalid
-                    startLevel2FromSelection();
-                }
-            } else {
-                // No saved progress, start from beginning
+            // Resume from saved progress if there is any, otherwise start from the beginning
+            if (!resumeSavedLevel(2)) {
                 startLevel2FromSelection();
             }
         } 
@@ -414,32 +485,8 @@ public class GameController {
             timSortVisualization.resetAllPhases();
             timSortVisualization.setGameLevel(1);
 
-            // Check if we have saved progress for Level 1
-            if (levelProgressMap != null && levelProgressMap.containsKey(1)) {
-                // Resume from saved phase
-                LevelProgressData progressData = levelProgressMap.get(1);
-                int savedPhase = progressData.getPhase();
-
-                // Set saved potion types if applicable
-                if (progressData.getLeftPotionType() != null) {
-                    model.setLeftPotionType(progressData.getLeftPotionType());
-                }
-                if (progressData.getRightPotionType() != null) {
-                    model.setRightPotionType(progressData.getRightPotionType());
-                }
-
-                System.out.println("DEBUG: Resuming Level 1 at phase " + savedPhase);
-
-                // Start at the saved phase
-                if (savedPhase > 1) {
-                    // Start from the saved phase
-                    startPhaseGameplay(savedPhase);
-                } else {
-                    // Start from beginning if phase is 1 or invalid
-                    startGame();
-                }
-            } else {
-                // No saved progress, start from beginning
+            // Resume from saved progress if there is any, otherwise start from the beginning
+            if (!resumeSavedLevel(1)) {
                 startGame();
             }
         } else {
@@ -449,10 +496,145 @@ public class GameController {
         }
     }
     
+    /**
+     * Story levels (the first level of each difficulty) play the TimSort scene instead of a GameView puzzle
+     */
+    private boolean isStoryLevel(String difficulty, int level) {
+        return level == 1 && (difficulty.equals("Beginner") || difficulty.equals("Intermediate")
+                || difficulty.equals("Advanced"));
+    }
+    
+    /**
+     * Replace the current attempt with a new one timed by clock; an
+     * unfinished attempt that was already played counts as a failure
+     *
+     * @param items size of the array the player sorts (steps are calibrated per item)
+     */
+    private void beginAttempt(GameClock clock, String difficulty, int items) {
+        abandonAttempt();
+        attemptClock.stop();
+        attemptClock = clock;
+        attemptFinished = false;
+        attemptDifficulty = difficulty;
+        attemptItems = items;
+    }
+    
+    /**
+     * New attempt at a story level. The TimSort scene has no time limit or step
+     * budget, and its clock stays paused until a phase starts.
+     */
+    private void beginStoryAttempt(String difficulty) {
+        beginAttempt(new GameClock(0, 0), difficulty, TimSortVisualization.INGREDIENT_COUNT);
+        storyStartPhase = 1;
+    }
+    
+    /**
+     * The player left the current attempt (quit to a menu, restarted, lost the
+     * boss battle): record it as failed if they had started playing it
+     */
+    private void abandonAttempt() {
+        attemptClock.pause();
+        if (!attemptFinished && (attemptClock.getElapsedNanos() > 0 || attemptClock.getSteps() > 0)) {
+            recordFailure();
+        }
+    }
+    
+    private void recordFailure() {
+        attemptFinished = true;
+        if (attemptDifficulty != null) {
+            DifficultyCalibrator.getInstance().recordFailure(attemptDifficulty);
+        }
+    }
+    
+    /**
+     * Resume a game level from its saved phase, skipping the intro narrative
+     * the player has already seen. Returns false if there is nothing to resume.
+     */
+    private boolean resumeSavedLevel(int gameLevel) {
+        // A session snapshot is written on every change, so it is the most recent state
+        SessionSnapshot snapshot = SessionSnapshot.load(gameLevel);
+        if (snapshot != null) {
+            if (snapshot.getLeftPotionType() != null) {
+                model.setLeftPotionType(snapshot.getLeftPotionType());
+            }
+            if (snapshot.getRightPotionType() != null) {
+                model.setRightPotionType(snapshot.getRightPotionType());
+            }
+
+            timSortVisualization.restoreSessionSnapshot(snapshot);
+            storyStartPhase = snapshot.getPhase();
+            startPhaseGameplay(snapshot.getPhase());
+            return true;
+        }
+        
+        if (levelProgressMap == null || !levelProgressMap.containsKey(gameLevel)) {
+            return false;
+        }
+        
+        LevelProgressData progressData = levelProgressMap.get(gameLevel);
+        int savedPhase = progressData.getPhase();
+        if (savedPhase < 1 || savedPhase > 3) {
+            return false;
+        }
+
+        // Set saved potion types if applicable
+        if (progressData.getLeftPotionType() != null) {
+            model.setLeftPotionType(progressData.getLeftPotionType());
+        }
+        if (progressData.getRightPotionType() != null) {
+            model.setRightPotionType(progressData.getRightPotionType());
+        }
+
+        storyStartPhase = savedPhase;
+        startPhaseGameplay(savedPhase);
+        return true;
+    }
+    
+    /**
+     * Store mid-level progress in memory and persist it with the save file
+     */
+    public void saveLevelProgress(LevelProgressData progressData) {
+        if (levelProgressMap == null) {
+            levelProgressMap = new HashMap<>();
+        }
+        levelProgressMap.put(progressData.getLevel(), progressData);
+        progressTracker.setResumePoint(new ProgressTracker.ResumePoint(
+                progressData.getLevel(), progressData.getPhase(),
+                progressData.getLeftPotionType(), progressData.getRightPotionType()));
+    }
+    
+    /**
+     * Drop the saved mid-level progress of a game level, so it starts from
+     * the beginning next time
+     */
+    public void clearLevelProgress(int level) {
+        if (levelProgressMap != null) {
+            levelProgressMap.remove(level);
+        }
+        progressTracker.clearResumePoint(level);
+    }
+    
+    /**
+     * Rebuild the in-memory level progress map from the loaded save file
+     */
+    private void restoreSavedLevelProgress() {
+        for (ProgressTracker.ResumePoint point : progressTracker.getResumePoints()) {
+            LevelProgressData progressData = new LevelProgressData(point.getLevel(), point.getPhase());
+            progressData.setLeftPotionType(point.getLeftPotionType());
+            progressData.setRightPotionType(point.getRightPotionType());
+            levelProgressMap.put(point.getLevel(), progressData);
+        }
+    }
+    
     /**
      * Restart the current level
      */
     public void restartLevel() {
+        if (isStoryLevel(model.getCurrentDifficulty(), model.getCurrentLevel())) {
+            // Restarting a story level discards where it was left
+            SessionSnapshot.delete(model.getGameLevel());
+            clearLevelProgress(model.getGameLevel());
+        }
         startLevel(model.getCurrentDifficulty(), model.getCurrentLevel());
     }
     
@@ -464,24 +646,10 @@ public class GameController {
         int currentLevel = model.getCurrentLevel();
         
         // Find the next level
-        boolean foundCurrent = false;
-        boolean foundNext = false;
-        
-        for (LevelConfig config : allLevels) {
-            if (foundCurrent && !foundNext) {
-                // This is the next level
-                startLevel(config.getDifficulty(), config.getLevelNumber());
-                foundNext = true;
-                break;
-            }
-            
-            if (config.getDifficulty().equals(currentDifficulty) && 
-                config.getLevelNumber() == currentLevel) {
-                foundCurrent = true;
-            }
-        }
-        
-        if (!foundNext) {
+        LevelConfig next = levels.getNextLevel(currentDifficulty, currentLevel);
+        if (next != null) {
+            startLevel(next.getDifficulty(), next.getLevelNumber());
+        } else {
             // No more levels, go back to level selection
             JOptionPane.showMessageDialog(mainFrame,
                     "Congratulations! You've completed all available levels!",
@@ -502,16 +670,39 @@ public class GameController {
         }
         
         // Otherwise, look up hint in level config
-        for (LevelConfig config : allLevels) {
-            if (config.getDifficulty().equals(model.getCurrentDifficulty()) && 
-                config.getLevelNumber() == model.getCurrentLevel()) {
-                
-                JOptionPane.showMessageDialog(mainFrame,
-                    config.getHint(),
-                    "Hint", JOptionPane.INFORMATION_MESSAGE);
-                break;
-            }
+        LevelConfig config = levels.getLevel(model.getCurrentDifficulty(), model.getCurrentLevel());
+        if (config != null) {
+            SortednessAnalytics analytics = new SortednessAnalytics(config.getInitialArray());
+            JOptionPane.showMessageDialog(mainFrame,
+                config.getHint() + "\n\n" + analytics.describe(),
+                "Hint", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+    
+    /**
+     * Record completion of a level, scoring stars from the player's steps
+     */
+    public void completeLevel(String difficulty, int level) {
+        completeLevelWithStars(difficulty, level, scoreAttempt(difficulty, level));
+    }
+    
+    /**
+     * Stars for the current attempt: its step count against the fewest moves
+     * that sort the level's input under the level's algorithm. Story levels
+     * play the TimSort scene instead, so its ingredient clicks are compared
+     * with the fewest that finish it from where the attempt started.
+     */
+    public int scoreAttempt(String difficulty, int level) {
+        if (isStoryLevel(difficulty, level)) {
+            return MoveSolver.starsFor(attemptClock.getSteps(),
+                    TimSortVisualization.getMinimumClicks(storyStartPhase));
+        }
+        LevelConfig config = levels.getLevel(difficulty, level);
+        if (config == null) {
+            return GameConstants.MAX_STARS;
         }
+        MoveSolver.Result optimum = moveSolver.solve(config.getAlgorithmType(), config.getInitialArray());
+        return MoveSolver.starsFor(attemptClock.getSteps(), optimum.getMoves());
     }
     
     /**
@@ -519,6 +710,109 @@ public class GameController {
      */
     public void completeLevelWithStars(String difficulty, int level, int stars) {
         progressTracker.completeLevel(difficulty, level, stars);
+
+        // Record this attempt against the level's time limit and step budget
+        LevelConfig config = levels.getLevel(difficulty, level);
+        attemptClock.stop();
+        int elapsedMillis = (int) Math.min(Integer.MAX_VALUE, attemptClock.getElapsedMillis());
+        if (!attemptFinished) {
+            attemptFinished = true;
+            if (attemptDifficulty != null) {
+                DifficultyCalibrator.getInstance().recordSuccess(attemptDifficulty, elapsedMillis,
+                        attemptClock.getSteps(), attemptItems);
+            }
+        }
+        AttemptHistory.getInstance().recordAttempt(new AttemptHistory.Attempt(
+                difficulty, level, elapsedMillis,
+                config != null ? config.getTimeLimit() : 0,
+                attemptClock.getSteps(),
+                config != null ? config.getMaxSteps() : 0,
+                stars, System.currentTimeMillis()));
+    }
+    
+    /**
+     * Count a player move towards the current attempt's step total
+     */
+    public void recordStep() {
+        attemptClock.recordStep();
+    }
+    
+    /**
+     * The current attempt ran out of time or steps
+     */
+    public void failAttempt(GameClock.Budget budget) {
+        attemptClock.stop();
+        if (!attemptFinished) {
+            recordFailure();
+        }
+    }
+    
+    /**
+     * Clock of the current attempt (replaced whenever a level starts)
+     */
+    public GameClock getAttemptClock() {
+        return attemptClock;
+    }
+    
+    /**
+     * Stop the attempt's clock while the game is paused (pause menu, dialogue)
+     */
+    public void pauseAttempt() {
+        attemptClock.pause();
+    }
+    
+    public void resumeAttempt() {
+        attemptClock.resume();
+    }
+    
+    /**
+     * Get the fastest recorded attempts for a level
+     */
+    public List<AttemptHistory.Attempt> getLeaderboard(String difficulty, int level, int limit) {
+        return AttemptHistory.getInstance().getFastestAttempts(difficulty, level, limit);
+    }
+    
+    /**
+     * Show the ten fastest recorded attempts for a level
+     */
+    public void showLeaderboard(String difficulty, int level) {
+        List<AttemptHistory.Attempt> attempts = getLeaderboard(difficulty, level, 10);
+        StringBuilder text = new StringBuilder();
+        if (attempts.isEmpty()) {
+            text.append("No completed attempts yet.");
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        for (int i = 0; i < attempts.size(); i++) {
+            AttemptHistory.Attempt attempt = attempts.get(i);
+            int seconds = attempt.getElapsedMillis() / 1000;
+            text.append(String.format("%2d.  %02d:%02d   %d steps   %d stars   %s%n", i + 1,
+                    seconds / 60, seconds % 60, attempt.getSteps(), attempt.getStars(),
+                    dateFormat.format(new Date(attempt.getDate()))));
+        }
+        JOptionPane.showMessageDialog(mainFrame, text.toString(),
+                "Best Times - " + difficulty + " " + level, JOptionPane.INFORMATION_MESSAGE);
+    }
+    
+    /**
+     * Find the configuration for a level (null if there is none)
+     */
+    public LevelConfig getLevelConfig(String difficulty, int level) {
+        return levels.getLevel(difficulty, level);
+    }
+    
+    /**
+     * The level pack named by -Dsmartsort.levelPack, or the built-in levels
+     */
+    private LevelSource openLevels() {
+        if (GameConstants.LEVEL_PACK_PATH != null) {
+            try {
+                return LevelPack.open(new File(GameConstants.LEVEL_PACK_PATH));
+            } catch (IOException e) {
+                System.out.println("Error opening level pack " + GameConstants.LEVEL_PACK_PATH
+                        + ", using the built-in levels: " + e.getMessage());
+            }
+        }
+        return new LevelPack.InMemory(LevelConfig.createAllLevels());
     }
     
     /**
@@ -534,6 +828,23 @@ public class GameController {
         return progressTracker.isLevelCompleted(difficulty, level - 1);
     }
     
+    /**
+     * Start a large-array challenge: a fresh array of GameConstants.LARGE_ARRAY_SIZE
+     * values made of a random number of ascending runs
+     */
+    public void startLargeArrayChallenge() {
+        long seed = System.nanoTime();
+        LevelGenerator generator = new LevelGenerator(seed);
+        int runs = GameConstants.LARGE_ARRAY_MIN_RUNS
+                + Math.floorMod(seed, GameConstants.LARGE_ARRAY_MAX_RUNS - GameConstants.LARGE_ARRAY_MIN_RUNS + 1);
+        int[] values = generator.generateArray(new LevelGenerator.Spec()
+                .size(GameConstants.LARGE_ARRAY_SIZE)
+                .runs(runs));
+        model.setCurrentState(GameState.LARGE_ARRAY_CHALLENGE);
+        largeArrayChallengeView.startChallenge(new LargeArrayChallenge(values));
+        cardLayout.show(mainPanel, "largeArrayChallenge");
+    }
+    
     /**
      * Show help information
      */
@@ -562,6 +873,8 @@ public class GameController {
 
         if (response == JOptionPane.YES_OPTION) {
             progressTracker.saveProgress();
+            DifficultyCalibrator.getInstance().flush();
+            SessionSnapshot.flush();
             System.exit(0);
         }
     }
@@ -603,6 +916,7 @@ public class GameController {
         model.setGameLevel(2);
         model.setCurrentState(GameState.STORY_MODE);
         model.setCurrentLevel(1); // Reset to first phase
+        beginStoryAttempt("Intermediate");
 
         // Show Level 2 story introduction
         cardLayout.show(mainPanel, "enhancedStory");
@@ -698,6 +1012,7 @@ public class GameController {
         model.setGameLevel(3);
         model.setCurrentState(GameState.STORY_MODE);
         model.setCurrentLevel(1); // Reset to first phase
+        beginStoryAttempt("Advanced");
 
         // Reset TimSort visualization for Level 3
         timSortVisualization.resetAllPhases();
@@ -1,7 +1,8 @@
 package gameproject.main;
 
 import gameproject.controller.GameController;
-import java.io.File;
+import gameproject.model.ProgressTracker;
+import gameproject.model.SessionSnapshot;
 
 import javax.swing.*;
 
@@ -9,23 +10,29 @@ import javax.swing.*;
  * Main class to launch the application
  */
 public class GameLauncher {
+    // Command-line flag that discards saved progress before starting
+    private static final String FRESH_START_FLAG = "--fresh";
+    
     /**
      * Main method to start the application
+     * Saved progress is resumed by default; pass --fresh to start a new game.
      */
     public static void main(String[] args) {
-        // Delete any existing save file at startup
-        try {
-            File saveFile = new File("smartsortstory_progress.dat");
-            if (saveFile.exists()) {
-                boolean deleted = saveFile.delete();
-                if (deleted) {
-                    System.out.println("Progress file deleted - starting with fresh game state");
-                } else {
-                    System.out.println("Warning: Could not delete progress file");
-                }
+        boolean freshStart = false;
+        for (String arg : args) {
+            if (FRESH_START_FLAG.equals(arg)) {
+                freshStart = true;
+            }
+        }
+        
+        // Delete the existing save files only when a fresh start was requested
+        if (freshStart) {
+            SessionSnapshot.deleteAll();
+            if (ProgressTracker.deleteSaveFile()) {
+                System.out.println("Progress file deleted - starting with fresh game state");
+            } else {
+                System.out.println("Warning: Could not delete progress file");
             }
-        } catch (Exception e) {
-            System.err.println("Error handling progress file: " + e.getMessage());
         }
 
         // Continue with normal startup
@@ -40,4 +47,4 @@ public class GameLauncher {
             controller.startApplication();
         });
     }
-}
\ No newline at end of file
+}
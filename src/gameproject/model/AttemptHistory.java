@@ -0,0 +1,426 @@
+package gameproject.model;
+
+import gameproject.util.GameConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local store of every level attempt (time, steps, stars, date) with a
+ * sorted on-disk index, so leaderboard queries such as "top 10 fastest
+ * for Intermediate_1" read only the matching index entries and records.
+ *
+ * Two files are kept:
+ * - an append-only log of fixed-size attempt records (the source of truth)
+ * - an index of (level key, elapsed time, record number) entries kept
+ *   sorted by level key, then elapsed time
+ * If the index doesn't match the log (e.g. after a crash between the two
+ * writes) it is rebuilt from the log on open.
+ */
+public class AttemptHistory {
+    private static final Logger LOGGER = Logger.getLogger(AttemptHistory.class.getName());
+    private static final String LOG_FILE = "smartsortstory_attempts.dat";
+    private static final String INDEX_FILE = "smartsortstory_attempts.idx";
+
+    // File headers: magic followed by the format version
+    private static final int LOG_MAGIC = 0x5353414C;   // "SSAL"
+    private static final int INDEX_MAGIC = 0x53534149; // "SSAI"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int LOG_HEADER_SIZE = 8;
+    private static final int INDEX_HEADER_SIZE = 12; // magic, version, entry count
+    private static final int RECORD_SIZE = 32;
+    private static final int INDEX_ENTRY_SIZE = 12;
+
+    private static AttemptHistory instance;
+
+    private final File logFile;
+    private final File indexFile;
+    private RandomAccessFile log;
+    private RandomAccessFile index;
+    private int recordCount;
+
+    /**
+     * A single completed (or failed) attempt at a level
+     */
+    public static class Attempt {
+        private final String difficulty;
+        private final int levelNumber;
+        private final int elapsedMillis;
+        private final int timeLimitSeconds;
+        private final int steps;
+        private final int maxSteps;
+        private final int stars;
+        private final long date;
+
+        public Attempt(String difficulty, int levelNumber, int elapsedMillis, int timeLimitSeconds,
+                int steps, int maxSteps, int stars, long date) {
+            this.difficulty = difficulty;
+            this.levelNumber = levelNumber;
+            this.elapsedMillis = elapsedMillis;
+            this.timeLimitSeconds = timeLimitSeconds;
+            this.steps = steps;
+            this.maxSteps = maxSteps;
+            this.stars = stars;
+            this.date = date;
+        }
+
+        public String getDifficulty() {
+            return difficulty;
+        }
+
+        public int getLevelNumber() {
+            return levelNumber;
+        }
+
+        public int getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public int getTimeLimitSeconds() {
+            return timeLimitSeconds;
+        }
+
+        public int getSteps() {
+            return steps;
+        }
+
+        public int getMaxSteps() {
+            return maxSteps;
+        }
+
+        public int getStars() {
+            return stars;
+        }
+
+        /**
+         * Completion date in epoch milliseconds
+         */
+        public long getDate() {
+            return date;
+        }
+
+        /**
+         * Whether the attempt finished within the level's time limit (0 = no limit)
+         */
+        public boolean isWithinTimeLimit() {
+            return timeLimitSeconds == 0 || elapsedMillis <= timeLimitSeconds * 1000L;
+        }
+
+        /**
+         * Whether the attempt stayed within the level's step budget (0 = no budget)
+         */
+        public boolean isWithinStepBudget() {
+            return maxSteps == 0 || steps <= maxSteps;
+        }
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private AttemptHistory(File logFile, File indexFile) {
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized AttemptHistory getInstance() {
+        if (instance == null) {
+            instance = new AttemptHistory(new File(LOG_FILE), new File(INDEX_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Open a store backed by specific files (used by tools and benchmarks)
+     */
+    public static AttemptHistory open(File logFile, File indexFile) {
+        return new AttemptHistory(logFile, indexFile);
+    }
+
+    /**
+     * Pack difficulty and level number into one sortable key
+     */
+    private static int levelKey(int difficultyIndex, int levelNumber) {
+        return (difficultyIndex << 24) | (levelNumber & 0xFFFFFF);
+    }
+
+    /**
+     * Open both files, validating headers and repairing the index if needed
+     */
+    private void ensureOpen() throws IOException {
+        if (log != null) {
+            return;
+        }
+
+        log = new RandomAccessFile(logFile, "rw");
+        if (log.length() < LOG_HEADER_SIZE) {
+            log.setLength(0);
+            log.writeInt(LOG_MAGIC);
+            log.writeInt(FORMAT_VERSION);
+        } else {
+            log.seek(0);
+            if (log.readInt() != LOG_MAGIC || log.readInt() != FORMAT_VERSION) {
+                log.close();
+                log = null;
+                throw new IOException("Unrecognized attempt log: " + logFile);
+            }
+        }
+
+        // Drop a torn record left by a crash mid-append
+        long body = log.length() - LOG_HEADER_SIZE;
+        recordCount = (int) (body / RECORD_SIZE);
+        if (body % RECORD_SIZE != 0) {
+            LOGGER.warning("Truncating partial attempt record in " + logFile);
+            log.setLength(LOG_HEADER_SIZE + (long) recordCount * RECORD_SIZE);
+        }
+
+        index = new RandomAccessFile(indexFile, "rw");
+        boolean indexValid = false;
+        if (index.length() >= INDEX_HEADER_SIZE) {
+            index.seek(0);
+            indexValid = index.readInt() == INDEX_MAGIC
+                    && index.readInt() == FORMAT_VERSION
+                    && index.readInt() == recordCount
+                    && index.length() == INDEX_HEADER_SIZE + (long) recordCount * INDEX_ENTRY_SIZE;
+        }
+        if (!indexValid) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Rebuild the sorted index from the attempt log
+     */
+    private void rebuildIndex() throws IOException {
+        LOGGER.info("Rebuilding attempt index from " + recordCount + " records");
+        long[] entries = new long[recordCount];
+        int[] times = new int[recordCount];
+        byte[] record = new byte[RECORD_SIZE];
+        for (int i = 0; i < recordCount; i++) {
+            log.seek(LOG_HEADER_SIZE + (long) i * RECORD_SIZE);
+            log.readFully(record);
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            int key = buffer.getInt(0);
+            times[i] = buffer.getInt(4);
+            // Sort key: level key in the high bits, elapsed time in the low bits
+            entries[i] = ((long) key << 32) | (times[i] & 0xFFFFFFFFL);
+        }
+
+        Integer[] order = new Integer[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Long.compare(entries[a], entries[b]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+
+        ByteBuffer out = ByteBuffer.allocate(INDEX_HEADER_SIZE + recordCount * INDEX_ENTRY_SIZE);
+        out.putInt(INDEX_MAGIC).putInt(FORMAT_VERSION).putInt(recordCount);
+        for (int i : order) {
+            out.putInt((int) (entries[i] >>> 32)).putInt(times[i]).putInt(i);
+        }
+        index.setLength(0);
+        index.seek(0);
+        index.write(out.array());
+    }
+
+    /**
+     * Read the (level key, elapsed time) pair of an index entry
+     */
+    private long readIndexSortKey(int position) throws IOException {
+        index.seek(INDEX_HEADER_SIZE + (long) position * INDEX_ENTRY_SIZE);
+        int key = index.readInt();
+        int time = index.readInt();
+        return ((long) key << 32) | (time & 0xFFFFFFFFL);
+    }
+
+    /**
+     * First position among the first 'count' index entries whose sort key
+     * is >= the given key
+     */
+    private int lowerBound(long sortKey, int count) throws IOException {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (readIndexSortKey(mid) < sortKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Record an attempt: append it to the log, then insert it into the index
+     */
+    public synchronized void recordAttempt(Attempt attempt) {
+        int difficultyIndex = ProgressTracker.getDifficultyIndex(attempt.getDifficulty());
+        if (difficultyIndex < 0 || attempt.getLevelNumber() < 1) {
+            LOGGER.warning("Ignoring attempt for unknown level: "
+                    + attempt.getDifficulty() + "_" + attempt.getLevelNumber());
+            return;
+        }
+
+        try {
+            ensureOpen();
+            int key = levelKey(difficultyIndex, attempt.getLevelNumber());
+
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            record.putInt(key)
+                    .putInt(attempt.getElapsedMillis())
+                    .putInt(attempt.getTimeLimitSeconds())
+                    .putInt(attempt.getSteps())
+                    .putInt(attempt.getMaxSteps())
+                    .putInt(attempt.getStars())
+                    .putLong(attempt.getDate());
+            log.seek(LOG_HEADER_SIZE + (long) recordCount * RECORD_SIZE);
+            log.write(record.array());
+            int recordNumber = recordCount++;
+
+            // Shift the index tail up one slot and write the new entry in place
+            long sortKey = ((long) key << 32) | (attempt.getElapsedMillis() & 0xFFFFFFFFL);
+            int position = lowerBound(sortKey + 1, recordNumber);
+            long entryOffset = INDEX_HEADER_SIZE + (long) position * INDEX_ENTRY_SIZE;
+            byte[] tail = new byte[(recordNumber - position) * INDEX_ENTRY_SIZE];
+            index.seek(entryOffset);
+            index.readFully(tail);
+
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE + tail.length);
+            entry.putInt(key).putInt(attempt.getElapsedMillis()).putInt(recordNumber).put(tail);
+            index.seek(entryOffset);
+            index.write(entry.array());
+
+            // Update the count last, so a crash before here forces a rebuild
+            index.seek(8);
+            index.writeInt(recordCount);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to record attempt", e);
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Read one attempt record by its number in the log
+     */
+    private Attempt readRecord(int recordNumber) throws IOException {
+        byte[] bytes = new byte[RECORD_SIZE];
+        log.seek(LOG_HEADER_SIZE + (long) recordNumber * RECORD_SIZE);
+        log.readFully(bytes);
+        ByteBuffer record = ByteBuffer.wrap(bytes);
+        int key = record.getInt();
+        int difficultyIndex = key >>> 24;
+        String difficulty = difficultyIndex < GameConstants.DIFFICULTY_LEVELS.length
+                ? GameConstants.DIFFICULTY_LEVELS[difficultyIndex] : "Unknown";
+        return new Attempt(difficulty, key & 0xFFFFFF, record.getInt(), record.getInt(),
+                record.getInt(), record.getInt(), record.getInt(), record.getLong());
+    }
+
+    /**
+     * Get the fastest attempts for a level, fastest first. Reads only the
+     * matching index range and at most 'limit' records.
+     */
+    public synchronized List<Attempt> getFastestAttempts(String difficulty, int levelNumber, int limit) {
+        List<Attempt> attempts = new ArrayList<>();
+        int difficultyIndex = ProgressTracker.getDifficultyIndex(difficulty);
+        if (difficultyIndex < 0 || levelNumber < 1 || limit <= 0) {
+            return attempts;
+        }
+
+        try {
+            ensureOpen();
+            int key = levelKey(difficultyIndex, levelNumber);
+            int position = lowerBound((long) key << 32, recordCount);
+            while (position < recordCount && attempts.size() < limit) {
+                index.seek(INDEX_HEADER_SIZE + (long) position * INDEX_ENTRY_SIZE);
+                if (index.readInt() != key) {
+                    break;
+                }
+                index.readInt(); // elapsed time, already in sort order
+                attempts.add(readRecord(index.readInt()));
+                position++;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to read attempts", e);
+            closeQuietly();
+        }
+        return attempts;
+    }
+
+    /**
+     * Count the attempts recorded for a level (two binary searches)
+     */
+    public synchronized int getAttemptCount(String difficulty, int levelNumber) {
+        int difficultyIndex = ProgressTracker.getDifficultyIndex(difficulty);
+        if (difficultyIndex < 0 || levelNumber < 1) {
+            return 0;
+        }
+        try {
+            ensureOpen();
+            int key = levelKey(difficultyIndex, levelNumber);
+            return lowerBound((long) (key + 1) << 32, recordCount) - lowerBound((long) key << 32, recordCount);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to count attempts", e);
+            closeQuietly();
+            return 0;
+        }
+    }
+
+    /**
+     * Get the total number of recorded attempts
+     */
+    public synchronized int getTotalAttempts() {
+        try {
+            ensureOpen();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to open attempt history", e);
+            closeQuietly();
+        }
+        return recordCount;
+    }
+
+    /**
+     * Delete all recorded attempts
+     */
+    public synchronized void clear() {
+        closeQuietly();
+        if ((logFile.exists() && !logFile.delete()) || (indexFile.exists() && !indexFile.delete())) {
+            LOGGER.warning("Could not delete attempt history files");
+        }
+    }
+
+    /**
+     * Close the underlying files; they are reopened on next use
+     */
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (log != null) {
+                log.close();
+            }
+            if (index != null) {
+                index.close();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close attempt history", e);
+        }
+        log = null;
+        index = null;
+        recordCount = 0;
+    }
+}
@@ -9,5 +9,6 @@ public enum GameState {
     STORY_MODE,
     INSERTION_SORT_CHALLENGE,
     MERGE_SORT_CHALLENGE,
-    TIMSORT_CHALLENGE
+    TIMSORT_CHALLENGE,
+    LARGE_ARRAY_CHALLENGE
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+package gameproject.model;
+
+import java.util.BitSet;
+
+/**
+ * Challenge mode on arrays far too large for the item grid (10k to 1M values).
+ *
+ * The array arrives as a handful of ascending runs. The player sorts it the
+ * way TimSort does: by picking a run and merging it with the run to its
+ * right, until a single run is left. Each merge costs the length of the two
+ * runs; the score compares the total with the cheapest order of merges.
+ *
+ * Everything is kept in primitive form: the values in one int[], the run
+ * boundaries as a BitSet of run starts, and the history as a StepTrace of
+ * deltas. Before merging, the part of each run that is already in place is
+ * skipped with a binary search (as TimSort's galloping does), so both the
+ * work and the undo data only cover the values that actually move.
+ */
+public class LargeArrayChallenge {
+    // The optimal merge order is found in O(runs^3); past this many runs it isn't computed
+    private static final int MAX_OPTIMAL_RUNS = 256;
+
+    // Values kept for undo (16 MB); older merges past this can't be undone
+    private static final int UNDO_BUDGET = 4 * 1024 * 1024;
+
+    private final int[] values;
+    private final int[] buffer;
+    private final BitSet runStarts = new BitSet();
+    private final StepTrace trace = new StepTrace(UNDO_BUDGET);
+    private final int initialRuns;
+    private final long optimalCost;
+    private int minValue;
+    private int maxValue;
+    private int runCount;
+    private long cost;
+
+    // Range written by the last merge, undo or redo
+    private int changedStart;
+    private int changedEnd;
+
+    /**
+     * @param values the input array, which becomes the challenge's state
+     */
+    public LargeArrayChallenge(int[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("A challenge needs at least one value");
+        }
+        this.values = values;
+        this.buffer = new int[values.length];
+
+        // Runs start at the first value and after every descent
+        minValue = values[0];
+        maxValue = values[0];
+        runStarts.set(0);
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                runStarts.set(i);
+            }
+            minValue = Math.min(minValue, values[i]);
+            maxValue = Math.max(maxValue, values[i]);
+        }
+        runCount = runStarts.cardinality();
+        initialRuns = runCount;
+        optimalCost = computeOptimalCost();
+    }
+
+    /**
+     * Cheapest total cost of merging neighbouring runs down to one: the
+     * interval DP of optimal (order-preserving) merge trees
+     */
+    private long computeOptimalCost() {
+        int r = runCount;
+        if (r > MAX_OPTIMAL_RUNS) {
+            return -1;
+        }
+        long[] prefix = new long[r + 1];
+        int run = 0;
+        for (int start = 0; start >= 0; start = runStarts.nextSetBit(start + 1)) {
+            prefix[run + 1] = prefix[run] + getRunEnd(start) - start;
+            run++;
+        }
+
+        // best[i][j]: cheapest way to merge runs i..j into one
+        long[][] best = new long[r][r];
+        for (int length = 2; length <= r; length++) {
+            for (int i = 0; i + length - 1 < r; i++) {
+                int j = i + length - 1;
+                long cheapest = Long.MAX_VALUE;
+                for (int k = i; k < j; k++) {
+                    cheapest = Math.min(cheapest, best[i][k] + best[k + 1][j]);
+                }
+                best[i][j] = cheapest + prefix[j + 1] - prefix[i];
+            }
+        }
+        return best[0][r - 1];
+    }
+
+    /**
+     * Merge the run containing index with the run after it
+     *
+     * @return false if it is the last run
+     */
+    public boolean mergeWithNext(int index) {
+        int start = getRunStart(index);
+        int middle = getRunEnd(index);
+        if (middle >= values.length) {
+            return false;
+        }
+        int end = getRunEnd(middle);
+        int from = firstMoved(start, middle);
+        int to = lastMoved(middle, end, from);
+        trace.record(values, start, middle, end, from, to);
+        merge(from, middle, to);
+        finishMerge(start, middle, end);
+        return true;
+    }
+
+    /**
+     * Take back the last merge
+     */
+    public boolean undo() {
+        int step = trace.undo(values);
+        if (step < 0) {
+            return false;
+        }
+        runStarts.set(trace.getMiddle(step));
+        runCount++;
+        cost -= trace.getEnd(step) - trace.getStart(step);
+        changedStart = trace.getStart(step);
+        changedEnd = trace.getEnd(step);
+        return true;
+    }
+
+    /**
+     * Make the last undone merge again
+     */
+    public boolean redo() {
+        int step = trace.peekRedo();
+        if (step < 0) {
+            return false;
+        }
+        int start = trace.getStart(step);
+        int middle = trace.getMiddle(step);
+        int end = trace.getEnd(step);
+        int from = firstMoved(start, middle);
+        int to = lastMoved(middle, end, from);
+        trace.recordRedo(values, from, to);
+        merge(from, middle, to);
+        finishMerge(start, middle, end);
+        return true;
+    }
+
+    private void finishMerge(int start, int middle, int end) {
+        runStarts.clear(middle);
+        runCount--;
+        cost += end - start;
+        changedStart = start;
+        changedEnd = end;
+    }
+
+    /**
+     * First value of the left run that the right run's first value goes before
+     * (the values before it are already in place)
+     */
+    private int firstMoved(int start, int middle) {
+        int first = values[middle];
+        int low = start;
+        int high = middle;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= first) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * End of the right run's values that go before the left run's last value
+     * (the values after them are already in place)
+     */
+    private int lastMoved(int middle, int end, int firstMoved) {
+        if (firstMoved == middle) {
+            return middle;
+        }
+        int last = values[middle - 1];
+        int low = middle;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < last) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable merge of values[from..middle - 1] and values[middle..to - 1]
+     */
+    private void merge(int from, int middle, int to) {
+        if (from == middle || middle == to) {
+            return;
+        }
+        System.arraycopy(values, from, buffer, from, middle - from);
+        int i = from;
+        int j = middle;
+        int k = from;
+        while (i < middle && j < to) {
+            values[k++] = buffer[i] <= values[j] ? buffer[i++] : values[j++];
+        }
+        System.arraycopy(buffer, i, values, k, middle - i);
+    }
+
+    /**
+     * First index of the run containing index
+     */
+    public int getRunStart(int index) {
+        return runStarts.previousSetBit(index);
+    }
+
+    /**
+     * One past the last index of the run containing index
+     */
+    public int getRunEnd(int index) {
+        int next = runStarts.nextSetBit(index + 1);
+        return next < 0 ? values.length : next;
+    }
+
+    /**
+     * The values, in their current order (don't modify)
+     */
+    public int[] getValues() {
+        return values;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int getMinValue() {
+        return minValue;
+    }
+
+    public int getMaxValue() {
+        return maxValue;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public int getInitialRuns() {
+        return initialRuns;
+    }
+
+    /**
+     * Values moved so far: each merge counts the length of both runs
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Cost of the cheapest order of merges, or -1 if there are too many runs to work it out
+     */
+    public long getOptimalCost() {
+        return optimalCost;
+    }
+
+    public int getMerges() {
+        return trace.getPosition();
+    }
+
+    public boolean canUndo() {
+        return trace.canUndo();
+    }
+
+    public boolean canRedo() {
+        return trace.canRedo();
+    }
+
+    public StepTrace getTrace() {
+        return trace;
+    }
+
+    public int getChangedStart() {
+        return changedStart;
+    }
+
+    public int getChangedEnd() {
+        return changedEnd;
+    }
+
+    /**
+     * Sorted once a single run is left
+     */
+    public boolean isSolved() {
+        return runCount == 1;
+    }
+}
@@ -189,7 +189,7 @@ public class LevelConfig {
         
         levels.add(new LevelConfig(
             "Advanced", 
-            1, 
+            2, 
             GameState.TIMSORT_CHALLENGE,
             "Use TimSort principles to craft a Strength potion capable of breaking through Lord Chaosa's reality distortions.",
             new int[]{14, 7, 11, 5, 8, 16, 9, 12, 3, 10, 18, 6},
@@ -212,32 +212,18 @@ public class LevelConfig {
     }
     
     /**
-     * Validates if a solution is correct
+     * Validates if a solution is correct: the level's items, in sorted order.
+     * TimSort levels follow the same rule (ties may be in any order), so an
+     * empty or foreign arrangement is never accepted.
      */
     public boolean validateSolution(int[] solution) {
-        // For TimSort challenges, we need a special validation based on item combinations
-        if (algorithmType == GameState.TIMSORT_CHALLENGE) {
-            // Check if the result contains the expected combined items
-            // For simplicity, just check if values are in ascending order for now
-            for (int i = 1; i < solution.length; i++) {
-                if (solution[i] < solution[i-1]) {
-                    return false;
-                }
-            }
-            return true;
-        } else {
-            // For insertion and merge sort, just check against sorted target array
-            if (solution.length != targetArray.length) {
-                return false;
-            }
-            
-            for (int i = 0; i < solution.length; i++) {
-                if (solution[i] != targetArray[i]) {
-                    return false;
-                }
-            }
-            
-            return true;
-        }
+        return SolutionValidator.forLevel(this, solution).isSolved();
+    }
+    
+    /**
+     * Validator that tracks this level's board from its initial arrangement
+     */
+    public SolutionValidator createValidator() {
+        return SolutionValidator.forLevel(this, initialArray);
     }
 }
\ No newline at end of file
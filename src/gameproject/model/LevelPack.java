@@ -0,0 +1,360 @@
+package gameproject.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Level pack file, read lazily through a sorted on-disk index.
+ *
+ * Layout: a header (magic, version, level count, index offset), the level
+ * records one after another, then the index: one (level key, record
+ * offset, record length) entry per level, sorted by level key. Opening a
+ * pack reads only the header; each lookup binary-searches the index on
+ * disk and decodes just the one record, so packs with tens of thousands of
+ * levels cost nothing at startup. Recently used levels are kept in a
+ * small cache.
+ */
+public class LevelPack implements LevelSource, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LevelPack.class.getName());
+
+    private static final int PACK_MAGIC = 0x53534C50; // "SSLP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 20;        // magic, version, level count, index offset
+    private static final int INDEX_ENTRY_SIZE = 16;   // key, offset, length
+    private static final int CACHE_SIZE = 32;
+
+    private final File file;
+    private final RandomAccessFile data;
+    private final int levelCount;
+    private final long indexOffset;
+
+    // Most recently used levels, keyed by level key
+    private final Map<Integer, LevelConfig> cache = new LinkedHashMap<Integer, LevelConfig>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, LevelConfig> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Levels held in memory (the built-in levels)
+     */
+    public static class InMemory implements LevelSource {
+        private final int[] keys;
+        private final LevelConfig[] levels;
+
+        public InMemory(List<LevelConfig> levelList) {
+            long[] entries = sortedEntries(levelList);
+            keys = new int[entries.length];
+            levels = new LevelConfig[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                keys[i] = (int) (entries[i] >> 32);
+                levels[i] = levelList.get((int) entries[i]);
+            }
+        }
+
+        @Override
+        public LevelConfig getLevel(String difficulty, int levelNumber) {
+            int key = levelKey(difficulty, levelNumber);
+            int position = key < 0 ? -1 : Arrays.binarySearch(keys, key);
+            return position >= 0 ? levels[position] : null;
+        }
+
+        @Override
+        public LevelConfig getNextLevel(String difficulty, int levelNumber) {
+            int key = levelKey(difficulty, levelNumber);
+            if (key < 0) {
+                return null;
+            }
+            int position = Arrays.binarySearch(keys, key);
+            int next = position >= 0 ? position + 1 : -position - 1;
+            return next < levels.length ? levels[next] : null;
+        }
+
+        @Override
+        public int getLevelCount() {
+            return levels.length;
+        }
+    }
+
+    private LevelPack(File file) throws IOException {
+        this.file = file;
+        this.data = new RandomAccessFile(file, "r");
+        try {
+            if (data.length() < HEADER_SIZE || data.readInt() != PACK_MAGIC
+                    || data.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognized level pack: " + file);
+            }
+            levelCount = data.readInt();
+            indexOffset = data.readLong();
+            if (levelCount < 0 || indexOffset < HEADER_SIZE
+                    || indexOffset + (long) levelCount * INDEX_ENTRY_SIZE != data.length()) {
+                throw new IOException("Corrupt level pack index: " + file);
+            }
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open a pack; only its header is read until levels are asked for
+     */
+    public static LevelPack open(File file) throws IOException {
+        LevelPack pack = new LevelPack(file);
+        LOGGER.info("Opened level pack " + file + " (" + pack.levelCount + " levels)");
+        return pack;
+    }
+
+    /**
+     * Write levels to a pack file, streaming: only the index entries (16
+     * bytes per level) are kept in memory. The file is written next to the
+     * target and moved into place when complete.
+     *
+     * @throws IllegalArgumentException for an unknown difficulty or a level that appears twice
+     */
+    public static void write(File file, Iterable<LevelConfig> levels) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        long[] keysAndPositions = new long[64];
+        long[] offsets = new long[64];
+        int[] lengths = new int[64];
+        int count = 0;
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        DataOutputStream recordOut = new DataOutputStream(record);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))) {
+            // Header placeholder; the count and index offset are filled in at the end
+            out.write(new byte[HEADER_SIZE]);
+            long offset = HEADER_SIZE;
+
+            for (LevelConfig level : levels) {
+                int key = levelKey(level.getDifficulty(), level.getLevelNumber());
+                if (key < 0) {
+                    throw new IllegalArgumentException("Level can't be packed: "
+                            + level.getDifficulty() + " " + level.getLevelNumber());
+                }
+                record.reset();
+                encode(level, recordOut);
+                recordOut.flush();
+                record.writeTo(out);
+
+                if (count == offsets.length) {
+                    keysAndPositions = Arrays.copyOf(keysAndPositions, count * 2);
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                keysAndPositions[count] = ((long) key << 32) | count;
+                offsets[count] = offset;
+                lengths[count] = record.size();
+                offset += record.size();
+                count++;
+            }
+
+            // Index sorted by level key
+            long[] sorted = Arrays.copyOf(keysAndPositions, count);
+            Arrays.sort(sorted);
+            for (int i = 0; i < count; i++) {
+                int key = (int) (sorted[i] >> 32);
+                if (i > 0 && key == (int) (sorted[i - 1] >> 32)) {
+                    throw new IllegalArgumentException("Duplicate level in pack: key " + key);
+                }
+                int position = (int) sorted[i];
+                out.writeInt(key);
+                out.writeLong(offsets[position]);
+                out.writeInt(lengths[position]);
+            }
+
+            out.flush();
+            try (RandomAccessFile header = new RandomAccessFile(tempFile, "rw")) {
+                header.writeInt(PACK_MAGIC);
+                header.writeInt(FORMAT_VERSION);
+                header.writeInt(count);
+                header.writeLong(offset);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized LevelConfig getLevel(String difficulty, int levelNumber) {
+        int key = levelKey(difficulty, levelNumber);
+        if (key < 0) {
+            return null;
+        }
+        try {
+            int position = lowerBound(key);
+            if (position >= levelCount || readKey(position) != key) {
+                return null;
+            }
+            return readLevel(position);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to read level " + difficulty + " " + levelNumber + " from " + file + ": " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized LevelConfig getNextLevel(String difficulty, int levelNumber) {
+        int key = levelKey(difficulty, levelNumber);
+        if (key < 0) {
+            return null;
+        }
+        try {
+            // First entry with a larger key (key + 1 can't overflow: level numbers use 24 bits)
+            int position = lowerBound(key + 1);
+            return position < levelCount ? readLevel(position) : null;
+        } catch (IOException e) {
+            LOGGER.warning("Failed to read the level after " + difficulty + " " + levelNumber + " from " + file + ": " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        cache.clear();
+        data.close();
+    }
+
+    /**
+     * Pack difficulty and level number into one sortable key (-1 if unknown)
+     */
+    private static int levelKey(String difficulty, int levelNumber) {
+        int difficultyIndex = ProgressTracker.getDifficultyIndex(difficulty);
+        if (difficultyIndex < 0 || levelNumber < 1 || levelNumber > 0xFFFFFF) {
+            return -1;
+        }
+        return (difficultyIndex << 24) | levelNumber;
+    }
+
+    /**
+     * (level key, list position) pairs sorted by key
+     */
+    private static long[] sortedEntries(List<LevelConfig> levels) {
+        long[] entries = new long[levels.size()];
+        for (int i = 0; i < entries.length; i++) {
+            LevelConfig level = levels.get(i);
+            int key = levelKey(level.getDifficulty(), level.getLevelNumber());
+            if (key < 0) {
+                throw new IllegalArgumentException("Unknown level: " + level.getDifficulty() + " " + level.getLevelNumber());
+            }
+            entries[i] = ((long) key << 32) | i;
+        }
+        Arrays.sort(entries);
+        return entries;
+    }
+
+    private int readKey(int position) throws IOException {
+        data.seek(indexOffset + (long) position * INDEX_ENTRY_SIZE);
+        return data.readInt();
+    }
+
+    /**
+     * First index position whose key is >= the given key
+     */
+    private int lowerBound(int key) throws IOException {
+        int low = 0;
+        int high = levelCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (readKey(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private LevelConfig readLevel(int position) throws IOException {
+        data.seek(indexOffset + (long) position * INDEX_ENTRY_SIZE);
+        int key = data.readInt();
+        LevelConfig level = cache.get(key);
+        if (level != null) {
+            return level;
+        }
+
+        long offset = data.readLong();
+        int length = data.readInt();
+        if (offset < HEADER_SIZE || length < 0 || offset + length > indexOffset) {
+            throw new IOException("Corrupt index entry " + position);
+        }
+        byte[] record = new byte[length];
+        data.seek(offset);
+        data.readFully(record);
+        level = decode(new DataInputStream(new ByteArrayInputStream(record)));
+        cache.put(key, level);
+        return level;
+    }
+
+    private static void encode(LevelConfig level, DataOutputStream out) throws IOException {
+        out.writeUTF(level.getDifficulty());
+        out.writeInt(level.getLevelNumber());
+        out.writeUTF(level.getAlgorithmType().name());
+        out.writeUTF(level.getInstruction());
+        out.writeUTF(level.getHint());
+        out.writeUTF(level.getBackgroundTheme());
+        out.writeInt(level.getMaxSteps());
+        out.writeInt(level.getTimeLimit());
+        out.writeInt(level.getGridSize());
+        int[] values = level.getInitialArray();
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static LevelConfig decode(DataInputStream in) throws IOException {
+        String difficulty = in.readUTF();
+        int levelNumber = in.readInt();
+        GameState algorithm;
+        try {
+            algorithm = GameState.valueOf(in.readUTF());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown algorithm in level record", e);
+        }
+        String instruction = in.readUTF();
+        String hint = in.readUTF();
+        String theme = in.readUTF();
+        int maxSteps = in.readInt();
+        int timeLimit = in.readInt();
+        int gridSize = in.readInt();
+        int length = in.readInt();
+        if (length < 0 || length > in.available() / 4) {
+            throw new IOException("Invalid array length: " + length);
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+
+        LevelConfig level = new LevelConfig(difficulty, levelNumber, algorithm, instruction,
+                values, maxSteps, hint, theme, gridSize);
+        level.setTimeLimit(timeLimit);
+        return level;
+    }
+}
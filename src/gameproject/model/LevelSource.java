@@ -0,0 +1,22 @@
+package gameproject.model;
+
+/**
+ * Where the game looks up level configurations. Levels are ordered by
+ * difficulty (Beginner, Intermediate, Advanced), then level number.
+ */
+public interface LevelSource {
+    /**
+     * The configuration for a level (null if there is none)
+     */
+    LevelConfig getLevel(String difficulty, int levelNumber);
+
+    /**
+     * The level that follows the given one (null after the last level)
+     */
+    LevelConfig getNextLevel(String difficulty, int levelNumber);
+
+    /**
+     * Total number of levels
+     */
+    int getLevelCount();
+}
@@ -1,13 +1,25 @@
 package gameproject.model;
 
+import gameproject.util.GameConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.CRC32;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,20 +31,126 @@ public class ProgressTracker implements Serializable {
     private static final Logger LOGGER = Logger.getLogger(ProgressTracker.class.getName());
     private static final String SAVE_FILE = "smartsortstory_progress.dat";
     
+    // Save file header: "SSSP" magic followed by the format version
+    private static final int SAVE_MAGIC = 0x53535350;
+    private static final int SAVE_VERSION = 1;
+    
+    // Nesting of a legacy save (tracker -> map -> entries) is shallow; anything deeper is damage
+    private static final int LEGACY_MAX_DEPTH = 8;
+    
+    // Initial number of level slots per difficulty (grown on demand)
+    private static final int INITIAL_LEVEL_SLOTS = 4;
+    
     private static ProgressTracker instance;
     
-    // Map of levelId to stars earned (1-3)
-    private Map<String, Integer> completedLevels;
+    // Stars earned (0-3) indexed by [difficulty index][level number - 1]
+    private byte[][] starTable;
     private int totalStarsEarned;
     private String playerName;
     
+    // Mid-level resume points keyed by game level (1-3)
+    private transient Map<Integer, ResumePoint> resumePoints;
+    
+    // Where saveProgress() writes to (null for detached copies)
+    private transient Store store;
+    
+    /**
+     * Persistence backend for progress. The game uses FileStore; tools can
+     * plug in other backends to compare them.
+     */
+    public interface Store {
+        /**
+         * Persist the tracker's current state
+         */
+        void write(ProgressTracker tracker) throws IOException;
+        
+        /**
+         * Read the last persisted state (null if nothing was saved yet)
+         */
+        ProgressTracker read() throws IOException;
+    }
+    
+    /**
+     * Checksummed binary save file, replaced atomically on every write
+     */
+    public static class FileStore implements Store {
+        private final File file;
+        private final File tempFile;
+        
+        public FileStore(File file) {
+            this.file = file;
+            this.tempFile = new File(file.getPath() + ".tmp");
+        }
+        
+        public File getFile() {
+            return file;
+        }
+        
+        /**
+         * The sibling that each write goes to before being moved into place
+         */
+        public File getTempFile() {
+            return tempFile;
+        }
+        
+        @Override
+        public void write(ProgressTracker tracker) throws IOException {
+            Files.write(tempFile.toPath(), tracker.encode());
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        
+        @Override
+        public ProgressTracker read() throws IOException {
+            if (!file.exists()) {
+                return null;
+            }
+            return decode(Files.readAllBytes(file.toPath()));
+        }
+    }
+    
+    /**
+     * Where a player left a level: the TimSort phase and the potion types
+     * identified so far
+     */
+    public static class ResumePoint {
+        private final int level;
+        private final int phase;
+        private final String leftPotionType;
+        private final String rightPotionType;
+        
+        public ResumePoint(int level, int phase, String leftPotionType, String rightPotionType) {
+            this.level = level;
+            this.phase = phase;
+            this.leftPotionType = leftPotionType;
+            this.rightPotionType = rightPotionType;
+        }
+        
+        public int getLevel() {
+            return level;
+        }
+        
+        public int getPhase() {
+            return phase;
+        }
+        
+        public String getLeftPotionType() {
+            return leftPotionType;
+        }
+        
+        public String getRightPotionType() {
+            return rightPotionType;
+        }
+    }
+    
     /**
      * Private constructor for singleton
      */
     private ProgressTracker() {
-        completedLevels = new HashMap<>();
+        starTable = createEmptyTable();
         totalStarsEarned = 0;
         playerName = "Player";
+        resumePoints = new HashMap<>();
     }
     
     /**
@@ -40,67 +158,127 @@ public class ProgressTracker implements Serializable {
      */
     public static synchronized ProgressTracker getInstance() {
         if (instance == null) {
-            instance = loadProgress();
+            instance = open(new FileStore(new File(SAVE_FILE)));
         }
         return instance;
     }
     
     /**
-     * Generate a level ID from difficulty and level number
+     * Load a tracker backed by a specific store (used by tools and benchmarks).
+     * Falls back to fresh progress if nothing was saved or the save is invalid.
      */
-    private String getLevelId(String difficulty, int levelNumber) {
-        return difficulty + "_" + levelNumber;
+    public static ProgressTracker open(Store store) {
+        ProgressTracker tracker = null;
+        try {
+            tracker = store.read();
+            if (tracker != null) {
+                LOGGER.info("Progress loaded successfully");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to load progress", e);
+        }
+        
+        // Start fresh if nothing was saved or there's an error
+        if (tracker == null) {
+            tracker = new ProgressTracker();
+        }
+        tracker.store = store;
+        return tracker;
+    }
+    
+    /**
+     * Create an empty star table with one row per difficulty
+     */
+    private static byte[][] createEmptyTable() {
+        byte[][] table = new byte[GameConstants.DIFFICULTY_LEVELS.length][];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = new byte[INITIAL_LEVEL_SLOTS];
+        }
+        return table;
+    }
+    
+    /**
+     * Map a difficulty name to its row in the star table (-1 if unknown)
+     */
+    static int getDifficultyIndex(String difficulty) {
+        if (difficulty == null) {
+            return -1;
+        }
+        switch (difficulty) {
+            case "Beginner":
+                return 0;
+            case "Intermediate":
+                return 1;
+            case "Advanced":
+                return 2;
+            default:
+                return -1;
+        }
+    }
+    
+    /**
+     * Look up the stars stored for a level without allocating
+     */
+    private int lookupStars(String difficulty, int levelNumber) {
+        int row = getDifficultyIndex(difficulty);
+        if (row < 0 || levelNumber < 1) {
+            return 0;
+        }
+        byte[] levels = starTable[row];
+        return levelNumber <= levels.length ? levels[levelNumber - 1] : 0;
     }
     
     /**
      * Check if a level is completed
      */
-    public boolean isLevelCompleted(String difficulty, int levelNumber) {
-        String levelId = getLevelId(difficulty, levelNumber);
-        System.out.println("DEBUG: Checking if level is completed: " + levelId);
-        return completedLevels.containsKey(levelId);
+    public synchronized boolean isLevelCompleted(String difficulty, int levelNumber) {
+        return lookupStars(difficulty, levelNumber) > 0;
     }
     
     /**
      * Get stars earned for a level
      */
-    public int getStarsForLevel(String difficulty, int levelNumber) {
-        String levelId = getLevelId(difficulty, levelNumber);
-        return completedLevels.getOrDefault(levelId, 0);
+    public synchronized int getStarsForLevel(String difficulty, int levelNumber) {
+        return lookupStars(difficulty, levelNumber);
     }
     
     /**
      * Complete a level and earn stars
      */
-    public void completeLevel(String difficulty, int levelNumber, int stars) {
-        String levelId = getLevelId(difficulty, levelNumber);
-        int currentStars = completedLevels.getOrDefault(levelId, 0);
-        System.out.println("DEBUG: Completing level: " + levelId + " with stars: " + stars);
+    public synchronized void completeLevel(String difficulty, int levelNumber, int stars) {
+        int row = getDifficultyIndex(difficulty);
+        if (row < 0 || levelNumber < 1) {
+            LOGGER.warning("Ignoring completion of unknown level: " + difficulty + "_" + levelNumber);
+            return;
+        }
+        stars = Math.min(stars, GameConstants.MAX_STARS);
+        int currentStars = lookupStars(difficulty, levelNumber);
 
         // Only update if we earned more stars
         if (stars > currentStars) {
+            // Grow the row if this level number hasn't been seen yet
+            if (levelNumber > starTable[row].length) {
+                starTable[row] = Arrays.copyOf(starTable[row],
+                        Math.max(levelNumber, starTable[row].length * 2));
+            }
             totalStarsEarned += (stars - currentStars);
-            completedLevels.put(levelId, stars);
+            starTable[row][levelNumber - 1] = (byte) stars;
             // CRITICAL FIX: Make sure to save progress immediately
             saveProgress();
-
-            // Add extra debug output
-            System.out.println("DEBUG: Progress updated for " + levelId + ", new stars: " + stars);
-            System.out.println("DEBUG: Total stars earned: " + totalStarsEarned);
         }
     }
     
     /**
      * Get total stars earned
      */
-    public int getTotalStarsEarned() {
+    public synchronized int getTotalStarsEarned() {
         return totalStarsEarned;
     }
     
     /**
      * Set player name
      */
-    public void setPlayerName(String name) {
+    public synchronized void setPlayerName(String name) {
         if (name != null && !name.trim().isEmpty()) {
             this.playerName = name;
             saveProgress();
@@ -110,25 +288,223 @@ public class ProgressTracker implements Serializable {
     /**
      * Get player name
      */
-    public String getPlayerName() {
+    public synchronized String getPlayerName() {
         return playerName;
     }
     
     /**
      * Reset all progress
      */
-    public void resetProgress() {
-        completedLevels.clear();
+    public synchronized void resetProgress() {
+        for (byte[] levels : starTable) {
+            Arrays.fill(levels, (byte) 0);
+        }
         totalStarsEarned = 0;
+        resumePoints.clear();
+        saveProgress();
+    }
+    
+    /**
+     * Remember where the player left a level so it can be resumed later
+     */
+    public synchronized void setResumePoint(ResumePoint point) {
+        resumePoints.put(point.getLevel(), point);
         saveProgress();
     }
     
     /**
-     * Save progress to file
+     * Forget where the player left a level, once it is finished or restarted
+     */
+    public synchronized void clearResumePoint(int level) {
+        if (resumePoints.remove(level) != null) {
+            saveProgress();
+        }
+    }
+    
+    /**
+     * Get the saved resume point for a game level (null if none)
+     */
+    public synchronized ResumePoint getResumePoint(int level) {
+        return resumePoints.get(level);
+    }
+    
+    /**
+     * Get all saved resume points
+     */
+    public synchronized Collection<ResumePoint> getResumePoints() {
+        return Collections.unmodifiableCollection(new ArrayList<>(resumePoints.values()));
+    }
+    
+    /**
+     * Delete the save file so the next launch starts fresh
+     */
+    public static boolean deleteSaveFile() {
+        File saveFile = new File(SAVE_FILE);
+        return !saveFile.exists() || saveFile.delete();
+    }
+    
+    /**
+     * Restore state from a serialized stream, migrating saves that still
+     * use the old string-keyed completedLevels map
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        resumePoints = new HashMap<>();
+        playerName = (String) fields.get("playerName", "Player");
+        starTable = (byte[][]) fields.get("starTable", null);
+        
+        if (starTable == null) {
+            starTable = createEmptyTable();
+            Map<String, Integer> legacyLevels = (Map<String, Integer>) fields.get("completedLevels", null);
+            if (legacyLevels != null) {
+                for (Map.Entry<String, Integer> entry : legacyLevels.entrySet()) {
+                    String levelId = entry.getKey();
+                    int separator = levelId.lastIndexOf('_');
+                    if (separator < 0) {
+                        continue;
+                    }
+                    try {
+                        int row = getDifficultyIndex(levelId.substring(0, separator));
+                        int levelNumber = Integer.parseInt(levelId.substring(separator + 1));
+                        if (row >= 0 && levelNumber >= 1) {
+                            if (levelNumber > starTable[row].length) {
+                                starTable[row] = Arrays.copyOf(starTable[row], levelNumber);
+                            }
+                            starTable[row][levelNumber - 1] =
+                                    (byte) Math.min(entry.getValue(), GameConstants.MAX_STARS);
+                        }
+                    } catch (NumberFormatException e) {
+                        LOGGER.warning("Skipping malformed level id in save file: " + levelId);
+                    }
+                }
+            }
+        }
+        
+        recomputeTotalStars();
+    }
+    
+    /**
+     * Recompute the running total so it always matches the table
+     */
+    private void recomputeTotalStars() {
+        totalStarsEarned = 0;
+        for (byte[] levels : starTable) {
+            for (byte stars : levels) {
+                totalStarsEarned += stars;
+            }
+        }
+    }
+    
+    /**
+     * Encode the progress payload (everything covered by the checksum)
+     */
+    private byte[] encodePayload() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        
+        out.writeUTF(playerName);
+        
+        out.writeByte(starTable.length);
+        for (byte[] levels : starTable) {
+            out.writeInt(levels.length);
+            out.write(levels);
+        }
+        
+        out.writeByte(resumePoints.size());
+        for (ResumePoint point : resumePoints.values()) {
+            out.writeByte(point.getLevel());
+            out.writeByte(point.getPhase());
+            writeOptionalString(out, point.getLeftPotionType());
+            writeOptionalString(out, point.getRightPotionType());
+        }
+        
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Decode a payload written by encodePayload
+     */
+    private static ProgressTracker decodePayload(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        ProgressTracker tracker = new ProgressTracker();
+        
+        tracker.playerName = in.readUTF();
+        
+        int difficultyCount = in.readUnsignedByte();
+        for (int row = 0; row < difficultyCount; row++) {
+            int levelCount = in.readInt();
+            if (levelCount < 0 || levelCount > payload.length) {
+                throw new IOException("Invalid level count: " + levelCount);
+            }
+            byte[] levels = new byte[levelCount];
+            in.readFully(levels);
+            // Ignore rows for difficulties this build doesn't know about
+            if (row < tracker.starTable.length) {
+                tracker.starTable[row] = levels;
+            }
+        }
+        
+        int resumeCount = in.readUnsignedByte();
+        for (int i = 0; i < resumeCount; i++) {
+            int level = in.readUnsignedByte();
+            int phase = in.readUnsignedByte();
+            String left = readOptionalString(in);
+            String right = readOptionalString(in);
+            tracker.resumePoints.put(level, new ResumePoint(level, phase, left, right));
+        }
+        
+        tracker.recomputeTotalStars();
+        return tracker;
+    }
+    
+    private static void writeOptionalString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readOptionalString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+    
+    /**
+     * Encode the full save file.
+     * Layout: magic, version, payload length, payload, CRC32 of payload.
+     */
+    public synchronized byte[] encode() throws IOException {
+        byte[] payload = encodePayload();
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 20);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SAVE_MAGIC);
+        out.writeInt(SAVE_VERSION);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeLong(checksum(payload));
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Save progress through the tracker's store. The file store writes to a
+     * temporary sibling and moves it into place so a crash mid-write never
+     * leaves a half-written save behind.
      */
-    public void saveProgress() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
-            oos.writeObject(this);
+    public synchronized void saveProgress() {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.write(this);
             LOGGER.info("Progress saved successfully");
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to save progress", e);
@@ -136,22 +512,61 @@ public class ProgressTracker implements Serializable {
     }
     
     /**
-     * Load progress from file
+     * Read and validate a save file written by saveProgress
      */
-    private static ProgressTracker loadProgress() {
-        File saveFile = new File(SAVE_FILE);
+    private static ProgressTracker readSaveFile(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
         
-        if (saveFile.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-                ProgressTracker tracker = (ProgressTracker) ois.readObject();
-                LOGGER.info("Progress loaded successfully");
-                return tracker;
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Failed to load progress", e);
-            }
+        int version = in.readInt();
+        if (version < 1 || version > SAVE_VERSION) {
+            throw new IOException("Unsupported save version: " + version);
+        }
+        
+        int length = in.readInt();
+        if (length < 0 || length > data.length - 16) {
+            throw new IOException("Invalid payload length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        
+        long expected = in.readLong();
+        if (checksum(payload) != expected) {
+            throw new IOException("Save file checksum mismatch");
+        }
+        
+        return decodePayload(payload);
+    }
+    
+    /**
+     * Decode a save file, accepting both the checksummed binary format and
+     * the Java-serialized saves written by older builds
+     */
+    public static ProgressTracker decode(byte[] data) throws IOException {
+        if (data.length >= 4 && readInt(data, 0) == SAVE_MAGIC) {
+            return readSaveFile(Arrays.copyOfRange(data, 4, data.length));
         }
         
-        // Return new instance if file doesn't exist or there's an error
-        return new ProgressTracker();
+        // Older builds wrote the tracker with Java serialization
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            ois.setObjectInputFilter(legacyFilter(data.length));
+            return (ProgressTracker) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unrecognized save file", e);
+        }
+    }
+    
+    /**
+     * Limits for reading a legacy save, so a damaged length field is rejected
+     * instead of allocating a huge array: every array element and reference
+     * takes at least one byte of the file
+     */
+    private static ObjectInputFilter legacyFilter(int fileSize) {
+        return ObjectInputFilter.Config.createFilter("maxbytes=" + fileSize + ";maxarray=" + fileSize
+                + ";maxrefs=" + fileSize + ";maxdepth=" + LEGACY_MAX_DEPTH);
+    }
+    
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,415 @@
+package gameproject.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Compact snapshot of an in-progress TimSort session (one per game level),
+ * so an interrupted Eye of Pattern / Hand of Balance / Mind of Unity phase
+ * can be restored exactly where the player left it.
+ */
+public class SessionSnapshot {
+    private static final Logger LOGGER = Logger.getLogger(SessionSnapshot.class.getName());
+    private static final String FILE_PREFIX = "smartsortstory_session_";
+    private static final String FILE_SUFFIX = ".dat";
+
+    // File header: "SSSS" magic followed by the format version
+    private static final int SNAPSHOT_MAGIC = 0x53535353;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Snapshots are written off the EDT, one at a time, in submission order
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "session-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Last bytes written per level, so unchanged snapshots are never rewritten
+    private static final byte[][] lastWritten = new byte[4][];
+
+    /**
+     * A single ingredient as it appears on screen
+     */
+    public static class Item {
+        private final int value;
+        private final String color;
+        private final String potionType;
+        private final String ingredientName;
+        private final int x;
+        private final int y;
+
+        public Item(int value, String color, String potionType, String ingredientName, int x, int y) {
+            this.value = value;
+            this.color = color;
+            this.potionType = potionType;
+            this.ingredientName = ingredientName;
+            this.x = x;
+            this.y = y;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public String getPotionType() {
+            return potionType;
+        }
+
+        public String getIngredientName() {
+            return ingredientName;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+    }
+
+    private int level;
+    private int phase;
+    private boolean runsHighlighted;
+    private List<Item> ingredients = new ArrayList<>();
+    private int[] selectedIndices = new int[0];
+    private List<Item> leftGroup = new ArrayList<>();
+    private List<Item> rightGroup = new ArrayList<>();
+    private boolean leftGroupSorted;
+    private boolean rightGroupSorted;
+    private String leftPotionType;
+    private String rightPotionType;
+    private String craftedPotion;
+
+    /**
+     * Constructor
+     */
+    public SessionSnapshot(int level, int phase) {
+        this.level = level;
+        this.phase = phase;
+    }
+
+    // Getters and setters
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public boolean isRunsHighlighted() {
+        return runsHighlighted;
+    }
+
+    public void setRunsHighlighted(boolean runsHighlighted) {
+        this.runsHighlighted = runsHighlighted;
+    }
+
+    /**
+     * Ingredients in grid order (Phase 1)
+     */
+    public List<Item> getIngredients() {
+        return ingredients;
+    }
+
+    /**
+     * Indices into getIngredients(), in the order the player selected them
+     */
+    public int[] getSelectedIndices() {
+        return selectedIndices;
+    }
+
+    public void setSelectedIndices(int[] selectedIndices) {
+        this.selectedIndices = selectedIndices;
+    }
+
+    public List<Item> getLeftGroup() {
+        return leftGroup;
+    }
+
+    public List<Item> getRightGroup() {
+        return rightGroup;
+    }
+
+    public boolean isLeftGroupSorted() {
+        return leftGroupSorted;
+    }
+
+    public boolean isRightGroupSorted() {
+        return rightGroupSorted;
+    }
+
+    public void setGroupsSorted(boolean leftGroupSorted, boolean rightGroupSorted) {
+        this.leftGroupSorted = leftGroupSorted;
+        this.rightGroupSorted = rightGroupSorted;
+    }
+
+    public String getLeftPotionType() {
+        return leftPotionType;
+    }
+
+    public String getRightPotionType() {
+        return rightPotionType;
+    }
+
+    public void setPotionTypes(String leftPotionType, String rightPotionType) {
+        this.leftPotionType = leftPotionType;
+        this.rightPotionType = rightPotionType;
+    }
+
+    public String getCraftedPotion() {
+        return craftedPotion;
+    }
+
+    public void setCraftedPotion(String craftedPotion) {
+        this.craftedPotion = craftedPotion;
+    }
+
+    /**
+     * Encode the snapshot: magic, version, payload length, payload, CRC32
+     */
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(payloadBytes);
+
+        out.writeByte(level);
+        out.writeByte(phase);
+        out.writeBoolean(runsHighlighted);
+        writeItems(out, ingredients);
+        out.writeByte(selectedIndices.length);
+        for (int index : selectedIndices) {
+            out.writeByte(index);
+        }
+        writeItems(out, leftGroup);
+        writeItems(out, rightGroup);
+        out.writeBoolean(leftGroupSorted);
+        out.writeBoolean(rightGroupSorted);
+        writeOptionalString(out, leftPotionType);
+        writeOptionalString(out, rightPotionType);
+        writeOptionalString(out, craftedPotion);
+        out.flush();
+
+        byte[] payload = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteArrayOutputStream fileBytes = new ByteArrayOutputStream(payload.length + 20);
+        DataOutputStream file = new DataOutputStream(fileBytes);
+        file.writeInt(SNAPSHOT_MAGIC);
+        file.writeInt(SNAPSHOT_VERSION);
+        file.writeInt(payload.length);
+        file.write(payload);
+        file.writeLong(crc.getValue());
+        file.flush();
+        return fileBytes.toByteArray();
+    }
+
+    /**
+     * Decode and validate a snapshot written by encode()
+     */
+    public static SessionSnapshot decode(byte[] data) throws IOException {
+        DataInputStream file = new DataInputStream(new ByteArrayInputStream(data));
+        if (file.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a session snapshot");
+        }
+        int version = file.readInt();
+        if (version < 1 || version > SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        int length = file.readInt();
+        if (length < 0 || length > data.length - 20) {
+            throw new IOException("Invalid payload length: " + length);
+        }
+        byte[] payload = new byte[length];
+        file.readFully(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (crc.getValue() != file.readLong()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        SessionSnapshot snapshot = new SessionSnapshot(in.readUnsignedByte(), in.readUnsignedByte());
+        snapshot.runsHighlighted = in.readBoolean();
+        readItems(in, snapshot.ingredients);
+        int[] selected = new int[in.readUnsignedByte()];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = in.readUnsignedByte();
+            if (selected[i] >= snapshot.ingredients.size()) {
+                throw new IOException("Selected index out of range: " + selected[i]);
+            }
+        }
+        snapshot.selectedIndices = selected;
+        readItems(in, snapshot.leftGroup);
+        readItems(in, snapshot.rightGroup);
+        snapshot.leftGroupSorted = in.readBoolean();
+        snapshot.rightGroupSorted = in.readBoolean();
+        snapshot.leftPotionType = readOptionalString(in);
+        snapshot.rightPotionType = readOptionalString(in);
+        snapshot.craftedPotion = readOptionalString(in);
+        return snapshot;
+    }
+
+    private static void writeItems(DataOutputStream out, List<Item> items) throws IOException {
+        out.writeByte(items.size());
+        for (Item item : items) {
+            out.writeShort(item.getValue());
+            writeOptionalString(out, item.getColor());
+            writeOptionalString(out, item.getPotionType());
+            writeOptionalString(out, item.getIngredientName());
+            out.writeShort(item.getX());
+            out.writeShort(item.getY());
+        }
+    }
+
+    private static void readItems(DataInputStream in, List<Item> items) throws IOException {
+        int count = in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            int value = in.readShort();
+            String color = readOptionalString(in);
+            String potionType = readOptionalString(in);
+            String ingredientName = readOptionalString(in);
+            int x = in.readShort();
+            int y = in.readShort();
+            items.add(new Item(value, color, potionType, ingredientName, x, y));
+        }
+    }
+
+    private static void writeOptionalString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readOptionalString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static File getFile(int level) {
+        return new File(FILE_PREFIX + level + FILE_SUFFIX);
+    }
+
+    /**
+     * Write this snapshot in the background. Called on every change, so a
+     * snapshot identical to the last one written for the level is skipped.
+     */
+    public void save() {
+        if (level < 1 || level >= lastWritten.length) {
+            return;
+        }
+        final byte[] data;
+        try {
+            data = encode();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to encode session snapshot", e);
+            return;
+        }
+
+        synchronized (lastWritten) {
+            if (Arrays.equals(lastWritten[level], data)) {
+                return;
+            }
+            lastWritten[level] = data;
+        }
+
+        final int snapshotLevel = level;
+        WRITER.execute(() -> {
+            File file = getFile(snapshotLevel);
+            File tempFile = new File(file.getPath() + ".tmp");
+            try {
+                Files.write(tempFile.toPath(), data);
+                Files.move(tempFile.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to write session snapshot", e);
+            }
+        });
+    }
+
+    /**
+     * Load the snapshot for a game level (null if none or invalid)
+     */
+    public static SessionSnapshot load(int level) {
+        // Let queued writes and deletes land first, so a discarded snapshot can't come back
+        flush();
+        File file = getFile(level);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            byte[] data = Files.readAllBytes(file.toPath());
+            SessionSnapshot snapshot = decode(data);
+            if (snapshot.getLevel() != level || snapshot.getPhase() < 1 || snapshot.getPhase() > 3) {
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Ignoring invalid session snapshot: " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Block until every write and delete queued so far has finished (e.g. before exiting)
+     */
+    public static void flush() {
+        try {
+            WRITER.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Session snapshot writer failed", e);
+        }
+    }
+
+    /**
+     * Discard the snapshot for a game level (level restarted or finished)
+     */
+    public static void delete(int level) {
+        if (level < 1 || level >= lastWritten.length) {
+            return;
+        }
+        synchronized (lastWritten) {
+            lastWritten[level] = null;
+        }
+        // Queue behind any pending write so it can't recreate the file
+        WRITER.execute(() -> {
+            File file = getFile(level);
+            if (file.exists() && !file.delete()) {
+                LOGGER.warning("Could not delete session snapshot: " + file);
+            }
+        });
+    }
+
+    /**
+     * Discard the snapshots for every game level, returning once the files are gone
+     */
+    public static void deleteAll() {
+        for (int level = 1; level < lastWritten.length; level++) {
+            delete(level);
+        }
+        flush();
+    }
+}
@@ -0,0 +1,261 @@
+package gameproject.model;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of whether an arrangement solves a level as items are moved,
+ * instead of rescanning the board on every check.
+ *
+ * The validator holds the current values and a running count of descending
+ * adjacent pairs. Whether the items are the level's items is checked once
+ * on creation (moves can't change that), so the board is solved exactly
+ * when no descending pair is left. A swap updates the count in O(1); a
+ * move shifts the items in between, so it costs O(distance) like the
+ * shift itself. Reversals and run merges (the Merge Sort and TimSort moves)
+ * recount only the range they rearrange.
+ *
+ * TimSort combination rules: with a run length, the board is also split
+ * into consecutive runs of that many items (the combinations TimSort
+ * builds before merging). The descending pairs inside runs are counted
+ * separately, so "every run is in order" (the runs phase) can be checked
+ * as instantly as "the whole board is in order" (the merge phase).
+ */
+public class SolutionValidator {
+    private final int[] values;
+    private final int runLength;      // 0 = no runs phase
+    private final boolean sameItems;  // the values are a rearrangement of the target
+    private int descents;             // adjacent pairs with values[i] > values[i + 1]
+    private int runDescents;          // ...of which inside a run
+
+    /**
+     * Constructor
+     *
+     * @param current the arrangement on the board
+     * @param target the solved arrangement (only its items matter: any sorted order of them is accepted)
+     * @param runLength items per TimSort run, or 0 to check the whole board only
+     */
+    public SolutionValidator(int[] current, int[] target, int runLength) {
+        if (runLength < 0) {
+            throw new IllegalArgumentException("Run length can't be negative: " + runLength);
+        }
+        this.values = current.clone();
+        this.runLength = runLength;
+
+        int[] currentItems = current.clone();
+        int[] targetItems = target.clone();
+        Arrays.sort(currentItems);
+        Arrays.sort(targetItems);
+        this.sameItems = Arrays.equals(currentItems, targetItems);
+
+        for (int i = 0; i + 1 < values.length; i++) {
+            countPair(i, 1);
+        }
+    }
+
+    /**
+     * Validator for a level: the whole board must end up sorted, with the level's items
+     */
+    public static SolutionValidator forLevel(LevelConfig level, int[] current) {
+        return new SolutionValidator(current, level.getTargetArray(), 0);
+    }
+
+    /**
+     * Swap the items at i and j
+     */
+    public void swap(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        if (i == j) {
+            return;
+        }
+        int low = Math.min(i, j);
+        int high = Math.max(i, j);
+        // The pairs touching either position (the shared one once when they're neighbours)
+        countPair(low - 1, -1);
+        countPair(low, -1);
+        if (high - 1 > low) {
+            countPair(high - 1, -1);
+        }
+        countPair(high, -1);
+
+        int swap = values[i];
+        values[i] = values[j];
+        values[j] = swap;
+
+        countPair(low - 1, 1);
+        countPair(low, 1);
+        if (high - 1 > low) {
+            countPair(high - 1, 1);
+        }
+        countPair(high, 1);
+    }
+
+    /**
+     * Take the item at from and reinsert it so it ends up at to (like
+     * list.add(to, list.remove(from)))
+     */
+    public void move(int from, int to) {
+        checkIndex(from);
+        checkIndex(to);
+        if (from == to) {
+            return;
+        }
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        for (int i = low - 1; i <= high; i++) {
+            countPair(i, -1);
+        }
+
+        int item = values[from];
+        if (from < to) {
+            System.arraycopy(values, from + 1, values, from, to - from);
+        } else {
+            System.arraycopy(values, to, values, to + 1, from - to);
+        }
+        values[to] = item;
+
+        for (int i = low - 1; i <= high; i++) {
+            countPair(i, 1);
+        }
+    }
+
+    /**
+     * Reverse the items from..to - 1 (a TimSort move on a descending stretch)
+     */
+    public void reverse(int from, int to) {
+        checkIndex(from);
+        checkIndex(to - 1);
+        for (int i = from - 1; i < to; i++) {
+            countPair(i, -1);
+        }
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        for (int i = from - 1; i < to; i++) {
+            countPair(i, 1);
+        }
+    }
+
+    /**
+     * Merge the non-descending run containing index with the run after it
+     *
+     * @return false if it is the last run
+     */
+    public boolean mergeWithNextRun(int index) {
+        int start = getSortedRunStart(index);
+        int middle = getSortedRunEnd(index);
+        if (middle >= values.length) {
+            return false;
+        }
+        int end = getSortedRunEnd(middle);
+        for (int i = start - 1; i < end; i++) {
+            countPair(i, -1);
+        }
+        Arrays.sort(values, start, end);
+        for (int i = start - 1; i < end; i++) {
+            countPair(i, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Whether items from..to - 1 (at least two) are strictly descending
+     */
+    public boolean isStrictlyDescending(int from, int to) {
+        checkIndex(from);
+        checkIndex(to - 1);
+        if (to - from < 2) {
+            return false;
+        }
+        for (int i = from + 1; i < to; i++) {
+            if (values[i] >= values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * First index of the non-descending run containing index
+     */
+    public int getSortedRunStart(int index) {
+        checkIndex(index);
+        int start = index;
+        while (start > 0 && values[start - 1] <= values[start]) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * One past the last index of the non-descending run containing index
+     */
+    public int getSortedRunEnd(int index) {
+        checkIndex(index);
+        int end = index + 1;
+        while (end < values.length && values[end - 1] <= values[end]) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Add (sign 1) or remove (sign -1) the pair (i, i + 1) from the counts
+     */
+    private void countPair(int i, int sign) {
+        if (i < 0 || i + 1 >= values.length || values[i] <= values[i + 1]) {
+            return;
+        }
+        descents += sign;
+        if (runLength > 0 && (i + 1) % runLength != 0) {
+            runDescents += sign;
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= values.length) {
+            throw new IndexOutOfBoundsException("Index " + i + " for " + values.length + " items");
+        }
+    }
+
+    /**
+     * True when the board holds the level's items in sorted order
+     */
+    public boolean isSolved() {
+        return sameItems && descents == 0;
+    }
+
+    /**
+     * True when every run of the TimSort runs phase is in order (the whole board if there are no runs)
+     */
+    public boolean areRunsSorted() {
+        return sameItems && (runLength > 0 ? runDescents == 0 : descents == 0);
+    }
+
+    /**
+     * Whether the board holds exactly the level's items
+     */
+    public boolean hasSameItems() {
+        return sameItems;
+    }
+
+    /**
+     * Descending adjacent pairs left on the board
+     */
+    public int getDescents() {
+        return descents;
+    }
+
+    /**
+     * Descending adjacent pairs left inside runs
+     */
+    public int getRunDescents() {
+        return runLength > 0 ? runDescents : descents;
+    }
+
+    public int[] getValues() {
+        return values.clone();
+    }
+}
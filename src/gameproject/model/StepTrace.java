@@ -0,0 +1,170 @@
+package gameproject.model;
+
+import java.util.Arrays;
+
+/**
+ * Undo/redo history of the merges made on a large array, stored as deltas
+ * in growable primitive arrays.
+ *
+ * A step only keeps its boundaries (start, middle, end) and the values it
+ * overwrote in the range it actually changed, so a merge of two runs that
+ * barely overlap costs a few ints instead of a copy of the array. Redo
+ * doesn't need the new values: merging the same range again is enough, so
+ * undone steps keep their boundaries and give their old values back.
+ *
+ * The stored values are capped: once a new step would go over the budget,
+ * the oldest steps are dropped and can no longer be undone. The newest step
+ * is always kept, even if it alone is larger than the budget.
+ */
+public class StepTrace {
+    private static final int FIELDS = 5; // start, middle, end, changedStart, dataOffset
+
+    private final int maxStoredValues;
+    private int[] steps = new int[FIELDS * 16];
+    private int[] data = new int[256];
+    private int size;       // steps recorded (applied and undone)
+    private int position;   // steps applied; steps position..size - 1 can be redone
+    private int dataSize;
+    private int dropped;    // oldest applied steps dropped to stay within the budget
+
+    /**
+     * @param maxStoredValues ints kept for undo before the oldest steps are dropped
+     */
+    public StepTrace(int maxStoredValues) {
+        this.maxStoredValues = maxStoredValues;
+    }
+
+    /**
+     * Record a merge of values[start..middle - 1] and values[middle..end - 1]
+     * that is about to overwrite values[changedStart..changedEnd - 1]; any
+     * undone steps are dropped
+     */
+    public void record(int[] values, int start, int middle, int end, int changedStart, int changedEnd) {
+        int changed = changedEnd - changedStart;
+        makeRoom(changed);
+        if (position * FIELDS + FIELDS > steps.length) {
+            steps = Arrays.copyOf(steps, steps.length * 2);
+        }
+        int s = position * FIELDS;
+        steps[s] = start;
+        steps[s + 1] = middle;
+        steps[s + 2] = end;
+        steps[s + 3] = changedStart;
+        steps[s + 4] = dataSize;
+        System.arraycopy(values, changedStart, data, dataSize, changed);
+        dataSize += changed;
+        position++;
+        size = position;
+    }
+
+    /**
+     * Put back the values the last applied step overwrote
+     *
+     * @return index of the undone step (read its boundaries with getStart etc.), or -1
+     */
+    public int undo(int[] values) {
+        if (position == 0) {
+            return -1;
+        }
+        position--;
+        int s = position * FIELDS;
+        int offset = steps[s + 4];
+        System.arraycopy(data, offset, values, steps[s + 3], dataSize - offset);
+        dataSize = offset;
+        return position;
+    }
+
+    /**
+     * Step to redo next, or -1; the caller merges its range again and calls
+     * record() with the same boundaries, which keeps the later undone steps
+     */
+    public int peekRedo() {
+        return position < size ? position : -1;
+    }
+
+    /**
+     * Record the redo of the next undone step (its old values, as record() does)
+     */
+    public void recordRedo(int[] values, int changedStart, int changedEnd) {
+        int changed = changedEnd - changedStart;
+        makeRoom(changed);
+        int s = position * FIELDS;
+        steps[s + 3] = changedStart;
+        steps[s + 4] = dataSize;
+        System.arraycopy(values, changedStart, data, dataSize, changed);
+        dataSize += changed;
+        position++;
+    }
+
+    /**
+     * Drop the oldest applied steps until `changed` more values fit in the
+     * budget, then make sure the data array can hold them
+     */
+    private void makeRoom(int changed) {
+        int keepFrom = 0;
+        int offset = 0;
+        while (keepFrom < position && dataSize - offset + changed > maxStoredValues) {
+            keepFrom++;
+            offset = keepFrom < position ? steps[keepFrom * FIELDS + 4] : dataSize;
+        }
+        if (keepFrom > 0) {
+            System.arraycopy(data, offset, data, 0, dataSize - offset);
+            dataSize -= offset;
+            System.arraycopy(steps, keepFrom * FIELDS, steps, 0, (size - keepFrom) * FIELDS);
+            for (int i = 0; i < position - keepFrom; i++) {
+                steps[i * FIELDS + 4] -= offset;
+            }
+            position -= keepFrom;
+            size -= keepFrom;
+            dropped += keepFrom;
+        }
+
+        int needed = dataSize + changed;
+        if (needed > data.length) {
+            // Grow geometrically, but not past the budget unless one step needs it
+            int capacity = Math.min(Math.max(data.length * 2, needed), Math.max(maxStoredValues, needed));
+            data = Arrays.copyOf(data, capacity);
+        }
+    }
+
+    public int getStart(int step) {
+        return steps[step * FIELDS];
+    }
+
+    public int getMiddle(int step) {
+        return steps[step * FIELDS + 1];
+    }
+
+    public int getEnd(int step) {
+        return steps[step * FIELDS + 2];
+    }
+
+    /**
+     * Steps currently applied, including those too old to undo
+     */
+    public int getPosition() {
+        return dropped + position;
+    }
+
+    public boolean canUndo() {
+        return position > 0;
+    }
+
+    public boolean canRedo() {
+        return position < size;
+    }
+
+    /**
+     * Ints held for undo (the size of the deltas, not of the array)
+     */
+    public int getStoredValues() {
+        return dataSize;
+    }
+
+    public void clear() {
+        size = 0;
+        position = 0;
+        dataSize = 0;
+        dropped = 0;
+    }
+}
@@ -0,0 +1,350 @@
+package gameproject.service;
+
+import gameproject.util.GameConstants;
+import gameproject.util.QuantileSketch;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tunes generated levels to the player, from the outcomes of their attempts.
+ *
+ * For every difficulty it keeps, in constant memory:
+ * - quantile sketches of the time and of the steps per item that
+ *   successful attempts took
+ * - success and failure counts
+ * - a difficulty knob between 0 (easiest) and 1 (hardest)
+ *
+ * Each outcome moves the knob by a fixed gain: up by (1 - target) after a
+ * success, down by target after a failure. The knob only settles where
+ * successes happen at the target rate, and every update is O(1) (plus
+ * the sketch's bounded merge). The knob picks the generated array size
+ * and how presorted it is; the time sketch turns into time limits that
+ * the player's successful attempts would mostly have met.
+ *
+ * Everything stays on the device, in one small file. It is rewritten off
+ * the EDT after an outcome, and outcomes that arrive while a rewrite is
+ * still queued share it.
+ */
+public class DifficultyCalibrator {
+    private static final Logger LOGGER = Logger.getLogger(DifficultyCalibrator.class.getName());
+    private static final String SAVE_FILE = "smartsortstory_calibration.dat";
+    private static final int FILE_MAGIC = 0x53534443; // "SSDC"
+    private static final int FORMAT_VERSION = 1;
+
+    // Share of attempts the player should win, and how far one outcome moves the knob
+    public static final double TARGET_SUCCESS_RATE = 0.7;
+    private static final double GAIN = 0.05;
+    private static final double INITIAL_KNOB = 0.5;
+    private static final double SKETCH_COMPRESSION = 100;
+
+    // Time limits come from this quantile of successful attempts, with some slack,
+    // once there are enough of them
+    private static final double BUDGET_QUANTILE = 0.9;
+    private static final double BUDGET_SLACK = 1.25;
+    private static final int MIN_SAMPLES = 10;
+
+    // Array size and disorder (share of a shuffle's inversions) from the easiest to the hardest knob setting
+    private static final int[] MIN_SIZE = {5, 8, 12};
+    private static final int[] MAX_SIZE = {14, 24, 40};
+    private static final double[] MIN_DISORDER = {0.1, 0.3, 0.5};
+    private static final double[] MAX_DISORDER = {0.5, 0.8, 1.0};
+
+    // Saves run here, one at a time
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "calibration-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static DifficultyCalibrator instance;
+
+    private final File file;
+    private final Stats[] stats = new Stats[GameConstants.DIFFICULTY_LEVELS.length];
+    private boolean saveQueued;
+
+    /**
+     * Aggregated outcomes for one difficulty
+     */
+    private static class Stats {
+        QuantileSketch seconds = new QuantileSketch(SKETCH_COMPRESSION);
+        QuantileSketch stepsPerItem = new QuantileSketch(SKETCH_COMPRESSION);
+        long successes;
+        long failures;
+        double knob = INITIAL_KNOB;
+    }
+
+    /**
+     * Size and presortedness for a generated level
+     */
+    public static class Setting {
+        private final int size;
+        private final double disorder;
+
+        public Setting(int size, double disorder) {
+            this.size = size;
+            this.disorder = disorder;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * 0 for sorted input, 1 for as many inversions as a random shuffle
+         */
+        public double getDisorder() {
+            return disorder;
+        }
+    }
+
+    private DifficultyCalibrator(File file) {
+        this.file = file;
+        for (int d = 0; d < stats.length; d++) {
+            stats[d] = new Stats();
+        }
+    }
+
+    /**
+     * Get singleton instance (loaded from the save file)
+     */
+    public static synchronized DifficultyCalibrator getInstance() {
+        if (instance == null) {
+            instance = open(new File(SAVE_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Calibrator backed by a specific file (used by tools)
+     */
+    public static DifficultyCalibrator open(File file) {
+        DifficultyCalibrator calibrator = new DifficultyCalibrator(file);
+        if (file.exists()) {
+            try {
+                calibrator.load();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Ignoring unreadable calibration file " + file, e);
+                for (int d = 0; d < calibrator.stats.length; d++) {
+                    calibrator.stats[d] = new Stats();
+                }
+            }
+        }
+        return calibrator;
+    }
+
+    private static int difficultyIndex(String difficulty) {
+        for (int d = 0; d < GameConstants.DIFFICULTY_LEVELS.length; d++) {
+            if (GameConstants.DIFFICULTY_LEVELS[d].equals(difficulty)) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Record a finished attempt
+     *
+     * @param items size of the level's array (steps are compared per item)
+     */
+    public synchronized void recordSuccess(String difficulty, long elapsedMillis, int steps, int items) {
+        int d = difficultyIndex(difficulty);
+        if (d < 0) {
+            return;
+        }
+        Stats s = stats[d];
+        s.successes++;
+        s.seconds.add(elapsedMillis / 1000.0);
+        if (items > 0) {
+            s.stepsPerItem.add((double) steps / items);
+        }
+        s.knob = Math.min(1, s.knob + GAIN * (1 - TARGET_SUCCESS_RATE));
+        scheduleSave();
+    }
+
+    /**
+     * Record an attempt that ran out of time or steps
+     */
+    public synchronized void recordFailure(String difficulty) {
+        int d = difficultyIndex(difficulty);
+        if (d < 0) {
+            return;
+        }
+        Stats s = stats[d];
+        s.failures++;
+        s.knob = Math.max(0, s.knob - GAIN * TARGET_SUCCESS_RATE);
+        scheduleSave();
+    }
+
+    /**
+     * Array size and disorder for the next generated level; levelNumber varies
+     * the size a little so consecutive levels differ
+     */
+    public synchronized Setting getSetting(String difficulty, int levelNumber) {
+        int d = Math.max(0, difficultyIndex(difficulty));
+        double knob = stats[d].knob;
+        int size = (int) Math.round(MIN_SIZE[d] + knob * (MAX_SIZE[d] - MIN_SIZE[d]))
+                + Math.floorMod(levelNumber, 5) - 2;
+        double disorder = MIN_DISORDER[d] + knob * (MAX_DISORDER[d] - MIN_DISORDER[d]);
+        return new Setting(Math.max(2, size), disorder);
+    }
+
+    /**
+     * Generator spec for a calibrated level
+     */
+    public LevelGenerator.Spec createSpec(String difficulty, int levelNumber) {
+        Setting setting = getSetting(difficulty, levelNumber);
+        long shuffledInversions = (long) setting.getSize() * (setting.getSize() - 1) / 4;
+        return new LevelGenerator.Spec()
+                .size(setting.getSize())
+                .inversions(Math.round(shuffledInversions * setting.getDisorder()))
+                .level(difficulty, levelNumber);
+    }
+
+    /**
+     * Time limit that most successful attempts met, or defaultSeconds until there is enough data
+     * (0 stays 0: levels without a limit keep none)
+     */
+    public synchronized int getTimeLimitSeconds(String difficulty, int defaultSeconds) {
+        int d = difficultyIndex(difficulty);
+        if (d < 0 || defaultSeconds <= 0 || stats[d].seconds.getCount() < MIN_SAMPLES) {
+            return defaultSeconds;
+        }
+        return (int) Math.ceil(stats[d].seconds.quantile(BUDGET_QUANTILE) * BUDGET_SLACK);
+    }
+
+    public synchronized double getKnob(String difficulty) {
+        int d = difficultyIndex(difficulty);
+        return d < 0 ? INITIAL_KNOB : stats[d].knob;
+    }
+
+    /**
+     * Share of recorded attempts that succeeded (NaN before any)
+     */
+    public synchronized double getSuccessRate(String difficulty) {
+        int d = difficultyIndex(difficulty);
+        long total = d < 0 ? 0 : stats[d].successes + stats[d].failures;
+        return total == 0 ? Double.NaN : (double) stats[d].successes / total;
+    }
+
+    /**
+     * Estimated time (seconds) successful attempts take at quantile q, NaN before any
+     */
+    public synchronized double getTimeQuantile(String difficulty, double q) {
+        int d = difficultyIndex(difficulty);
+        return d < 0 ? Double.NaN : stats[d].seconds.quantile(q);
+    }
+
+    /**
+     * Estimated steps per item successful attempts take at quantile q, NaN before any
+     */
+    public synchronized double getStepsPerItemQuantile(String difficulty, double q) {
+        int d = difficultyIndex(difficulty);
+        return d < 0 ? Double.NaN : stats[d].stepsPerItem.quantile(q);
+    }
+
+    /**
+     * One-line summary for logs
+     */
+    public synchronized String describe(String difficulty) {
+        if (Double.isNaN(getSuccessRate(difficulty))) {
+            return String.format("%s: knob %.2f, no attempts yet", difficulty, getKnob(difficulty));
+        }
+        if (Double.isNaN(getTimeQuantile(difficulty, 0.5))) {
+            return String.format("%s: knob %.2f, no successful attempts yet", difficulty, getKnob(difficulty));
+        }
+        return String.format("%s: knob %.2f, success rate %.0f%%, median %.1f s, median %.2f steps per item",
+                difficulty, getKnob(difficulty), getSuccessRate(difficulty) * 100,
+                getTimeQuantile(difficulty, 0.5), getStepsPerItemQuantile(difficulty, 0.5));
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognized calibration file");
+            }
+            int difficulties = in.readInt();
+            for (int d = 0; d < difficulties; d++) {
+                Stats s = new Stats();
+                s.successes = in.readLong();
+                s.failures = in.readLong();
+                s.knob = Math.min(1, Math.max(0, in.readDouble()));
+                s.seconds = QuantileSketch.read(in);
+                s.stepsPerItem = QuantileSketch.read(in);
+                if (d < stats.length) {
+                    stats[d] = s;
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue a save unless one is already waiting (it will include this outcome)
+     */
+    private void scheduleSave() {
+        if (!saveQueued) {
+            saveQueued = true;
+            WRITER.execute(this::save);
+        }
+    }
+
+    /**
+     * Block until the queued saves have been written (e.g. before exiting)
+     */
+    public void flush() {
+        try {
+            WRITER.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Calibration writer failed", e);
+        }
+    }
+
+    /**
+     * Encode everything under the lock, then write it to a temporary file
+     * and move that over the save file (on the writer thread)
+     */
+    private void save() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        synchronized (this) {
+            saveQueued = false;
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(stats.length);
+                for (Stats s : stats) {
+                    out.writeLong(s.successes);
+                    out.writeLong(s.failures);
+                    out.writeDouble(s.knob);
+                    s.seconds.write(out);
+                    s.stepsPerItem.write(out);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to encode calibration", e);
+                return;
+            }
+        }
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            Files.write(tempFile.toPath(), bytes.toByteArray());
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save calibration to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package gameproject.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Clock and step counter for one attempt at a level, enforcing the level's
+ * time limit and step budget.
+ *
+ * Time is measured with System.nanoTime, which is monotonic: elapsed time
+ * is the sum of the running spans, each taken from two clock readings, so
+ * it never drifts and paused spans (pause menu, dialogues) are left out
+ * exactly. Nothing ticks in the background: the time budget is checked
+ * when the clock is read or polled, and getNanosUntilTimeLimit tells a
+ * view when to look next. Each budget fires its listeners once, when it
+ * is first exceeded.
+ *
+ * Like the rest of the UI state, a clock is used from the EDT only.
+ */
+public class GameClock {
+    /**
+     * The budgets a level can set
+     */
+    public enum Budget {
+        TIME,
+        STEPS
+    }
+
+    /**
+     * Notified once when a budget runs out
+     */
+    public interface BudgetListener {
+        void budgetExceeded(Budget budget);
+    }
+
+    private final long timeLimitNanos;  // 0 = no time limit
+    private final int maxSteps;         // 0 = no step budget
+    private final LongSupplier nanoTime;
+    private final List<BudgetListener> listeners = new ArrayList<>();
+
+    private long elapsedNanos;          // time of the finished running spans
+    private long runningSince;          // start of the current span
+    private boolean running;
+    private boolean stopped;
+    private int steps;
+    private boolean timeExceeded;
+    private boolean stepsExceeded;
+
+    /**
+     * @param timeLimitSeconds time limit, or 0 for none
+     * @param maxSteps step budget, or 0 for none
+     */
+    public GameClock(int timeLimitSeconds, int maxSteps) {
+        this(timeLimitSeconds, maxSteps, System::nanoTime);
+    }
+
+    GameClock(int timeLimitSeconds, int maxSteps, LongSupplier nanoTime) {
+        this.timeLimitNanos = Math.max(0, timeLimitSeconds) * 1_000_000_000L;
+        this.maxSteps = Math.max(0, maxSteps);
+        this.nanoTime = nanoTime;
+    }
+
+    public void addBudgetListener(BudgetListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeBudgetListener(BudgetListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start (or continue) timing; does nothing once the clock is stopped
+     */
+    public void start() {
+        if (!running && !stopped) {
+            runningSince = nanoTime.getAsLong();
+            running = true;
+        }
+    }
+
+    /**
+     * Stop counting time until resume(); pausing twice is the same as once
+     */
+    public void pause() {
+        if (running) {
+            elapsedNanos += nanoTime.getAsLong() - runningSince;
+            running = false;
+            poll();
+        }
+    }
+
+    public void resume() {
+        start();
+    }
+
+    /**
+     * Freeze the clock for good (the attempt is over)
+     */
+    public void stop() {
+        pause();
+        stopped = true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Running time so far, not counting pauses
+     */
+    public long getElapsedNanos() {
+        return running ? elapsedNanos + nanoTime.getAsLong() - runningSince : elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1_000_000L;
+    }
+
+    public boolean hasTimeLimit() {
+        return timeLimitNanos > 0;
+    }
+
+    /**
+     * Time left before the limit (0 once it has passed), or Long.MAX_VALUE without a limit
+     */
+    public long getNanosUntilTimeLimit() {
+        return timeLimitNanos > 0 ? Math.max(0, timeLimitNanos - getElapsedNanos()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Count one player move against the step budget
+     */
+    public void recordStep() {
+        steps++;
+        if (maxSteps > 0 && steps > maxSteps && !stepsExceeded) {
+            stepsExceeded = true;
+            fire(Budget.STEPS);
+        }
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Moves left in the budget (never negative), or Integer.MAX_VALUE without one
+     */
+    public int getRemainingSteps() {
+        return maxSteps > 0 ? Math.max(0, maxSteps - steps) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Check the time limit now, firing the listeners if it has just run out
+     *
+     * @return whether any budget has been exceeded
+     */
+    public boolean poll() {
+        if (timeLimitNanos > 0 && !timeExceeded && getElapsedNanos() >= timeLimitNanos) {
+            timeExceeded = true;
+            fire(Budget.TIME);
+        }
+        return isBudgetExceeded();
+    }
+
+    public boolean isBudgetExceeded() {
+        return timeExceeded || stepsExceeded;
+    }
+
+    public boolean isTimeExceeded() {
+        return timeExceeded;
+    }
+
+    public boolean isStepsExceeded() {
+        return stepsExceeded;
+    }
+
+    /**
+     * Nanoseconds until the mm:ss text of formatTime() changes (at least 1)
+     */
+    public long getNanosUntilDisplayChange() {
+        long second = 1_000_000_000L;
+        long nanos = timeLimitNanos > 0
+                ? getNanosUntilTimeLimit() % second       // counting down: when the remainder hits a whole second
+                : second - getElapsedNanos() % second;    // counting up: the next whole second
+        return nanos > 0 ? nanos : second;
+    }
+
+    /**
+     * Time left as mm:ss (rounded up, so 00:00 means time is up), or time taken without a limit
+     */
+    public String formatTime() {
+        long second = 1_000_000_000L;
+        long seconds = timeLimitNanos > 0
+                ? (getNanosUntilTimeLimit() + second - 1) / second
+                : getElapsedNanos() / second;
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private void fire(Budget budget) {
+        for (BudgetListener listener : new ArrayList<>(listeners)) {
+            listener.budgetExceeded(budget);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package gameproject.service;
+
+import gameproject.model.GameState;
+import gameproject.model.LevelConfig;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded procedural generator for levels of any size.
+ *
+ * How presorted the input is can be controlled in one of two ways:
+ * an exact inversion count (pairs out of order), or an exact number of
+ * natural ascending runs. A duplicate ratio then folds neighbouring ranks
+ * onto the same value. The level's maxSteps is the number of steps
+ * SortingService takes on the generated input, counted without building
+ * the steps, so thousands of levels per second can be generated for
+ * stress testing.
+ *
+ * The same seed and specs always produce the same levels.
+ */
+public class LevelGenerator {
+    private static final String[] THEMES = {"Forest", "Mountains", "Desert"};
+
+    private final Random random;
+    private final SortingService sortingService = new SortingService();
+
+    /**
+     * What to generate. Setting an inversion count clears the run count and
+     * vice versa; with neither set the input is a uniform random shuffle.
+     */
+    public static class Spec {
+        private int size = 10;
+        private long inversions = -1;
+        private int runs = -1;
+        private double duplicateRatio;
+        private GameState algorithm = GameState.TIMSORT_CHALLENGE;
+        private String difficulty = "Generated";
+        private int levelNumber = 1;
+
+        public Spec size(int size) {
+            if (size < 1) {
+                throw new IllegalArgumentException("Level size must be at least 1: " + size);
+            }
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Exact number of out-of-order pairs (clamped to n(n-1)/2)
+         */
+        public Spec inversions(long inversions) {
+            this.inversions = Math.max(0, inversions);
+            this.runs = -1;
+            return this;
+        }
+
+        /**
+         * Exact number of maximal ascending runs (clamped to what the size allows)
+         */
+        public Spec runs(int runs) {
+            this.runs = Math.max(1, runs);
+            this.inversions = -1;
+            return this;
+        }
+
+        /**
+         * Fraction of elements (0..1) that repeat a value already in the array.
+         * Equal neighbours may merge runs and remove inversions, so apply the
+         * exact counts to distinct values only.
+         */
+        public Spec duplicateRatio(double duplicateRatio) {
+            this.duplicateRatio = Math.max(0, Math.min(1, duplicateRatio));
+            return this;
+        }
+
+        public Spec algorithm(GameState algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        public Spec level(String difficulty, int levelNumber) {
+            this.difficulty = difficulty;
+            this.levelNumber = levelNumber;
+            return this;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public GameState getAlgorithm() {
+            return algorithm;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param seed seed for every random choice the generator makes
+     */
+    public LevelGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generate a level; maxSteps is the step count of the spec's algorithm on the input
+     */
+    public LevelConfig generate(Spec spec) {
+        int[] values = generateArray(spec);
+        return new LevelConfig(
+            spec.difficulty,
+            spec.levelNumber,
+            spec.algorithm,
+            instructionFor(spec.algorithm, values.length),
+            values,
+            countSteps(spec.algorithm, values),
+            hintFor(spec.algorithm),
+            THEMES[random.nextInt(THEMES.length)],
+            5
+        );
+    }
+
+    /**
+     * Generate just the input values (1..number of distinct values)
+     */
+    public int[] generateArray(Spec spec) {
+        int n = spec.size;
+        int[] ranks;
+        if (spec.inversions >= 0) {
+            ranks = permutationWithInversions(n, spec.inversions);
+        } else if (spec.runs > 0) {
+            ranks = permutationWithRuns(n, spec.runs);
+        } else {
+            ranks = identity(n);
+            shuffle(ranks);
+        }
+
+        // Map ranks onto values: with duplicates, runs of consecutive ranks share a value
+        int distinct = (int) Math.max(1, Math.round(n * (1 - spec.duplicateRatio)));
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = 1 + (int) ((long) ranks[i] * distinct / n);
+        }
+        return values;
+    }
+
+    /**
+     * Steps SortingService takes to sort the values with the given algorithm
+     */
+    public int countSteps(GameState algorithm, int[] values) {
+        switch (algorithm) {
+            case INSERTION_SORT_CHALLENGE:
+                return sortingService.countInsertionSortSteps(values);
+            case MERGE_SORT_CHALLENGE:
+                return sortingService.countMergeSortSteps(values);
+            default:
+                return sortingService.countTimSortSteps(values);
+        }
+    }
+
+    /**
+     * Number of maximal non-descending runs in the values
+     */
+    public static int countRuns(int[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        int runs = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * A permutation of 0..n-1 with exactly k inversions.
+     *
+     * Builds an inversion table (rank i is preceded by c[i] larger ranks,
+     * 0 <= c[i] <= i, sum k) and decodes it by inserting each rank in turn
+     * c[i] places from the end. Small k means short moves, so nearly sorted
+     * arrays decode in close to linear time.
+     */
+    private int[] permutationWithInversions(int n, long k) {
+        long maxInversions = (long) n * (n - 1) / 2;
+        long remaining = Math.min(k, maxInversions);
+
+        // Spread k over the table: from the top down, keep enough for the lower ranks to absorb
+        int[] table = new int[n];
+        for (int i = n - 1; i > 0 && remaining > 0; i--) {
+            long lowerCapacity = (long) i * (i - 1) / 2;
+            long min = Math.max(0, remaining - lowerCapacity);
+            long max = Math.min(i, remaining);
+            table[i] = (int) (min + (long) (random.nextDouble() * (max - min + 1)));
+            table[i] = (int) Math.min(table[i], max);
+            remaining -= table[i];
+        }
+
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            int position = i - table[i];
+            System.arraycopy(permutation, position, permutation, position + 1, i - position);
+            permutation[position] = i;
+        }
+        return permutation;
+    }
+
+    /**
+     * A permutation of 0..n-1 made of exactly r ascending runs (r at most n/2,
+     * so every run has at least two elements; a single run when n < 2).
+     *
+     * Ranks are dealt at random into r sorted groups; wherever one group's
+     * last rank is below the next group's first, the two are swapped. That
+     * keeps both groups sorted and turns the boundary into a descent.
+     */
+    private int[] permutationWithRuns(int n, int r) {
+        r = Math.max(1, Math.min(r, n / 2));
+        int[] permutation = identity(n);
+        if (r == 1) {
+            return permutation;
+        }
+        shuffle(permutation);
+
+        // Random run lengths, each at least 2: r-1 distinct cut points over the slack
+        int[] starts = new int[r + 1];
+        int slack = n - 2 * r;
+        int[] cuts = new int[r - 1];
+        for (int i = 0; i < cuts.length; i++) {
+            cuts[i] = random.nextInt(slack + 1);
+        }
+        Arrays.sort(cuts);
+        for (int g = 1; g < r; g++) {
+            starts[g] = cuts[g - 1] + 2 * g;
+        }
+        starts[r] = n;
+
+        for (int g = 0; g < r; g++) {
+            Arrays.sort(permutation, starts[g], starts[g + 1]);
+        }
+        for (int g = 1; g < r; g++) {
+            int last = starts[g] - 1;
+            int first = starts[g];
+            if (permutation[last] < permutation[first]) {
+                int swap = permutation[last];
+                permutation[last] = permutation[first];
+                permutation[first] = swap;
+            }
+        }
+        return permutation;
+    }
+
+    private int[] identity(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    private void shuffle(int[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    private static String instructionFor(GameState algorithm, int size) {
+        switch (algorithm) {
+            case INSERTION_SORT_CHALLENGE:
+                return "Sort these " + size + " items by value using Insertion Sort. Move the smaller items to the left.";
+            case MERGE_SORT_CHALLENGE:
+                return "Sort these " + size + " items with Merge Sort: split them into halves, then merge the sorted halves.";
+            default:
+                return "Sort these " + size + " items with TimSort: find the runs that are already in order, then merge them.";
+        }
+    }
+
+    private static String hintFor(GameState algorithm) {
+        switch (algorithm) {
+            case INSERTION_SORT_CHALLENGE:
+                return "Compare each item with the ones before it and insert it in the correct position.";
+            case MERGE_SORT_CHALLENGE:
+                return "Small sorted groups are easy to merge: always take the smaller front item.";
+            default:
+                return "Look for stretches that are already in order - they don't need sorting, only merging.";
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package gameproject.service;
+
+import gameproject.model.GameState;
+import gameproject.util.GameConstants;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the fewest algorithm-legal moves that sort a level's input, and
+ * turns a player's step count into stars by comparing it to that optimum.
+ *
+ * What counts as a move depends on the level's algorithm:
+ * - Insertion Sort: take one item out and insert it anywhere. The optimum
+ *   is n minus the longest non-decreasing subsequence (exact for any n).
+ * - Merge Sort: merge two adjacent sorted runs. Every merge removes
+ *   exactly one run boundary, so the optimum is runs - 1 (exact).
+ * - TimSort: reverse a strictly descending stretch of two or more items,
+ *   or merge two adjacent non-descending runs. Reversing can save merges or cost extra moves,
+ *   so inputs up to SEARCH_LIMIT items are solved by breadth-first search
+ *   over memoized states, pruned against the greedy plan; larger inputs (or
+ *   searches that exceed the state budget) use TimSort's own greedy plan,
+ *   which is an upper bound.
+ */
+public class MoveSolver {
+    // Largest TimSort input solved exactly, and the most states one search may visit
+    public static final int SEARCH_LIMIT = 12;
+    private static final int STATE_BUDGET = 200_000;
+
+    // Player steps per optimal move that still earn 3 and 2 stars
+    private static final double THREE_STAR_RATIO = 1.25;
+    private static final double TWO_STAR_RATIO = 2.0;
+
+    // Solved inputs (TimSort search results can be expensive to repeat)
+    private final Map<String, Result> cache = new HashMap<>();
+
+    /**
+     * Minimum move count for an input, and whether it is proven optimal
+     */
+    public static class Result {
+        private final int moves;
+        private final boolean exact;
+
+        public Result(int moves, boolean exact) {
+            this.moves = moves;
+            this.exact = exact;
+        }
+
+        public int getMoves() {
+            return moves;
+        }
+
+        /**
+         * False when the count comes from the heuristic (it may be above the optimum)
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        @Override
+        public String toString() {
+            return moves + (exact ? " moves" : " moves (heuristic)");
+        }
+    }
+
+    /**
+     * Fewest moves that sort the input under the algorithm's rules
+     */
+    public synchronized Result solve(GameState algorithm, int[] input) {
+        String key = algorithm + Arrays.toString(input);
+        Result result = cache.get(key);
+        if (result == null) {
+            switch (algorithm) {
+                case INSERTION_SORT_CHALLENGE:
+                    result = new Result(new SortednessAnalytics(input).getMinimumMoves(), true);
+                    break;
+                case MERGE_SORT_CHALLENGE:
+                    result = new Result(Math.max(0, LevelGenerator.countRuns(input) - 1), true);
+                    break;
+                default:
+                    result = solveTimSort(input);
+                    break;
+            }
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Stars (1 to MAX_STARS) for finishing in the given number of steps
+     */
+    public static int starsFor(int steps, int optimalMoves) {
+        if (optimalMoves <= 0 || steps <= optimalMoves * THREE_STAR_RATIO) {
+            return GameConstants.MAX_STARS;
+        }
+        if (steps <= optimalMoves * TWO_STAR_RATIO) {
+            return GameConstants.MAX_STARS - 1;
+        }
+        return 1;
+    }
+
+    private Result solveTimSort(int[] input) {
+        int greedy = greedyTimSortMoves(input);
+        if (input.length > SEARCH_LIMIT) {
+            return new Result(greedy, false);
+        }
+        int searched = searchTimSort(input, greedy);
+        return searched >= 0 ? new Result(searched, true) : new Result(greedy, false);
+    }
+
+    /**
+     * TimSort's plan: reverse every descending run found in the input, then
+     * merge the runs that are left. Each reversed run is still descending
+     * when its turn comes, so every step is a legal move.
+     */
+    private static int greedyTimSortMoves(int[] input) {
+        int[] array = input.clone();
+        int reversals = 0;
+        int i = 0;
+        while (i < array.length) {
+            int end = descendingRunEnd(array, i);
+            if (end - i >= 2) {
+                reverse(array, i, end);
+                reversals++;
+            }
+            i = Math.max(end, i + 1);
+        }
+        // Reversals only pay off when they save merges; never plan worse than merging alone
+        return Math.min(reversals + LevelGenerator.countRuns(array) - 1,
+                LevelGenerator.countRuns(input) - 1);
+    }
+
+    /**
+     * Breadth-first search over arrangements; -1 if the state budget runs out.
+     * Only plans shorter than the greedy one are explored: an unsorted state
+     * needs at least one more move, so states that could no longer beat
+     * the greedy plan are not queued.
+     */
+    private static int searchTimSort(int[] input, int upperBound) {
+        if (LevelGenerator.countRuns(input) <= 1) {
+            return 0;
+        }
+        Map<String, Integer> depthOf = new HashMap<>();
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        depthOf.put(Arrays.toString(input), 0);
+        queue.add(input.clone());
+
+        while (!queue.isEmpty()) {
+            int[] state = queue.poll();
+            int depth = depthOf.get(Arrays.toString(state));
+            for (int[] next : timSortMoves(state)) {
+                if (LevelGenerator.countRuns(next) <= 1) {
+                    return depth + 1;
+                }
+                String key = Arrays.toString(next);
+                if (depth + 2 < upperBound && !depthOf.containsKey(key)) {
+                    if (depthOf.size() >= STATE_BUDGET) {
+                        return -1;
+                    }
+                    depthOf.put(key, depth + 1);
+                    queue.add(next);
+                }
+            }
+        }
+        // Nothing shorter than the greedy plan exists
+        return upperBound;
+    }
+
+    /**
+     * Every arrangement one TimSort move away
+     */
+    private static List<int[]> timSortMoves(int[] state) {
+        List<int[]> moves = new ArrayList<>();
+
+        // Reverse any strictly descending stretch (every part of each descending run)
+        int i = 0;
+        while (i < state.length) {
+            int end = descendingRunEnd(state, i);
+            for (int from = i; from < end - 1; from++) {
+                for (int to = from + 2; to <= end; to++) {
+                    int[] next = state.clone();
+                    reverse(next, from, to);
+                    moves.add(next);
+                }
+            }
+            i = Math.max(end, i + 1);
+        }
+
+        // Merge two adjacent non-descending runs
+        int runStart = 0;
+        int runEnd = ascendingRunEnd(state, 0);
+        while (runEnd < state.length) {
+            int nextEnd = ascendingRunEnd(state, runEnd);
+            int[] next = state.clone();
+            Arrays.sort(next, runStart, nextEnd);
+            moves.add(next);
+            runStart = runEnd;
+            runEnd = nextEnd;
+        }
+        return moves;
+    }
+
+    /**
+     * End (exclusive) of the strictly descending run starting at start
+     */
+    private static int descendingRunEnd(int[] array, int start) {
+        int end = start + 1;
+        while (end < array.length && array[end] < array[end - 1]) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * End (exclusive) of the non-descending run starting at start
+     */
+    private static int ascendingRunEnd(int[] array, int start) {
+        int end = start + 1;
+        while (end < array.length && array[end] >= array[end - 1]) {
+            end++;
+        }
+        return end;
+    }
+
+    private static void reverse(int[] array, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int t = array[i];
+            array[i] = array[j];
+            array[j] = t;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package gameproject.service;
+
+import java.util.Comparator;
+
+/**
+ * The instrumented sorting algorithms, written once against an indexed
+ * view of the items (SortEngine.Items) so int[], long[] and object arrays
+ * all share them. The primitive views compare values directly, so numeric
+ * sorting never boxes; the object view uses a Comparator.
+ *
+ * Every step is reported to a SortListener with the same indices and
+ * descriptions SortingService has always produced; step text is only
+ * built when there is a listener.
+ */
+final class SortEngine {
+    static final int RUN = 32; // Size of the subarrays TimSort sorts with insertion sort
+
+    private final Items items;
+    private final SortingService.SortListener listener;
+    private final boolean recording;
+
+    /**
+     * Items being sorted, with a scratch buffer of the same size
+     */
+    abstract static class Items {
+        abstract int size();
+
+        /** Compare item i with buffered item b */
+        abstract int compareToBuffered(int i, int b);
+
+        /** Compare buffered items a and b */
+        abstract int compareBuffered(int a, int b);
+
+        /** Item to = item from */
+        abstract void copy(int from, int to);
+
+        /** Buffer the items from start to start + length - 1 (at the same positions) */
+        abstract void save(int start, int length);
+
+        /** Item to = buffered item b */
+        abstract void restore(int b, int to);
+
+        abstract String label(int i);
+
+        abstract String bufferedLabel(int b);
+    }
+
+    static final class IntItems extends Items {
+        private final int[] array;
+        private final int[] buffer;
+
+        IntItems(int[] array) {
+            this.array = array;
+            this.buffer = new int[array.length];
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        int compareToBuffered(int i, int b) {
+            return Integer.compare(array[i], buffer[b]);
+        }
+
+        @Override
+        int compareBuffered(int a, int b) {
+            return Integer.compare(buffer[a], buffer[b]);
+        }
+
+        @Override
+        void copy(int from, int to) {
+            array[to] = array[from];
+        }
+
+        @Override
+        void save(int start, int length) {
+            System.arraycopy(array, start, buffer, start, length);
+        }
+
+        @Override
+        void restore(int b, int to) {
+            array[to] = buffer[b];
+        }
+
+        @Override
+        String label(int i) {
+            return Integer.toString(array[i]);
+        }
+
+        @Override
+        String bufferedLabel(int b) {
+            return Integer.toString(buffer[b]);
+        }
+    }
+
+    static final class LongItems extends Items {
+        private final long[] array;
+        private final long[] buffer;
+
+        LongItems(long[] array) {
+            this.array = array;
+            this.buffer = new long[array.length];
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        int compareToBuffered(int i, int b) {
+            return Long.compare(array[i], buffer[b]);
+        }
+
+        @Override
+        int compareBuffered(int a, int b) {
+            return Long.compare(buffer[a], buffer[b]);
+        }
+
+        @Override
+        void copy(int from, int to) {
+            array[to] = array[from];
+        }
+
+        @Override
+        void save(int start, int length) {
+            System.arraycopy(array, start, buffer, start, length);
+        }
+
+        @Override
+        void restore(int b, int to) {
+            array[to] = buffer[b];
+        }
+
+        @Override
+        String label(int i) {
+            return Long.toString(array[i]);
+        }
+
+        @Override
+        String bufferedLabel(int b) {
+            return Long.toString(buffer[b]);
+        }
+    }
+
+    static final class ObjectItems<T> extends Items {
+        private final T[] array;
+        private final Object[] buffer;
+        private final Comparator<? super T> order;
+
+        ObjectItems(T[] array, Comparator<? super T> order) {
+            this.array = array;
+            this.buffer = new Object[array.length];
+            this.order = order;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T buffered(int b) {
+            return (T) buffer[b];
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        int compareToBuffered(int i, int b) {
+            return order.compare(array[i], buffered(b));
+        }
+
+        @Override
+        int compareBuffered(int a, int b) {
+            return order.compare(buffered(a), buffered(b));
+        }
+
+        @Override
+        void copy(int from, int to) {
+            array[to] = array[from];
+        }
+
+        @Override
+        void save(int start, int length) {
+            System.arraycopy(array, start, buffer, start, length);
+        }
+
+        @Override
+        void restore(int b, int to) {
+            array[to] = buffered(b);
+        }
+
+        @Override
+        String label(int i) {
+            return String.valueOf(array[i]);
+        }
+
+        @Override
+        String bufferedLabel(int b) {
+            return String.valueOf(buffer[b]);
+        }
+    }
+
+    SortEngine(Items items, SortingService.SortListener listener) {
+        this.items = items;
+        this.listener = listener;
+        this.recording = listener != null;
+    }
+
+    void insertionSort() {
+        if (recording) {
+            listener.onStep(-1, -1, "Starting the Insertion Sort algorithm.");
+        }
+        insertionSortRange(0, items.size() - 1, false);
+        if (recording) {
+            listener.onStep(-1, -1, "Insertion Sort complete! The array is now sorted.");
+        }
+    }
+
+    void mergeSort() {
+        if (recording) {
+            listener.onStep(-1, -1, "Starting the Merge Sort algorithm.");
+        }
+        mergeSortRecursive(0, items.size() - 1);
+        if (recording) {
+            listener.onStep(-1, -1, "Merge Sort complete! The array is now sorted.");
+        }
+    }
+
+    /**
+     * TimSort (a hybrid of merge sort and insertion sort): insertion sort
+     * runs of RUN items, then merge them pairwise
+     */
+    void timSort() {
+        int n = items.size();
+        if (recording) {
+            listener.onStep(-1, -1, "Starting the TimSort algorithm (hybrid of Insertion Sort and Merge Sort).");
+        }
+
+        // Sort individual subarrays of size RUN using insertion sort
+        for (int i = 0; i < n; i += RUN) {
+            int end = Math.min(i + RUN - 1, n - 1);
+            if (recording) {
+                listener.onStep(i, end, "Using Insertion Sort for subarray from index " + i + " to " + end);
+            }
+            insertionSortRange(i, end, true);
+        }
+
+        // Start merging from size RUN (or the size of the last subarray)
+        for (int size = RUN; size < n; size = 2 * size) {
+            for (int left = 0; left < n; left += 2 * size) {
+                int mid = left + size - 1;
+                int right = Math.min(left + 2 * size - 1, n - 1);
+
+                // Merge subarrays if mid is within bounds
+                if (mid < right) {
+                    merge(left, mid, right);
+                }
+            }
+        }
+
+        if (recording) {
+            listener.onStep(-1, -1, "TimSort complete! The array is now sorted.");
+        }
+    }
+
+    /**
+     * Insertion sort items[left..right]; the key is held in the buffer at its own index
+     *
+     * @param run true inside TimSort (its steps are worded as in a run)
+     */
+    private void insertionSortRange(int left, int right, boolean run) {
+        for (int i = left + 1; i <= right; i++) {
+            items.save(i, 1);
+            String key = recording ? items.bufferedLabel(i) : null;
+            if (recording) {
+                listener.onStep(i, -1, "Select element at index " + i + " with value " + key);
+            }
+
+            int j = i - 1;
+            while (j >= left && items.compareToBuffered(j, i) > 0) {
+                if (recording) {
+                    listener.onStep(i, j, "Compare " + key + " with " + items.label(j)
+                            + (run ? "" : " at index " + j));
+                }
+
+                items.copy(j, j + 1);
+                j--;
+
+                if (recording) {
+                    if (run) {
+                        listener.onStep(j + 1, -1, "Shift element to the right");
+                    } else {
+                        listener.onStep(i, j + 1, "Move " + items.label(j + 1) + " one position to the right");
+                    }
+                }
+            }
+
+            items.restore(i, j + 1);
+            if (recording) {
+                listener.onStep(j + 1, -1, "Place " + key + " at index " + (j + 1));
+            }
+        }
+    }
+
+    private void mergeSortRecursive(int left, int right) {
+        if (left < right) {
+            int mid = left + (right - left) / 2;
+
+            if (recording) {
+                listener.onStep(left, right, "Dividing array from index " + left + " to " + right);
+            }
+
+            // Recursively sort left and right halves
+            mergeSortRecursive(left, mid);
+            mergeSortRecursive(mid + 1, right);
+
+            // Merge the sorted halves
+            merge(left, mid, right);
+        }
+    }
+
+    /**
+     * Merge the sorted items[left..mid] and items[mid + 1..right] through the buffer (stable)
+     */
+    private void merge(int left, int mid, int right) {
+        if (recording) {
+            listener.onStep(left, right, "Merging subarrays from " + left + " to " + mid
+                    + " and from " + (mid + 1) + " to " + right);
+        }
+
+        items.save(left, right - left + 1);
+        int i = left, j = mid + 1;
+        int k = left;
+        while (i <= mid && j <= right) {
+            if (recording) {
+                listener.onStep(i, j, "Compare " + items.bufferedLabel(i) + " with " + items.bufferedLabel(j));
+            }
+
+            int from = items.compareBuffered(i, j) <= 0 ? i++ : j++;
+            items.restore(from, k);
+            if (recording) {
+                listener.onStep(k, -1, "Place " + items.bufferedLabel(from) + " at index " + k);
+            }
+            k++;
+        }
+
+        // Copy the remaining items of either half
+        while (i <= mid || j <= right) {
+            int from = i <= mid ? i++ : j++;
+            items.restore(from, k);
+            if (recording) {
+                listener.onStep(k, -1, "Place remaining " + items.bufferedLabel(from) + " at index " + k);
+            }
+            k++;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package gameproject.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Measures how far an arrangement of values is from sorted, and keeps the
+ * measures current as items are moved.
+ *
+ * - inversions: pairs out of order, counted once in O(n log n) with a
+ *   Fenwick tree. This is also the Kendall tau distance to the sorted
+ *   target (equal values are never out of order, so any order of ties
+ *   counts as sorted).
+ * - runs: maximal non-descending stretches, tracked as a set of descents.
+ * - longest non-decreasing subsequence: the items that can stay where they
+ *   are; the rest is the minimum number of moves to sort.
+ *
+ * An adjacent swap updates inversions and runs in O(1). Moving an item by
+ * d places or swapping two items d apart costs O(d), the same as shifting
+ * the items in a list. The longest subsequence is recomputed (O(n log n))
+ * only when asked for after a change.
+ */
+public class SortednessAnalytics {
+    private final int[] values;
+    private final BitSet descents = new BitSet(); // bit i set: values[i] > values[i + 1]
+    private long inversions;
+    private int longestSubsequence = -1;          // -1 = needs recomputing
+
+    /**
+     * Fenwick (binary indexed) tree of counts over value ranks
+     */
+    private static class FenwickTree {
+        private final int[] tree;
+
+        FenwickTree(int size) {
+            tree = new int[size + 1];
+        }
+
+        void add(int rank) {
+            for (int i = rank + 1; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+        }
+
+        /**
+         * Number of counted ranks <= rank
+         */
+        int countAtMost(int rank) {
+            int count = 0;
+            for (int i = rank + 1; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+            return count;
+        }
+    }
+
+    public SortednessAnalytics(int[] values) {
+        this.values = values.clone();
+        inversions = countInversions(this.values);
+        for (int i = 0; i + 1 < this.values.length; i++) {
+            if (this.values[i] > this.values[i + 1]) {
+                descents.set(i);
+            }
+        }
+    }
+
+    /**
+     * Inversions of an array in O(n log n): for each item, the earlier items that are larger
+     */
+    public static long countInversions(int[] values) {
+        int[] distinct = Arrays.stream(values).sorted().distinct().toArray();
+        FenwickTree seen = new FenwickTree(distinct.length);
+        long inversions = 0;
+        for (int i = 0; i < values.length; i++) {
+            int rank = Arrays.binarySearch(distinct, values[i]);
+            inversions += i - seen.countAtMost(rank);
+            seen.add(rank);
+        }
+        return inversions;
+    }
+
+    /**
+     * Swap the items at i and i + 1
+     */
+    public void swapAdjacent(int i) {
+        checkIndex(i);
+        checkIndex(i + 1);
+        int a = values[i];
+        int b = values[i + 1];
+        if (a == b) {
+            return;
+        }
+        inversions += a < b ? 1 : -1;
+        values[i] = b;
+        values[i + 1] = a;
+        updateDescent(i - 1);
+        updateDescent(i);
+        updateDescent(i + 1);
+        longestSubsequence = -1;
+    }
+
+    /**
+     * Take the item at from and reinsert it so it ends up at to (like
+     * list.add(to, list.remove(from))); O(|to - from|)
+     */
+    public void move(int from, int to) {
+        checkIndex(from);
+        checkIndex(to);
+        for (int i = from; i < to; i++) {
+            swapAdjacent(i);
+        }
+        for (int i = from; i > to; i--) {
+            swapAdjacent(i - 1);
+        }
+    }
+
+    /**
+     * Swap the items at i and j; O(|j - i|)
+     */
+    public void swap(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        if (i == j) {
+            return;
+        }
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        int a = values[i];
+        int b = values[j];
+        if (a == b) {
+            return;
+        }
+        // The pair itself, then every item in between against both ends
+        long delta = a < b ? 1 : -1;
+        for (int k = i + 1; k < j; k++) {
+            int c = values[k];
+            delta += (b > c ? 1 : 0) - (a > c ? 1 : 0) + (c > a ? 1 : 0) - (c > b ? 1 : 0);
+        }
+        inversions += delta;
+        values[i] = b;
+        values[j] = a;
+        updateDescent(i - 1);
+        updateDescent(i);
+        updateDescent(j - 1);
+        updateDescent(j);
+        longestSubsequence = -1;
+    }
+
+    private void updateDescent(int i) {
+        if (i >= 0 && i + 1 < values.length) {
+            descents.set(i, values[i] > values[i + 1]);
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= values.length) {
+            throw new IndexOutOfBoundsException("Index " + i + " for " + values.length + " items");
+        }
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int getValue(int i) {
+        return values[i];
+    }
+
+    public int[] getValues() {
+        return values.clone();
+    }
+
+    public long getInversions() {
+        return inversions;
+    }
+
+    /**
+     * Kendall tau distance to the sorted target (the number of discordant pairs)
+     */
+    public long getKendallTauDistance() {
+        return inversions;
+    }
+
+    /**
+     * Kendall tau distance as a fraction of the worst case: 0 sorted, 1 reversed
+     */
+    public double getNormalizedDistance() {
+        long pairs = (long) values.length * (values.length - 1) / 2;
+        return pairs == 0 ? 0 : (double) inversions / pairs;
+    }
+
+    public boolean isSorted() {
+        return inversions == 0;
+    }
+
+    /**
+     * Number of maximal non-descending runs
+     */
+    public int getRunCount() {
+        return values.length == 0 ? 0 : descents.cardinality() + 1;
+    }
+
+    /**
+     * Start index of every run, in order (the run decomposition)
+     */
+    public int[] getRunStarts() {
+        int[] starts = new int[getRunCount()];
+        int run = 0;
+        if (starts.length > 0) {
+            starts[run++] = 0;
+        }
+        for (int i = descents.nextSetBit(0); i >= 0; i = descents.nextSetBit(i + 1)) {
+            starts[run++] = i + 1;
+        }
+        return starts;
+    }
+
+    /**
+     * Length of the longest non-decreasing subsequence
+     */
+    public int getLongestSortedSubsequence() {
+        if (longestSubsequence < 0) {
+            // Patience sorting: tails[k] is the smallest tail of a subsequence of length k + 1
+            int[] tails = new int[values.length];
+            int length = 0;
+            for (int value : values) {
+                int low = 0;
+                int high = length;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (tails[mid] <= value) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                tails[low] = value;
+                if (low == length) {
+                    length++;
+                }
+            }
+            longestSubsequence = length;
+        }
+        return longestSubsequence;
+    }
+
+    /**
+     * Fewest single-item moves that sort the items
+     */
+    public int getMinimumMoves() {
+        return values.length - getLongestSortedSubsequence();
+    }
+
+    /**
+     * Short hint text describing the arrangement
+     */
+    public String describe() {
+        if (isSorted()) {
+            return "These items are already in order.";
+        }
+        int runs = getRunCount();
+        int moves = getMinimumMoves();
+        return String.format("%d %s out of order and the items form %d sorted %s. "
+                + "Moving %d %s to the right place is enough to sort them.",
+                inversions, inversions == 1 ? "pair is" : "pairs are",
+                runs, runs == 1 ? "run" : "runs",
+                moves, moves == 1 ? "item" : "items");
+    }
+}
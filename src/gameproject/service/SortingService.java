@@ -1,14 +1,31 @@
 package gameproject.service;
 
+import gameproject.model.GameState;
+
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.ListIterator;
 
 /**
- * Service for sorting algorithms and their step-by-step visualization
+ * Service for sorting algorithms and their step-by-step visualization.
+ * The algorithms sort int[], long[] and object arrays (with a Comparator)
+ * through one instrumented implementation (SortEngine), so ingredients and
+ * numbers produce the same steps.
  */
 public class SortingService {
     
+    /**
+     * Receives each step of a sort as it happens
+     */
+    public interface SortListener {
+        /**
+         * @param activeIndex index being worked on (-1 for none)
+         * @param compareIndex index it is compared with (-1 for none)
+         */
+        void onStep(int activeIndex, int compareIndex, String description);
+    }
+    
     /**
      * Represents a single step in a sorting algorithm
      */
@@ -46,201 +63,198 @@ public class SortingService {
      * Generate steps for insertion sort algorithm
      */
     public List<SortStep> insertionSort(int[] input) {
-        List<SortStep> steps = new ArrayList<>();
-        int[] array = input.clone();
-        
-        // Initial state
-        steps.add(new SortStep(array, -1, -1, 
-                "Starting the Insertion Sort algorithm."));
-        
-        for (int i = 1; i < array.length; i++) {
-            int key = array[i];
-            steps.add(new SortStep(array, i, -1, 
-                    "Select element at index " + i + " with value " + key));
-            
-            int j = i - 1;
-            while (j >= 0 && array[j] > key) {
-                steps.add(new SortStep(array, i, j, 
-                        "Compare " + key + " with " + array[j] + " at index " + j));
-                
-                array[j + 1] = array[j];
-                j--;
-                
-                steps.add(new SortStep(array, i, j + 1, 
-                        "Move " + array[j + 1] + " one position to the right"));
-            }
-            
-            array[j + 1] = key;
-            steps.add(new SortStep(array, j + 1, -1, 
-                    "Place " + key + " at index " + (j + 1)));
-        }
-        
-        steps.add(new SortStep(array, -1, -1, 
-                "Insertion Sort complete! The array is now sorted."));
-        
-        return steps;
+        return recordSteps(input, GameState.INSERTION_SORT_CHALLENGE);
     }
     
     /**
      * Generate steps for merge sort algorithm
      */
     public List<SortStep> mergeSort(int[] input) {
+        return recordSteps(input, GameState.MERGE_SORT_CHALLENGE);
+    }
+    
+    /**
+     * Generate steps for TimSort algorithm
+     * (TimSort is a hybrid sorting algorithm derived from merge sort and insertion sort)
+     */
+    public List<SortStep> timSort(int[] input) {
+        return recordSteps(input, GameState.TIMSORT_CHALLENGE);
+    }
+    
+    private List<SortStep> recordSteps(int[] input, GameState algorithm) {
         List<SortStep> steps = new ArrayList<>();
         int[] array = input.clone();
-        
-        // Initial state
-        steps.add(new SortStep(array, -1, -1, 
-                "Starting the Merge Sort algorithm."));
-        
-        mergeSortRecursive(array, 0, array.length - 1, steps);
-        
-        steps.add(new SortStep(array, -1, -1, 
-                "Merge Sort complete! The array is now sorted."));
-        
+        sort(array, algorithm, (active, compare, description) ->
+                steps.add(new SortStep(array, active, compare, description)));
         return steps;
     }
     
-    private void mergeSortRecursive(int[] array, int left, int right, List<SortStep> steps) {
-        if (left < right) {
-            int mid = left + (right - left) / 2;
-            
-            steps.add(new SortStep(array, left, right, 
-                    "Dividing array from index " + left + " to " + right));
-            
-            // Recursively sort left and right halves
-            mergeSortRecursive(array, left, mid, steps);
-            mergeSortRecursive(array, mid + 1, right, steps);
-            
-            // Merge the sorted halves
-            merge(array, left, mid, right, steps);
-        }
+    /**
+     * Sort values in place with the algorithm of a challenge
+     *
+     * @param listener receives every step, or null to just sort
+     */
+    public void sort(int[] values, GameState algorithm, SortListener listener) {
+        run(new SortEngine(new SortEngine.IntItems(values), listener), algorithm);
     }
     
-    private void merge(int[] array, int left, int mid, int right, List<SortStep> steps) {
-        steps.add(new SortStep(array, left, right, 
-                "Merging subarrays from " + left + " to " + mid + 
-                " and from " + (mid + 1) + " to " + right));
-        
-        // Sizes of two subarrays to be merged
-        int n1 = mid - left + 1;
-        int n2 = right - mid;
-        
-        // Create temp arrays
-        int[] L = new int[n1];
-        int[] R = new int[n2];
-        
-        // Copy data to temp arrays
-        for (int i = 0; i < n1; ++i) {
-            L[i] = array[left + i];
-        }
-        for (int j = 0; j < n2; ++j) {
-            R[j] = array[mid + 1 + j];
-        }
-        
-        // Merge the temp arrays
-        int i = 0, j = 0;
-        int k = left;
-        while (i < n1 && j < n2) {
-            steps.add(new SortStep(array, left + i, mid + 1 + j, 
-                    "Compare " + L[i] + " with " + R[j]));
-            
-            if (L[i] <= R[j]) {
-                array[k] = L[i];
-                steps.add(new SortStep(array, k, -1, 
-                        "Place " + L[i] + " at index " + k));
-                i++;
-            } else {
-                array[k] = R[j];
-                steps.add(new SortStep(array, k, -1, 
-                        "Place " + R[j] + " at index " + k));
-                j++;
-            }
-            k++;
-        }
-        
-        // Copy remaining elements of L[]
-        while (i < n1) {
-            array[k] = L[i];
-            steps.add(new SortStep(array, k, -1, 
-                    "Place remaining " + L[i] + " at index " + k));
-            i++;
-            k++;
+    /**
+     * Sort values in place with the algorithm of a challenge
+     *
+     * @param listener receives every step, or null to just sort
+     */
+    public void sort(long[] values, GameState algorithm, SortListener listener) {
+        run(new SortEngine(new SortEngine.LongItems(values), listener), algorithm);
+    }
+    
+    /**
+     * Sort items in place with the algorithm of a challenge (stable: equal items keep their order)
+     *
+     * @param listener receives every step, or null to just sort
+     */
+    public <T> void sort(T[] items, Comparator<? super T> order, GameState algorithm, SortListener listener) {
+        run(new SortEngine(new SortEngine.ObjectItems<>(items, order), listener), algorithm);
+    }
+    
+    /**
+     * Sort a list in place with the algorithm of a challenge (stable: equal items keep their order)
+     *
+     * @param listener receives every step, or null to just sort
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void sort(List<T> items, Comparator<? super T> order, GameState algorithm, SortListener listener) {
+        Object[] array = items.toArray();
+        sort((T[]) array, order, algorithm, listener);
+        ListIterator<T> iterator = items.listIterator();
+        for (Object item : array) {
+            iterator.next();
+            iterator.set((T) item);
         }
-        
-        // Copy remaining elements of R[]
-        while (j < n2) {
-            array[k] = R[j];
-            steps.add(new SortStep(array, k, -1, 
-                    "Place remaining " + R[j] + " at index " + k));
-            j++;
-            k++;
+    }
+    
+    private static void run(SortEngine engine, GameState algorithm) {
+        switch (algorithm) {
+            case INSERTION_SORT_CHALLENGE:
+                engine.insertionSort();
+                break;
+            case MERGE_SORT_CHALLENGE:
+                engine.mergeSort();
+                break;
+            case TIMSORT_CHALLENGE:
+                engine.timSort();
+                break;
+            default:
+                throw new IllegalArgumentException("Not a sorting challenge: " + algorithm);
         }
     }
     
     /**
-     * Generate steps for TimSort algorithm
-     * (TimSort is a hybrid sorting algorithm derived from merge sort and insertion sort)
+     * Number of steps insertionSort(input) would produce, without building them.
+     * Each element costs a select and a place step, each shift two more, so
+     * the count follows from the number of inversions.
      */
-    public List<SortStep> timSort(int[] input) {
-        List<SortStep> steps = new ArrayList<>();
+    public int countInsertionSortSteps(int[] input) {
         int[] array = input.clone();
+        long inversions = countInversions(array, 0, array.length - 1, new int[array.length]);
+        return (int) Math.min(Integer.MAX_VALUE,
+                2 + 2L * Math.max(0, array.length - 1) + 2 * inversions);
+    }
+    
+    /**
+     * Number of steps mergeSort(input) would produce, without building them
+     */
+    public int countMergeSortSteps(int[] input) {
+        int[] array = input.clone();
+        return (int) Math.min(Integer.MAX_VALUE,
+                2 + countMergeSortRecursive(array, 0, array.length - 1, new int[array.length]));
+    }
+    
+    /**
+     * Number of steps timSort(input) would produce, without building them
+     */
+    public int countTimSortSteps(int[] input) {
+        int[] array = input.clone();
+        int[] buffer = new int[array.length];
+        final int RUN = SortEngine.RUN;
         
-        // Initial state
-        steps.add(new SortStep(array, -1, -1, 
-                "Starting the TimSort algorithm (hybrid of Insertion Sort and Merge Sort)."));
-        
-        final int RUN = 32; // Size of subarrays to be sorted using insertion sort
-        
-        // Sort individual subarrays of size RUN using insertion sort
+        long count = 2;
         for (int i = 0; i < array.length; i += RUN) {
             int end = Math.min(i + RUN - 1, array.length - 1);
-            insertionSortSubarray(array, i, end, steps);
+            // Header, select + place per element after the first, two per shift
+            count += 1 + 2L * (end - i) + 2 * countInversions(array, i, end, buffer);
         }
-        
-        // Start merging from size RUN (or the size of the last subarray)
         for (int size = RUN; size < array.length; size = 2 * size) {
             for (int left = 0; left < array.length; left += 2 * size) {
                 int mid = left + size - 1;
                 int right = Math.min(left + 2 * size - 1, array.length - 1);
-                
-                // Merge subarrays if mid is within bounds
                 if (mid < right) {
-                    merge(array, left, mid, right, steps);
+                    count += countMerge(array, left, mid, right, buffer);
                 }
             }
         }
-        
-        steps.add(new SortStep(array, -1, -1, 
-                "TimSort complete! The array is now sorted."));
-        
-        return steps;
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+    
+    private long countMergeSortRecursive(int[] array, int left, int right, int[] buffer) {
+        if (left >= right) {
+            return 0;
+        }
+        int mid = left + (right - left) / 2;
+        // Divide step, both halves, then the merge
+        return 1 + countMergeSortRecursive(array, left, mid, buffer)
+                + countMergeSortRecursive(array, mid + 1, right, buffer)
+                + countMerge(array, left, mid, right, buffer);
+    }
+    
+    /**
+     * Merge two sorted subarrays in place; returns the steps merge() would record
+     * (a header, then a compare + place per comparison and a place per leftover)
+     */
+    private long countMerge(int[] array, int left, int mid, int right, int[] buffer) {
+        System.arraycopy(array, left, buffer, left, right - left + 1);
+        int i = left, j = mid + 1, k = left;
+        long comparisons = 0;
+        while (i <= mid && j <= right) {
+            comparisons++;
+            array[k++] = buffer[i] <= buffer[j] ? buffer[i++] : buffer[j++];
+        }
+        while (i <= mid) {
+            array[k++] = buffer[i++];
+        }
+        while (j <= right) {
+            array[k++] = buffer[j++];
+        }
+        return 1 + comparisons + (right - left + 1);
     }
     
-    private void insertionSortSubarray(int[] array, int left, int right, List<SortStep> steps) {
-        steps.add(new SortStep(array, left, right, 
-                "Using Insertion Sort for subarray from index " + left + " to " + right));
+    /**
+     * Sort array[left..right] and return how many inversions (pairs out of order) it had
+     */
+    public static long countInversions(int[] array, int left, int right, int[] buffer) {
+        if (left >= right) {
+            return 0;
+        }
+        int mid = left + (right - left) / 2;
+        long inversions = countInversions(array, left, mid, buffer)
+                + countInversions(array, mid + 1, right, buffer);
         
-        for (int i = left + 1; i <= right; i++) {
-            int key = array[i];
-            int j = i - 1;
-            
-            steps.add(new SortStep(array, i, -1, 
-                    "Select element at index " + i + " with value " + key));
-            
-            while (j >= left && array[j] > key) {
-                steps.add(new SortStep(array, i, j, 
-                        "Compare " + key + " with " + array[j]));
-                
-                array[j + 1] = array[j];
-                j--;
-                
-                steps.add(new SortStep(array, j + 1, -1, 
-                        "Shift element to the right"));
+        System.arraycopy(array, left, buffer, left, right - left + 1);
+        int i = left, j = mid + 1, k = left;
+        while (i <= mid && j <= right) {
+            if (buffer[i] <= buffer[j]) {
+                array[k++] = buffer[i++];
+            } else {
+                // Every element left in the first half is larger than buffer[j]
+                inversions += mid - i + 1;
+                array[k++] = buffer[j++];
             }
-            
-            array[j + 1] = key;
-            steps.add(new SortStep(array, j + 1, -1, 
-                    "Place " + key + " at index " + (j + 1)));
         }
+        while (i <= mid) {
+            array[k++] = buffer[i++];
+        }
+        while (j <= right) {
+            array[k++] = buffer[j++];
+        }
+        return inversions;
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package gameproject.service;
+
+import gameproject.model.GameState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Groups items by a small category index and orders each group by a
+ * second key, stably, in one pass over the items.
+ *
+ * The items are first sorted by the second key (stable merge sort, skipped
+ * when there is none), then placed into their category's bucket with
+ * one counting-sort pass. Stable placement keeps that order inside every
+ * bucket, so the result is ordered by (category, second key), with equal
+ * keys kept in input order. The bucket start offsets are the index by
+ * category: every group is a view of one contiguous range, with no
+ * further scans.
+ *
+ * @param <T> the item type
+ */
+public class StableGrouper<T> {
+    private final List<T> grouped;      // items ordered by (category, second key)
+    private final int[] bucketStart;    // bucket c is grouped[bucketStart[c]..bucketStart[c + 1])
+
+    /**
+     * Group items by category
+     *
+     * @param categories number of categories (indices 0 to categories - 1)
+     * @param category category index of an item; items outside 0..categories - 1 are left out
+     * @param order order inside a category, or null to keep the input order
+     */
+    @SuppressWarnings("unchecked")
+    public StableGrouper(List<? extends T> items, int categories,
+            ToIntFunction<? super T> category, Comparator<? super T> order) {
+        if (categories < 0) {
+            throw new IllegalArgumentException("Category count can't be negative: " + categories);
+        }
+        T[] ordered = (T[]) items.toArray();
+        if (order != null) {
+            new SortingService().sort(ordered, order, GameState.MERGE_SORT_CHALLENGE, null);
+        }
+
+        // Count each category, then turn the counts into bucket offsets
+        int[] categoryOf = new int[ordered.length];
+        bucketStart = new int[categories + 1];
+        for (int i = 0; i < ordered.length; i++) {
+            int c = category.applyAsInt(ordered[i]);
+            categoryOf[i] = c >= 0 && c < categories ? c : -1;
+            if (categoryOf[i] >= 0) {
+                bucketStart[categoryOf[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < categories; c++) {
+            bucketStart[c + 1] += bucketStart[c];
+        }
+
+        // Place every item at the next free slot of its bucket (stable)
+        Object[] placed = new Object[bucketStart[categories]];
+        int[] next = Arrays.copyOf(bucketStart, categories);
+        for (int i = 0; i < ordered.length; i++) {
+            if (categoryOf[i] >= 0) {
+                placed[next[categoryOf[i]]++] = ordered[i];
+            }
+        }
+        grouped = Collections.unmodifiableList(Arrays.asList((T[]) placed));
+    }
+
+    /**
+     * Items of a category, in order (an unmodifiable view)
+     */
+    public List<T> getGroup(int category) {
+        return grouped.subList(bucketStart[category], bucketStart[category + 1]);
+    }
+
+    /**
+     * Number of items in a category
+     */
+    public int size(int category) {
+        return bucketStart[category + 1] - bucketStart[category];
+    }
+
+    /**
+     * All grouped items, ordered by category and then the second key
+     */
+    public List<T> getAll() {
+        return grouped;
+    }
+
+    public int getCategoryCount() {
+        return bucketStart.length - 1;
+    }
+
+    /**
+     * Category with the most items (the lowest index on a tie), or -1 if there are none
+     */
+    public int getLargestCategory() {
+        int largest = -1;
+        for (int c = 0; c < getCategoryCount(); c++) {
+            if (size(c) > 0 && (largest < 0 || size(c) > size(largest))) {
+                largest = c;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Category indices from most to fewest items (lower index first on a tie)
+     */
+    public int[] getCategoriesBySize() {
+        Integer[] order = new Integer[getCategoryCount()];
+        for (int c = 0; c < order.length; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(size(b), size(a)));
+        int[] categories = new int[order.length];
+        for (int c = 0; c < order.length; c++) {
+            categories[c] = order[c];
+        }
+        return categories;
+    }
+}
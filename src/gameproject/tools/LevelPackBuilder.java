@@ -0,0 +1,107 @@
+package gameproject.tools;
+
+import gameproject.model.GameState;
+import gameproject.model.LevelConfig;
+import gameproject.model.LevelPack;
+import gameproject.service.DifficultyCalibrator;
+import gameproject.service.LevelGenerator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Writes a level pack: the built-in levels followed by generated levels
+ * for every difficulty (numbered after the built-in ones), sized and
+ * time-limited by this device's difficulty calibration. Levels are
+ * generated while the pack is written, so the pack can be far larger than
+ * the heap. Afterwards the pack is reopened and one level looked up to
+ * show what the game pays at startup.
+ *
+ * Usage: java gameproject.tools.LevelPackBuilder <file> [levels per difficulty] [seed]
+ * Play it with: java -Dsmartsort.levelPack=<file> gameproject.main.GameLauncher
+ */
+public class LevelPackBuilder {
+    private static final String[] DIFFICULTIES = {"Beginner", "Intermediate", "Advanced"};
+    private static final GameState[] ALGORITHMS = {
+        GameState.INSERTION_SORT_CHALLENGE, GameState.MERGE_SORT_CHALLENGE, GameState.TIMSORT_CHALLENGE
+    };
+    private static final int[] TIME_LIMITS = {0, 45, 60};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: LevelPackBuilder <file> [levels per difficulty] [seed]");
+            return;
+        }
+        File file = new File(args[0]);
+        int perDifficulty = Math.max(1, args.length > 1 ? Integer.parseInt(args[1]) : 10000);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        List<LevelConfig> builtIn = LevelConfig.createAllLevels();
+        int[] firstGenerated = new int[DIFFICULTIES.length];
+        for (LevelConfig level : builtIn) {
+            for (int d = 0; d < DIFFICULTIES.length; d++) {
+                if (DIFFICULTIES[d].equals(level.getDifficulty())) {
+                    firstGenerated[d] = Math.max(firstGenerated[d], level.getLevelNumber() + 1);
+                }
+            }
+        }
+
+        LevelGenerator generator = new LevelGenerator(seed);
+        DifficultyCalibrator calibrator = DifficultyCalibrator.getInstance();
+        for (String difficulty : DIFFICULTIES) {
+            System.out.println("Calibration " + calibrator.describe(difficulty));
+        }
+        Iterable<LevelConfig> levels = () -> new Iterator<LevelConfig>() {
+            private final Iterator<LevelConfig> builtInLevels = new ArrayList<>(builtIn).iterator();
+            private int difficulty;
+            private int generated;
+
+            @Override
+            public boolean hasNext() {
+                return builtInLevels.hasNext() || difficulty < DIFFICULTIES.length;
+            }
+
+            @Override
+            public LevelConfig next() {
+                if (builtInLevels.hasNext()) {
+                    return builtInLevels.next();
+                }
+                if (difficulty >= DIFFICULTIES.length) {
+                    throw new NoSuchElementException();
+                }
+                // Size and presortedness tuned towards the target success rate
+                String name = DIFFICULTIES[difficulty];
+                LevelGenerator.Spec spec = calibrator.createSpec(name, firstGenerated[difficulty] + generated)
+                        .duplicateRatio(difficulty == 0 ? 0 : 0.2)
+                        .algorithm(ALGORITHMS[difficulty]);
+                LevelConfig level = generator.generate(spec);
+                level.setTimeLimit(calibrator.getTimeLimitSeconds(name, TIME_LIMITS[difficulty]));
+
+                if (++generated == perDifficulty) {
+                    generated = 0;
+                    difficulty++;
+                }
+                return level;
+            }
+        };
+
+        long start = System.nanoTime();
+        LevelPack.write(file, levels);
+        System.out.printf("Wrote %,d levels to %s (%,d bytes) in %.1f ms%n",
+                builtIn.size() + perDifficulty * DIFFICULTIES.length, file, file.length(),
+                (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        try (LevelPack pack = LevelPack.open(file)) {
+            long opened = System.nanoTime();
+            LevelConfig last = pack.getLevel("Advanced", firstGenerated[2] + perDifficulty - 1);
+            long found = System.nanoTime();
+            System.out.printf("Open: %.3f ms, lookup of %s %d (%d items): %.3f ms%n",
+                    (opened - start) / 1e6, last.getDifficulty(), last.getLevelNumber(),
+                    last.getInitialArray().length, (found - opened) / 1e6);
+        }
+    }
+}
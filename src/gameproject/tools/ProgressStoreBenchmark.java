@@ -0,0 +1,428 @@
+package gameproject.tools;
+
+import gameproject.model.ProgressTracker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless benchmark and fault-injection harness for progress persistence.
+ *
+ * Runs every backend through the same three workloads:
+ * 1. Sequential: thousands of completeLevel calls, timing each save
+ * 2. Concurrent: several threads completing levels on one tracker, then a
+ *    reload that must match the in-memory state exactly
+ * 3. Crashes: a write cut off at a random byte offset, and a random byte
+ *    flipped in the committed file, then a reload classified as recovered,
+ *    reset (progress lost), silently corrupted or failed (the reload threw)
+ *
+ * Usage: java gameproject.tools.ProgressStoreBenchmark [calls] [threads] [crashes] [seed]
+ */
+public class ProgressStoreBenchmark {
+    private static final String[] DIFFICULTIES = {"Beginner", "Intermediate", "Advanced"};
+    private static final int LEVELS_PER_DIFFICULTY = 200;
+    private static final int MAX_STARS = 3;
+
+    /**
+     * A persistence backend under test, plus how a crash mid-write looks for it
+     */
+    private interface Backend {
+        String getName();
+
+        ProgressTracker.Store createStore(File dir);
+
+        /**
+         * Leave the files exactly as a crash after writing only the first
+         * `offset` bytes of the next save would
+         */
+        void crashDuringWrite(ProgressTracker.Store store, ProgressTracker next, int offset) throws IOException;
+
+        /**
+         * The committed file (target for bit-flip corruption)
+         */
+        File getCommittedFile(ProgressTracker.Store store);
+
+        /**
+         * Size of the encoded save for the given state
+         */
+        int encodedSize(ProgressTracker tracker) throws IOException;
+    }
+
+    /**
+     * The game's checksummed binary format with atomic replace
+     */
+    private static class BinaryBackend implements Backend {
+        @Override
+        public String getName() {
+            return "binary+crc (current)";
+        }
+
+        @Override
+        public ProgressTracker.Store createStore(File dir) {
+            return new ProgressTracker.FileStore(new File(dir, "progress.dat"));
+        }
+
+        @Override
+        public void crashDuringWrite(ProgressTracker.Store store, ProgressTracker next, int offset) throws IOException {
+            // The partial bytes only ever reach the temp file; the move never happens
+            byte[] data = next.encode();
+            Files.write(((ProgressTracker.FileStore) store).getTempFile().toPath(),
+                    Arrays.copyOf(data, Math.min(offset, data.length)));
+        }
+
+        @Override
+        public File getCommittedFile(ProgressTracker.Store store) {
+            return ((ProgressTracker.FileStore) store).getFile();
+        }
+
+        @Override
+        public int encodedSize(ProgressTracker tracker) throws IOException {
+            return tracker.encode().length;
+        }
+    }
+
+    /**
+     * The original approach: ObjectOutputStream straight onto the save file
+     */
+    private static class SerializedBackend implements Backend {
+        @Override
+        public String getName() {
+            return "ObjectOutputStream (legacy)";
+        }
+
+        @Override
+        public ProgressTracker.Store createStore(File dir) {
+            return new SerializedStore(new File(dir, "progress.ser"));
+        }
+
+        @Override
+        public void crashDuringWrite(ProgressTracker.Store store, ProgressTracker next, int offset) throws IOException {
+            // Writes went to the save file in place, so the crash truncates it
+            byte[] data = SerializedStore.serialize(next);
+            Files.write(((SerializedStore) store).file.toPath(), Arrays.copyOf(data, Math.min(offset, data.length)));
+        }
+
+        @Override
+        public File getCommittedFile(ProgressTracker.Store store) {
+            return ((SerializedStore) store).file;
+        }
+
+        @Override
+        public int encodedSize(ProgressTracker tracker) throws IOException {
+            return SerializedStore.serialize(tracker).length;
+        }
+    }
+
+    private static class SerializedStore implements ProgressTracker.Store {
+        private final File file;
+
+        SerializedStore(File file) {
+            this.file = file;
+        }
+
+        static byte[] serialize(ProgressTracker tracker) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            synchronized (tracker) {
+                try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                    oos.writeObject(tracker);
+                }
+            }
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public void write(ProgressTracker tracker) throws IOException {
+            Files.write(file.toPath(), serialize(tracker));
+        }
+
+        @Override
+        public ProgressTracker read() throws IOException {
+            if (!file.exists()) {
+                return null;
+            }
+            return ProgressTracker.decode(Files.readAllBytes(file.toPath()));
+        }
+    }
+
+    /**
+     * Store for throwaway copies; never touches disk
+     */
+    private static class NullStore implements ProgressTracker.Store {
+        @Override
+        public void write(ProgressTracker tracker) {
+        }
+
+        @Override
+        public ProgressTracker read() {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int crashes = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+
+        // Every save is logged; keep that out of the timings
+        Logger.getLogger(ProgressTracker.class.getName()).setLevel(Level.OFF);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Backend[] backends = {new BinaryBackend(), new SerializedBackend()};
+        try {
+            for (Backend backend : backends) {
+                console.println("=== " + backend.getName() + " ===");
+                runSequential(console, backend, calls, seed);
+                runConcurrent(console, backend, calls, threads, seed);
+                runCrashes(console, backend, crashes, seed);
+                console.println();
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Rapid completeLevel calls from a single thread
+     */
+    private static void runSequential(PrintStream console, Backend backend, int calls, long seed) throws IOException {
+        File dir = createTempDir();
+        try {
+            ProgressTracker.Store store = backend.createStore(dir);
+            ProgressTracker tracker = ProgressTracker.open(store);
+            Random random = new Random(seed);
+            long[] saveNanos = new long[calls];
+            int saves = 0;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                String difficulty = DIFFICULTIES[random.nextInt(DIFFICULTIES.length)];
+                int level = 1 + random.nextInt(LEVELS_PER_DIFFICULTY);
+                int stars = 1 + random.nextInt(MAX_STARS);
+
+                int before = tracker.getTotalStarsEarned();
+                long callStart = System.nanoTime();
+                tracker.completeLevel(difficulty, level, stars);
+                long elapsed = System.nanoTime() - callStart;
+                // Only calls that earned more stars write the file
+                if (tracker.getTotalStarsEarned() != before) {
+                    saveNanos[saves++] = elapsed;
+                }
+            }
+            long totalNanos = System.nanoTime() - start;
+
+            boolean reloadMatches = sameState(tracker, ProgressTracker.open(store));
+            console.printf("sequential: %d calls, %d saves in %.1f ms (%.0f calls/s)%n",
+                    calls, saves, totalNanos / 1e6, calls / (totalNanos / 1e9));
+            console.println("  save latency " + percentiles(Arrays.copyOf(saveNanos, saves)));
+            console.printf("  file size %d bytes, reload matches: %b%n",
+                    backend.getCommittedFile(store).length(), reloadMatches);
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /**
+     * Several threads completing levels on the same tracker at once
+     */
+    private static void runConcurrent(PrintStream console, Backend backend, int calls, int threads, long seed)
+            throws Exception {
+        File dir = createTempDir();
+        try {
+            ProgressTracker.Store store = backend.createStore(dir);
+            ProgressTracker tracker = ProgressTracker.open(store);
+            // Best stars each slot should end up with, merged across all threads
+            int[][] expected = new int[DIFFICULTIES.length][LEVELS_PER_DIFFICULTY + 1];
+            List<Throwable> failures = new ArrayList<>();
+            CountDownLatch ready = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+
+            for (int t = 0; t < threads; t++) {
+                final Random random = new Random(seed + t + 1);
+                final int perThread = calls / threads;
+                workers[t] = new Thread(() -> {
+                    try {
+                        ready.await();
+                        for (int i = 0; i < perThread; i++) {
+                            int row = random.nextInt(DIFFICULTIES.length);
+                            int level = 1 + random.nextInt(LEVELS_PER_DIFFICULTY);
+                            int stars = 1 + random.nextInt(MAX_STARS);
+                            tracker.completeLevel(DIFFICULTIES[row], level, stars);
+                            synchronized (expected) {
+                                expected[row][level] = Math.max(expected[row][level], stars);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                }, "progress-benchmark-" + t);
+                workers[t].start();
+            }
+
+            long start = System.nanoTime();
+            ready.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long totalNanos = System.nanoTime() - start;
+
+            ProgressTracker reloaded = ProgressTracker.open(store);
+            int mismatches = 0;
+            int expectedTotal = 0;
+            for (int row = 0; row < DIFFICULTIES.length; row++) {
+                for (int level = 1; level <= LEVELS_PER_DIFFICULTY; level++) {
+                    expectedTotal += expected[row][level];
+                    if (reloaded.getStarsForLevel(DIFFICULTIES[row], level) != expected[row][level]) {
+                        mismatches++;
+                    }
+                }
+            }
+
+            console.printf("concurrent: %d threads x %d calls in %.1f ms, %d exceptions%n",
+                    threads, calls / threads, totalNanos / 1e6, failures.size());
+            console.printf("  reload: %d slot mismatches, total stars %d (expected %d, in memory %d)%n",
+                    mismatches, reloaded.getTotalStarsEarned(), expectedTotal, tracker.getTotalStarsEarned());
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /**
+     * Truncated writes and flipped bytes, each followed by a reload
+     */
+    private static void runCrashes(PrintStream console, Backend backend, int crashes, long seed) throws IOException {
+        Random random = new Random(seed);
+        int[] truncated = new int[4];
+        int[] flipped = new int[4];
+
+        for (int i = 0; i < crashes; i++) {
+            File dir = createTempDir();
+            try {
+                ProgressTracker.Store store = backend.createStore(dir);
+                ProgressTracker committed = ProgressTracker.open(store);
+                for (int j = 0; j < 20; j++) {
+                    committed.completeLevel(DIFFICULTIES[random.nextInt(DIFFICULTIES.length)],
+                            1 + random.nextInt(LEVELS_PER_DIFFICULTY), 1 + random.nextInt(MAX_STARS));
+                }
+
+                // The next save would add one more completion, but dies partway through
+                ProgressTracker next = ProgressTracker.open(new NullStore());
+                copyStars(committed, next);
+                next.completeLevel(DIFFICULTIES[random.nextInt(DIFFICULTIES.length)],
+                        1 + random.nextInt(LEVELS_PER_DIFFICULTY), MAX_STARS);
+                backend.crashDuringWrite(store, next, random.nextInt(backend.encodedSize(next)));
+                truncated[reload(store, committed, next)]++;
+
+                // Start over from the committed state and damage one byte of it
+                store.write(committed);
+                File file = backend.getCommittedFile(store);
+                byte[] data = Files.readAllBytes(file.toPath());
+                int offset = random.nextInt(data.length);
+                data[offset] ^= (byte) (1 + random.nextInt(255));
+                Files.write(file.toPath(), data);
+                flipped[reload(store, committed, committed)]++;
+            } finally {
+                deleteTree(dir);
+            }
+        }
+
+        console.printf("crashes: %d truncated writes -> %d recovered, %d reset, %d corrupted, %d failed%n",
+                crashes, truncated[0], truncated[1], truncated[2], truncated[3]);
+        console.printf("  %d flipped bytes -> %d recovered, %d reset, %d corrupted, %d failed%n",
+                crashes, flipped[0], flipped[1], flipped[2], flipped[3]);
+    }
+
+    /**
+     * Reload from the store and classify the result; 3 = the reload itself
+     * threw (the game would crash at startup), which ends only this case
+     */
+    private static int reload(ProgressTracker.Store store, ProgressTracker committed, ProgressTracker next) {
+        try {
+            return classify(ProgressTracker.open(store), committed, next);
+        } catch (Throwable e) {
+            return 3;
+        }
+    }
+
+    /**
+     * 0 = loaded a valid save, 1 = fell back to empty progress, 2 = loaded wrong data
+     */
+    private static int classify(ProgressTracker loaded, ProgressTracker committed, ProgressTracker next) {
+        if (sameState(loaded, committed) || sameState(loaded, next)) {
+            return 0;
+        }
+        if (loaded.getTotalStarsEarned() == 0) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static boolean sameState(ProgressTracker a, ProgressTracker b) {
+        if (!a.getPlayerName().equals(b.getPlayerName()) || a.getTotalStarsEarned() != b.getTotalStarsEarned()) {
+            return false;
+        }
+        for (String difficulty : DIFFICULTIES) {
+            for (int level = 1; level <= LEVELS_PER_DIFFICULTY; level++) {
+                if (a.getStarsForLevel(difficulty, level) != b.getStarsForLevel(difficulty, level)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void copyStars(ProgressTracker from, ProgressTracker to) {
+        for (String difficulty : DIFFICULTIES) {
+            for (int level = 1; level <= LEVELS_PER_DIFFICULTY; level++) {
+                int stars = from.getStarsForLevel(difficulty, level);
+                if (stars > 0) {
+                    to.completeLevel(difficulty, level, stars);
+                }
+            }
+        }
+    }
+
+    /**
+     * p50 / p90 / p99 / max in microseconds
+     */
+    private static String percentiles(long[] nanos) {
+        if (nanos.length == 0) {
+            return "(no samples)";
+        }
+        Arrays.sort(nanos);
+        return String.format("p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us",
+                nanos[(int) (nanos.length * 0.50)] / 1e3,
+                nanos[(int) (nanos.length * 0.90)] / 1e3,
+                nanos[Math.min(nanos.length - 1, (int) (nanos.length * 0.99))] / 1e3,
+                nanos[nanos.length - 1] / 1e3);
+    }
+
+    private static File createTempDir() throws IOException {
+        return Files.createTempDirectory("progress-benchmark").toFile();
+    }
+
+    private static void deleteTree(File dir) {
+        File[] children = dir.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                child.delete();
+            }
+        }
+        dir.delete();
+    }
+}
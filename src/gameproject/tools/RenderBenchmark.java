@@ -0,0 +1,159 @@
+package gameproject.tools;
+
+import gameproject.controller.GameController;
+import gameproject.ui.TimSortVisualization;
+import gameproject.util.GameConstants;
+import gameproject.view.EnhancedStoryView;
+import gameproject.view.GameView;
+import gameproject.view.LevelSelectionView;
+import gameproject.view.MainMenuView;
+
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless rendering benchmark for every view.
+ *
+ * Builds each view offscreen at the game's window size and paints it into a
+ * BufferedImage: one cold frame (first paint, caches empty), a warm-up, then
+ * the measured frames. Reports time per frame and bytes allocated per frame
+ * (where the JVM supports per-thread allocation counters). Runs with
+ * java.awt.headless=true, so it needs no display. Like starting the game, it
+ * loads (and re-saves) the progress file in the working directory.
+ *
+ * Usage: java gameproject.tools.RenderBenchmark [frames] [warmup]
+ */
+public class RenderBenchmark {
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        // The views print DEBUG lines and log every resource they load; keep them out of the report
+        Logger.getLogger("").setLevel(Level.WARNING);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            SwingUtilities.invokeAndWait(() -> run(console, frames, warmup));
+        } finally {
+            System.setOut(console);
+        }
+        System.exit(0);
+    }
+
+    private static void run(PrintStream console, int frames, int warmup) {
+        GameController controller = new GameController();
+
+        Map<String, Function<GameController, JComponent>> views = new LinkedHashMap<>();
+        views.put("MainMenuView", MainMenuView::new);
+        views.put("LevelSelectionView", LevelSelectionView::new);
+        views.put("GameView", c -> {
+            GameView view = new GameView(c);
+            view.updateLevelInfo("Beginner", 1);
+            return view;
+        });
+        views.put("EnhancedStoryView", EnhancedStoryView::new);
+        views.put("TimSortVisualization", TimSortVisualization::new);
+
+        console.printf("%d x %d, %d frames after %d warm-up (headless: %b)%n",
+                GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, frames, warmup,
+                GraphicsEnvironment.isHeadless());
+        console.printf("%-22s %9s %9s %9s %9s %9s %12s%n",
+                "view", "cold ms", "mean ms", "p50 ms", "p99 ms", "max ms", "alloc/frame");
+
+        BufferedImage canvas = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        for (Map.Entry<String, Function<GameController, JComponent>> entry : views.entrySet()) {
+            JComponent view = entry.getValue().apply(controller);
+            view.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+            layoutTree(view);
+
+            // Paint straight into the canvas, as the view would into the window's back buffer
+            RepaintManager.currentManager(view).setDoubleBufferingEnabled(false);
+
+            long coldNanos = paint(view, canvas);
+            for (int i = 0; i < warmup; i++) {
+                paint(view, canvas);
+            }
+
+            long[] frameNanos = new long[frames];
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < frames; i++) {
+                frameNanos[i] = paint(view, canvas);
+            }
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            Arrays.sort(frameNanos);
+            long total = 0;
+            for (long nanos : frameNanos) {
+                total += nanos;
+            }
+            console.printf("%-22s %9.3f %9.3f %9.3f %9.3f %9.3f %12s%n",
+                    entry.getKey(), coldNanos / 1e6, total / 1e6 / frames,
+                    percentile(frameNanos, 0.50) / 1e6, percentile(frameNanos, 0.99) / 1e6,
+                    frameNanos[frames - 1] / 1e6,
+                    allocatedBefore < 0 ? "n/a" : String.format("%,d B", allocated / frames));
+        }
+    }
+
+    /**
+     * Paint the whole view once; returns the time taken
+     */
+    private static long paint(JComponent view, BufferedImage canvas) {
+        Graphics2D g2d = canvas.createGraphics();
+        try {
+            long start = System.nanoTime();
+            view.paint(g2d);
+            return System.nanoTime() - start;
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Lay out every container in the tree (offscreen components are never validated by a window)
+     */
+    private static void layoutTree(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) {
+                layoutTree((Container) child);
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Bytes allocated so far by this thread, or -1 if the JVM can't tell
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
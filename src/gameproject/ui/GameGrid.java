@@ -1,25 +1,62 @@
 package gameproject.ui;
 
+import gameproject.model.GameState;
 import gameproject.model.LevelConfig;
+import gameproject.model.SolutionValidator;
 
+import gameproject.util.FontRegistry;
+import gameproject.util.FrameTimer;
+import gameproject.util.UiMetrics;
 import gameproject.util.ResourceManager;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 
 
 /**
  * Grid-based game board for sorting challenges
  * Using styled grid even if images are missing
+ *
+ * The level's items are laid out in reading order over the cells. Clicks
+ * make the moves of the level's algorithm, the same moves MoveSolver
+ * counts: Insertion Sort moves one item anywhere, Merge Sort merges a run
+ * with the run after it, and TimSort reverses a descending stretch or
+ * merges a run with the next.
  */
 public class GameGrid extends JPanel {
     private ResourceManager resourceManager;
     private LevelConfig currentLevel;
+    private SolutionValidator validator; // Current arrangement, kept checked as items move
+    private Runnable moveListener;       // Told about every move (step counting)
+    private GameState algorithm;         // Which moves clicks make
+    private int[] items;                 // Current arrangement, refreshed after every move
+    private String[] itemLabels;         // Value text of each item
+    private boolean[] runStarts;         // Items that start a non-descending run
+    private int selectedIndex = -1;      // First click of a two-click move
+    private boolean inputEnabled = true;
     private ImageIcon gridBoxImage;  // Individual box image
     private ImageIcon gridBgImage;   // Background for the grid
     private int gridSize;
     private int cellSize; // For 1:1 ratio
+    private int borderSize;
+    private int gridStartX;
+    private int gridStartY;
+    
+    // Panel size the metrics above were calculated for
+    private int layoutWidth;
+    private int layoutHeight;
+    
+    // Item tiles: as many columns as the grid, unless there are more items than cells
+    private int itemColumns;
+    private int itemSize;
+    private Font itemFont;
+    private FontMetrics itemMetrics;
+    
+    // Background, border and boxes rendered once; rebuilt on resize or level change
+    private BufferedImage staticLayer;
+    private final FrameTimer frameTimer = UiMetrics.getInstance().getPaintTimer("GameGrid");
     
     // Constants for grid padding
     private final double HORIZONTAL_PADDING_PERCENT = 0.15; // 15% padding on each side
@@ -37,6 +74,15 @@ public class GameGrid extends JPanel {
     private final Color GRID_LINE_COLOR = new Color(193, 125, 99);        // Lighter reddish-brown for gridlines
     private final Color GRID_CORNER_COLOR = new Color(132, 66, 57);       // Darker color for corners
     
+    // Item tiles; neighbouring runs alternate colors so the runs can be told apart
+    private final Color ITEM_COLOR = new Color(250, 240, 215);
+    private final Color ITEM_ALT_COLOR = new Color(215, 235, 250);
+    private final Color ITEM_BORDER_COLOR = new Color(110, 60, 45);
+    private final Color ITEM_SELECTED_COLOR = new Color(255, 200, 0);
+    private final Color ITEM_TEXT_COLOR = new Color(60, 30, 20);
+    private final BasicStroke ITEM_STROKE = new BasicStroke(2f);
+    private final BasicStroke ITEM_SELECTED_STROKE = new BasicStroke(4f);
+    
     /**
      * Constructor
      */
@@ -44,6 +90,10 @@ public class GameGrid extends JPanel {
         this.resourceManager = ResourceManager.getInstance();
         this.currentLevel = level;
         this.gridSize = level.getGridSize();
+        this.algorithm = level.getAlgorithmType();
+        this.validator = level.createValidator();
+        refreshItems();
+        updateLayout();
         
         // Load grid images
         this.gridBgImage = resourceManager.getImage("/gameproject/resources/grid_bg.png");
@@ -60,30 +110,71 @@ public class GameGrid extends JPanel {
         setLayout(null);
         setOpaque(false);
         
-        // Calculate the cell size and grid positioning when the panel is resized
+        // Recalculate the cell size and grid positioning when the panel is resized
         addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent e) {
+                invalidateStaticLayer();
                 repaint();
             }
         });
+        
+        // Clicks on the items make the player's moves
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                handlePress(getItemAt(e.getX(), e.getY()));
+            }
+        });
+    }
+    
+    /**
+     * Switch to a different level, rebuilding the grid for its size
+     */
+    public void setLevel(LevelConfig level) {
+        this.currentLevel = level;
+        this.gridSize = level.getGridSize();
+        this.algorithm = level.getAlgorithmType();
+        this.validator = level.createValidator();
+        selectedIndex = -1;
+        refreshItems();
+        updateLayout();
+        invalidateStaticLayer();
+        repaint();
+    }
+    
+    /**
+     * Drop the cached grid so the next paint recalculates and redraws it
+     */
+    private void invalidateStaticLayer() {
+        if (staticLayer != null) {
+            staticLayer.flush();
+            staticLayer = null;
+        }
     }
     
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        
-        // Enable anti-aliasing for smoother rendering
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        if (width != layoutWidth || height != layoutHeight) {
+            updateLayout();
+        }
+    }
+    
+    /**
+     * Recalculate the grid metrics for the current panel size and grid size
+     */
+    private void updateLayout() {
+        layoutWidth = getWidth();
+        layoutHeight = getHeight();
         
         // Calculate grid metrics
-        int horizontalPadding = (int)(getWidth() * HORIZONTAL_PADDING_PERCENT);
-        int verticalPadding = (int)(getHeight() * VERTICAL_PADDING_PERCENT);
+        int horizontalPadding = (int)(layoutWidth * HORIZONTAL_PADDING_PERCENT);
+        int verticalPadding = (int)(layoutHeight * VERTICAL_PADDING_PERCENT);
         
         // Calculate available space for the grid
-        int availableWidth = getWidth() - (horizontalPadding * 2);
-        int availableHeight = getHeight() - (verticalPadding * 2);
+        int availableWidth = layoutWidth - (horizontalPadding * 2);
+        int availableHeight = layoutHeight - (verticalPadding * 2);
         
         // Calculate cell size to fit within the padded area while maintaining 1:1 ratio
         int maxCellWidth = availableWidth / gridSize;
@@ -95,15 +186,15 @@ public class GameGrid extends JPanel {
         int totalGridHeight = cellSize * gridSize;
         
         // Calculate border size
-        int borderSize = (int)(totalGridWidth * BORDER_SIZE_PERCENT);
+        borderSize = (int)(totalGridWidth * BORDER_SIZE_PERCENT);
         if (borderSize < 6) borderSize = 6;  // Minimum border size
         
         // Calculate grid start position with horizontal offset
-        int gridStartX = horizontalPadding + (availableWidth - totalGridWidth) / 2 + HORIZONTAL_OFFSET;
-        int gridStartY = verticalPadding + (availableHeight - totalGridHeight) / 2;
+        gridStartX = horizontalPadding + (availableWidth - totalGridWidth) / 2 + HORIZONTAL_OFFSET;
+        gridStartY = verticalPadding + (availableHeight - totalGridHeight) / 2;
         
         // Add boundary checks to prevent grid from being pushed outside the visible area
-        int maxX = getWidth() - totalGridWidth - borderSize * 2;
+        int maxX = layoutWidth - totalGridWidth - borderSize * 2;
         if (gridStartX > maxX) {
             gridStartX = maxX;
         }
@@ -113,6 +204,98 @@ public class GameGrid extends JPanel {
             gridStartX = borderSize;
         }
         
+        itemColumns = Math.max(gridSize, (int) Math.ceil(Math.sqrt(items.length)));
+        itemSize = cellSize * gridSize / itemColumns;
+        itemFont = FontRegistry.getInstance().getSystemFont("Arial", Font.BOLD, Math.max(10, itemSize / 3));
+        itemMetrics = FontRegistry.getInstance().getFontMetrics(itemFont);
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        frameTimer.beginFrame();
+        super.paintComponent(g);
+        
+        if (getWidth() > 0 && getHeight() > 0) {
+            if (staticLayer == null || staticLayer.getWidth() != getWidth() || staticLayer.getHeight() != getHeight()) {
+                renderStaticLayer();
+            }
+            g.drawImage(staticLayer, 0, 0, null);
+            drawItems((Graphics2D) g);
+        }
+        frameTimer.endFrame();
+    }
+    
+    /**
+     * Draw the item tiles over the cells, shading alternate runs and marking the selection
+     */
+    private void drawItems(Graphics2D g2d) {
+        if (itemSize <= 0) {
+            return;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setFont(itemFont);
+        int inset = Math.max(2, itemSize / 10);
+        int tileSize = itemSize - inset * 2;
+        int arc = tileSize / 4;
+        boolean altRun = false;
+        
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0 && runStarts[i]) {
+                altRun = !altRun;
+            }
+            int x = gridStartX + (i % itemColumns) * itemSize + inset;
+            int y = gridStartY + (i / itemColumns) * itemSize + inset;
+            
+            g2d.setColor(altRun ? ITEM_ALT_COLOR : ITEM_COLOR);
+            g2d.fillRoundRect(x, y, tileSize, tileSize, arc, arc);
+            if (i == selectedIndex) {
+                g2d.setColor(ITEM_SELECTED_COLOR);
+                g2d.setStroke(ITEM_SELECTED_STROKE);
+            } else {
+                g2d.setColor(ITEM_BORDER_COLOR);
+                g2d.setStroke(ITEM_STROKE);
+            }
+            g2d.drawRoundRect(x, y, tileSize, tileSize, arc, arc);
+            
+            g2d.setColor(ITEM_TEXT_COLOR);
+            String label = itemLabels[i];
+            g2d.drawString(label,
+                    x + (tileSize - itemMetrics.stringWidth(label)) / 2,
+                    y + (tileSize - itemMetrics.getHeight()) / 2 + itemMetrics.getAscent());
+        }
+    }
+    
+    /**
+     * Draw the background, border and boxes once into an image matching the
+     * panel, so repaints only need to copy it
+     */
+    private void renderStaticLayer() {
+        invalidateStaticLayer();
+        
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config != null) {
+            staticLayer = config.createCompatibleImage(layoutWidth, layoutHeight, Transparency.TRANSLUCENT);
+        } else {
+            staticLayer = new BufferedImage(layoutWidth, layoutHeight, BufferedImage.TYPE_INT_ARGB);
+        }
+        
+        Graphics2D g2d = staticLayer.createGraphics();
+        try {
+            // Enable anti-aliasing for smoother rendering
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawStaticGrid(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+    
+    /**
+     * Draw the grid background, border and boxes (or their styled fallbacks)
+     */
+    private void drawStaticGrid(Graphics2D g2d) {
+        int totalGridWidth = cellSize * gridSize;
+        int totalGridHeight = cellSize * gridSize;
+        
         // If gridBgImage exists, draw it larger than the grid to create a border with gap
         if (gridBgImage != null) {
             g2d.drawImage(gridBgImage.getImage(), 
@@ -120,7 +303,7 @@ public class GameGrid extends JPanel {
                     gridStartY - borderSize, 
                     totalGridWidth + (borderSize * 2), 
                     totalGridHeight + (borderSize * 2), 
-                    this);
+                    null);
         } else {
             // Fallback: Draw styled grid background if image is missing
             drawStyledGridBackground(g2d, gridStartX, gridStartY, totalGridWidth, totalGridHeight, borderSize);
@@ -139,7 +322,7 @@ public class GameGrid extends JPanel {
                     int x = gridStartX + (col * cellSize);
                     int y = gridStartY + (row * cellSize);
                     
-                    g2d.drawImage(gridBoxImage.getImage(), x, y, cellSize, cellSize, this);
+                    g2d.drawImage(gridBoxImage.getImage(), x, y, cellSize, cellSize, null);
                 }
             }
         } else {
@@ -211,41 +394,198 @@ public class GameGrid extends JPanel {
      * Includes boundary checking
      */
     public int getGridStartX() {
-        int horizontalPadding = (int)(getWidth() * HORIZONTAL_PADDING_PERCENT);
-        int availableWidth = getWidth() - (horizontalPadding * 2);
-        int totalGridWidth = cellSize * gridSize;
-        int borderSize = (int)(totalGridWidth * BORDER_SIZE_PERCENT);
-        if (borderSize < 6) borderSize = 6;
-        
-        int x = horizontalPadding + (availableWidth - totalGridWidth) / 2 + HORIZONTAL_OFFSET;
-        
-        // Add boundary checks
-        int maxX = getWidth() - totalGridWidth - borderSize * 2;
-        if (x > maxX) {
-            x = maxX;
-        }
-        if (x < borderSize) {
-            x = borderSize;
-        }
-        
-        return x;
+        return gridStartX;
     }
     
     /**
      * Get the grid start Y coordinate (useful for positioning items)
      */
     public int getGridStartY() {
-        int verticalPadding = (int)(getHeight() * VERTICAL_PADDING_PERCENT);
-        int availableHeight = getHeight() - (verticalPadding * 2);
-        int totalGridHeight = cellSize * gridSize;
-        return verticalPadding + (availableHeight - totalGridHeight) / 2;
+        return gridStartY;
+    }
+    
+    /**
+     * Paint-time statistics for this grid
+     */
+    public FrameTimer getFrameTimer() {
+        return frameTimer;
+    }
+    
+    /**
+     * Index of the item under a point, or -1
+     */
+    private int getItemAt(int x, int y) {
+        if (itemSize <= 0 || x < gridStartX || y < gridStartY) {
+            return -1;
+        }
+        int col = (x - gridStartX) / itemSize;
+        int row = (y - gridStartY) / itemSize;
+        int index = row * itemColumns + col;
+        return col < itemColumns && index < items.length ? index : -1;
+    }
+    
+    /**
+     * Turn a click on an item into the level algorithm's move
+     */
+    private void handlePress(int index) {
+        if (!inputEnabled || index < 0) {
+            return;
+        }
+        if (algorithm == GameState.MERGE_SORT_CHALLENGE) {
+            mergeRun(index);
+        } else if (algorithm == GameState.TIMSORT_CHALLENGE) {
+            handleTimSortPress(index);
+        } else {
+            handleInsertionPress(index);
+        }
+    }
+    
+    /**
+     * Insertion Sort: click an item, then the position to insert it at
+     */
+    private void handleInsertionPress(int index) {
+        if (selectedIndex < 0) {
+            setSelectedIndex(index);
+        } else if (selectedIndex == index) {
+            setSelectedIndex(-1);
+        } else {
+            int from = selectedIndex;
+            selectedIndex = -1;
+            moveItem(from, index);
+        }
+    }
+    
+    /**
+     * TimSort: click the two ends of a descending stretch to reverse it, or
+     * the same item twice to merge its run with the next
+     */
+    private void handleTimSortPress(int index) {
+        if (selectedIndex < 0) {
+            setSelectedIndex(index);
+        } else if (selectedIndex == index) {
+            selectedIndex = -1;
+            if (!mergeRun(index)) {
+                repaint();
+            }
+        } else {
+            int from = Math.min(selectedIndex, index);
+            int to = Math.max(selectedIndex, index) + 1;
+            if (validator.isStrictlyDescending(from, to)) {
+                selectedIndex = -1;
+                reverseItems(from, to);
+            } else {
+                setSelectedIndex(index);
+            }
+        }
+    }
+    
+    private void setSelectedIndex(int index) {
+        selectedIndex = index;
+        repaint();
+    }
+    
+    /**
+     * How to make moves on this level, for the instructions
+     */
+    public String getControlsText() {
+        if (algorithm == GameState.MERGE_SORT_CHALLENGE) {
+            return "Click a run (tiles shaded alike) to merge it with the run after it.";
+        } else if (algorithm == GameState.TIMSORT_CHALLENGE) {
+            return "Click both ends of a descending stretch to reverse it, or an item twice to merge its run with the next.";
+        }
+        return "Click an item, then click the place to insert it.";
+    }
+    
+    /**
+     * Accept or ignore clicks (off while paused, and once the attempt is over)
+     */
+    public void setInputEnabled(boolean enabled) {
+        inputEnabled = enabled;
+        if (!enabled && selectedIndex >= 0) {
+            setSelectedIndex(-1);
+        }
+    }
+    
+    /**
+     * Swap the items at two positions
+     */
+    public void swapItems(int i, int j) {
+        validator.swap(i, j);
+        afterMove();
+    }
+    
+    /**
+     * Move the item at from so it ends up at to, shifting the items in between
+     */
+    public void moveItem(int from, int to) {
+        validator.move(from, to);
+        afterMove();
+    }
+    
+    /**
+     * Reverse the items from..to - 1
+     */
+    public void reverseItems(int from, int to) {
+        validator.reverse(from, to);
+        afterMove();
+    }
+    
+    /**
+     * Merge the run containing index with the run after it
+     *
+     * @return false (and no move) if it is the last run
+     */
+    public boolean mergeRun(int index) {
+        if (!validator.mergeWithNextRun(index)) {
+            return false;
+        }
+        afterMove();
+        return true;
+    }
+    
+    private void afterMove() {
+        refreshItems();
+        notifyMove();
+        repaint();
+    }
+    
+    /**
+     * Copy the arrangement out of the validator for drawing
+     */
+    private void refreshItems() {
+        items = validator.getValues();
+        itemLabels = new String[items.length];
+        runStarts = new boolean[items.length];
+        for (int i = 0; i < items.length; i++) {
+            itemLabels[i] = String.valueOf(items[i]);
+            runStarts[i] = i == 0 || items[i] < items[i - 1];
+        }
+    }
+    
+    /**
+     * Run an action after every move the player makes
+     */
+    public void setMoveListener(Runnable listener) {
+        this.moveListener = listener;
+    }
+    
+    private void notifyMove() {
+        if (moveListener != null) {
+            moveListener.run();
+        }
+    }
+    
+    /**
+     * Whether the items now solve the level (no rescan needed)
+     */
+    public boolean isSolved() {
+        return validator.isSolved();
     }
     
     /**
      * Get the current state of items as an array of values
      */
     public int[] getCurrentState() {
-        // Return empty array for now until we implement the items
-        return new int[0];
+        return validator.getValues();
     }
 }
\ No newline at end of file
@@ -0,0 +1,428 @@
+package gameproject.ui;
+
+import gameproject.model.LargeArrayChallenge;
+import gameproject.util.FrameTimer;
+import gameproject.util.UiMetrics;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+
+/**
+ * One component that draws a whole LargeArrayChallenge array, as bars or as
+ * a heat strip, however large it is.
+ *
+ * Only the visible window is drawn, one pixel column at a time (one element
+ * at a time when zoomed in far enough to see single elements), so a paint
+ * costs the width of the clip, not the length of the array. Each column
+ * summarizes the elements under it through a level-of-detail pyramid:
+ * level k holds the min, max and sum of every block of 2^k elements, so a
+ * column spanning s elements reads at most three blocks of the level just
+ * below s. Columns are snapped to those blocks, so neighbouring columns may
+ * share up to one block at the edges. After a merge only the pyramid
+ * blocks and pixel columns over the changed range are updated.
+ *
+ * Dragging pans, the mouse wheel zooms around the pointer and a click
+ * selects the run under it.
+ */
+public class LargeArrayCanvas extends JComponent {
+    /**
+     * How each column is drawn
+     */
+    public enum RenderMode {
+        BARS,       // bar up to the column's minimum, lighter span up to its maximum
+        HEAT_STRIP  // full-height strip coloured by the column's mean value
+    }
+
+    /**
+     * Notified when the player clicks an element
+     */
+    public interface SelectionListener {
+        void elementSelected(int index);
+    }
+
+    private static final Color BACKGROUND_COLOR = new Color(25, 20, 35);
+    private static final Color BAR_COLOR = new Color(120, 200, 255);
+    private static final Color SPREAD_COLOR = new Color(58, 83, 112); // BAR_COLOR at 35% over the background, opaque to keep fills cheap
+    private static final Color BOUNDARY_COLOR = new Color(255, 255, 255, 70);
+    private static final Color SELECTION_COLOR = new Color(255, 215, 0, 70);
+    private static final Color SELECTION_EDGE_COLOR = new Color(255, 215, 0);
+    private static final Color[] HEAT_COLORS = new Color[256];
+    private static final double MAX_ELEMENT_WIDTH = 24; // pixels per element at the closest zoom
+    private static final double ZOOM_STEP = 1.25;
+    private static final int DRAG_THRESHOLD = 4;
+
+    static {
+        // Low values blue, through purple, to high values orange
+        for (int i = 0; i < HEAT_COLORS.length; i++) {
+            float t = i / (float) (HEAT_COLORS.length - 1);
+            HEAT_COLORS[i] = Color.getHSBColor(0.62f + 0.46f * t, 0.8f, 0.35f + 0.6f * t);
+        }
+    }
+
+    private final FrameTimer frameTimer = UiMetrics.getInstance().getPaintTimer("LargeArrayCanvas");
+    private LargeArrayChallenge challenge;
+    private RenderMode mode = RenderMode.BARS;
+    private SelectionListener selectionListener;
+
+    // Level-of-detail pyramid; index k - 1 holds the blocks of 2^k elements
+    private int[][] blockMin;
+    private int[][] blockMax;
+    private long[][] blockSum;
+
+    // Visible window: the element at x = 0 and the elements per pixel
+    private double first;
+    private double perPixel = 1;
+    private boolean fitted;
+
+    // Selected run, [selectionStart, selectionEnd), empty when they are equal
+    private int selectionStart;
+    private int selectionEnd;
+
+    // Scratch results of aggregate()
+    private int columnMin;
+    private int columnMax;
+    private double columnMean;
+
+    public LargeArrayCanvas() {
+        setOpaque(true);
+        MouseAdapter mouse = new MouseAdapter() {
+            private int pressX;
+            private double pressFirst;
+            private boolean dragging;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                pressX = e.getX();
+                pressFirst = first;
+                dragging = false;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (Math.abs(e.getX() - pressX) >= DRAG_THRESHOLD) {
+                    dragging = true;
+                }
+                if (dragging) {
+                    scrollTo(pressFirst - (e.getX() - pressX) * perPixel);
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (!dragging && challenge != null && selectionListener != null) {
+                    int index = indexAt(e.getX());
+                    if (index >= 0) {
+                        selectionListener.elementSelected(index);
+                    }
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(Math.pow(ZOOM_STEP, e.getPreciseWheelRotation()), e.getX());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * Show a challenge's array, zoomed out to fit
+     */
+    public void setChallenge(LargeArrayChallenge challenge) {
+        this.challenge = challenge;
+        selectionStart = 0;
+        selectionEnd = 0;
+        buildPyramid();
+        // Fit now, or on the first layout if there is no size yet
+        fitted = true;
+        zoomToFit();
+    }
+
+    public void setSelectionListener(SelectionListener listener) {
+        this.selectionListener = listener;
+    }
+
+    public RenderMode getMode() {
+        return mode;
+    }
+
+    public void setMode(RenderMode mode) {
+        this.mode = mode;
+        repaint();
+    }
+
+    /**
+     * Highlight elements [start, end) (the selected run)
+     */
+    public void setSelection(int start, int end) {
+        repaintRange(selectionStart, selectionEnd);
+        selectionStart = start;
+        selectionEnd = end;
+        repaintRange(selectionStart, selectionEnd);
+    }
+
+    /**
+     * The values in [start, end) changed: update their pyramid blocks and repaint their columns
+     */
+    public void valuesChanged(int start, int end) {
+        if (challenge == null || start >= end) {
+            return;
+        }
+        updatePyramid(start, end);
+        repaintRange(start, end);
+    }
+
+    /**
+     * Show the whole array
+     */
+    public void zoomToFit() {
+        if (challenge == null || getWidth() == 0) {
+            return;
+        }
+        fitted = true;
+        perPixel = maxPerPixel();
+        first = 0;
+        repaint();
+    }
+
+    /**
+     * Zoom by factor (above 1 zooms out), keeping the element under x in place
+     */
+    public void zoom(double factor, int x) {
+        if (challenge == null || getWidth() == 0) {
+            return;
+        }
+        double anchor = first + x * perPixel;
+        perPixel = Math.max(1 / MAX_ELEMENT_WIDTH, Math.min(maxPerPixel(), perPixel * factor));
+        fitted = false;
+        scrollTo(anchor - x * perPixel);
+    }
+
+    /**
+     * Elements per pixel with the whole array in view
+     */
+    private double maxPerPixel() {
+        return Math.max(1 / MAX_ELEMENT_WIDTH, (double) challenge.size() / Math.max(1, getWidth()));
+    }
+
+    private void scrollTo(double index) {
+        double last = Math.max(0, challenge.size() - getWidth() * perPixel);
+        first = Math.max(0, Math.min(last, index));
+        repaint();
+    }
+
+    /**
+     * Element under pixel column x, or -1 past the end
+     */
+    public int indexAt(int x) {
+        int index = (int) Math.floor(first + x * perPixel);
+        return index >= 0 && index < challenge.size() ? index : -1;
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        // Stay fitted through resizes; otherwise keep the zoom and stay in range
+        if (challenge != null && width > 0) {
+            if (fitted || perPixel > maxPerPixel()) {
+                zoomToFit();
+            } else {
+                scrollTo(first);
+            }
+        }
+    }
+
+    private void buildPyramid() {
+        int n = challenge.size();
+        int levels = 0;
+        while ((1 << levels) < n) {
+            levels++;
+        }
+        blockMin = new int[levels][];
+        blockMax = new int[levels][];
+        blockSum = new long[levels][];
+        for (int k = 1; k <= levels; k++) {
+            int blocks = (n + (1 << k) - 1) >> k;
+            blockMin[k - 1] = new int[blocks];
+            blockMax[k - 1] = new int[blocks];
+            blockSum[k - 1] = new long[blocks];
+        }
+        updatePyramid(0, n);
+    }
+
+    /**
+     * Recompute the blocks over elements [start, end), level by level
+     */
+    private void updatePyramid(int start, int end) {
+        int[] values = challenge.getValues();
+        int n = values.length;
+        for (int k = 1; k <= blockMin.length; k++) {
+            int[] min = blockMin[k - 1];
+            int[] max = blockMax[k - 1];
+            long[] sum = blockSum[k - 1];
+            for (int b = start >> k; b <= (end - 1) >> k; b++) {
+                int left = 2 * b;
+                int right = left + 1;
+                if (k == 1) {
+                    boolean hasRight = right < n;
+                    min[b] = hasRight ? Math.min(values[left], values[right]) : values[left];
+                    max[b] = hasRight ? Math.max(values[left], values[right]) : values[left];
+                    sum[b] = hasRight ? (long) values[left] + values[right] : values[left];
+                } else {
+                    int[] childMin = blockMin[k - 2];
+                    int[] childMax = blockMax[k - 2];
+                    long[] childSum = blockSum[k - 2];
+                    boolean hasRight = right < childMin.length;
+                    min[b] = hasRight ? Math.min(childMin[left], childMin[right]) : childMin[left];
+                    max[b] = hasRight ? Math.max(childMax[left], childMax[right]) : childMax[left];
+                    sum[b] = hasRight ? childSum[left] + childSum[right] : childSum[left];
+                }
+            }
+        }
+    }
+
+    /**
+     * Min, max and mean of elements [from, to) (to > from + 1), read from
+     * the pyramid level below the span, into columnMin/columnMax/columnMean
+     */
+    private void aggregate(int from, int to) {
+        int k = Math.min(blockMin.length, 31 - Integer.numberOfLeadingZeros(to - from));
+        int[] min = blockMin[k - 1];
+        int[] max = blockMax[k - 1];
+        long[] sum = blockSum[k - 1];
+        int firstBlock = from >> k;
+        int lastBlock = (to - 1) >> k;
+        columnMin = Integer.MAX_VALUE;
+        columnMax = Integer.MIN_VALUE;
+        long total = 0;
+        for (int b = firstBlock; b <= lastBlock; b++) {
+            columnMin = Math.min(columnMin, min[b]);
+            columnMax = Math.max(columnMax, max[b]);
+            total += sum[b];
+        }
+        long count = Math.min((long) (lastBlock + 1) << k, challenge.size()) - ((long) firstBlock << k);
+        columnMean = (double) total / count;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        frameTimer.beginFrame();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(BACKGROUND_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        if (challenge != null) {
+            if (perPixel >= 1) {
+                paintColumns(g, clip);
+            } else {
+                paintElements(g, clip);
+            }
+            paintRuns(g, clip);
+        }
+        frameTimer.endFrame();
+    }
+
+    /**
+     * Zoomed out: one aggregated column per pixel
+     */
+    private void paintColumns(Graphics g, Rectangle clip) {
+        int[] values = challenge.getValues();
+        int n = values.length;
+        for (int x = clip.x; x < clip.x + clip.width; x++) {
+            int from = (int) (first + x * perPixel);
+            if (from >= n) {
+                break;
+            }
+            int to = Math.min(n, Math.max(from + 1, (int) (first + (x + 1) * perPixel)));
+            if (to - from == 1) {
+                paintValue(g, x, 1, values[from], values[from], values[from]);
+            } else {
+                aggregate(from, to);
+                paintValue(g, x, 1, columnMin, columnMax, columnMean);
+            }
+        }
+    }
+
+    /**
+     * Zoomed in: each visible element is wider than a pixel
+     */
+    private void paintElements(Graphics g, Rectangle clip) {
+        int[] values = challenge.getValues();
+        int start = Math.max(0, (int) (first + clip.x * perPixel));
+        int end = Math.min(values.length, (int) Math.ceil(first + (clip.x + clip.width) * perPixel));
+        for (int i = start; i < end; i++) {
+            int x = xOf(i);
+            int width = Math.max(1, xOf(i + 1) - x - 1);
+            paintValue(g, x, width, values[i], values[i], values[i]);
+        }
+    }
+
+    private void paintValue(Graphics g, int x, int width, int min, int max, double mean) {
+        int height = getHeight();
+        double range = (double) challenge.getMaxValue() - challenge.getMinValue() + 1;
+        if (mode == RenderMode.HEAT_STRIP) {
+            int shade = (int) ((mean - challenge.getMinValue()) / range * HEAT_COLORS.length);
+            g.setColor(HEAT_COLORS[Math.max(0, Math.min(HEAT_COLORS.length - 1, shade))]);
+            g.fillRect(x, 0, width, height);
+        } else {
+            int minTop = height - (int) Math.round((min - challenge.getMinValue() + 1) / range * height);
+            int maxTop = height - (int) Math.round((max - challenge.getMinValue() + 1) / range * height);
+            g.setColor(BAR_COLOR);
+            g.fillRect(x, minTop, width, height - minTop);
+            if (maxTop < minTop) {
+                g.setColor(SPREAD_COLOR);
+                g.fillRect(x, maxTop, width, minTop - maxTop);
+            }
+        }
+    }
+
+    /**
+     * Run boundaries and the selected run over the visible window
+     */
+    private void paintRuns(Graphics g, Rectangle clip) {
+        int height = getHeight();
+        int start = Math.max(0, (int) (first + clip.x * perPixel));
+        int end = Math.min(challenge.size(), (int) Math.ceil(first + (clip.x + clip.width) * perPixel) + 1);
+        g.setColor(BOUNDARY_COLOR);
+        for (int i = challenge.getRunEnd(start); i < end; i = challenge.getRunEnd(i)) {
+            g.fillRect(xOf(i), 0, 1, height);
+        }
+
+        if (selectionEnd > selectionStart) {
+            int x0 = xOf(selectionStart);
+            int x1 = Math.max(x0 + 1, xOf(selectionEnd));
+            g.setColor(SELECTION_COLOR);
+            g.fillRect(x0, 0, x1 - x0, height);
+            g.setColor(SELECTION_EDGE_COLOR);
+            g.drawRect(x0, 0, x1 - x0 - 1, height - 1);
+        }
+    }
+
+    private int xOf(int index) {
+        return (int) Math.floor((index - first) / perPixel);
+    }
+
+    /**
+     * Repaint just the columns over elements [start, end)
+     */
+    private void repaintRange(int start, int end) {
+        if (challenge == null || end <= start) {
+            return;
+        }
+        int x0 = Math.max(0, xOf(start) - 1);
+        int x1 = Math.min(getWidth(), xOf(end) + 2);
+        if (x1 > x0) {
+            repaint(x0, 0, x1 - x0, getHeight());
+        }
+    }
+}
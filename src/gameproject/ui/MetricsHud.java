@@ -0,0 +1,97 @@
+package gameproject.ui;
+
+import gameproject.util.FontRegistry;
+import gameproject.util.FrameTimer;
+import gameproject.util.UiMetrics;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.List;
+
+/**
+ * Translucent overlay listing the current UI metrics.
+ *
+ * Sits in the frame's layered pane above every view. It has no mouse
+ * listeners, so clicks pass through to the game underneath. The overlay
+ * repaints after each metrics sample and samples only while it is visible.
+ */
+public class MetricsHud extends JComponent {
+    private static final Font HUD_FONT = FontRegistry.getInstance().getSystemFont(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color HUD_BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Color HUD_TEXT = new Color(180, 255, 180);
+    private static final int LINE_HEIGHT = 15;
+    private static final int PADDING = 8;
+    private static final int HUD_WIDTH = 420;
+
+    private final UiMetrics metrics = UiMetrics.getInstance();
+
+    /**
+     * Constructor - the HUD starts hidden
+     */
+    public MetricsHud() {
+        setOpaque(false);
+        setVisible(false);
+        setLocation(10, 10);
+        updateSize();
+        metrics.addSampleListener(() -> {
+            if (isVisible()) {
+                updateSize();
+                repaint();
+            }
+        });
+    }
+
+    /**
+     * Show or hide the HUD, starting or stopping sampling with it
+     */
+    public void toggle() {
+        setVisible(!isVisible());
+        if (isVisible()) {
+            metrics.start();
+        } else {
+            metrics.stop();
+        }
+    }
+
+    private void updateSize() {
+        // Header, one line per series, GC totals, repaint regions
+        int lines = metrics.getSeries().size() + 3;
+        setSize(HUD_WIDTH, lines * LINE_HEIGHT + PADDING * 2);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(HUD_BACKGROUND);
+        g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(HUD_TEXT);
+        int y = PADDING + LINE_HEIGHT - 3;
+        g2d.drawString(String.format("UI metrics (%d samples)   F3 hide  F4 export", metrics.getSampleCount()), PADDING, y);
+
+        List<FrameTimer> series = metrics.getSeries();
+        for (FrameTimer timer : series) {
+            y += LINE_HEIGHT;
+            g2d.drawString(String.format("%-24s avg %7.2f  max %7.2f ms",
+                    timer.getName(), timer.getAverageMillis(), timer.getMaxMillis()), PADDING, y);
+        }
+
+        y += LINE_HEIGHT;
+        g2d.drawString(String.format("GC total: %d collections, %d ms", metrics.getGcCount(), metrics.getGcMillis()), PADDING, y);
+
+        y += LINE_HEIGHT;
+        RepaintRegionTracker tracker = RepaintRegionTracker.getInstance();
+        if (tracker != null) {
+            g2d.drawString(String.format("Last repaint: %d regions, %,d px",
+                    tracker.getLastFrameRegions(), tracker.getLastFramePixels()), PADDING, y);
+        } else {
+            g2d.drawString("Repaint regions: run with -Dsmartsort.repaintRegions=true", PADDING, y);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package gameproject.ui;
+
+import gameproject.util.AnimationClock;
+import gameproject.util.GameConstants;
+
+import javax.swing.JComponent;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Lightweight particle layer for boss battle effects.
+ *
+ * Particle state lives in parallel primitive arrays sized to the particle
+ * cap, so spawning and expiring particles needs no components, layout
+ * passes or timers, and every live particle is drawn in a single
+ * paintComponent pass. Dead particles are swapped with the last live one,
+ * keeping the live range packed.
+ */
+public class ParticleSystem extends JComponent {
+    // Simulation step (one clock frame)
+    private static final float STEP_SECONDS = AnimationClock.FRAME_INTERVAL / 1000f;
+    
+    private static final Color DISTORTION_RING_COLOR = new Color(255, 50, 255, 180);
+
+    /**
+     * Boss-specific spawn rules
+     */
+    public enum Emitter {
+        FLAMECLAW,
+        TOXITAR,
+        LORD_CHAOSA;
+
+        /**
+         * Pick the emitter for a boss name (Flameclaw if unknown)
+         */
+        public static Emitter forBoss(String bossName) {
+            if ("Toxitar".equals(bossName)) {
+                return TOXITAR;
+            } else if ("LordChaosa".equals(bossName)) {
+                return LORD_CHAOSA;
+            }
+            return FLAMECLAW;
+        }
+    }
+
+    private final AnimationClock.Group animations;
+    private final Random rand = new Random();
+
+    // Particle state, one slot per particle; [0, count) are alive
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] size;
+    private final float[] life;      // seconds remaining
+    private final int[] color;       // ARGB
+    private final boolean[] ringed;  // draw distortion rings (Lord Chaosa)
+    private final Color[] paint;     // color[] as a Color, built once per spawn
+    private int count;
+
+    private AnimationClock.Animation simulation;
+    private int remainingSpawns;
+    private float spawnTimer;
+    private float spawnInterval;
+    private Emitter emitter;
+
+    /**
+     * Constructor
+     *
+     * @param animations group that drives the simulation (pausing it freezes the particles)
+     * @param maxParticles cap on live particles; spawns beyond it are skipped
+     */
+    public ParticleSystem(AnimationClock.Group animations, int maxParticles) {
+        this.animations = animations;
+        x = new float[maxParticles];
+        y = new float[maxParticles];
+        vx = new float[maxParticles];
+        vy = new float[maxParticles];
+        size = new float[maxParticles];
+        life = new float[maxParticles];
+        color = new int[maxParticles];
+        ringed = new boolean[maxParticles];
+        paint = new Color[maxParticles];
+        setOpaque(false);
+    }
+
+    /**
+     * Emit a number of particles from a boss emitter, one every interval
+     */
+    public void start(Emitter emitter, int particles, int intervalMillis) {
+        stop();
+        this.emitter = emitter;
+        this.remainingSpawns = particles;
+        this.spawnInterval = intervalMillis / 1000f;
+        this.spawnTimer = spawnInterval;
+
+        // Runs until emission is finished and the last particle has faded
+        simulation = animations.every(AnimationClock.FRAME_INTERVAL, () -> {
+            update(STEP_SECONDS);
+            return remainingSpawns > 0 || count > 0;
+        }).repaints(this);
+    }
+
+    /**
+     * Stop emitting and clear every particle
+     */
+    public void stop() {
+        if (simulation != null) {
+            simulation.cancel();
+            simulation = null;
+        }
+        remainingSpawns = 0;
+        Arrays.fill(paint, 0, count, null);
+        count = 0;
+        repaint();
+    }
+
+    @Override
+    public void removeNotify() {
+        // Nothing left to draw on once the overlay is gone
+        stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Number of live particles
+     */
+    public int getParticleCount() {
+        return count;
+    }
+
+    /**
+     * Maximum number of live particles
+     */
+    public int getMaxParticles() {
+        return x.length;
+    }
+
+    /**
+     * Advance the simulation by one step
+     */
+    void update(float dt) {
+        // Emit on schedule
+        if (remainingSpawns > 0) {
+            spawnTimer -= dt;
+            while (spawnTimer <= 0 && remainingSpawns > 0) {
+                spawn();
+                remainingSpawns--;
+                spawnTimer += spawnInterval;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            life[i] -= dt;
+            if (life[i] <= 0) {
+                // Move the last live particle into this slot and re-check it
+                removeAt(i);
+                i--;
+                continue;
+            }
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+
+            if (emitter == Emitter.LORD_CHAOSA) {
+                // Reality distortions pulse outwards
+                size[i] += 12f * dt;
+            }
+        }
+    }
+
+    private void removeAt(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        size[i] = size[last];
+        life[i] = life[last];
+        color[i] = color[last];
+        ringed[i] = ringed[last];
+        paint[i] = paint[last];
+        paint[last] = null;
+    }
+
+    /**
+     * Create one particle using the current emitter's rules
+     */
+    private void spawn() {
+        if (count >= x.length) {
+            // At the cap: skip rather than allocate or recycle a live particle
+            return;
+        }
+        int i = count++;
+        int centerX = GameConstants.WINDOW_WIDTH / 2;
+
+        switch (emitter) {
+            case TOXITAR:
+                // Toxitar's poison spreads more on the ground - green clouds drifting sideways
+                x[i] = centerX + rand.nextInt(400) - 200;
+                y[i] = 300 + rand.nextInt(150);
+                vx[i] = rand.nextFloat() * 30f - 15f;
+                vy[i] = rand.nextFloat() * 10f - 5f;
+                size[i] = rand.nextInt(25) + 15;
+                color[i] = argb(rand.nextInt(100) + 155, rand.nextInt(100),
+                        rand.nextInt(100) + 155, rand.nextInt(50));
+                ringed[i] = false;
+                break;
+            case LORD_CHAOSA:
+                // Lord Chaosa's reality distortions appear all around - large purple/magenta rifts
+                x[i] = centerX + rand.nextInt(600) - 300;
+                y[i] = 200 + rand.nextInt(400) - 100;
+                vx[i] = 0;
+                vy[i] = 0;
+                size[i] = rand.nextInt(50) + 30;
+                color[i] = argb(rand.nextInt(100) + 155, rand.nextInt(100) + 155,
+                        rand.nextInt(50), rand.nextInt(100) + 155);
+                ringed[i] = true;
+                break;
+            default:
+                // Flameclaw's fire comes more from the center - small sparks rising
+                x[i] = centerX + rand.nextInt(300) - 150;
+                y[i] = 250 + rand.nextInt(200) - 100;
+                vx[i] = rand.nextFloat() * 20f - 10f;
+                vy[i] = -(rand.nextFloat() * 40f + 20f);
+                size[i] = rand.nextInt(20) + 10;
+                color[i] = argb(rand.nextInt(100) + 155, rand.nextInt(100) + 155,
+                        rand.nextInt(100), rand.nextInt(50));
+                ringed[i] = false;
+                break;
+        }
+        paint[i] = new Color(color[i], true);
+        
+        // Each particle lasts 0.5 - 1.5 seconds
+        life[i] = 0.5f + rand.nextInt(1000) / 1000f;
+    }
+
+    private static int argb(int alpha, int red, int green, int blue) {
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (count == 0) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D) g;
+        Composite originalComposite = g2d.getComposite();
+
+        for (int i = 0; i < count; i++) {
+            g2d.setColor(paint[i]);
+            int px = (int) x[i];
+            int py = (int) y[i];
+            int s = (int) size[i];
+            g2d.fillOval(px, py, s, s);
+
+            if (ringed[i]) {
+                // Draw distortion rings
+                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.7f));
+                g2d.setColor(DISTORTION_RING_COLOR);
+                g2d.drawOval(px + 5, py + 5, s - 10, s - 10);
+                g2d.drawOval(px + 10, py + 10, s - 20, s - 20);
+                g2d.setComposite(originalComposite);
+            }
+        }
+    }
+}
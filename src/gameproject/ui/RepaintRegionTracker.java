@@ -0,0 +1,128 @@
+package gameproject.ui;
+
+import gameproject.util.FontRegistry;
+
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Debug overlay for repaint cost.
+ *
+ * Installed as the RepaintManager, it groups everything painted in one
+ * dirty-region pass into a frame. The tracked component calls paintOverlay()
+ * at the end of paint(), which outlines the region that was just repainted
+ * and records its pixel count. Outline colors alternate per frame so
+ * consecutive repaints can be told apart.
+ */
+public class RepaintRegionTracker extends RepaintManager {
+    private static final Color[] FRAME_COLORS = {
+        new Color(255, 0, 255, 200),
+        new Color(0, 255, 255, 200)
+    };
+    private static final Font LABEL_FONT = FontRegistry.getInstance().getSystemFont("SansSerif", Font.PLAIN, 10);
+
+    // Frames between console summaries
+    private static final int REPORT_INTERVAL = 60;
+
+    private static RepaintRegionTracker instance;
+
+    private final List<Rectangle> frameRegions = new ArrayList<>();
+    private long frameNumber;
+    private int lastFrameRegions;
+    private long lastFramePixels;
+    private long reportPixels;
+    private int reportFrames;
+    private long scenePixels = 1;
+
+    private RepaintRegionTracker() {
+    }
+
+    /**
+     * Install the tracker as the current RepaintManager (once)
+     */
+    public static synchronized RepaintRegionTracker install() {
+        if (instance == null) {
+            instance = new RepaintRegionTracker();
+            RepaintManager.setCurrentManager(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * The installed tracker, or null if repaint tracking is off
+     */
+    public static synchronized RepaintRegionTracker getInstance() {
+        return instance;
+    }
+
+    @Override
+    public void paintDirtyRegions() {
+        frameRegions.clear();
+        super.paintDirtyRegions();
+        if (frameRegions.isEmpty()) {
+            return;
+        }
+
+        long pixels = 0;
+        for (Rectangle region : frameRegions) {
+            pixels += (long) region.width * region.height;
+        }
+        frameNumber++;
+        lastFrameRegions = frameRegions.size();
+        lastFramePixels = pixels;
+
+        reportPixels += pixels;
+        reportFrames++;
+        if (reportFrames == REPORT_INTERVAL) {
+            System.out.println(String.format("DEBUG: repaint regions: avg %,d px/frame (%.1f%% of scene) over %d frames",
+                    reportPixels / reportFrames, 100.0 * reportPixels / reportFrames / scenePixels, reportFrames));
+            reportPixels = 0;
+            reportFrames = 0;
+        }
+    }
+
+    /**
+     * Outline the region of the component that was just painted and record it.
+     * Call at the end of the component's paint().
+     */
+    public void paintOverlay(JComponent component, Graphics g) {
+        Rectangle region = g.getClipBounds();
+        if (region == null) {
+            region = new Rectangle(0, 0, component.getWidth(), component.getHeight());
+        }
+        scenePixels = Math.max(1, (long) component.getWidth() * component.getHeight());
+        frameRegions.add(region);
+
+        g.setColor(FRAME_COLORS[(int) (frameNumber % FRAME_COLORS.length)]);
+        g.drawRect(region.x, region.y, region.width - 1, region.height - 1);
+        g.setFont(LABEL_FONT);
+        g.drawString(String.format("%,d px", (long) region.width * region.height), region.x + 3, region.y + 12);
+    }
+
+    /**
+     * Regions repainted in the last frame
+     */
+    public int getLastFrameRegions() {
+        return lastFrameRegions;
+    }
+
+    /**
+     * Pixels repainted in the last frame
+     */
+    public long getLastFramePixels() {
+        return lastFramePixels;
+    }
+
+    /**
+     * Frames with at least one repainted region
+     */
+    public long getFrameCount() {
+        return frameNumber;
+    }
+}
@@ -0,0 +1,315 @@
+package gameproject.ui;
+
+import gameproject.util.AnimationClock;
+
+import javax.swing.JComponent;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Container;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.logging.Logger;
+
+/**
+ * Reusable scene transition overlay.
+ *
+ * The outgoing and incoming scenes are each painted once into a snapshot;
+ * every frame of the transition then only blends the two snapshots (and an
+ * optional solid color) instead of repainting the live component tree.
+ * Snapshots live in VolatileImages so the blend is an accelerated blit; a
+ * BufferedImage copy restores them if the video memory contents are lost.
+ *
+ * Progress follows elapsed time, so under load frames are dropped rather
+ * than the transition slowing down. A frame is also skipped while the
+ * previous one is still waiting to be painted.
+ *
+ * The scene must use absolute positioning (null layout): the overlay is
+ * added on top of it for the duration of the transition.
+ */
+public class SceneTransition extends JComponent {
+    private static final Logger LOGGER = Logger.getLogger(SceneTransition.class.getName());
+
+    private final AnimationClock.Group animations;
+    private final Snapshot outgoing = new Snapshot();
+    private final Snapshot incoming = new Snapshot();
+
+    // What the current frame shows: fill color (if any), then both snapshots
+    private Color fillColor;
+    private float outgoingAlpha;
+    private float incomingAlpha;
+
+    private AnimationClock.Animation animation;
+    private boolean paintPending;
+    private int framesPainted;
+    private int framesSkipped;
+
+    /**
+     * A scene captured once and drawn from video memory
+     */
+    private static class Snapshot {
+        private BufferedImage pixels;
+        private VolatileImage image;
+        private boolean captured;
+        private boolean uploaded;
+
+        /**
+         * Paint the scene's current appearance into the snapshot
+         */
+        void capture(JComponent scene) {
+            int width = scene.getWidth();
+            int height = scene.getHeight();
+            if (pixels == null || pixels.getWidth() != width || pixels.getHeight() != height) {
+                GraphicsConfiguration gc = scene.getGraphicsConfiguration();
+                pixels = gc != null
+                        ? gc.createCompatibleImage(width, height, Transparency.OPAQUE)
+                        : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g2d = pixels.createGraphics();
+            try {
+                scene.paint(g2d);
+            } finally {
+                g2d.dispose();
+            }
+            captured = true;
+            uploaded = false;
+        }
+
+        /**
+         * The image to draw: the VolatileImage, (re)uploaded when needed, or the
+         * BufferedImage copy when there is no screen device or VRAM was just lost
+         */
+        Image get(GraphicsConfiguration gc) {
+            if (gc == null) {
+                return pixels;
+            }
+            int width = pixels.getWidth();
+            int height = pixels.getHeight();
+            if (image == null || image.getWidth() != width || image.getHeight() != height
+                    || image.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (image != null) {
+                    image.flush();
+                }
+                image = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+                uploaded = false;
+            } else if (image.contentsLost()) {
+                uploaded = false;
+            }
+
+            if (!uploaded) {
+                Graphics2D g2d = image.createGraphics();
+                try {
+                    g2d.drawImage(pixels, 0, 0, null);
+                } finally {
+                    g2d.dispose();
+                }
+                uploaded = true;
+            }
+            return image.contentsLost() ? pixels : image;
+        }
+
+        boolean isCaptured() {
+            return captured;
+        }
+
+        /**
+         * Free the video memory; the pixel buffer is kept for the next capture
+         */
+        void release() {
+            if (image != null) {
+                image.flush();
+                image = null;
+            }
+            captured = false;
+            uploaded = false;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param animations group that drives the transitions (pausing it freezes them)
+     */
+    public SceneTransition(AnimationClock.Group animations) {
+        this.animations = animations;
+        setOpaque(true);
+    }
+
+    /**
+     * Crossfade directly from the scene as it is now to the scene after swap runs
+     */
+    public void crossfade(JComponent scene, int durationMillis, AnimationClock.Easing easing,
+            Runnable swap, Runnable onComplete) {
+        begin(scene);
+        outgoing.capture(scene);
+        fillColor = null;
+        outgoingAlpha = 1f;
+        incomingAlpha = 0f;
+        show(scene);
+
+        swapAndCapture(scene, swap);
+        animation = animations.tween(durationMillis, easing, progress -> {
+            incomingAlpha = progress;
+            requestFrame();
+        }).onComplete(() -> finish(onComplete));
+    }
+
+    /**
+     * Fade the scene out to a color, hold it, run swap while the screen is
+     * covered, then fade the new scene in
+     */
+    public void fadeThrough(JComponent scene, Color color, int fadeMillis, int holdMillis,
+            Runnable swap, Runnable onComplete) {
+        begin(scene);
+        outgoing.capture(scene);
+        fillColor = color;
+        outgoingAlpha = 1f;
+        incomingAlpha = 0f;
+        show(scene);
+
+        animation = animations.tween(fadeMillis, AnimationClock.Easing.LINEAR, progress -> {
+            outgoingAlpha = 1f - progress;
+            requestFrame();
+        }).onComplete(() -> {
+            outgoing.release();
+            swapAndCapture(scene, swap);
+            animation = animations.after(holdMillis, () -> fadeIn(fadeMillis, onComplete));
+        });
+    }
+
+    /**
+     * Fade the scene in from a solid color
+     */
+    public void reveal(JComponent scene, Color color, int durationMillis, Runnable onComplete) {
+        begin(scene);
+        fillColor = color;
+        outgoingAlpha = 0f;
+        incomingAlpha = 0f;
+        show(scene);
+        swapAndCapture(scene, null);
+        fadeIn(durationMillis, onComplete);
+    }
+
+    /**
+     * Stop a running transition and show the live scene; its completion action never runs
+     */
+    public void cancel() {
+        if (animation != null) {
+            animation.cancel();
+            animation = null;
+        }
+        removeFromScene();
+    }
+
+    /**
+     * True while a transition is on screen
+     */
+    public boolean isRunning() {
+        return getParent() != null;
+    }
+
+    private void fadeIn(int durationMillis, Runnable onComplete) {
+        animation = animations.tween(durationMillis, AnimationClock.Easing.LINEAR, progress -> {
+            incomingAlpha = progress;
+            requestFrame();
+        }).onComplete(() -> finish(onComplete));
+    }
+
+    private void begin(JComponent scene) {
+        cancel();
+        framesPainted = 0;
+        framesSkipped = 0;
+        paintPending = false;
+        scene.validate();
+    }
+
+    private void show(JComponent scene) {
+        setBounds(0, 0, scene.getWidth(), scene.getHeight());
+        scene.add(this, 0);
+        scene.repaint();
+    }
+
+    /**
+     * Change the scene underneath the overlay, then snapshot the result
+     */
+    private void swapAndCapture(JComponent scene, Runnable swap) {
+        if (swap != null) {
+            swap.run();
+        }
+        // The swap may have added components above the overlay
+        scene.setComponentZOrder(this, 0);
+        scene.validate();
+
+        setVisible(false);
+        incoming.capture(scene);
+        setVisible(true);
+    }
+
+    /**
+     * Ask for a frame unless one is still pending
+     */
+    private void requestFrame() {
+        if (paintPending) {
+            framesSkipped++;
+            return;
+        }
+        paintPending = true;
+        repaint();
+    }
+
+    private void finish(Runnable onComplete) {
+        animation = null;
+        removeFromScene();
+        LOGGER.fine("Scene transition finished: " + framesPainted + " frames painted, "
+                + framesSkipped + " skipped");
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    private void removeFromScene() {
+        Container scene = getParent();
+        if (scene != null) {
+            scene.remove(this);
+            scene.repaint();
+        }
+        outgoing.release();
+        incoming.release();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+
+        if (fillColor != null) {
+            g2d.setColor(fillColor);
+            g2d.fillRect(0, 0, getWidth(), getHeight());
+        }
+        drawSnapshot(g2d, outgoing, outgoingAlpha, gc);
+        drawSnapshot(g2d, incoming, incomingAlpha, gc);
+
+        paintPending = false;
+        framesPainted++;
+    }
+
+    private void drawSnapshot(Graphics2D g2d, Snapshot snapshot, float alpha, GraphicsConfiguration gc) {
+        if (alpha <= 0f || !snapshot.isCaptured()) {
+            return;
+        }
+        Image image = snapshot.get(gc);
+        if (alpha >= 1f) {
+            g2d.drawImage(image, 0, 0, null);
+            return;
+        }
+        Composite originalComposite = g2d.getComposite();
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g2d.drawImage(image, 0, 0, null);
+        g2d.setComposite(originalComposite);
+    }
+}
@@ -1,9 +1,19 @@
 package gameproject.ui;
 
 import gameproject.controller.GameController;
+import gameproject.model.GameState;
 import gameproject.model.NarrativeSystem;
+import gameproject.model.SessionSnapshot;
+import gameproject.model.SolutionValidator;
+import gameproject.service.SortednessAnalytics;
+import gameproject.service.SortingService;
+import gameproject.service.StableGrouper;
+import gameproject.util.AnimationClock;
+import gameproject.util.FontRegistry;
+import gameproject.util.FrameTimer;
 import gameproject.util.ResourceManager;
 import gameproject.util.GameConstants;
+import gameproject.util.UiMetrics;
 import gameproject.view.DialogueManager;
 
 import javax.swing.*;
@@ -13,9 +23,12 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 
 /**
@@ -26,6 +39,7 @@ public class TimSortVisualization extends JPanel {
     // References
     private GameController controller;
     private ResourceManager resourceManager;
+    private FontRegistry fontRegistry;
     
     // UI Components
     private JPanel gridPanel;
@@ -42,7 +56,6 @@ public class TimSortVisualization extends JPanel {
     private ImageIcon pauseHoverIcon;
     private ImageIcon hintNormalIcon;
     private ImageIcon hintHoverIcon;
-    private Font pixelifySansFont;
     
     // Game state
     private int currentPhase = 1; // 1: Eye of Pattern, 2: Hand of Balance, 3: Mind of Unity
@@ -58,6 +71,10 @@ public class TimSortVisualization extends JPanel {
     private List<IngredientItem> rightGroup = new ArrayList<>();
     private boolean isLeftGroupSorted = false;
     private boolean isRightGroupSorted = false;
+    private final SortingService sortingService = new SortingService();
+    private static final Comparator<IngredientItem> BY_VALUE = Comparator.comparingInt(IngredientItem::getValue);
+    // Both rows as TimSort runs, updated as Hand of Balance places each ingredient (null until it is used)
+    private SolutionValidator runsValidator;
     
     // Mind of Unity phase variables
     private List<IngredientItem> mergedItems = new ArrayList<>();
@@ -69,6 +86,10 @@ public class TimSortVisualization extends JPanel {
     private static final int MAX_SELECTIONS = 10;
     private static final int INGREDIENT_SIZE = 100;
     private static final int GROUP_SIZE = 5; // Size of each group in phase 2
+    public static final int INGREDIENT_COUNT = GRID_ROWS * GRID_COLS; // Ingredients every phase plays with
+    // Potion types, in tie-break order, and the potion each one brews
+    private static final String[] POTION_TYPES = {"fire", "cold", "strength", "dexterity"};
+    private static final String[] POTION_NAMES = {"Fire Resistance", "Cold Resistance", "Strength", "Dexterity"};
     
     // Store the potion types identified in Phase 2 - to be used in Phase 3
     private String leftGroupPotionType = "Fire Resistance";  // Default value
@@ -82,7 +103,13 @@ public class TimSortVisualization extends JPanel {
     
 
    // Add a list to track all active timers
-    private List<Timer> activeTimers = new ArrayList<>();
+    // Animations on the shared frame clock. phaseAnimations are the ones a
+    // dialogue or phase change cancels; the rest run to completion.
+    private final AnimationClock.Group animations = AnimationClock.getInstance().createGroup();
+    private final AnimationClock.Group phaseAnimations = AnimationClock.getInstance().createGroup();
+    
+    // Repaint region overlay (only when enabled in GameConstants)
+    private RepaintRegionTracker repaintTracker;
     
     
     
@@ -110,12 +137,17 @@ public class TimSortVisualization extends JPanel {
     private ImageIcon currentActiveIcon;
     private ImageIcon currentDisabledIcon;
     
+    // Session snapshot support - only record once gameplay has started
+    private boolean sessionActive = false;
+    private SessionSnapshot pendingSnapshot = null;
+    
     /**
      * Constructor - Initialize the TimSort visualization
      */
     public TimSortVisualization(GameController controller) {
         this.controller = controller;
         this.resourceManager = ResourceManager.getInstance();
+        this.fontRegistry = FontRegistry.getInstance();
         
         // Use absolute positioning for precise control
         setLayout(null);
@@ -129,19 +161,16 @@ public class TimSortVisualization extends JPanel {
         // Generate initial ingredients
         generateIngredients();
         
-      
+        // Debug overlay showing which regions each frame repaints
+        if (GameConstants.SHOW_REPAINT_REGIONS) {
+            repaintTracker = RepaintRegionTracker.install();
+        }
     }
     
     /**
      * Load resources for UI elements
      */
     private void loadResources() {
-        // Load fonts
-        pixelifySansFont = resourceManager.getFont(GameConstants.FONT_PATH, 25f);
-        if (pixelifySansFont == null) {
-            // Fallback if custom font can't be loaded
-            pixelifySansFont = new Font("Arial", Font.BOLD, 25);
-        }
         // Load button images
         pauseNormalIcon = resourceManager.getImage("/gameproject/resources/pause_normal.png");
         pauseHoverIcon = resourceManager.getImage("/gameproject/resources/pause_hover.png");
@@ -191,7 +220,7 @@ public class TimSortVisualization extends JPanel {
             g2d.setColor(Color.GREEN);
             g2d.fillOval(15, 15, 120, 120);
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 30)); // Increased font size
+            g2d.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 30)); // Increased font size
             g2d.drawString("Eye", 55, 80);
             g2d.dispose();
             eyeActiveIcon = new ImageIcon(fallbackImg);
@@ -209,7 +238,7 @@ public class TimSortVisualization extends JPanel {
             g2d.setColor(Color.GRAY);
             g2d.fillOval(15, 15, 120, 120);
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 30)); // Increased font size
+            g2d.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 30)); // Increased font size
             g2d.drawString("Eye", 55, 80);
             g2d.dispose();
             eyeDisabledIcon = new ImageIcon(fallbackImg);
@@ -327,7 +356,7 @@ public class TimSortVisualization extends JPanel {
         g2d.setColor(bgColor);
         g2d.fillOval(15, 15, 120, 120);
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 30));
+        g2d.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 30));
         g2d.drawString(iconText, 45, 85);
         g2d.dispose();
 
@@ -362,7 +391,7 @@ public class TimSortVisualization extends JPanel {
 
         // Main heading/phase display
         phaseLabel = new JLabel("Phase 1: The Eye of Pattern", JLabel.CENTER);
-        phaseLabel.setFont(pixelifySansFont.deriveFont(24f));
+        phaseLabel.setFont(fontRegistry.getPixelFont(24f));
         phaseLabel.setForeground(Color.WHITE);
         phaseLabel.setBounds(0, 55, GameConstants.WINDOW_WIDTH, 40);
         add(phaseLabel);
@@ -372,7 +401,7 @@ public class TimSortVisualization extends JPanel {
             "Use your 'Eye of Pattern' ability to identify ingredient sequences (runs).", 
             JLabel.CENTER
         );
-        instructionLabel.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        instructionLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.PLAIN, 16));
         instructionLabel.setForeground(Color.WHITE);
         instructionLabel.setBounds(0, 95, GameConstants.WINDOW_WIDTH, 30);
         add(instructionLabel);
@@ -434,12 +463,7 @@ public class TimSortVisualization extends JPanel {
             resourceManager.getImage("/gameproject/resources/NormalButton.png"),
             resourceManager.getImage("/gameproject/resources/HoverButton.png"),
             resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-        Font buttonFont = resourceManager.getFont("/gameproject/resources/PixelifySans.ttf", 18f);
-            if (buttonFont != null) {
-                checkButton.setFont(buttonFont);
-            } else {
-                checkButton.setFont(new Font("Arial", Font.BOLD, 12));
-            }
+            checkButton.setFont(fontRegistry.getPixelFont(18f));
             checkButton.setForeground(Color.WHITE);
             checkButton.setMaximumSize(new Dimension(180, 40));
             checkButton.setPreferredSize(new Dimension(180, 40));
@@ -482,12 +506,7 @@ public class TimSortVisualization extends JPanel {
 
         // Create label for the ability name - REPOSITIONED for larger icon
         abilityNameLabel = new JLabel("Eye of Pattern", JLabel.CENTER);
-        Font abilityFont = resourceManager.getFont("/gameproject/resources/PixelifySans.ttf", 18f); // Slightly larger font
-        if (abilityFont != null) {
-            abilityNameLabel.setFont(abilityFont);
-        } else {
-            abilityNameLabel.setFont(new Font("Arial", Font.BOLD, 16));
-        }
+        abilityNameLabel.setFont(fontRegistry.getPixelFont(18f)); // Slightly larger font
         abilityNameLabel.setForeground(Color.WHITE);
         // Adjust position to be centered under the larger icon
         abilityNameLabel.setBounds(0, 160, 200, 30); // Wider and positioned under the image
@@ -744,7 +763,8 @@ public class TimSortVisualization extends JPanel {
     * Display pause menu overlay with semi-transparent dark background
     */
     private void showPauseMenu() {
-        // Pause the timer
+        // Pause the animations
+        pauseAnimations();
 
         // Create semi-transparent dark overlay panel
         JPanel overlay = new JPanel() {
@@ -773,13 +793,14 @@ public class TimSortVisualization extends JPanel {
             resourceManager.getImage("/gameproject/resources/NormalButton.png"),
             resourceManager.getImage("/gameproject/resources/HoverButton.png"),
             resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-        resumeButton.setFont(pixelifySansFont.deriveFont(28f));
+        resumeButton.setFont(fontRegistry.getPixelFont(28f));
         resumeButton.setForeground(Color.WHITE);
         resumeButton.setMaximumSize(new Dimension(300, 70));
         resumeButton.setPreferredSize(new Dimension(300, 70));
         resumeButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         resumeButton.addActionListener(e -> {
             remove(overlay);
+            resumeAnimations();
             repaint();
 
         });
@@ -788,7 +809,7 @@ public class TimSortVisualization extends JPanel {
             resourceManager.getImage("/gameproject/resources/NormalButton.png"),
             resourceManager.getImage("/gameproject/resources/HoverButton.png"),
             resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-        restartButton.setFont(pixelifySansFont.deriveFont(28f));
+        restartButton.setFont(fontRegistry.getPixelFont(28f));
         restartButton.setForeground(Color.WHITE);
         restartButton.setMaximumSize(new Dimension(300, 70));
         restartButton.setPreferredSize(new Dimension(300, 70));
@@ -806,10 +827,15 @@ public class TimSortVisualization extends JPanel {
             if (response == JOptionPane.YES_OPTION) {
                 // Remove overlay
                 remove(overlay);
+                resumeAnimations();
 
                 // Get the current game level
                 int currentGameLevel = gameLevel;
 
+                // Discard the interrupted session for this level
+                SessionSnapshot.delete(currentGameLevel);
+                controller.clearLevelProgress(currentGameLevel);
+
                 // Reset all phases for the current level
                 resetAllPhases();
 
@@ -830,6 +856,7 @@ public class TimSortVisualization extends JPanel {
             } else {
                 // User canceled restart, remove overlay and resume game
                 remove(overlay);
+                resumeAnimations();
                 repaint();
             }
         });
@@ -838,7 +865,7 @@ public class TimSortVisualization extends JPanel {
             resourceManager.getImage("/gameproject/resources/NormalButton.png"),
             resourceManager.getImage("/gameproject/resources/HoverButton.png"),
             resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-        menuButton.setFont(pixelifySansFont.deriveFont(28f));
+        menuButton.setFont(fontRegistry.getPixelFont(28f));
         menuButton.setForeground(Color.WHITE);
         menuButton.setMaximumSize(new Dimension(300, 70));
         menuButton.setPreferredSize(new Dimension(300, 70));
@@ -859,12 +886,14 @@ public class TimSortVisualization extends JPanel {
 
                 // Remove overlay
                 remove(overlay);
+                resumeAnimations();
 
                 // Return to main menu
                 controller.showMainMenu();
             } else {
                 // User canceled, remove overlay and resume game
                 remove(overlay);
+                resumeAnimations();
                 repaint();
             }
         });
@@ -890,11 +919,6 @@ public class TimSortVisualization extends JPanel {
     * Save the current progress to be resumed later
     */
     private void saveCurrentProgress() {
-        // Create a static map in GameController to store level progress
-        if (controller.levelProgressMap == null) {
-            controller.levelProgressMap = new HashMap<>();
-        }
-
         // Create a progress data object with current level and phase
         LevelProgressData progressData = new LevelProgressData(gameLevel, currentPhase);
 
@@ -902,8 +926,8 @@ public class TimSortVisualization extends JPanel {
         progressData.setLeftPotionType(leftGroupPotionType);
         progressData.setRightPotionType(rightGroupPotionType);
 
-        // Store current progress for this level
-        controller.levelProgressMap.put(gameLevel, progressData);
+        // Store current progress for this level (also written to the save file)
+        controller.saveLevelProgress(progressData);
 
         System.out.println("DEBUG: Saved progress for level " + gameLevel + ", phase " + currentPhase);
     }
@@ -1050,6 +1074,8 @@ public class TimSortVisualization extends JPanel {
         // Repaint
         gridPanel.revalidate();
         gridPanel.repaint();
+        
+        recordSessionSnapshot();
     }
 
     
@@ -1110,6 +1136,9 @@ public class TimSortVisualization extends JPanel {
      * Handle ingredient click based on current phase
      */
     private void handleIngredientClick(IngredientItem ingredient) {
+        // Every click counts as a step for the attempt history
+        controller.recordStep();
+        
         if (currentPhase == 1) {
             // Phase 1: Select/deselect ingredients
             if (ingredient.isSelected()) {
@@ -1151,17 +1180,17 @@ public class TimSortVisualization extends JPanel {
             }
         }
         
-        repaint();
+        // Selection and highlight changes repaint their own ingredients
+        recordSessionSnapshot();
     }
     
     
     
     /**
-    * Improved sort group method that does a thorough sort
+    * Sort a group by value the way Hand of Balance shows it (insertion sort, stable)
     */
     private void sortGroup(List<IngredientItem> group) {
-        // Sort using a simple and reliable approach - Java's built-in sort
-        Collections.sort(group, (a, b) -> Integer.compare(a.getValue(), b.getValue()));
+        sortingService.sort(group, BY_VALUE, GameState.INSERTION_SORT_CHALLENGE, null);
     }
     
     
@@ -1229,6 +1258,8 @@ public class TimSortVisualization extends JPanel {
         // Enable check button
         checkButton.setEnabled(true);
         phaseCompleted = true;
+        
+        recordSessionSnapshot();
     }
 
     /**
@@ -1246,7 +1277,7 @@ public class TimSortVisualization extends JPanel {
             highlightNaturalRuns();
 
             // After a short delay, show the middle dialogue
-            Timer dialogueTimer = new Timer(1500, e -> {
+            animations.after(1500, () -> {
                 // Select the appropriate dialogue based on current game level
                 if (gameLevel == 3) {
                     showPhaseDialogue("level3_phase1_middle");
@@ -1256,14 +1287,12 @@ public class TimSortVisualization extends JPanel {
                     showPhaseDialogue("phase1_middle");
                 }
             });
-            dialogueTimer.setRepeats(false);
-            dialogueTimer.start();
         } else if (currentPhase == 2) {
             // Hand of Balance - Apply automatic sorting
             applyHandOfBalanceAbility();
 
             // After sorting animation completes, show the middle dialogue
-            Timer dialogueTimer = new Timer(3000, e -> {
+            animations.after(3000, () -> {
                 // Select the appropriate dialogue based on current game level
                 if (gameLevel == 3) {
                     showPhaseDialogue("level3_phase2_middle");
@@ -1273,14 +1302,12 @@ public class TimSortVisualization extends JPanel {
                     showPhaseDialogue("phase2_middle");
                 }
             });
-            dialogueTimer.setRepeats(false);
-            dialogueTimer.start();
         } else if (currentPhase == 3) {
             // Mind of Unity - Animate potion options display
             animatePotionOptions();
 
             // After animation completes, show the decision dialogue
-            Timer dialogueTimer = new Timer(2500, e -> {
+            animations.after(2500, () -> {
                 // Select the appropriate dialogue based on current game level
                 if (gameLevel == 3) {
                     showPhaseDialogue("level3_phase3_decision");
@@ -1290,19 +1317,11 @@ public class TimSortVisualization extends JPanel {
                     showPhaseDialogue("phase3_decision");
                 }
             });
-            dialogueTimer.setRepeats(false);
-            dialogueTimer.start();
         }
 
         // Re-enable the button after a delay to prevent multiple clicks
-        Timer enableTimer = new Timer(3000, e -> {
-            setAbilityButtonEnabled(true);
-        });
-        enableTimer.setRepeats(false);
-        enableTimer.start();
-
-        // Add this timer to active timers list to manage it
-        activeTimers.add(enableTimer);
+        // (cancelled along with the phase if a dialogue interrupts it)
+        phaseAnimations.after(3000, () -> setAbilityButtonEnabled(true));
     }    
     
     /**
@@ -1317,12 +1336,14 @@ public class TimSortVisualization extends JPanel {
         List<JComponent> textElements = new ArrayList<>();     // Text labels & descriptions (no scaling)
         List<JComponent> imageElements = new ArrayList<>();    // Potion images (keep scaling)
         Map<JComponent, Rectangle> imageElementBounds = new HashMap<>(); // Original bounds for image elements
+        Rectangle animatedArea = null;                         // Union of all animated bounds (repainted each frame)
 
         // Classify all invisible components
         for (Component comp : gridPanel.getComponents()) {
             if (!comp.isVisible() && comp instanceof JComponent) {
                 // Store original bounds
                 Rectangle originalBounds = comp.getBounds();
+                animatedArea = animatedArea == null ? new Rectangle(originalBounds) : animatedArea.union(originalBounds);
 
                 // Make component visible but initially transparent
                 comp.setVisible(true);
@@ -1364,106 +1385,76 @@ public class TimSortVisualization extends JPanel {
             }
         }
 
-        // Create animation timer
-        final int TOTAL_FRAMES = 50; // 2 seconds @ 25 fps
-        final int[] currentFrame = {0};
-
-        Timer animationTimer = new Timer(40, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                currentFrame[0]++;
-                float progress = (float) currentFrame[0] / TOTAL_FRAMES;
-
-                // Apply easing function for smooth animation
-                float easedProgress;
-                if (progress < 0.5) {
-                    easedProgress = 4 * progress * progress * progress;
-                } else {
-                    float f = progress - 1;
-                    easedProgress = 1 + 4 * f * f * f;
+        // Fade and scale the options in over 2 seconds, repainting only the area they cover
+        final Rectangle dirtyArea = animatedArea != null ? animatedArea : new Rectangle();
+        phaseAnimations.tween(2000, AnimationClock.Easing.EASE_IN_OUT_CUBIC, easedProgress -> {
+            // Animate text elements (fade only, no scaling)
+            for (JComponent comp : textElements) {
+                if (comp instanceof JPanel) {
+                    float alpha = easedProgress;
+                    ((JPanel) comp).setBackground(new Color(0f, 0f, 0f, alpha * 0.5f));
                 }
+                // For labels and other components, we'll use a trick with AlphaComposite
+                // But this happens naturally through parent component alpha handling
+            }
 
-                // Animate text elements (fade only, no scaling)
-                for (JComponent comp : textElements) {
-                    if (comp instanceof JPanel) {
-                        float alpha = easedProgress;
-                        ((JPanel) comp).setBackground(new Color(0f, 0f, 0f, alpha * 0.5f));
-                    }
-                    // For labels and other components, we'll use a trick with AlphaComposite
-                    // But this happens naturally through parent component alpha handling
+            // Animate image elements (both fade AND scale)
+            for (JComponent comp : imageElements) {
+                Rectangle origBounds = imageElementBounds.get(comp);
+                if (origBounds != null) {
+                    int centerX = origBounds.x + origBounds.width/2;
+                    int centerY = origBounds.y + origBounds.height/2;
+
+                    // Calculate current size (50% to 100%)
+                    float scale = 0.5f + (easedProgress * 0.5f);
+                    int currentWidth = (int)(origBounds.width * scale);
+                    int currentHeight = (int)(origBounds.height * scale);
+
+                    // Position to keep centered during scaling
+                    comp.setBounds(
+                        centerX - currentWidth/2,
+                        centerY - currentHeight/2,
+                        currentWidth,
+                        currentHeight
+                    );
                 }
-
-                // Animate image elements (both fade AND scale)
-                for (JComponent comp : imageElements) {
-                    Rectangle origBounds = imageElementBounds.get(comp);
-                    if (origBounds != null) {
-                        int centerX = origBounds.x + origBounds.width/2;
-                        int centerY = origBounds.y + origBounds.height/2;
-
-                        // Calculate current size (50% to 100%)
-                        float scale = 0.5f + (easedProgress * 0.5f);
-                        int currentWidth = (int)(origBounds.width * scale);
-                        int currentHeight = (int)(origBounds.height * scale);
-
-                        // Position to keep centered during scaling
-                        comp.setBounds(
-                            centerX - currentWidth/2,
-                            centerY - currentHeight/2,
-                            currentWidth,
-                            currentHeight
-                        );
-                    }
+            }
+            gridPanel.repaint(dirtyArea);
+        }).onComplete(() -> {
+            // Restore exact original bounds for image elements
+            for (JComponent comp : imageElements) {
+                Rectangle origBounds = imageElementBounds.get(comp);
+                if (origBounds != null) {
+                    comp.setBounds(origBounds);
                 }
+            }
 
-                // Repaint panel
-                gridPanel.repaint();
-
-                // Stop animation when complete
-                if (currentFrame[0] >= TOTAL_FRAMES) {
-                    ((Timer)e.getSource()).stop();
-
-                    // Restore exact original bounds for image elements
-                    for (JComponent comp : imageElements) {
-                        Rectangle origBounds = imageElementBounds.get(comp);
-                        if (origBounds != null) {
-                            comp.setBounds(origBounds);
-                        }
-                    }
-
-                    // Set final transparency for panels
-                    for (JComponent comp : textElements) {
-                        if (comp instanceof JPanel) {
-                            ((JPanel) comp).setBackground(new Color(0, 0, 0, 0.5f));
-                        }
-                    }
-
-                    // Update instruction with dynamic boss reference
-                    String bossReference;
-                    if (gameLevel == 3) {
-                        bossReference = "Lord Chaosa's reality distortions";
-                    } else if (gameLevel == 2) {
-                        bossReference = "Toxitar's poison";
-                    } else {
-                        bossReference = "Flameclaw";
-                    }
-                    instructionLabel.setText("Choose which potion to craft by clicking on it. Consider what would be most effective against " + bossReference + ".");
-
-                    // CRITICAL FIX: Ensure ability button remains enabled after animation
-                    setAbilityButtonEnabled(true);
-                    System.out.println("DEBUG: Ability button enabled at end of animation");
-
-                    // Force refresh
-                    gridPanel.revalidate();
-                    gridPanel.repaint();
+            // Set final transparency for panels
+            for (JComponent comp : textElements) {
+                if (comp instanceof JPanel) {
+                    ((JPanel) comp).setBackground(new Color(0, 0, 0, 0.5f));
                 }
             }
-        });
 
-        // Add to active timers list
-        activeTimers.add(animationTimer);
+            // Update instruction with dynamic boss reference
+            String bossReference;
+            if (gameLevel == 3) {
+                bossReference = "Lord Chaosa's reality distortions";
+            } else if (gameLevel == 2) {
+                bossReference = "Toxitar's poison";
+            } else {
+                bossReference = "Flameclaw";
+            }
+            instructionLabel.setText("Choose which potion to craft by clicking on it. Consider what would be most effective against " + bossReference + ".");
+
+            // CRITICAL FIX: Ensure ability button remains enabled after animation
+            setAbilityButtonEnabled(true);
+            System.out.println("DEBUG: Ability button enabled at end of animation");
 
-        // Start animation
-        animationTimer.start();
+            // Force refresh
+            gridPanel.revalidate();
+            gridPanel.repaint();
+        });
     }
 
     
@@ -1474,29 +1465,32 @@ public class TimSortVisualization extends JPanel {
     private void highlightNaturalRuns() {
         identifiedRuns.clear();
 
+        // Every potion type's run, sorted by value, in one grouping pass
+        StableGrouper<IngredientItem> runs = groupByPotionType(allIngredients, true);
+
         if (gameLevel == 3) {
             // For Level 3 (Lord Chaosa), highlight strength ingredients the most prominently
 
             // Find runs for each potion type with adjusted colors for Level 3
-            List<IngredientItem> strengthRun = findRunByPotionType("strength");
+            List<IngredientItem> strengthRun = findRunByPotionType(runs, "strength");
             if (!strengthRun.isEmpty()) {
                 identifiedRuns.add(strengthRun);
                 highlightRun(strengthRun, new Color(255, 140, 0, 120)); // Brighter orange highlight for strength (most important)
             }
 
-            List<IngredientItem> coldRun = findRunByPotionType("cold");
+            List<IngredientItem> coldRun = findRunByPotionType(runs, "cold");
             if (!coldRun.isEmpty()) {
                 identifiedRuns.add(coldRun);
                 highlightRun(coldRun, new Color(80, 80, 220, 100)); // Blue highlight for cold (secondary)
             }
 
-            List<IngredientItem> dexterityRun = findRunByPotionType("dexterity");
+            List<IngredientItem> dexterityRun = findRunByPotionType(runs, "dexterity");
             if (!dexterityRun.isEmpty()) {
                 identifiedRuns.add(dexterityRun);
                 highlightRun(dexterityRun, new Color(50, 200, 50, 60)); // Dimmer green highlight (less important)
             }
 
-            List<IngredientItem> fireRun = findRunByPotionType("fire");
+            List<IngredientItem> fireRun = findRunByPotionType(runs, "fire");
             if (!fireRun.isEmpty()) {
                 identifiedRuns.add(fireRun);
                 highlightRun(fireRun, new Color(255, 50, 50, 60)); // Dimmer red highlight (least important)
@@ -1505,25 +1499,25 @@ public class TimSortVisualization extends JPanel {
             // For Level 2 (Toxitar), highlight dexterity ingredients the most prominently
 
             // Find runs for each potion type with adjusted colors for Level 2
-            List<IngredientItem> dexterityRun = findRunByPotionType("dexterity");
+            List<IngredientItem> dexterityRun = findRunByPotionType(runs, "dexterity");
             if (!dexterityRun.isEmpty()) {
                 identifiedRuns.add(dexterityRun);
                 highlightRun(dexterityRun, new Color(50, 200, 50, 120)); // Brighter green highlight for dexterity (most important)
             }
 
-            List<IngredientItem> strengthRun = findRunByPotionType("strength");
+            List<IngredientItem> strengthRun = findRunByPotionType(runs, "strength");
             if (!strengthRun.isEmpty()) {
                 identifiedRuns.add(strengthRun);
                 highlightRun(strengthRun, new Color(255, 200, 50, 100)); // Yellow highlight for strength (secondary)
             }
 
-            List<IngredientItem> coldRun = findRunByPotionType("cold");
+            List<IngredientItem> coldRun = findRunByPotionType(runs, "cold");
             if (!coldRun.isEmpty()) {
                 identifiedRuns.add(coldRun);
                 highlightRun(coldRun, new Color(50, 50, 255, 60)); // Dimmer blue highlight (less important)
             }
 
-            List<IngredientItem> fireRun = findRunByPotionType("fire");
+            List<IngredientItem> fireRun = findRunByPotionType(runs, "fire");
             if (!fireRun.isEmpty()) {
                 identifiedRuns.add(fireRun);
                 highlightRun(fireRun, new Color(255, 50, 50, 60)); // Dimmer red highlight (least important)
@@ -1532,25 +1526,25 @@ public class TimSortVisualization extends JPanel {
             // For Level 1 (Flameclaw), highlight fire resistance ingredients the most prominently
 
             // Find runs for each potion type with corrected colors
-            List<IngredientItem> fireRun = findRunByPotionType("fire");
+            List<IngredientItem> fireRun = findRunByPotionType(runs, "fire");
             if (!fireRun.isEmpty()) {
                 identifiedRuns.add(fireRun);
                 highlightRun(fireRun, new Color(255, 50, 50, 120)); // Brighter red highlight for fire (most important)
             }
 
-            List<IngredientItem> coldRun = findRunByPotionType("cold");
+            List<IngredientItem> coldRun = findRunByPotionType(runs, "cold");
             if (!coldRun.isEmpty()) {
                 identifiedRuns.add(coldRun);
                 highlightRun(coldRun, new Color(50, 50, 255, 100)); // Blue highlight for cold (secondary)
             }
 
-            List<IngredientItem> strengthRun = findRunByPotionType("strength");
+            List<IngredientItem> strengthRun = findRunByPotionType(runs, "strength");
             if (!strengthRun.isEmpty()) {
                 identifiedRuns.add(strengthRun);
                 highlightRun(strengthRun, new Color(255, 200, 50, 60)); // Dimmer yellow highlight (less important)
             }
 
-            List<IngredientItem> dexterityRun = findRunByPotionType("dexterity");
+            List<IngredientItem> dexterityRun = findRunByPotionType(runs, "dexterity");
             if (!dexterityRun.isEmpty()) {
                 identifiedRuns.add(dexterityRun);
                 highlightRun(dexterityRun, new Color(50, 200, 50, 60)); // Dimmer green highlight (least important)
@@ -1568,25 +1562,36 @@ public class TimSortVisualization extends JPanel {
 
         // Enable check button if exactly 10 ingredients are selected
         checkButton.setEnabled(selectedIngredients.size() == MAX_SELECTIONS);
+        
+        recordSessionSnapshot();
     }
     
     /**
-     * Find a run of ingredients by color
+     * Find a run of ingredients by potion type (sorted by value)
      */
-    private List<IngredientItem> findRunByPotionType(String potionType) {
-        List<IngredientItem> run = new ArrayList<>();
-
-        // Get all ingredients of this potion type
-        for (IngredientItem ingredient : allIngredients) {
-            if (ingredient.getPotionType().equals(potionType)) {
-                run.add(ingredient);
+    private List<IngredientItem> findRunByPotionType(StableGrouper<IngredientItem> runs, String potionType) {
+        return new ArrayList<>(runs.getGroup(potionIndex(potionType)));
+    }
+    
+    /**
+     * Group ingredients by potion type (in POTION_TYPES order), each group
+     * sorted by value or kept in its original order
+     */
+    private static StableGrouper<IngredientItem> groupByPotionType(List<IngredientItem> ingredients, boolean byValue) {
+        return new StableGrouper<>(ingredients, POTION_TYPES.length,
+                ingredient -> potionIndex(ingredient.getPotionType()), byValue ? BY_VALUE : null);
+    }
+    
+    /**
+     * Index of a potion type in POTION_TYPES, or -1 if it has none
+     */
+    private static int potionIndex(String potionType) {
+        for (int i = 0; i < POTION_TYPES.length; i++) {
+            if (POTION_TYPES[i].equals(potionType)) {
+                return i;
             }
         }
-
-        // Sort by value to ensure they're in the correct order
-        run.sort((a, b) -> Integer.compare(a.getValue(), b.getValue()));
-
-        return run;
+        return -1;
     }
     
     /**
@@ -1695,44 +1700,14 @@ public class TimSortVisualization extends JPanel {
             }
         }
 
-        // Group ingredients by potion type to help balance the distribution
-        List<IngredientItem> fireIngredients = new ArrayList<>();
-        List<IngredientItem> coldIngredients = new ArrayList<>();
-        List<IngredientItem> strengthIngredients = new ArrayList<>();
-        List<IngredientItem> dexterityIngredients = new ArrayList<>();
-
-        // Group by type
-        for (IngredientItem ingredient : ingredientsToUse) {
-            String potionType = ingredient.getPotionType();
-            if (potionType != null) {
-                if (potionType.equals("fire")) {
-                    fireIngredients.add(ingredient);
-                } else if (potionType.equals("cold")) {
-                    coldIngredients.add(ingredient);
-                } else if (potionType.equals("strength")) {
-                    strengthIngredients.add(ingredient);
-                } else if (potionType.equals("dexterity")) {
-                    dexterityIngredients.add(ingredient);
-                }
-            }
-        }
+        // Group ingredients by potion type to help balance the distribution. Each
+        // group keeps the player's order: Hand of Balance is what sorts them
+        StableGrouper<IngredientItem> types = groupByPotionType(ingredientsToUse, false);
 
         // Combine all ingredient types with the most common types first
         List<IngredientItem> allSorted = new ArrayList<>();
-
-        // Sort the lists by size (largest first) to prioritize the most common ingredient types
-        List<List<IngredientItem>> allTypeLists = new ArrayList<>();
-        allTypeLists.add(fireIngredients);
-        allTypeLists.add(coldIngredients);
-        allTypeLists.add(strengthIngredients);
-        allTypeLists.add(dexterityIngredients);
-
-        // Sort by size (descending)
-        Collections.sort(allTypeLists, (a, b) -> Integer.compare(b.size(), a.size()));
-
-        // Add to the final list in order of frequency
-        for (List<IngredientItem> typeList : allTypeLists) {
-            allSorted.addAll(typeList);
+        for (int type : types.getCategoriesBySize()) {
+            allSorted.addAll(types.getGroup(type));
         }
 
         // In case we have less than 10 total ingredients
@@ -1794,6 +1769,8 @@ public class TimSortVisualization extends JPanel {
         // Force UI refresh
         gridPanel.revalidate();
         gridPanel.repaint();
+        
+        recordSessionSnapshot();
     }
     
     /**
@@ -1831,42 +1808,10 @@ public class TimSortVisualization extends JPanel {
     /**
     * Determine the potion type based on the ingredients in a group
     */
-    private String determinePotionType(List<IngredientItem> group) {
-        // Count occurrences of each potion type
-        int fireCount = 0;
-        int coldCount = 0;
-        int strengthCount = 0;
-        int dexterityCount = 0;
-
-        for (IngredientItem item : group) {
-            String potionType = item.getPotionType();
-            if (potionType != null) {
-                if (potionType.equals("fire")) {
-                    fireCount++;
-                } else if (potionType.equals("cold")) {
-                    coldCount++;
-                } else if (potionType.equals("strength")) {
-                    strengthCount++;
-                } else if (potionType.equals("dexterity")) {
-                    dexterityCount++;
-                }
-            }
-        }
-
-        // Determine the dominant potion type
-        int maxCount = Math.max(Math.max(fireCount, coldCount), Math.max(strengthCount, dexterityCount));
-
-        if (maxCount == fireCount && fireCount > 0) {
-            return "Fire Resistance";
-        } else if (maxCount == coldCount && coldCount > 0) {
-            return "Cold Resistance";
-        } else if (maxCount == strengthCount && strengthCount > 0) {
-            return "Strength";
-        } else if (maxCount == dexterityCount && dexterityCount > 0) {
-            return "Dexterity";
-        } else {
-            return "Mixed"; // Fallback if no clear type or empty group
-        }
+    private String determinePotionType(StableGrouper<IngredientItem> types) {
+        // The dominant potion type (ties go to the earlier type in POTION_TYPES)
+        int dominant = types.getLargestCategory();
+        return dominant >= 0 ? POTION_NAMES[dominant] : "Mixed"; // Fallback for an empty group
     }
     
     
@@ -1878,8 +1823,17 @@ public class TimSortVisualization extends JPanel {
     */
     private void applyHandOfBalanceAbility() {   
         // Determine potion types based on the ingredients in each group
-        leftGroupPotionType = determinePotionType(leftGroup);
-        rightGroupPotionType = determinePotionType(rightGroup);
+        StableGrouper<IngredientItem> leftTypes = groupByPotionType(leftGroup, false);
+        StableGrouper<IngredientItem> rightTypes = groupByPotionType(rightGroup, false);
+        leftGroupPotionType = determinePotionType(leftTypes);
+        rightGroupPotionType = determinePotionType(rightTypes);
+
+        // Keep each row's arrangement before sorting, to report its progress as items are placed
+        final List<IngredientItem> leftArrangement = new ArrayList<>(leftGroup);
+        final List<IngredientItem> rightArrangement = new ArrayList<>(rightGroup);
+        final SortednessAnalytics leftAnalytics = new SortednessAnalytics(valuesOf(leftGroup));
+        final SortednessAnalytics rightAnalytics = new SortednessAnalytics(valuesOf(rightGroup));
+        runsValidator = runsValidatorFor(leftGroup, rightGroup);
 
         // First, sort both groups using our existing method
         sortGroup(leftGroup);
@@ -1897,42 +1851,19 @@ public class TimSortVisualization extends JPanel {
             // Attempt re-sort if needed
             if (!isLeftGroupSorted) {
                 System.err.println("Attempting to resort left group");
-                Collections.sort(leftGroup, (a, b) -> Integer.compare(a.getValue(), b.getValue()));
+                sortGroup(leftGroup);
                 isLeftGroupSorted = true;
             }
 
             if (!isRightGroupSorted) {
                 System.err.println("Attempting to resort right group");
-                Collections.sort(rightGroup, (a, b) -> Integer.compare(a.getValue(), b.getValue()));
+                sortGroup(rightGroup);
                 isRightGroupSorted = true;
             }
         }
 
-        // Determine potion types based on the ingredients in each group
-        leftGroupPotionType = determinePotionType(leftGroup);
-        rightGroupPotionType = determinePotionType(rightGroup);
-
-        // Clear any existing headers
-        for (Component c : gridPanel.getComponents()) {
-            if (c instanceof JLabel && !(c instanceof IngredientItem)) {
-                gridPanel.remove(c);
-            }
-        }
-
         // Create headers with potion types
-        JLabel topHeader = new JLabel(leftGroupPotionType + " Ingredients", JLabel.CENTER);
-        topHeader.setFont(new Font("SansSerif", Font.BOLD, 16));
-        topHeader.setForeground(getColorForPotionType(leftGroupPotionType));
-        topHeader.setBounds(0, 180, GameConstants.WINDOW_WIDTH, 30);
-        topHeader.setVisible(true);
-        gridPanel.add(topHeader);
-
-        JLabel bottomHeader = new JLabel(rightGroupPotionType + " Ingredients", JLabel.CENTER);
-        bottomHeader.setFont(new Font("SansSerif", Font.BOLD, 16));
-        bottomHeader.setForeground(getColorForPotionType(rightGroupPotionType));
-        bottomHeader.setBounds(0, 350, GameConstants.WINDOW_WIDTH, 30);
-        bottomHeader.setVisible(true);
-        gridPanel.add(bottomHeader);
+        addGroupHeaders();
 
         // Disable the ability button during animation
         abilityButton.setEnabled(false);
@@ -1942,17 +1873,17 @@ public class TimSortVisualization extends JPanel {
             // Set potion type relevant to Lord Chaosa
             // For Level 3, prefer Strength and Cold Resistance potions
             if (!leftGroupPotionType.equals("Strength") && !leftGroupPotionType.equals("Cold Resistance")) {
-                if (leftGroup.stream().anyMatch(item -> item.getPotionType().equals("strength"))) {
+                if (leftTypes.size(potionIndex("strength")) > 0) {
                     leftGroupPotionType = "Strength";
-                } else if (leftGroup.stream().anyMatch(item -> item.getPotionType().equals("cold"))) {
+                } else if (leftTypes.size(potionIndex("cold")) > 0) {
                     leftGroupPotionType = "Cold Resistance";
                 }
             }
 
             if (!rightGroupPotionType.equals("Strength") && !rightGroupPotionType.equals("Cold Resistance")) {
-                if (rightGroup.stream().anyMatch(item -> item.getPotionType().equals("strength"))) {
+                if (rightTypes.size(potionIndex("strength")) > 0) {
                     rightGroupPotionType = "Strength";
-                } else if (rightGroup.stream().anyMatch(item -> item.getPotionType().equals("cold"))) {
+                } else if (rightTypes.size(potionIndex("cold")) > 0) {
                     rightGroupPotionType = "Cold Resistance";
                 }
             }
@@ -1988,103 +1919,101 @@ public class TimSortVisualization extends JPanel {
         final int[] rightIndex = {0};
         final boolean[] isAnimatingLeft = {true}; // Start with left group
 
-        Timer insertionTimer = new Timer(ANIMATION_DELAY, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (isAnimatingLeft[0]) {
-                    // Animate left group
-                    if (leftIndex[0] < leftGroup.size()) {
-                        // Get current ingredient
-                        IngredientItem ingredient = leftGroup.get(leftIndex[0]);
-
-                        // Store the original position if not already set
-                        if (ingredient.getOriginalPosition() == null) {
-                            ingredient.setOriginalPosition(ingredient.getLocation());
-                        }
-
-                        // Calculate final position
-                        int finalX = startX1 + (leftIndex[0] * (INGREDIENT_SIZE + 10));
-
-                        // Add to animated list
-                        animatedLeft.add(ingredient);
-
-                        // Make sure it's visible and on top
-                        ingredient.setSelected(true);
-                        gridPanel.setComponentZOrder(ingredient, 0);
-
-                        // Create animation
-                        animateIngredientInsertionSort(
-                            ingredient, 
-                            finalX, 
-                            ingredientsY1, 
-                            ANIMATION_DURATION,
-                            true,  // This is the currently inserted item
-                            animatedLeft, 
-                            () -> {
-                                ingredient.setSelected(false);
-                                leftIndex[0]++;
-                            }
-                        );
+        animations.every(ANIMATION_DELAY, () -> {
+            if (isAnimatingLeft[0]) {
+                // Animate left group
+                if (leftIndex[0] < leftGroup.size()) {
+                    // Get current ingredient
+                    IngredientItem ingredient = leftGroup.get(leftIndex[0]);
 
-                    } else {
-                        // Left group complete, switch to right group
-                        isAnimatingLeft[0] = false;
+                    // Store the original position if not already set
+                    if (ingredient.getOriginalPosition() == null) {
+                        ingredient.setOriginalPosition(ingredient.getLocation());
                     }
-                } else {
-                    // Animate right group
-                    if (rightIndex[0] < rightGroup.size()) {
-                        // Get current ingredient
-                        IngredientItem ingredient = rightGroup.get(rightIndex[0]);
-
-                        // Store the original position if not already set
-                        if (ingredient.getOriginalPosition() == null) {
-                            ingredient.setOriginalPosition(ingredient.getLocation());
+
+                    // Calculate final position
+                    int finalX = startX1 + (leftIndex[0] * (INGREDIENT_SIZE + 10));
+
+                    // Add to animated list
+                    animatedLeft.add(ingredient);
+                    trackPlacement(leftArrangement, leftAnalytics, 0, ingredient, leftIndex[0], leftGroupPotionType);
+
+                    // Make sure it's visible and on top
+                    ingredient.setSelected(true);
+                    gridPanel.setComponentZOrder(ingredient, 0);
+
+                    // Create animation
+                    animateIngredientInsertionSort(
+                        ingredient, 
+                        finalX, 
+                        ingredientsY1, 
+                        ANIMATION_DURATION,
+                        true,  // This is the currently inserted item
+                        animatedLeft, 
+                        () -> {
+                            ingredient.setSelected(false);
+                            leftIndex[0]++;
                         }
+                    );
 
-                        // Calculate final position
-                        int finalX = startX2 + (rightIndex[0] * (INGREDIENT_SIZE + 10));
-
-                        // Add to animated list
-                        animatedRight.add(ingredient);
-
-                        // Make sure it's visible and on top
-                        ingredient.setSelected(true);
-                        gridPanel.setComponentZOrder(ingredient, 0);
-
-                        // Create animation
-                        animateIngredientInsertionSort(
-                            ingredient, 
-                            finalX, 
-                            ingredientsY2, 
-                            ANIMATION_DURATION,
-                            true,  // This is the currently inserted item
-                            animatedRight, 
-                            () -> {
-                                ingredient.setSelected(false);
-                                rightIndex[0]++;
-                            }
-                        );
+                } else {
+                    // Left group complete, switch to right group
+                    isAnimatingLeft[0] = false;
+                }
+            } else {
+                // Animate right group
+                if (rightIndex[0] < rightGroup.size()) {
+                    // Get current ingredient
+                    IngredientItem ingredient = rightGroup.get(rightIndex[0]);
+
+                    // Store the original position if not already set
+                    if (ingredient.getOriginalPosition() == null) {
+                        ingredient.setOriginalPosition(ingredient.getLocation());
+                    }
 
-                    } else {
-                        // Animation complete
-                        ((Timer)e.getSource()).stop();
+                    // Calculate final position
+                    int finalX = startX2 + (rightIndex[0] * (INGREDIENT_SIZE + 10));
+
+                    // Add to animated list
+                    animatedRight.add(ingredient);
+                    trackPlacement(rightArrangement, rightAnalytics, leftArrangement.size(), ingredient, rightIndex[0], rightGroupPotionType);
+
+                    // Make sure it's visible and on top
+                    ingredient.setSelected(true);
+                    gridPanel.setComponentZOrder(ingredient, 0);
+
+                    // Create animation
+                    animateIngredientInsertionSort(
+                        ingredient, 
+                        finalX, 
+                        ingredientsY2, 
+                        ANIMATION_DURATION,
+                        true,  // This is the currently inserted item
+                        animatedRight, 
+                        () -> {
+                            ingredient.setSelected(false);
+                            rightIndex[0]++;
+                        }
+                    );
 
-                        // Enable check button
-                        checkButton.setEnabled(true);
+                } else {
+                    // Animation complete
+                    // Enable check button
+                    checkButton.setEnabled(true);
 
-                        // Update instruction text
-                        instructionLabel.setText("The ingredients have been sorted using insertion sort. Check your results.");
+                    // Update instruction text
+                    instructionLabel.setText("The ingredients have been sorted using insertion sort. Check your results.");
 
-                        // Force repaint to ensure everything is visible
-                        gridPanel.revalidate();
-                        gridPanel.repaint();
-                    }
+                    // Force repaint to ensure everything is visible
+                    gridPanel.revalidate();
+                    gridPanel.repaint();
+                    
+                    recordSessionSnapshot();
+                    return false;
                 }
             }
+            return true;
         });
-
-        // Start the animation
-        insertionTimer.start();
     }
 
 
@@ -2092,6 +2021,32 @@ public class TimSortVisualization extends JPanel {
     
     
     
+    /**
+    * Add the Phase 2 group headers showing each group's potion type
+    */
+    private void addGroupHeaders() {
+        // Clear any existing headers
+        for (Component c : gridPanel.getComponents()) {
+            if (c instanceof JLabel && !(c instanceof IngredientItem)) {
+                gridPanel.remove(c);
+            }
+        }
+
+        JLabel topHeader = new JLabel(leftGroupPotionType + " Ingredients", JLabel.CENTER);
+        topHeader.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 16));
+        topHeader.setForeground(getColorForPotionType(leftGroupPotionType));
+        topHeader.setBounds(0, 180, GameConstants.WINDOW_WIDTH, 30);
+        topHeader.setVisible(true);
+        gridPanel.add(topHeader);
+
+        JLabel bottomHeader = new JLabel(rightGroupPotionType + " Ingredients", JLabel.CENTER);
+        bottomHeader.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 16));
+        bottomHeader.setForeground(getColorForPotionType(rightGroupPotionType));
+        bottomHeader.setBounds(0, 350, GameConstants.WINDOW_WIDTH, 30);
+        bottomHeader.setVisible(true);
+        gridPanel.add(bottomHeader);
+    }
+    
     // In TimSortVisualization.java, modify the animateIngredientInsertionSort method:
     private void animateIngredientInsertionSort(
         IngredientItem ingredient, 
@@ -2104,52 +2059,30 @@ public class TimSortVisualization extends JPanel {
     ) {
         Point start = ingredient.getLocation();
 
-        // Use a FIXED number of frames and a faster timing
-        final int FRAMES = 15; // fewer frames = faster animation
-        final int FRAME_DURATION = 15; // milliseconds (faster refresh rate)
-
-        final int[] currentFrame = {0};
+        // Use a short fixed duration (15 frames of 15 ms)
+        final int MOVE_DURATION = 225;
 
         // Use a direct animation instead of three phases
-        Timer animationTimer = new Timer(FRAME_DURATION, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                currentFrame[0]++;
-                float progress = (float)currentFrame[0] / FRAMES;
-
-                // Simple easing function
-                float easedProgress = (float)(1 - Math.cos(progress * Math.PI)) / 2;
-
-                // Direct path with slight arc
-                int newX = (int)(start.x + (targetX - start.x) * easedProgress);
-
-                // Add a slight arc for visual appeal
-                int arcHeight = 30;
-                float arcFactor = (float)(Math.sin(Math.PI * easedProgress) * arcHeight);
-                int newY = (int)(start.y + (targetY - start.y) * easedProgress - arcFactor);
-
-                ingredient.setLocation(newX, newY);
-
-                // Force immediate repaint of just this component
-                gridPanel.repaint(new Rectangle(newX-5, newY-5, 
-                              ingredient.getWidth()+10, ingredient.getHeight()+10));
-
-                if (currentFrame[0] >= FRAMES) {
-                    ((Timer)e.getSource()).stop();
-
-                    // Ensure final position is exact
-                    ingredient.setLocation(targetX, targetY);
-
-                    // Call completion callback
-                    if (onComplete != null) {
-                        SwingUtilities.invokeLater(onComplete);
-                    }
-                }
+        animations.tween(MOVE_DURATION, AnimationClock.Easing.EASE_IN_OUT_SINE, easedProgress -> {
+            // Direct path with slight arc
+            int newX = (int)(start.x + (targetX - start.x) * easedProgress);
+
+            // Add a slight arc for visual appeal
+            int arcHeight = 30;
+            float arcFactor = (float)(Math.sin(Math.PI * easedProgress) * arcHeight);
+            int newY = (int)(start.y + (targetY - start.y) * easedProgress - arcFactor);
+
+            // setLocation repaints the old and new bounds only
+            ingredient.setLocation(newX, newY);
+        }).onComplete(() -> {
+            // Ensure final position is exact
+            ingredient.setLocation(targetX, targetY);
+
+            // Call completion callback
+            if (onComplete != null) {
+                onComplete.run();
             }
         });
-
-        // Start the animation
-        animationTimer.start();
     }
 
 
@@ -2276,7 +2209,7 @@ public class TimSortVisualization extends JPanel {
 
         // 3. Create potion title label - CENTERED OVER POTION
         JLabel leftTitleLabel = new JLabel(leftPotionName, JLabel.CENTER);
-        leftTitleLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
+        leftTitleLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 16));
 
         // For Level 2, make the Dexterity Potion title stand out if it's this one
         if (gameLevel == 2 && leftPotionType.equals("Dexterity")) {
@@ -2293,7 +2226,7 @@ public class TimSortVisualization extends JPanel {
 
         // 4. Create potion description
         JLabel leftDescLabel = new JLabel("<html><div style='text-align:center;'>" + leftPotionDesc + "</div></html>", JLabel.CENTER);
-        leftDescLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        leftDescLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.PLAIN, 14));
         leftDescLabel.setForeground(Color.WHITE);
         // Center the description below the title with same width
         leftDescLabel.setBounds(leftX - (leftTitleWidth - POTION_IMAGE_SIZE)/2, DESC_Y, leftTitleWidth, DESC_HEIGHT);
@@ -2322,7 +2255,7 @@ public class TimSortVisualization extends JPanel {
 
         // 3. Create potion title label - CENTERED OVER POTION
         JLabel rightTitleLabel = new JLabel(rightPotionName, JLabel.CENTER);
-        rightTitleLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
+        rightTitleLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 16));
 
         // For Level 2, make the Dexterity Potion title stand out if it's this one
         if (gameLevel == 2 && rightPotionType.equals("Dexterity")) {
@@ -2339,7 +2272,7 @@ public class TimSortVisualization extends JPanel {
 
         // 4. Create potion description
         JLabel rightDescLabel = new JLabel("<html><div style='text-align:center;'>" + rightPotionDesc + "</div></html>", JLabel.CENTER);
-        rightDescLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        rightDescLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.PLAIN, 14));
         rightDescLabel.setForeground(Color.WHITE);
         // Center the description below the title with same width
         rightDescLabel.setBounds(rightX - (rightTitleWidth - POTION_IMAGE_SIZE)/2, DESC_Y, rightTitleWidth, DESC_HEIGHT);
@@ -2447,11 +2380,7 @@ public class TimSortVisualization extends JPanel {
                     }
 
                     // Phase transition will happen after dialogue ends
-                    Timer transitionTimer = new Timer(500, e -> {
-                        advanceToNextPhase();
-                    });
-                    transitionTimer.setRepeats(false);
-                    transitionTimer.start();
+                    animations.after(500, this::advanceToNextPhase);
                 } else {
                     JOptionPane.showMessageDialog(this,
                         "These ingredients don't form proper sequences. Try again!",
@@ -2461,11 +2390,12 @@ public class TimSortVisualization extends JPanel {
                 }
             }
         } else if (currentPhase == 2) {
-            // Phase 2 logic remains unchanged
-            boolean leftSorted = isGroupSorted(leftGroup);
-            boolean rightSorted = isGroupSorted(rightGroup);
+            // Both runs in order: known from the placements so far, no rescan needed
+            boolean runsSorted = runsValidator != null
+                    ? runsValidator.areRunsSorted()
+                    : isGroupSorted(leftGroup) && isGroupSorted(rightGroup);
 
-            if (isLeftGroupSorted && isRightGroupSorted && leftSorted && rightSorted) {
+            if (isLeftGroupSorted && isRightGroupSorted && runsSorted) {
                 // Set phase as completed
                 phaseCompleted = true;
 
@@ -2539,17 +2469,20 @@ public class TimSortVisualization extends JPanel {
                         resumeAfterDialogue();
 
                         // Advance to Phase 3 after a short delay
-                        Timer transitionTimer = new Timer(500, e -> {
-                            advanceToNextPhase();
-                        });
-                        transitionTimer.setRepeats(false);
-                        transitionTimer.start();
+                        animations.after(500, TimSortVisualization.this::advanceToNextPhase);
                     }
                 });
 
                 // Force revalidate and repaint
                 revalidate();
                 repaint();
+            } else if (isLeftGroupSorted && isRightGroupSorted && runsValidator != null) {
+                // Hand of Balance is still placing ingredients
+                JOptionPane.showMessageDialog(this,
+                    "The Hand of Balance is still placing the ingredients. Wait for it to finish!",
+                    "Not Yet",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
             } else if (!isLeftGroupSorted || !isRightGroupSorted) {
                 // They haven't used the ability yet
                 JOptionPane.showMessageDialog(this,
@@ -2657,7 +2590,7 @@ public class TimSortVisualization extends JPanel {
 
             // Add boss name with appropriate color
             JLabel bossNameLabel = new JLabel(bossName, JLabel.CENTER);
-            bossNameLabel.setFont(new Font("SansSerif", Font.BOLD, 36));
+            bossNameLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 36));
 
             // Set boss-specific color
             if (bossName.equals("LordChaosa")) {
@@ -2684,7 +2617,7 @@ public class TimSortVisualization extends JPanel {
             
 
             JLabel battleText = new JLabel(battleCry, JLabel.CENTER);
-            battleText.setFont(new Font("SansSerif", Font.BOLD, 24));
+            battleText.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 24));
             battleText.setForeground(Color.WHITE);
             battleText.setBounds(0, 470, GameConstants.WINDOW_WIDTH, 30);
             battleOverlay.add(battleText);
@@ -2702,14 +2635,14 @@ public class TimSortVisualization extends JPanel {
             System.err.println("ERROR: Failed to load boss image for " + bossName);
             // Add a fallback image or text if boss image couldn't be loaded
             JLabel errorLabel = new JLabel("Facing " + bossName + "...", JLabel.CENTER);
-            errorLabel.setFont(new Font("SansSerif", Font.BOLD, 36));
+            errorLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 36));
             errorLabel.setForeground(Color.WHITE);
             errorLabel.setBounds(0, 100, GameConstants.WINDOW_WIDTH, 300);
             battleOverlay.add(errorLabel);
         }
 
         // After a delay, show battle outcome
-        Timer battleTimer = new Timer(5000, e -> {
+        animations.after(5000, () -> {
             // IMPORTANT: Remove battle overlay before proceeding
             remove(battleOverlay);
 
@@ -2771,8 +2704,6 @@ public class TimSortVisualization extends JPanel {
             // Signal successful boss battle
             controller.onBossBattleComplete(correctChoice, bossLevel);
         });
-        battleTimer.setRepeats(false);
-        battleTimer.start();
     }
 
     
@@ -2823,135 +2754,14 @@ public class TimSortVisualization extends JPanel {
         // Debug the boss name to ensure correct effects are applied
         System.out.println("DEBUG: Starting battle effects for boss: " + bossName);
 
-        // Create animated battle effects
-        Random rand = new Random();
-
-        // Create effects appropriate for the current boss
-        Timer effectsTimer = new Timer(100, new ActionListener() {
-            int count = 0;
+        // One particle layer over the whole overlay, on top of the boss
+        ParticleSystem particles = new ParticleSystem(animations, GameConstants.MAX_BATTLE_PARTICLES);
+        particles.setBounds(0, 0, overlay.getWidth(), overlay.getHeight());
+        overlay.add(particles);
+        overlay.setComponentZOrder(particles, 0);
 
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (count > 50) {
-                    ((Timer)e.getSource()).stop();
-                    return;
-                }
-
-                // Create a new effect
-                JPanel effect = new JPanel() {
-                    // Different effects for different bosses
-                    Color color;
-                    int size;
-
-                    {
-                        if (bossName.equals("Toxitar")) {
-                            // Toxitar - green poison effects
-                            color = new Color(
-                                rand.nextInt(100),
-                                rand.nextInt(100) + 155,
-                                rand.nextInt(50),
-                                rand.nextInt(100) + 155);
-                            size = rand.nextInt(25) + 15; // Larger poison clouds
-                        } else if (bossName.equals("LordChaosa")) {
-                            // Lord Chaosa - ENHANCED purple/magenta reality distortion effects
-                            color = new Color(
-                                rand.nextInt(100) + 155,
-                                rand.nextInt(50),
-                                rand.nextInt(100) + 155,
-                                rand.nextInt(100) + 155);
-                            size = rand.nextInt(50) + 30; // Much larger reality distortion effects
-
-                            // Debug when Lord Chaosa effect is created
-                            System.out.println("DEBUG: Created LordChaosa effect, size: " + size);
-                        } else {
-                            // Flameclaw - fire effects
-                            color = new Color(
-                                rand.nextInt(100) + 155,
-                                rand.nextInt(100),
-                                rand.nextInt(50),
-                                rand.nextInt(100) + 155);
-                            size = rand.nextInt(20) + 10; // Smaller fire sparks
-                        }
-                    }
-
-                    @Override
-                    protected void paintComponent(Graphics g) {
-                        super.paintComponent(g);
-
-                        // Fill with the effect color
-                        g.setColor(color);
-                        g.fillOval(0, 0, getWidth(), getHeight());
-
-                        // For Lord Chaosa, add extra "reality distortion" effect
-                        if (bossName.equals("LordChaosa")) {
-                            Graphics2D g2d = (Graphics2D) g;
-                            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.7f));
-
-                            // Draw distortion rings
-                            g2d.setColor(new Color(255, 50, 255, 180));
-                            g2d.drawOval(5, 5, getWidth() - 10, getHeight() - 10);
-                            g2d.drawOval(10, 10, getWidth() - 20, getHeight() - 20);
-
-                            // Reset composite
-                            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-                        }
-                    }
-                };
-
-                // Set random position around boss based on boss type
-                int x, y;
-                if (bossName.equals("Toxitar")) {
-                    // Toxitar's poison spreads more on the ground
-                    x = (GameConstants.WINDOW_WIDTH / 2) + rand.nextInt(400) - 200;
-                    y = 300 + rand.nextInt(150);
-                } else if (bossName.equals("LordChaosa")) {
-                    // Lord Chaosa's reality distortions appear all around
-                    x = (GameConstants.WINDOW_WIDTH / 2) + rand.nextInt(600) - 300;
-                    y = 200 + rand.nextInt(400) - 100;
-
-                    // Debug Lord Chaosa effect positioning
-                    System.out.println("DEBUG: LordChaosa effect positioned at: " + x + "," + y);
-                } else {
-                    // Flameclaw's fire comes more from the center
-                    x = (GameConstants.WINDOW_WIDTH / 2) + rand.nextInt(300) - 150;
-                    y = 250 + rand.nextInt(200) - 100;
-                }
-
-                // Instead of trying to access effect.size, calculate the size here directly
-                int effectSize;
-                if (bossName.equals("Toxitar")) {
-                    effectSize = rand.nextInt(25) + 15;
-                } else if (bossName.equals("LordChaosa")) {
-                    effectSize = rand.nextInt(50) + 30;
-                } else {
-                    effectSize = rand.nextInt(20) + 10;
-                }
-
-                // Now use effectSize
-                effect.setBounds(x, y, effectSize, effectSize);
-                effect.setOpaque(false);
-
-                overlay.add(effect);
-
-                // Ensure effect is visible by setting it to the top of the z-order
-                overlay.setComponentZOrder(effect, 0);
-
-                overlay.revalidate();
-                overlay.repaint();
-
-                // Remove effect after a delay
-                Timer remover = new Timer(rand.nextInt(1000) + 500, event -> {
-                    overlay.remove(effect);
-                    overlay.repaint();
-                });
-                remover.setRepeats(false);
-                remover.start();
-
-                count++;
-            }
-        });
-
-        effectsTimer.start();
+        // Emit 51 effects, one every 100 ms, appropriate for the current boss
+        particles.start(ParticleSystem.Emitter.forBoss(bossName), 51, 100);
     }
 
     
@@ -2977,6 +2787,44 @@ public class TimSortVisualization extends JPanel {
         return validRunIngredients >= (MAX_SELECTIONS * 0.8);
     }
     
+    /**
+     * Move a placed ingredient to its slot in the row's arrangement and show how far the row is from sorted
+     *
+     * @param rowStart position of the row's first ingredient in the runs validator
+     */
+    private void trackPlacement(List<IngredientItem> arrangement, SortednessAnalytics analytics, int rowStart,
+            IngredientItem ingredient, int slot, String potionType) {
+        int from = arrangement.indexOf(ingredient);
+        arrangement.add(slot, arrangement.remove(from));
+        analytics.move(from, slot);
+        if (runsValidator != null) {
+            runsValidator.move(rowStart + from, rowStart + slot);
+        }
+        instructionLabel.setText(String.format("Sorting %s ingredients: %d pairs still out of order, %d sorted runs",
+                potionType, analytics.getInversions(), analytics.getRunCount()));
+    }
+    
+    private static int[] valuesOf(List<IngredientItem> group) {
+        int[] values = new int[group.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = group.get(i).getValue();
+        }
+        return values;
+    }
+    
+    /**
+     * Validator for the left and right rows as two TimSort runs of GROUP_SIZE, or null if a row isn't full
+     */
+    private static SolutionValidator runsValidatorFor(List<IngredientItem> left, List<IngredientItem> right) {
+        if (left.size() != GROUP_SIZE || right.size() != GROUP_SIZE) {
+            return null;
+        }
+        int[] values = new int[GROUP_SIZE * 2];
+        System.arraycopy(valuesOf(left), 0, values, 0, GROUP_SIZE);
+        System.arraycopy(valuesOf(right), 0, values, GROUP_SIZE, GROUP_SIZE);
+        return new SolutionValidator(values, values, GROUP_SIZE);
+    }
+    
     /**
      * Check if a group is properly sorted
      */
@@ -2999,15 +2847,11 @@ public class TimSortVisualization extends JPanel {
      */
     private void advanceToNextPhase() {
         // Stop all active timers first
-        for (Timer timer : activeTimers) {
-            if (timer.isRunning()) {
-                timer.stop();
-            }
-        }
-        activeTimers.clear();
+        stopAllTimers();
 
         currentPhase++;
         phaseCompleted = false;
+        runsValidator = null;
 
         // Reset everything - crucial for clean transition
         gridPanel.removeAll();
@@ -3096,7 +2940,7 @@ public class TimSortVisualization extends JPanel {
      */
     private JButton createStyledButton(String text) {
         JButton button = new JButton(text);
-        button.setFont(new Font("SansSerif", Font.BOLD, 14));
+        button.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 14));
         button.setForeground(Color.WHITE);
         button.setBackground(new Color(60, 60, 120));
         button.setFocusPainted(false);
@@ -3119,6 +2963,15 @@ public class TimSortVisualization extends JPanel {
         return button;
     }
     
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (repaintTracker != null) {
+            // Drawn last so the outline sits above the ingredients in the repainted region
+            repaintTracker.paintOverlay(this, g);
+        }
+    }
+
     // Make sure the paintComponent method is properly drawing the background
     @Override
     protected void paintComponent(Graphics g) {
@@ -3314,11 +3167,21 @@ public class TimSortVisualization extends JPanel {
             // CRITICAL FIX: Explicitly enable the ability button
             setAbilityButtonEnabled(true);
 
+            // Gameplay has started, so changes from here on are snapshotted
+            sessionActive = true;
+            boolean restoring = pendingSnapshot != null
+                    && pendingSnapshot.getLevel() == gameLevel && pendingSnapshot.getPhase() == phase;
+
             // Then initialize the proper phase UI
             initializePhaseUI();
 
+            // A restored session already saw this phase's intro
+            if (restoring) {
+                return;
+            }
+
             // Add a slight delay before showing the start dialogue
-            Timer dialogueTimer = new Timer(1000, e -> {
+            phaseAnimations.after(1000, () -> {
                 // Show the appropriate dialogue for this phase
                 switch (currentPhase) {
                     case 1:
@@ -3332,11 +3195,6 @@ public class TimSortVisualization extends JPanel {
                         break;
                 }
             });
-            dialogueTimer.setRepeats(false);
-            dialogueTimer.start();
-
-            // Add this timer to the active timers list
-            activeTimers.add(dialogueTimer);
         }
     }
 
@@ -3433,6 +3291,14 @@ public class TimSortVisualization extends JPanel {
         // Set button labels with dynamic boss references
         updatePhaseLabel();
 
+        // Restore an interrupted session instead of starting the phase fresh
+        SessionSnapshot snapshot = pendingSnapshot;
+        pendingSnapshot = null;
+        if (snapshot != null && snapshot.getLevel() == gameLevel && snapshot.getPhase() == currentPhase) {
+            applySessionSnapshot(snapshot);
+            return;
+        }
+
         // Perform phase-specific initialization
         switch (currentPhase) {
             case 1:
@@ -3467,6 +3333,29 @@ public class TimSortVisualization extends JPanel {
     
     
     
+    // Pre-rendered ingredient tiles, shared by every IngredientItem (EDT only).
+    // Least recently used first, so sizes left behind by window resizes drop out.
+    private static final int INGREDIENT_SPRITE_CACHE_SIZE = 128;
+    private static final Map<String, BufferedImage> INGREDIENT_SPRITES =
+            new LinkedHashMap<String, BufferedImage>(INGREDIENT_SPRITE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+            return size() > INGREDIENT_SPRITE_CACHE_SIZE;
+        }
+    };
+    private static final FrameTimer INGREDIENT_PAINT_TIMER = UiMetrics.getInstance().getPaintTimer("IngredientItem");
+    private static final Font BADGE_FONT = FontRegistry.getInstance().getSystemFont("Arial", Font.BOLD, 12);
+    private static final FontMetrics BADGE_METRICS = FontRegistry.getInstance().getFontMetrics(BADGE_FONT);
+    private static final Font GROUP_LABEL_FONT = FontRegistry.getInstance().getSystemFont("SansSerif", Font.BOLD, 14);
+    private static final FontMetrics GROUP_LABEL_METRICS = FontRegistry.getInstance().getFontMetrics(GROUP_LABEL_FONT);
+    private static final BasicStroke BADGE_STROKE = new BasicStroke(1.5f);
+    private static final Color BADGE_FILL_COLOR = new Color(0, 0, 0, 180);        // Semi-transparent black
+    private static final Color BADGE_BORDER_COLOR = new Color(255, 255, 255, 200); // Semi-transparent white
+    private static final Color SELECTION_FILL_COLOR = new Color(255, 255, 255, 100);
+    private static final Color BOX_LIGHT_COLOR = new Color(230, 195, 155);         // Light tan
+    private static final Color BOX_DARK_COLOR = new Color(215, 180, 140);          // Darker tan
+    private static final Color BOX_BORDER_COLOR = new Color(165, 120, 95);
+    
     /**
     * Ingredient item class representing a visual ingredient element that can be
     * selected, highlighted, and arranged with completely transparent background
@@ -3486,6 +3375,17 @@ public class TimSortVisualization extends JPanel {
         private ImageIcon ingredientImage = null;
         private ImageIcon gridBoxImage = null;
 
+        // Sprites last drawn and the state they were drawn for; the shared
+        // cache is only consulted when that state changes
+        private BufferedImage sprite;
+        private int spriteWidth;
+        private int spriteHeight;
+        private boolean spriteSelected;
+        private BufferedImage boxSprite;
+        private int boxWidth;
+        private int boxHeight;
+        private boolean boxLight;
+
         public IngredientItem(int value, String color) {
             this.value = value;
             this.color = color;
@@ -3515,6 +3415,7 @@ public class TimSortVisualization extends JPanel {
             this.ingredientName = name;
             // Load ingredient image
             loadIngredientImage();
+            sprite = null;
         }
 
         public String getPotionType() {
@@ -3523,6 +3424,7 @@ public class TimSortVisualization extends JPanel {
 
         public void setPotionType(String type) {
             this.potionType = type;
+            sprite = null;
         }
 
         public void setBoxVisible(boolean visible) {
@@ -3555,63 +3457,139 @@ public class TimSortVisualization extends JPanel {
         protected void paintComponent(Graphics g) {
             // DO NOT call super.paintComponent() to avoid any background drawing
             // This is critical for complete transparency
+            INGREDIENT_PAINT_TIMER.beginFrame();
 
-             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Graphics2D g2d = (Graphics2D) g;
+            int width = getWidth();
+            int height = getHeight();
 
             // Only draw the grid box if it's visible AND we're in Phase 1
             if (isBoxVisible && currentPhase == 1) {
-                if (gridBoxImage != null) {
-                    g2d.drawImage(gridBoxImage.getImage(), 0, 0, getWidth(), getHeight(), this);
-                } else {
-                    // Fallback colors if image is missing
-                    Color boxColor;
-                    // Alternate colors based on position to create a checkerboard effect
-                    int row = getY() / INGREDIENT_SIZE;
-                    int col = getX() / INGREDIENT_SIZE;
-                    if ((row + col) % 2 == 0) {
-                        boxColor = new Color(230, 195, 155); // Light tan
-                    } else {
-                        boxColor = new Color(215, 180, 140); // Darker tan
-                    }
-                    g2d.setColor(boxColor);
-                    g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                    // Draw border
-                    g2d.setColor(new Color(165, 120, 95));
-                    g2d.drawRect(0, 0, getWidth()-1, getHeight()-1);
+                // Alternate fallback colors based on position to create a checkerboard effect
+                boolean lightSquare = gridBoxImage != null
+                        || (getY() / INGREDIENT_SIZE + getX() / INGREDIENT_SIZE) % 2 == 0;
+                if (boxSprite == null || boxWidth != width || boxHeight != height || boxLight != lightSquare) {
+                    boxSprite = getBoxSprite(width, height, lightSquare);
+                    boxWidth = width;
+                    boxHeight = height;
+                    boxLight = lightSquare;
                 }
+                g2d.drawImage(boxSprite, 0, 0, null);
             }
 
-            // Draw highlight if applicable - only in Phase 1
+            // Draw highlight if applicable - only in Phase 1 (live: its color changes per run)
             if (isHighlighted && currentPhase == 1) {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 g2d.setColor(highlightColor);
-                g2d.fillRoundRect(5, 5, getWidth() - 10, getHeight() - 10, 10, 10);
+                g2d.fillRoundRect(5, 5, width - 10, height - 10, 10, 10);
+            }
+
+            // Selection indicator, ingredient image and value badge / label come pre-rendered
+            // (selection is completely transparent in Phase 2)
+            boolean selected = isSelected && currentPhase != 2;
+            if (sprite == null || spriteWidth != width || spriteHeight != height || spriteSelected != selected) {
+                sprite = getSprite(width, height, selected);
+                spriteWidth = width;
+                spriteHeight = height;
+                spriteSelected = selected;
+            }
+            if (sprite != null) {
+                g2d.drawImage(sprite, 0, 0, null);
+            }
+            INGREDIENT_PAINT_TIMER.endFrame();
+        }
+
+        /**
+         * Get (or render once) this ingredient's sprite for the given size and state
+         */
+        private BufferedImage getSprite(int width, int height, boolean selected) {
+            if (width <= 0 || height <= 0) {
+                return null;
+            }
+            String key = (isGroupLabel ? "label:" + potionType : ingredientName + ":" + value)
+                    + ":" + selected + ":" + width + "x" + height;
+            BufferedImage sprite = INGREDIENT_SPRITES.get(key);
+            if (sprite == null) {
+                // Skip caching until the ingredient image has loaded
+                if (ingredientImage != null && ingredientImage.getImage().getWidth(this) <= 0) {
+                    return null;
+                }
+                sprite = createSpriteImage(width, height);
+                Graphics2D g2d = sprite.createGraphics();
+                try {
+                    renderSprite(g2d, width, height, selected);
+                } finally {
+                    g2d.dispose();
+                }
+                INGREDIENT_SPRITES.put(key, sprite);
+            }
+            return sprite;
+        }
+
+        /**
+         * Get (or render once) the grid box drawn behind Phase 1 ingredients
+         */
+        private BufferedImage getBoxSprite(int width, int height, boolean lightSquare) {
+            String key = "box:" + lightSquare + ":" + width + "x" + height;
+            BufferedImage sprite = INGREDIENT_SPRITES.get(key);
+            if (sprite == null) {
+                sprite = createSpriteImage(width, height);
+                Graphics2D g2d = sprite.createGraphics();
+                try {
+                    if (gridBoxImage != null) {
+                        g2d.drawImage(gridBoxImage.getImage(), 0, 0, width, height, null);
+                    } else {
+                        // Fallback colors if image is missing
+                        g2d.setColor(lightSquare ? BOX_LIGHT_COLOR : BOX_DARK_COLOR);
+                        g2d.fillRect(0, 0, width, height);
+
+                        // Draw border
+                        g2d.setColor(BOX_BORDER_COLOR);
+                        g2d.drawRect(0, 0, width - 1, height - 1);
+                    }
+                } finally {
+                    g2d.dispose();
+                }
+                INGREDIENT_SPRITES.put(key, sprite);
+            }
+            return sprite;
+        }
+
+        private BufferedImage createSpriteImage(int width, int height) {
+            GraphicsConfiguration config = getGraphicsConfiguration();
+            if (config != null) {
+                return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
             }
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
 
-            // Draw selection indicator - make this completely transparent in Phase 2
-            if (isSelected && currentPhase != 2) {
-                g2d.setColor(new Color(255, 255, 255, 100));
-                g2d.fillRoundRect(5, 5, getWidth() - 10, getHeight() - 10, 10, 10);
+        /**
+         * Draw the selection indicator, ingredient image and value badge (or
+         * group label) into a sprite
+         */
+        private void renderSprite(Graphics2D g2d, int width, int height, boolean selected) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            // Draw selection indicator
+            if (selected) {
+                g2d.setColor(SELECTION_FILL_COLOR);
+                g2d.fillRoundRect(5, 5, width - 10, height - 10, 10, 10);
                 g2d.setColor(Color.WHITE);
-                g2d.drawRoundRect(5, 5, getWidth() - 10, getHeight() - 10, 10, 10);
+                g2d.drawRoundRect(5, 5, width - 10, height - 10, 10, 10);
             }
 
             // Draw the ingredient image
             if (ingredientImage != null) {
                 // Calculate size to maintain aspect ratio while ensuring the image is larger
                 Image img = ingredientImage.getImage();
-                int imgWidth = img.getWidth(this);
-                int imgHeight = img.getHeight(this);
-
-                // Skip if image hasn't loaded
-                if (imgWidth <= 0 || imgHeight <= 0) return;
+                int imgWidth = img.getWidth(null);
+                int imgHeight = img.getHeight(null);
 
                 // Scale image to fit within panel with small margins
                 // Increased scale factor to make image larger
                 double scale = Math.min(
-                    (getWidth() - 10) / (double)imgWidth,
-                    (getHeight() - 10) / (double)imgHeight
+                    (width - 10) / (double)imgWidth,
+                    (height - 10) / (double)imgHeight
                 );
 
                 // Increase scale by 20% to make image slightly larger
@@ -3621,13 +3599,13 @@ public class TimSortVisualization extends JPanel {
                 int scaledHeight = (int)(imgHeight * scale);
 
                 // Center the image
-                int x = (getWidth() - scaledWidth) / 2;
-                int y = (getHeight() - scaledHeight) / 2;
+                int x = (width - scaledWidth) / 2;
+                int y = (height - scaledHeight) / 2;
 
                 // Draw the image with nearest-neighbor interpolation for crisp pixel art
                 g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
                                   RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-                g2d.drawImage(img, x, y, scaledWidth, scaledHeight, this);
+                g2d.drawImage(img, x, y, scaledWidth, scaledHeight, null);
             }
 
             // For group labels (used in Phase 3), draw just text without any colored box
@@ -3646,16 +3624,16 @@ public class TimSortVisualization extends JPanel {
                 }
 
                 // Draw potion name with appropriate color
-                g2d.setFont(new Font("SansSerif", Font.BOLD, 14));
+                g2d.setFont(GROUP_LABEL_FONT);
                 g2d.setColor(textColor);
 
                 // Split the potion name into lines if needed
-                FontMetrics fm = g2d.getFontMetrics();
+                FontMetrics fm = GROUP_LABEL_METRICS;
                 String[] words = potionType.split(" ");
-                int y = getHeight() / 2 - ((words.length * fm.getHeight()) / 2) + fm.getAscent();
+                int y = height / 2 - ((words.length * fm.getHeight()) / 2) + fm.getAscent();
 
                 for (String word : words) {
-                    int x = (getWidth() - fm.stringWidth(word)) / 2;
+                    int x = (width - fm.stringWidth(word)) / 2;
                     g2d.drawString(word, x, y);
                     y += fm.getHeight();
                 }
@@ -3665,32 +3643,30 @@ public class TimSortVisualization extends JPanel {
             if (!isGroupLabel) {
                 // Define circle size and position
                 int circleSize = 28; // Size of the circle
-                int circleX = getWidth() - circleSize - 5; // 5px from right edge
-                int circleY = getHeight() - circleSize - 5; // 5px from bottom edge
+                int circleX = width - circleSize - 5; // 5px from right edge
+                int circleY = height - circleSize - 5; // 5px from bottom edge
 
                 // Draw circle with semi-transparent background
-                g2d.setColor(new Color(0, 0, 0, 180)); // Semi-transparent black
+                g2d.setColor(BADGE_FILL_COLOR);
                 g2d.fillOval(circleX, circleY, circleSize, circleSize);
 
                 // Draw circle border
-                g2d.setColor(new Color(255, 255, 255, 200)); // Semi-transparent white
-                g2d.setStroke(new BasicStroke(1.5f));
+                g2d.setColor(BADGE_BORDER_COLOR);
+                g2d.setStroke(BADGE_STROKE);
                 g2d.drawOval(circleX, circleY, circleSize, circleSize);
 
                 // Draw value text
-                g2d.setFont(new Font("Arial", Font.BOLD, 12));
+                g2d.setFont(BADGE_FONT);
                 g2d.setColor(Color.WHITE);
 
                 // Center the text in the circle
                 String valueText = String.valueOf(value);
-                FontMetrics fm = g2d.getFontMetrics();
+                FontMetrics fm = BADGE_METRICS;
                 int textX = circleX + (circleSize - fm.stringWidth(valueText)) / 2;
                 int textY = circleY + ((circleSize + fm.getAscent()) / 2);
 
                 g2d.drawString(valueText, textX, textY);
             }
-            
-            
         }
 
         // Getters and setters
@@ -3707,8 +3683,10 @@ public class TimSortVisualization extends JPanel {
         }
 
         public void setSelected(boolean selected) {
-            this.isSelected = selected;
-            repaint();
+            if (this.isSelected != selected) {
+                this.isSelected = selected;
+                repaint();
+            }
         }
 
         public boolean isSelected() {
@@ -3716,17 +3694,22 @@ public class TimSortVisualization extends JPanel {
         }
 
         public void setHighlighted(boolean highlighted) {
-            this.isHighlighted = highlighted;
-            repaint();
+            if (this.isHighlighted != highlighted) {
+                this.isHighlighted = highlighted;
+                repaint();
+            }
         }
 
         public void setHighlightColor(Color color) {
-            this.highlightColor = color;
-            repaint();
+            if (!Objects.equals(this.highlightColor, color)) {
+                this.highlightColor = color;
+                repaint();
+            }
         }
 
         public void setGroupLabel(boolean isGroupLabel) {
             this.isGroupLabel = isGroupLabel;
+            sprite = null;
             repaint();
         }
 
@@ -3889,7 +3872,8 @@ public class TimSortVisualization extends JPanel {
     * Pause game elements during dialogue
     */
     private void pauseDuringDialogue() {
-
+        // Dialogue time doesn't count towards the attempt
+        controller.pauseAttempt();
 
         // Disable buttons during dialogue
         abilityButton.setEnabled(false);
@@ -3903,7 +3887,7 @@ public class TimSortVisualization extends JPanel {
     * Resume game elements after dialogue ends
     */
     private void resumeAfterDialogue() {
-
+        controller.resumeAttempt();
 
         // Re-enable buttons
         abilityButton.setEnabled(true);
@@ -3939,6 +3923,9 @@ public class TimSortVisualization extends JPanel {
     * Reset all phases and state in the TimSort visualization
     */
     public void resetAllPhases() {
+        // Stop snapshotting until gameplay starts again
+        sessionActive = false;
+        
         // Reset phase tracking
         currentPhase = 1;
         phaseCompleted = false;
@@ -4091,6 +4078,185 @@ public class TimSortVisualization extends JPanel {
     
     
     
+    /**
+    * Fewest ingredient clicks that finish a level from the start of a phase:
+    * the MAX_SELECTIONS picks of Phase 1 and the potion pick of Phase 3
+    * (Phase 2's sorting is done by the ability, not by clicks)
+    */
+    public static int getMinimumClicks(int fromPhase) {
+        return (fromPhase <= 1 ? MAX_SELECTIONS : 0) + 1;
+    }
+    
+    /**
+    * Queue a session snapshot to be restored by the next setPhase call
+    */
+    public void restoreSessionSnapshot(SessionSnapshot snapshot) {
+        this.pendingSnapshot = snapshot;
+    }
+    
+    /**
+    * Record the current session state. Called after every change; unchanged
+    * snapshots are skipped by SessionSnapshot.save().
+    */
+    private void recordSessionSnapshot() {
+        if (!sessionActive) {
+            return;
+        }
+        captureSessionSnapshot().save();
+    }
+    
+    /**
+    * Capture ingredient order, selections, groups and phase state
+    */
+    private SessionSnapshot captureSessionSnapshot() {
+        SessionSnapshot snapshot = new SessionSnapshot(gameLevel, currentPhase);
+        snapshot.setRunsHighlighted(!identifiedRuns.isEmpty());
+        
+        for (IngredientItem item : allIngredients) {
+            snapshot.getIngredients().add(toSnapshotItem(item));
+        }
+        
+        int[] selectedIndices = new int[selectedIngredients.size()];
+        int count = 0;
+        for (IngredientItem item : selectedIngredients) {
+            int index = allIngredients.indexOf(item);
+            if (index >= 0) {
+                selectedIndices[count++] = index;
+            }
+        }
+        snapshot.setSelectedIndices(java.util.Arrays.copyOf(selectedIndices, count));
+        
+        for (IngredientItem item : leftGroup) {
+            snapshot.getLeftGroup().add(toSnapshotItem(item));
+        }
+        for (IngredientItem item : rightGroup) {
+            snapshot.getRightGroup().add(toSnapshotItem(item));
+        }
+        snapshot.setGroupsSorted(isLeftGroupSorted, isRightGroupSorted);
+        snapshot.setPotionTypes(leftGroupPotionType, rightGroupPotionType);
+        snapshot.setCraftedPotion(craftedPotion);
+        return snapshot;
+    }
+    
+    private SessionSnapshot.Item toSnapshotItem(IngredientItem item) {
+        return new SessionSnapshot.Item(item.getValue(), item.getColor(), item.getPotionType(),
+                item.getIngredientName(), item.getX(), item.getY());
+    }
+    
+    private IngredientItem fromSnapshotItem(SessionSnapshot.Item item) {
+        IngredientItem ingredient = new IngredientItem(item.getValue(), item.getColor());
+        ingredient.setPotionType(item.getPotionType());
+        ingredient.setIngredientName(item.getIngredientName());
+        return ingredient;
+    }
+    
+    /**
+    * Rebuild the current phase's scene from a snapshot
+    */
+    private void applySessionSnapshot(SessionSnapshot snapshot) {
+        if (snapshot.getLeftPotionType() != null) {
+            leftGroupPotionType = snapshot.getLeftPotionType();
+        }
+        if (snapshot.getRightPotionType() != null) {
+            rightGroupPotionType = snapshot.getRightPotionType();
+        }
+        phaseCompleted = false;
+        checkButton.setEnabled(false);
+        
+        if (currentPhase == 1) {
+            // Same grid order and selections as before
+            allIngredients.clear();
+            selectedIngredients.clear();
+            identifiedRuns.clear();
+            for (SessionSnapshot.Item item : snapshot.getIngredients()) {
+                IngredientItem ingredient = fromSnapshotItem(item);
+                ingredient.setBoxVisible(true);
+                allIngredients.add(ingredient);
+            }
+            positionIngredientsInGrid();
+            for (int index : snapshot.getSelectedIndices()) {
+                IngredientItem ingredient = allIngredients.get(index);
+                ingredient.setSelected(true);
+                selectedIngredients.add(ingredient);
+            }
+            if (snapshot.isRunsHighlighted()) {
+                highlightNaturalRuns();
+            }
+            checkButton.setEnabled(selectedIngredients.size() == MAX_SELECTIONS);
+            gridPanel.setVisible(true);
+        } else if (currentPhase == 2) {
+            // Same scattered (or already sorted) layout as before
+            leftGroup.clear();
+            rightGroup.clear();
+            gridPanel.setBackground(new Color(0, 0, 0, 0));
+            gridPanel.setOpaque(false);
+            gridPanel.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+            restoreGroup(snapshot.getLeftGroup(), leftGroup, true);
+            restoreGroup(snapshot.getRightGroup(), rightGroup, true);
+            isLeftGroupSorted = snapshot.isLeftGroupSorted();
+            isRightGroupSorted = snapshot.isRightGroupSorted();
+            runsValidator = null;
+            if (!isLeftGroupSorted || !isRightGroupSorted) {
+                // Unsorted items stay selectable, as in arrangeIngredientsForSorting
+                for (IngredientItem ingredient : leftGroup) {
+                    ingredient.setSelected(true);
+                }
+                for (IngredientItem ingredient : rightGroup) {
+                    ingredient.setSelected(true);
+                }
+            } else {
+                addGroupHeaders();
+                checkButton.setEnabled(true);
+                instructionLabel.setText("The ingredients have been sorted using insertion sort. Check your results.");
+            }
+        } else if (currentPhase == 3) {
+            // The sorted potion groups carry over from Phase 2, off the grid
+            leftGroup.clear();
+            rightGroup.clear();
+            restoreGroup(snapshot.getLeftGroup(), leftGroup, false);
+            restoreGroup(snapshot.getRightGroup(), rightGroup, false);
+            isLeftGroupSorted = snapshot.isLeftGroupSorted();
+            isRightGroupSorted = snapshot.isRightGroupSorted();
+            displayPotionOptions();
+            craftedPotion = snapshot.getCraftedPotion();
+            if (craftedPotion != null) {
+                phaseCompleted = true;
+                checkButton.setEnabled(true);
+            }
+        }
+        
+        setAbilityButtonEnabled(true);
+        gridPanel.revalidate();
+        gridPanel.repaint();
+        revalidate();
+        repaint();
+    }
+    
+    /**
+    * Re-create a potion group at its saved positions; onGrid adds the items
+    * to the grid as clickable Phase 2 ingredients
+    */
+    private void restoreGroup(List<SessionSnapshot.Item> items, List<IngredientItem> group, boolean onGrid) {
+        for (SessionSnapshot.Item item : items) {
+            IngredientItem ingredient = fromSnapshotItem(item);
+            ingredient.setBoxVisible(false);
+            ingredient.setSize(INGREDIENT_SIZE + 15, INGREDIENT_SIZE + 15);
+            ingredient.setLocation(item.getX(), item.getY());
+            ingredient.setOriginalPosition(new Point(item.getX(), item.getY()));
+            group.add(ingredient);
+            if (!onGrid) {
+                continue;
+            }
+            gridPanel.add(ingredient);
+            ingredient.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    handleIngredientClick(ingredient);
+                }
+            });
+        }
+    }
+    
     public static class LevelProgressData {
         private int level;
         private int phase;
@@ -4130,21 +4296,22 @@ public class TimSortVisualization extends JPanel {
     
     
  
-    // Modify the timer creation to track all timers
-    private Timer createTrackedTimer(int delay, ActionListener listener) {
-        Timer timer = new Timer(delay, listener);
-        activeTimers.add(timer);
-        return timer;
-    }
-
-    // Add a method to clean up timers
+    // Cancel the phase animations (pending dialogues, ability cooldown)
     private void stopAllTimers() {
-        for (Timer timer : activeTimers) {
-            if (timer.isRunning()) {
-                timer.stop();
-            }
-        }
-        activeTimers.clear();
+        phaseAnimations.cancelAll();
+    }
+    
+    // Freeze every animation and the attempt's clock while the pause menu is open
+    private void pauseAnimations() {
+        animations.pause();
+        phaseAnimations.pause();
+        controller.pauseAttempt();
+    }
+    
+    private void resumeAnimations() {
+        animations.resume();
+        phaseAnimations.resume();
+        controller.resumeAttempt();
     }
     
     
@@ -4154,6 +4321,9 @@ public class TimSortVisualization extends JPanel {
     public void fullReset() {
         // Stop all timers
         stopAllTimers();
+        
+        // Stop snapshotting until gameplay starts again
+        sessionActive = false;
 
         // Reset phase tracking
         currentPhase = 1;
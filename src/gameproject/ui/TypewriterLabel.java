@@ -0,0 +1,241 @@
+package gameproject.ui;
+
+import gameproject.util.FontRegistry;
+
+import javax.swing.JComponent;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextHitInfo;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-line text that is revealed a character at a time.
+ *
+ * The full text is wrapped once with LineBreakMeasurer into TextLayout lines.
+ * Revealing more characters then only moves a caret: each step repaints the
+ * strip between the old and new caret position, and painting clips the
+ * partially revealed line at the caret. A typewriter step costs the same
+ * however long the text is. Line breaks in the text start a new paragraph.
+ */
+public class TypewriterLabel extends JComponent {
+    // Layout and painting use the same context so measured and drawn glyphs match
+    private static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null, true, true);
+
+    /**
+     * One wrapped line of the text
+     */
+    private static class Line {
+        final TextLayout layout;
+        final int start;     // offset of the line's first character in the text
+        final int length;
+        final float top;
+        final float baseline;
+        final float height;
+
+        Line(TextLayout layout, int start, int length, float top) {
+            this.layout = layout;
+            this.start = start;
+            this.length = length;
+            this.top = top;
+            this.baseline = top + layout.getAscent();
+            this.height = layout.getAscent() + layout.getDescent() + layout.getLeading();
+        }
+
+        /**
+         * Horizontal position after the first count characters of the line
+         */
+        float caretX(int count) {
+            if (count <= 0) {
+                return 0;
+            }
+            if (count >= length) {
+                return layout.getAdvance();
+            }
+            return layout.getCaretInfo(TextHitInfo.leading(count))[0];
+        }
+    }
+
+    private String text = "";
+    private final List<Line> lines = new ArrayList<>();
+    private int layoutWidth = -1;
+    private int revealed;
+    private int caretLine;   // first line that is not fully revealed
+
+    public TypewriterLabel() {
+        setOpaque(false);
+    }
+
+    /**
+     * Replace the text; nothing of it is revealed yet
+     */
+    public void setText(String text) {
+        this.text = text == null ? "" : text;
+        revealed = 0;
+        caretLine = 0;
+        invalidateLayout();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Show the first count characters (clamped to the text length)
+     */
+    public void setRevealedCount(int count) {
+        count = Math.max(0, Math.min(count, text.length()));
+        if (count == revealed) {
+            return;
+        }
+        if (count < revealed || !ensureLayout()) {
+            // Going backwards (or no size yet): just redraw everything
+            revealed = count;
+            caretLine = 0;
+            repaint();
+            return;
+        }
+
+        // Repaint from the old caret to the new one, line by line (usually one strip)
+        int from = revealed;
+        revealed = count;
+        while (caretLine < lines.size()) {
+            Line line = lines.get(caretLine);
+            int lineEnd = line.start + line.length;
+            if (from < lineEnd) {
+                float x0 = line.caretX(from - line.start);
+                float x1 = line.caretX(Math.min(count, lineEnd) - line.start);
+                repaintStrip(line, x0, x1);
+            }
+            if (count < lineEnd) {
+                break;
+            }
+            caretLine++;
+        }
+    }
+
+    public int getRevealedCount() {
+        return revealed;
+    }
+
+    /**
+     * Show the whole text at once
+     */
+    public void revealAll() {
+        setRevealedCount(text.length());
+    }
+
+    public boolean isFullyRevealed() {
+        return revealed >= text.length();
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        invalidateLayout();
+    }
+
+    private void repaintStrip(Line line, float x0, float x1) {
+        int left = (int) Math.floor(x0) - 1;
+        int right = (int) Math.ceil(x1) + 2;
+        repaint(new Rectangle(left, (int) line.top, right - left, (int) Math.ceil(line.height) + 1));
+    }
+
+    private void invalidateLayout() {
+        layoutWidth = -1;
+        lines.clear();
+        repaint();
+    }
+
+    /**
+     * Wrap the text to the current width if not already done; false if there is no width yet
+     */
+    private boolean ensureLayout() {
+        int width = getWidth();
+        if (width <= 0 || getFont() == null) {
+            return false;
+        }
+        if (width == layoutWidth) {
+            return true;
+        }
+        lines.clear();
+        layoutWidth = width;
+
+        float y = 0;
+        int paragraphStart = 0;
+        while (paragraphStart <= text.length()) {
+            int paragraphEnd = text.indexOf('\n', paragraphStart);
+            if (paragraphEnd < 0) {
+                paragraphEnd = text.length();
+            }
+            if (paragraphEnd == paragraphStart) {
+                // Empty paragraph: leave a blank line
+                y += FontRegistry.getInstance().getFontMetrics(getFont()).getHeight();
+            } else {
+                AttributedString paragraph = new AttributedString(text.substring(paragraphStart, paragraphEnd));
+                paragraph.addAttribute(TextAttribute.FONT, getFont());
+                LineBreakMeasurer measurer = new LineBreakMeasurer(paragraph.getIterator(), RENDER_CONTEXT);
+                while (measurer.getPosition() < paragraphEnd - paragraphStart) {
+                    int lineStart = paragraphStart + measurer.getPosition();
+                    TextLayout layout = measurer.nextLayout(width);
+                    Line line = new Line(layout, lineStart, layout.getCharacterCount(), y);
+                    lines.add(line);
+                    y += line.height;
+                }
+            }
+            paragraphStart = paragraphEnd + 1;
+        }
+
+        // Find the caret line again for the new wrapping
+        caretLine = 0;
+        while (caretLine < lines.size()
+                && lines.get(caretLine).start + lines.get(caretLine).length <= revealed) {
+            caretLine++;
+        }
+        return true;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (revealed == 0 || !ensureLayout()) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g2d.setColor(getForeground());
+
+            Rectangle clip = g2d.getClipBounds();
+            for (Line line : lines) {
+                if (line.start >= revealed) {
+                    break;
+                }
+                if (clip != null && (line.top > clip.y + clip.height || line.top + line.height < clip.y)) {
+                    continue;
+                }
+                int shown = revealed - line.start;
+                if (shown >= line.length) {
+                    line.layout.draw(g2d, 0, line.baseline);
+                } else {
+                    // Partially revealed line: draw it clipped at the caret
+                    Graphics2D lineGraphics = (Graphics2D) g2d.create();
+                    lineGraphics.clipRect(0, (int) line.top, (int) Math.ceil(line.caretX(shown)),
+                            (int) Math.ceil(line.height) + 1);
+                    line.layout.draw(lineGraphics, 0, line.baseline);
+                    lineGraphics.dispose();
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
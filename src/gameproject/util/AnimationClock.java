@@ -0,0 +1,346 @@
+package gameproject.util;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Single frame clock that drives every UI animation in the game.
+ *
+ * One Swing Timer ticks on the EDT while anything is animating; each tick
+ * advances all active tweens, delays and repeating actions by the real time
+ * that passed, then repaints every affected component once. Animations are
+ * created through a Group so a view can pause, resume or cancel its own
+ * animations together.
+ */
+public class AnimationClock {
+    // ~60 frames per second
+    public static final int FRAME_INTERVAL = 16;
+
+    private static AnimationClock instance;
+
+    private final Timer timer;
+    private final List<Animation> animations = new ArrayList<>();
+    private final List<Animation> added = new ArrayList<>();
+    private final Set<Component> dirtyComponents = new LinkedHashSet<>();
+    private final UiMetrics metrics = UiMetrics.getInstance();
+    private long lastTick;
+    private long tickCount;
+
+    /**
+     * Easing curves applied to a tween's linear progress
+     */
+    public enum Easing {
+        LINEAR,
+        EASE_IN,
+        EASE_OUT,
+        EASE_IN_OUT_SINE,
+        EASE_IN_OUT_CUBIC;
+
+        public float apply(float t) {
+            switch (this) {
+                case EASE_IN:
+                    return t * t;
+                case EASE_OUT:
+                    return 1 - (1 - t) * (1 - t);
+                case EASE_IN_OUT_SINE:
+                    return (float) (1 - Math.cos(t * Math.PI)) / 2;
+                case EASE_IN_OUT_CUBIC:
+                    if (t < 0.5f) {
+                        return 4 * t * t * t;
+                    }
+                    float f = t - 1;
+                    return 1 + 4 * f * f * f;
+                default:
+                    return t;
+            }
+        }
+    }
+
+    /**
+     * Receives a tween's eased progress (0 to 1) every frame
+     */
+    public interface TweenListener {
+        void update(float progress);
+    }
+
+    /**
+     * A scheduled tween, delay or repeating action
+     */
+    public static class Animation {
+        private final Group group;
+        private final long durationNanos;
+        private final Easing easing;
+        private final TweenListener listener;
+        private final BooleanSupplier repeatingAction;
+        private long elapsedNanos;
+        private boolean paused;
+        private boolean cancelled;
+        private boolean finished;
+        private Runnable onComplete;
+        private Component repaintTarget;
+
+        private Animation(Group group, long durationNanos, Easing easing,
+                TweenListener listener, BooleanSupplier repeatingAction) {
+            this.group = group;
+            this.durationNanos = durationNanos;
+            this.easing = easing;
+            this.listener = listener;
+            this.repeatingAction = repeatingAction;
+        }
+
+        /**
+         * Run an action once the animation finishes (not if it is cancelled)
+         */
+        public Animation onComplete(Runnable action) {
+            this.onComplete = action;
+            return this;
+        }
+
+        /**
+         * Repaint this component after every frame the animation advances.
+         * Components shared by several animations are repainted once per tick.
+         */
+        public Animation repaints(Component component) {
+            this.repaintTarget = component;
+            return this;
+        }
+
+        public void pause() {
+            paused = true;
+        }
+
+        public void resume() {
+            paused = false;
+        }
+
+        /**
+         * Stop the animation where it is; its completion action never runs
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isPaused() {
+            return paused || group.paused;
+        }
+
+        /**
+         * True while the animation is still scheduled
+         */
+        public boolean isRunning() {
+            return !cancelled && !finished;
+        }
+
+        /**
+         * Advance by the given time; returns false once the animation is done
+         */
+        private boolean advance(long stepNanos, Set<Component> dirty) {
+            if (!isRunning()) {
+                return false;
+            }
+            if (isPaused()) {
+                return true;
+            }
+            elapsedNanos += stepNanos;
+
+            if (repeatingAction != null) {
+                // Run once per elapsed interval; the action returns false to stop
+                while (elapsedNanos >= durationNanos) {
+                    group.clock.metrics.recordTimerLateness(elapsedNanos - durationNanos);
+                    elapsedNanos -= durationNanos;
+                    if (!repeatingAction.getAsBoolean() || cancelled) {
+                        finished = true;
+                        break;
+                    }
+                }
+            } else {
+                float progress = durationNanos <= 0 ? 1f : Math.min(1f, (float) elapsedNanos / durationNanos);
+                if (listener != null) {
+                    listener.update(easing.apply(progress));
+                }
+                if (progress >= 1f) {
+                    finished = true;
+                    if (onComplete != null) {
+                        group.clock.metrics.recordTimerLateness(elapsedNanos - durationNanos);
+                    }
+                }
+            }
+
+            if (repaintTarget != null) {
+                dirty.add(repaintTarget);
+            }
+            if (finished && onComplete != null) {
+                // Run as its own event so a modal dialog in the action can't stall the clock
+                SwingUtilities.invokeLater(() -> {
+                    if (!cancelled) {
+                        onComplete.run();
+                    }
+                });
+            }
+            return !finished;
+        }
+    }
+
+    /**
+     * Animations that are paused, resumed and cancelled together
+     */
+    public static class Group {
+        private final AnimationClock clock;
+        private final List<Animation> members = new ArrayList<>();
+        private boolean paused;
+
+        private Group(AnimationClock clock) {
+            this.clock = clock;
+        }
+
+        /**
+         * Animate from 0 to 1 over the given duration
+         */
+        public Animation tween(int durationMillis, Easing easing, TweenListener listener) {
+            return add(new Animation(this, durationMillis * 1_000_000L, easing, listener, null));
+        }
+
+        /**
+         * Run an action once after a delay
+         */
+        public Animation after(int delayMillis, Runnable action) {
+            return tween(delayMillis, Easing.LINEAR, null).onComplete(action);
+        }
+
+        /**
+         * Run an action every interval until it returns false or is cancelled
+         */
+        public Animation every(int intervalMillis, BooleanSupplier action) {
+            return add(new Animation(this, Math.max(1, intervalMillis) * 1_000_000L, Easing.LINEAR, null, action));
+        }
+
+        private Animation add(Animation animation) {
+            pruneMembers();
+            members.add(animation);
+            clock.schedule(animation);
+            return animation;
+        }
+
+        private void pruneMembers() {
+            members.removeIf(animation -> !animation.isRunning());
+        }
+
+        /**
+         * Freeze every animation in the group (time stops advancing for them)
+         */
+        public void pause() {
+            paused = true;
+        }
+
+        public void resume() {
+            paused = false;
+        }
+
+        public boolean isPaused() {
+            return paused;
+        }
+
+        /**
+         * Cancel every animation in the group; none of their completion actions run
+         */
+        public void cancelAll() {
+            for (Animation animation : members) {
+                animation.cancel();
+            }
+            members.clear();
+        }
+
+        /**
+         * Number of animations in the group that are still scheduled
+         */
+        public int getActiveCount() {
+            pruneMembers();
+            return members.size();
+        }
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private AnimationClock() {
+        timer = new Timer(FRAME_INTERVAL, e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized AnimationClock getInstance() {
+        if (instance == null) {
+            instance = new AnimationClock();
+        }
+        return instance;
+    }
+
+    /**
+     * Create a group for a view's animations
+     */
+    public Group createGroup() {
+        return new Group(this);
+    }
+
+    /**
+     * Number of ticks since the clock was created
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Number of animations the clock is currently driving
+     */
+    public int getActiveCount() {
+        return animations.size() + added.size();
+    }
+
+    private void schedule(Animation animation) {
+        added.add(animation);
+        if (!timer.isRunning()) {
+            lastTick = System.nanoTime();
+            timer.start();
+        }
+    }
+
+    /**
+     * Advance every animation by the time since the last tick, then repaint
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        long step = now - lastTick;
+        lastTick = now;
+        tickCount++;
+        metrics.recordClockTick(step, FRAME_INTERVAL);
+
+        // Animations started during this tick begin advancing on the next one
+        animations.addAll(added);
+        added.clear();
+
+        for (int i = 0; i < animations.size(); i++) {
+            Animation animation = animations.get(i);
+            if (!animation.advance(step, dirtyComponents)) {
+                animations.set(i, null);
+            }
+        }
+        animations.removeIf(animation -> animation == null);
+
+        for (Component component : dirtyComponents) {
+            component.repaint();
+        }
+        dirtyComponents.clear();
+
+        if (animations.isEmpty() && added.isEmpty()) {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package gameproject.util;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Singleton registry for every font the game uses.
+ *
+ * Each TrueType file is loaded and registered with the graphics environment
+ * once; every size and style derived from it, and every system font, is
+ * created once and then shared. Views look fonts up while building their
+ * components (or in static fields) so nothing allocates fonts while
+ * painting. FontMetrics are cached per font as well.
+ */
+public class FontRegistry {
+    private static final Logger LOGGER = Logger.getLogger(FontRegistry.class.getName());
+    private static FontRegistry instance;
+
+    // Fallback family when a font file can't be loaded
+    private static final String FALLBACK_FAMILY = "Arial";
+
+    // TTF path -> loaded base font (absent entry = not tried yet, null = failed)
+    private final Map<String, Font> baseFonts = new HashMap<>();
+    private final Map<String, Font> fonts = new HashMap<>();
+    private final Map<Font, FontMetrics> metrics = new HashMap<>();
+    private Graphics2D metricsGraphics;
+
+    /**
+     * Private constructor for singleton
+     */
+    private FontRegistry() {
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized FontRegistry getInstance() {
+        if (instance == null) {
+            instance = new FontRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * The game's pixel font (PixelifySans) at a size
+     */
+    public Font getPixelFont(float size) {
+        return getPixelFont(Font.PLAIN, size);
+    }
+
+    /**
+     * The game's pixel font (PixelifySans) at a style and size
+     */
+    public Font getPixelFont(int style, float size) {
+        return getFont(GameConstants.FONT_PATH, style, size);
+    }
+
+    /**
+     * A font loaded from a TrueType resource, at a style and size.
+     * Falls back to Arial if the file can't be loaded.
+     */
+    public synchronized Font getFont(String path, int style, float size) {
+        String key = path + ":" + style + ":" + size;
+        Font font = fonts.get(key);
+        if (font == null) {
+            Font base = loadBaseFont(path);
+            font = base != null ? base.deriveFont(style, size) : new Font(FALLBACK_FAMILY, style, Math.round(size));
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * A system or logical font ("SansSerif", "Arial", Font.MONOSPACED, ...)
+     */
+    public synchronized Font getSystemFont(String family, int style, int size) {
+        String key = family + ":" + style + ":" + size;
+        Font font = fonts.get(key);
+        if (font == null) {
+            font = new Font(family, style, size);
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Metrics for a font, measured once with antialiased text
+     */
+    public synchronized FontMetrics getFontMetrics(Font font) {
+        FontMetrics fontMetrics = metrics.get(font);
+        if (fontMetrics == null) {
+            if (metricsGraphics == null) {
+                metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+                metricsGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            }
+            fontMetrics = metricsGraphics.getFontMetrics(font);
+            metrics.put(font, fontMetrics);
+        }
+        return fontMetrics;
+    }
+
+    /**
+     * Load and register a font file once
+     */
+    private Font loadBaseFont(String path) {
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        if (baseFonts.containsKey(path)) {
+            return baseFonts.get(path);
+        }
+
+        Font base = null;
+        try (InputStream in = getClass().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Font resource not found: " + path);
+            }
+            base = Font.createFont(Font.TRUETYPE_FONT, in);
+            GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(base);
+            LOGGER.info("Loaded font: " + path);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to load font: " + path, e);
+        }
+        baseFonts.put(path, base);
+        return base;
+    }
+}
@@ -0,0 +1,109 @@
+package gameproject.util;
+
+/**
+ * Rolling frame-time statistics for a component's paint method.
+ * Call beginFrame() at the start of paintComponent and endFrame() at the end,
+ * or record() durations measured elsewhere (latencies, timer drift).
+ */
+public class FrameTimer {
+    // Number of recent frames the statistics cover
+    private static final int WINDOW_SIZE = 120;
+    
+    private final String name;
+    private final long[] frameNanos = new long[WINDOW_SIZE];
+    private int sampleCount;
+    private int nextSample;
+    private long totalFrames;
+    private long totalNanos;
+    private long frameStart;
+    
+    /**
+     * Constructor
+     */
+    public FrameTimer(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Mark the start of a frame
+     */
+    public void beginFrame() {
+        frameStart = System.nanoTime();
+    }
+    
+    /**
+     * Mark the end of a frame and record its duration
+     */
+    public void endFrame() {
+        record(System.nanoTime() - frameStart);
+    }
+    
+    /**
+     * Record one measured duration
+     */
+    public void record(long nanos) {
+        frameNanos[nextSample] = nanos;
+        nextSample = (nextSample + 1) % WINDOW_SIZE;
+        if (sampleCount < WINDOW_SIZE) {
+            sampleCount++;
+        }
+        totalFrames++;
+        totalNanos += nanos;
+        
+        if (GameConstants.SHOW_FRAME_STATS && totalFrames % WINDOW_SIZE == 0) {
+            System.out.println("DEBUG: " + this);
+        }
+    }
+    
+    /**
+     * Average frame time over the recent window, in milliseconds
+     */
+    public double getAverageMillis() {
+        if (sampleCount == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            total += frameNanos[i];
+        }
+        return total / (sampleCount * 1e6);
+    }
+    
+    /**
+     * Slowest frame over the recent window, in milliseconds
+     */
+    public double getMaxMillis() {
+        long max = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            max = Math.max(max, frameNanos[i]);
+        }
+        return max / 1e6;
+    }
+    
+    /**
+     * Name the statistics are reported under
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Frames painted since the timer was created
+     */
+    public long getTotalFrames() {
+        return totalFrames;
+    }
+    
+    /**
+     * Time recorded since the timer was created, in milliseconds
+     */
+    public double getTotalMillis() {
+        return totalNanos / 1e6;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: avg %.3f ms, max %.3f ms over last %d frames (%d total)",
+                name, getAverageMillis(), getMaxMillis(), sampleCount, totalFrames);
+    }
+}
@@ -49,6 +49,29 @@ public class GameConstants {
     // Animation timing
     public static final int SORT_ANIMATION_DELAY = 500; // ms
     
+    // Most boss battle particles alive at once
+    public static final int MAX_BATTLE_PARTICLES = 64;
+    
+    // Print paint-time statistics to the console (run with -Dsmartsort.frameStats=true)
+    public static final boolean SHOW_FRAME_STATS = Boolean.getBoolean("smartsort.frameStats");
+    
+    // Outline repainted regions and report pixels per frame (run with -Dsmartsort.repaintRegions=true)
+    public static final boolean SHOW_REPAINT_REGIONS = Boolean.getBoolean("smartsort.repaintRegions");
+    
+    // Show the UI metrics HUD at startup (run with -Dsmartsort.metrics=true; F3 toggles it)
+    public static final boolean SHOW_METRICS_HUD = Boolean.getBoolean("smartsort.metrics");
+    
+    // Level pack file to play instead of the built-in levels (run with -Dsmartsort.levelPack=<file>)
+    public static final String LEVEL_PACK_PATH = System.getProperty("smartsort.levelPack");
+    
+    // Array size of the large-array challenge, 10,000 to 1,000,000 (run with -Dsmartsort.largeArraySize=<n>)
+    public static final int LARGE_ARRAY_SIZE =
+            Math.max(10_000, Math.min(1_000_000, Integer.getInteger("smartsort.largeArraySize", 100_000)));
+    
+    // Range of the number of runs a large-array challenge starts with
+    public static final int LARGE_ARRAY_MIN_RUNS = 6;
+    public static final int LARGE_ARRAY_MAX_RUNS = 24;
+    
     // Difficulty levels
     public static final String[] DIFFICULTY_LEVELS = {
         "Beginner", "Intermediate", "Advanced"
@@ -0,0 +1,227 @@
+package gameproject.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimate in constant memory (a merging t-digest).
+ *
+ * Values are collected in a fixed buffer; when it fills up they are sorted
+ * and merged with the existing centroids (weighted means of neighbouring
+ * values). A centroid may only grow while it spans at most one unit of the
+ * scale k(q) = compression / (2 pi) * asin(2q - 1), so centroids stay small
+ * near the tails and quantiles like p90 remain accurate. The number of
+ * centroids is bounded by the compression, so memory is fixed and an
+ * update costs O(1) plus, once per buffer, one bounded merge.
+ */
+public class QuantileSketch {
+    private static final int FORMAT_VERSION = 1;
+
+    // Largest compression accepted from a file; the arrays are sized from it
+    private static final double MAX_READ_COMPRESSION = 10_000;
+
+    private final double compression;
+    private final double[] means;
+    private final double[] weights;
+    private int centroidCount;
+
+    private final double[] buffer;
+    private int buffered;
+
+    // Merge scratch space, allocated once
+    private final double[] mergeMeans;
+    private final double[] mergeWeights;
+
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * @param compression accuracy (larger keeps more centroids); 100 is a good default
+     */
+    public QuantileSketch(double compression) {
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("Compression must be at least 10: " + compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) + 10;
+        means = new double[capacity];
+        weights = new double[capacity];
+        buffer = new double[capacity * 4];
+        mergeMeans = new double[capacity + buffer.length];
+        mergeWeights = new double[capacity + buffer.length];
+    }
+
+    /**
+     * Add one observation (NaN is ignored)
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        buffer[buffered++] = value;
+        if (buffered == buffer.length) {
+            merge();
+        }
+    }
+
+    /**
+     * Fold the buffered values into the centroids
+     */
+    private void merge() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+
+        // Merge-join the sorted buffer with the (sorted) centroids
+        int total = 0;
+        int c = 0;
+        int b = 0;
+        while (c < centroidCount || b < buffered) {
+            if (b >= buffered || (c < centroidCount && means[c] <= buffer[b])) {
+                mergeMeans[total] = means[c];
+                mergeWeights[total++] = weights[c++];
+            } else {
+                mergeMeans[total] = buffer[b++];
+                mergeWeights[total++] = 1;
+            }
+        }
+        buffered = 0;
+
+        // Sweep left to right, growing each centroid while it fits within one unit of k
+        double totalWeight = count;
+        double weightSoFar = 0;
+        double kLeft = scale(0);
+        centroidCount = 0;
+        means[0] = mergeMeans[0];
+        weights[0] = mergeWeights[0];
+        for (int i = 1; i < total; i++) {
+            double proposed = weights[centroidCount] + mergeWeights[i];
+            double kRight = scale((weightSoFar + proposed) / totalWeight);
+            if (kRight - kLeft <= 1) {
+                // Absorb into the current centroid (running weighted mean)
+                weights[centroidCount] = proposed;
+                means[centroidCount] += (mergeMeans[i] - means[centroidCount]) * mergeWeights[i] / proposed;
+            } else {
+                weightSoFar += weights[centroidCount];
+                kLeft = scale(weightSoFar / totalWeight);
+                centroidCount++;
+                means[centroidCount] = mergeMeans[i];
+                weights[centroidCount] = mergeWeights[i];
+            }
+        }
+        centroidCount++;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    /**
+     * Estimated value at quantile q (0 to 1), or NaN with no observations
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        merge();
+        q = Math.min(1, Math.max(0, q));
+        if (centroidCount == 1) {
+            return means[0];
+        }
+
+        // Each centroid sits at the middle of its weight; interpolate between neighbours
+        double index = q * count;
+        double firstCenter = weights[0] / 2;
+        if (index < firstCenter) {
+            return min + (means[0] - min) * (index / firstCenter);
+        }
+        double center = firstCenter;
+        for (int i = 0; i + 1 < centroidCount; i++) {
+            double nextCenter = center + weights[i] / 2 + weights[i + 1] / 2;
+            if (index < nextCenter) {
+                return means[i] + (means[i + 1] - means[i]) * (index - center) / (nextCenter - center);
+            }
+            center = nextCenter;
+        }
+        double last = means[centroidCount - 1];
+        double lastHalf = weights[centroidCount - 1] / 2;
+        return last + (max - last) * Math.min(1, (index - center) / lastHalf);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Number of centroids kept (bounded by the compression)
+     */
+    public int getCentroidCount() {
+        merge();
+        return centroidCount;
+    }
+
+    /**
+     * Write the sketch (its centroids, after merging the buffer)
+     */
+    public void write(DataOutput out) throws IOException {
+        merge();
+        out.writeInt(FORMAT_VERSION);
+        out.writeDouble(compression);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(centroidCount);
+        for (int i = 0; i < centroidCount; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+
+    /**
+     * Read a sketch written by write()
+     */
+    public static QuantileSketch read(DataInput in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported quantile sketch version");
+        }
+        double compression = in.readDouble();
+        if (!(compression >= 10 && compression <= MAX_READ_COMPRESSION)) {
+            throw new IOException("Invalid quantile sketch compression: " + compression);
+        }
+        QuantileSketch sketch = new QuantileSketch(compression);
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int centroids = in.readInt();
+        if (sketch.count < 0 || centroids < 0 || centroids > sketch.means.length
+                || (centroids == 0) != (sketch.count == 0)) {
+            throw new IOException("Invalid quantile sketch");
+        }
+        for (int i = 0; i < centroids; i++) {
+            sketch.means[i] = in.readDouble();
+            sketch.weights[i] = in.readDouble();
+        }
+        sketch.centroidCount = centroids;
+        return sketch;
+    }
+}
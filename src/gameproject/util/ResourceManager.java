@@ -1,7 +1,6 @@
 package gameproject.util;
 
 import java.awt.Font;
-import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import javax.swing.ImageIcon;
 import java.util.HashMap;
@@ -17,7 +16,6 @@ public class ResourceManager {
     private static ResourceManager instance;
     
     private final Map<String, ImageIcon> imageCache = new HashMap<>();
-    private final Map<String, Font> fontCache = new HashMap<>();
     
     // Private constructor for singleton
     private ResourceManager() {
@@ -91,34 +89,10 @@ public class ResourceManager {
     }
     
     /**
-     * Load and cache a font
+     * Get a font from a TrueType resource (loaded once by FontRegistry)
      */
     public Font getFont(String path, float size) {
-        String cacheKey = path + "_" + size;
-        
-        if (fontCache.containsKey(cacheKey)) {
-            return fontCache.get(cacheKey);
-        }
-        
-        try {
-            // Normalize path (ensure it starts with /)
-            if (!path.startsWith("/")) {
-                path = "/" + path;
-            }
-            
-            Font font = Font.createFont(Font.TRUETYPE_FONT, 
-                    getClass().getResourceAsStream(path));
-            Font derivedFont = font.deriveFont(size);
-            
-            GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
-            fontCache.put(cacheKey, derivedFont);
-            LOGGER.info("Loaded font: " + cacheKey);
-            return derivedFont;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to load font: " + path, e);
-            // Return a fallback font
-            return new Font("Arial", Font.PLAIN, (int) size);
-        }
+        return FontRegistry.getInstance().getFont(path, Font.PLAIN, size);
     }
     
     /**
@@ -126,7 +100,6 @@ public class ResourceManager {
      */
     public void clearCaches() {
         imageCache.clear();
-        fontCache.clear();
         LOGGER.info("Resource caches cleared");
     }
 }
\ No newline at end of file
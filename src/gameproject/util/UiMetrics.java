@@ -0,0 +1,345 @@
+package gameproject.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import javax.swing.SwingUtilities;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * UI smoothness metrics: paint time per component, EDT event queue latency,
+ * frame clock and timer lateness, and garbage collection time.
+ *
+ * Paint timers and clock lateness are recorded all the time (a nanoTime call
+ * each). While started, a background thread posts a probe to the EDT every
+ * SAMPLE_INTERVAL; the probe measures how long it waited in the event queue
+ * and then takes a sample of every series, which is kept for CSV export and
+ * committed as JFR events (visible when the game runs with
+ * -XX:StartFlightRecording).
+ */
+public class UiMetrics {
+    private static final Logger LOGGER = Logger.getLogger(UiMetrics.class.getName());
+
+    // Time between samples, in milliseconds
+    public static final int SAMPLE_INTERVAL = 250;
+
+    // Samples kept for export (ten minutes)
+    private static final int MAX_SAMPLES = 2400;
+
+    // Components whose paint time is reported, in display order
+    private static final String[] PAINT_COMPONENTS = {
+        "GameGrid", "IngredientItem", "EnhancedStoryView", "DialogueManager"
+    };
+
+    private static UiMetrics instance;
+
+    private final Map<String, FrameTimer> paintTimers = new LinkedHashMap<>();
+    private final FrameTimer edtLatency = new FrameTimer("EDT latency");
+    private final FrameTimer clockLateness = new FrameTimer("Clock tick lateness");
+    private final FrameTimer timerLateness = new FrameTimer("Timer lateness");
+    private final FrameTimer gcPauses = new FrameTimer("GC pause");
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final List<Runnable> sampleListeners = new ArrayList<>();
+
+    // Column names and sampled rows for CSV export
+    private final List<String> columns = new ArrayList<>();
+    private final Deque<double[]> samples = new ArrayDeque<>();
+    private final Map<FrameTimer, double[]> previousTotals = new LinkedHashMap<>();
+
+    private ScheduledExecutorService sampler;
+    private ScheduledFuture<?> sampling;
+    private long startNanos;
+    private long gcCount;
+    private long gcMillis;
+
+    /**
+     * Periodic sample of the non-paint series
+     */
+    @Name("gameproject.UiSample")
+    @Label("UI Sample")
+    @Category("SmartSort")
+    static class SampleEvent extends Event {
+        @Label("EDT Latency (ms)")
+        double edtLatencyMillis;
+
+        @Label("Clock Tick Lateness (ms)")
+        double clockLatenessMillis;
+
+        @Label("Timer Lateness (ms)")
+        double timerLatenessMillis;
+
+        @Label("GC Time (ms)")
+        double gcMillis;
+    }
+
+    /**
+     * Paint time of one component during a sample interval
+     */
+    @Name("gameproject.PaintSample")
+    @Label("Paint Sample")
+    @Category("SmartSort")
+    static class PaintEvent extends Event {
+        @Label("Component")
+        String component;
+
+        @Label("Paints")
+        long paints;
+
+        @Label("Paint Time (ms)")
+        double paintMillis;
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private UiMetrics() {
+        for (String component : PAINT_COMPONENTS) {
+            getPaintTimer(component);
+        }
+        columns.add("time_ms");
+        for (FrameTimer series : new FrameTimer[] {edtLatency, clockLateness, timerLateness, gcPauses}) {
+            trackSeries(series);
+        }
+        for (FrameTimer series : paintTimers.values()) {
+            trackSeries(series);
+        }
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized UiMetrics getInstance() {
+        if (instance == null) {
+            instance = new UiMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Paint timer for a component, created on first use
+     */
+    public synchronized FrameTimer getPaintTimer(String component) {
+        FrameTimer timer = paintTimers.get(component);
+        if (timer == null) {
+            timer = new FrameTimer(component + " paint");
+            paintTimers.put(component, timer);
+            if (!columns.isEmpty()) {
+                trackSeries(timer);
+            }
+        }
+        return timer;
+    }
+
+    private void trackSeries(FrameTimer series) {
+        columns.add(series.getName() + " count");
+        columns.add(series.getName() + " ms");
+        previousTotals.put(series, new double[2]);
+    }
+
+    /**
+     * Record one frame clock tick; anything beyond the nominal interval is lateness
+     */
+    public void recordClockTick(long stepNanos, int nominalMillis) {
+        clockLateness.record(Math.max(0, stepNanos - nominalMillis * 1_000_000L));
+    }
+
+    /**
+     * Record how late a delayed or repeating action ran compared to its nominal delay
+     */
+    public void recordTimerLateness(long latenessNanos) {
+        timerLateness.record(Math.max(0, latenessNanos));
+    }
+
+    /**
+     * Start sampling EDT latency and GC time (no-op if already running)
+     */
+    public synchronized void start() {
+        if (sampling != null) {
+            return;
+        }
+        if (sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "ui-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (startNanos == 0) {
+            startNanos = System.nanoTime();
+        }
+        readGcTotals();
+        sampling = sampler.scheduleAtFixedRate(() -> {
+            long posted = System.nanoTime();
+            SwingUtilities.invokeLater(() -> sample(System.nanoTime() - posted));
+        }, SAMPLE_INTERVAL, SAMPLE_INTERVAL, TimeUnit.MILLISECONDS);
+        LOGGER.fine("UI metrics sampling started");
+    }
+
+    /**
+     * Stop sampling; collected samples stay available for export
+     */
+    public synchronized void stop() {
+        if (sampling != null) {
+            sampling.cancel(false);
+            sampling = null;
+            LOGGER.fine("UI metrics sampling stopped");
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return sampling != null;
+    }
+
+    /**
+     * Run an action on the EDT after every sample (used to refresh the HUD)
+     */
+    public synchronized void addSampleListener(Runnable listener) {
+        sampleListeners.add(listener);
+    }
+
+    /**
+     * Take one sample (on the EDT)
+     */
+    private void sample(long queueLatencyNanos) {
+        edtLatency.record(queueLatencyNanos);
+
+        long previousGcCount = gcCount;
+        long previousGcMillis = gcMillis;
+        readGcTotals();
+        if (gcCount > previousGcCount) {
+            // Collector time during this interval
+            gcPauses.record((gcMillis - previousGcMillis) * 1_000_000L);
+        }
+
+        List<Runnable> listeners;
+        synchronized (this) {
+            double[] row = new double[columns.size()];
+            row[0] = (System.nanoTime() - startNanos) / 1e6;
+            int column = 1;
+            for (Map.Entry<FrameTimer, double[]> entry : previousTotals.entrySet()) {
+                FrameTimer series = entry.getKey();
+                double[] previous = entry.getValue();
+                row[column++] = series.getTotalFrames() - previous[0];
+                row[column++] = series.getTotalMillis() - previous[1];
+                previous[0] = series.getTotalFrames();
+                previous[1] = series.getTotalMillis();
+            }
+            samples.addLast(row);
+            if (samples.size() > MAX_SAMPLES) {
+                samples.removeFirst();
+            }
+            commitEvents(row);
+            listeners = new ArrayList<>(sampleListeners);
+        }
+
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private void commitEvents(double[] row) {
+        SampleEvent sampleEvent = new SampleEvent();
+        if (sampleEvent.isEnabled()) {
+            sampleEvent.edtLatencyMillis = average(row, 1);
+            sampleEvent.clockLatenessMillis = average(row, 3);
+            sampleEvent.timerLatenessMillis = average(row, 5);
+            sampleEvent.gcMillis = row[8];
+            sampleEvent.commit();
+
+            // Paint columns follow the four fixed series
+            int column = 9;
+            for (String component : paintTimers.keySet()) {
+                PaintEvent paintEvent = new PaintEvent();
+                paintEvent.component = component;
+                paintEvent.paints = (long) row[column];
+                paintEvent.paintMillis = row[column + 1];
+                paintEvent.commit();
+                column += 2;
+            }
+        }
+    }
+
+    private static double average(double[] row, int countColumn) {
+        return row[countColumn] == 0 ? 0 : row[countColumn + 1] / row[countColumn];
+    }
+
+    private void readGcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        gcCount = count;
+        gcMillis = millis;
+    }
+
+    /**
+     * Every series in display order: paint timers, then latency, lateness and GC
+     */
+    public synchronized List<FrameTimer> getSeries() {
+        List<FrameTimer> series = new ArrayList<>(paintTimers.values());
+        Collections.addAll(series, edtLatency, clockLateness, timerLateness, gcPauses);
+        return series;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    public synchronized int getSampleCount() {
+        return samples.size();
+    }
+
+    /**
+     * Write the collected samples as CSV: one row per sample, with a count
+     * and a total in milliseconds for each series during that interval
+     */
+    public synchronized void exportCsv(File file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", columns));
+            writer.newLine();
+            StringBuilder line = new StringBuilder();
+            for (double[] row : samples) {
+                line.setLength(0);
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    // Series registered after this sample was taken have no value
+                    if (i < row.length) {
+                        line.append(String.format(Locale.ROOT, "%.3f", row[i]));
+                    }
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+        LOGGER.info("Exported " + samples.size() + " UI metric samples to " + file.getAbsolutePath());
+    }
+}
@@ -12,8 +12,13 @@ import java.util.logging.Logger;
 
 import gameproject.model.NarrativeSystem;
 import gameproject.controller.GameController;
+import gameproject.ui.TypewriterLabel;
+import gameproject.util.FontRegistry;
+import gameproject.util.AnimationClock;
+import gameproject.util.FrameTimer;
 import gameproject.util.ResourceManager;
 import gameproject.util.GameConstants;
+import gameproject.util.UiMetrics;
 
 /**
  * DialogueManager handles the display and progression of dialogue
@@ -27,12 +32,13 @@ public class DialogueManager extends JPanel {
     private NarrativeSystem narrativeSystem;
     private GameController controller;
     private ResourceManager resourceManager;
+    private FontRegistry fontRegistry;
     
     // Simple UI components - completely separate with no nesting
     private JPanel dialoguePanel;
     private PortraitPanel portraitPanel; // Custom panel for portrait with border
     private JLabel characterNameLabel;
-    private JLabel dialogueTextLabel;
+    private TypewriterLabel dialogueText;
     private JButton nextButton;
     private JButton skipButton;
     
@@ -50,7 +56,9 @@ public class DialogueManager extends JPanel {
     private boolean isDialoguePlaying = false;
     
     // Typewriter effect
-    private Timer typewriterTimer;
+    private final AnimationClock.Group animations = AnimationClock.getInstance().createGroup();
+    private final FrameTimer paintTimer = UiMetrics.getInstance().getPaintTimer("DialogueManager");
+    private AnimationClock.Animation typewriterAnimation;
     private String fullDialogueText;
     private int currentCharIndex = 0;
     private static final int TYPING_SPEED = 30; // milliseconds per character
@@ -219,6 +227,7 @@ public class DialogueManager extends JPanel {
         this.controller = controller;
         this.narrativeSystem = NarrativeSystem.getInstance();
         this.resourceManager = ResourceManager.getInstance();
+        this.fontRegistry = FontRegistry.getInstance();
         
         setLayout(null); // Use absolute positioning
         setOpaque(false);
@@ -286,32 +295,30 @@ public class DialogueManager extends JPanel {
         
         // Character name label
         characterNameLabel = new JLabel();
-        characterNameLabel.setFont(new Font("SansSerif", Font.BOLD, (int)CHARACTER_NAME_FONT_SIZE));
+        characterNameLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, (int)CHARACTER_NAME_FONT_SIZE));
         characterNameLabel.setForeground(Color.WHITE);
         characterNameLabel.setBounds(CHARACTER_IMAGE_SIZE + 25, 10, 400, 35); // Increased height slightly for bigger font
         characterNameLabel.setOpaque(false); // No background
         dialoguePanel.add(characterNameLabel);
         
-        // Dialogue text label - using HTML for multi-line text
-        dialogueTextLabel = new JLabel();
-        dialogueTextLabel.setFont(new Font("SansSerif", Font.PLAIN, (int)DIALOGUE_FONT_SIZE));
-        dialogueTextLabel.setForeground(Color.WHITE);
-        dialogueTextLabel.setVerticalAlignment(JLabel.TOP);
+        // Dialogue text - wrapped once per line of dialogue, then revealed by the typewriter
+        dialogueText = new TypewriterLabel();
+        dialogueText.setFont(fontRegistry.getSystemFont("SansSerif", Font.PLAIN, (int)DIALOGUE_FONT_SIZE));
+        dialogueText.setForeground(Color.WHITE);
         
         // CRITICAL FIX: Reduce the width significantly to prevent text from being cut off on the right edge
         // And increase the height to accommodate the larger font size
-        dialogueTextLabel.setBounds(
+        dialogueText.setBounds(
             CHARACTER_IMAGE_SIZE + 25,       // Start after portrait with padding
             45,                              // Top position
             DIALOGUE_WIDTH - CHARACTER_IMAGE_SIZE - 70,  // Reduced width by 35px to prevent cutoff
             160                              // Increased height to accommodate larger font
         );
-        dialogueTextLabel.setOpaque(false); // No background
-        dialoguePanel.add(dialogueTextLabel);
+        dialoguePanel.add(dialogueText);
         
         // Skip button
         skipButton = new JButton("Skip All");
-        skipButton.setFont(new Font("SansSerif", Font.BOLD, 16));
+        skipButton.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 16));
         skipButton.setFocusPainted(false);
         skipButton.setBounds(DIALOGUE_WIDTH - 180, DIALOGUE_HEIGHT - 40, 90, 30);
         skipButton.addActionListener(e -> skipDialogue());
@@ -319,7 +326,7 @@ public class DialogueManager extends JPanel {
         
         // Next button
         nextButton = new JButton("Next >");
-        nextButton.setFont(new Font("SansSerif", Font.BOLD, 16));
+        nextButton.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 16));
         nextButton.setFocusPainted(false);
         nextButton.setBounds(DIALOGUE_WIDTH - 80, DIALOGUE_HEIGHT - 40, 90, 30);
         nextButton.addActionListener(e -> advanceDialogue());
@@ -328,26 +335,15 @@ public class DialogueManager extends JPanel {
         // Add dialogue panel to this panel
         add(dialoguePanel);
         
-        // Set up typewriter timer
-        typewriterTimer = new Timer(TYPING_SPEED, e -> {
-            if (currentCharIndex < fullDialogueText.length()) {
-                // Display text up to current character
-                updateDialogueText(fullDialogueText.substring(0, currentCharIndex + 1));
-                currentCharIndex++;
-            } else {
-                typewriterTimer.stop();
-            }
-        });
-        
         // Add click listener to dialogue text to skip typing or advance
-        dialogueTextLabel.addMouseListener(new MouseAdapter() {
+        dialogueText.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                if (typewriterTimer.isRunning()) {
+                if (isTypewriterRunning()) {
                     // Show all text immediately when clicked
-                    updateDialogueText(fullDialogueText);
+                    dialogueText.revealAll();
                     currentCharIndex = fullDialogueText.length();
-                    typewriterTimer.stop();
+                    stopTypewriter();
                 } else {
                     // Advance dialogue when clicked after text is fully shown
                     advanceDialogue();
@@ -423,52 +419,26 @@ public class DialogueManager extends JPanel {
         // Set character name with appropriate styling based on character type
         if (character.getRole().equals("Boss")) {
             characterNameLabel.setForeground(Color.RED);
-            characterNameLabel.setFont(new Font("SansSerif", Font.BOLD, (int)CHARACTER_NAME_BOSS_FONT_SIZE));
+            characterNameLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, (int)CHARACTER_NAME_BOSS_FONT_SIZE));
         } else if (character.getRole().equals("Mentor")) {
             characterNameLabel.setForeground(new Color(150, 150, 255));
-            characterNameLabel.setFont(new Font("SansSerif", Font.BOLD, (int)CHARACTER_NAME_FONT_SIZE));
+            characterNameLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, (int)CHARACTER_NAME_FONT_SIZE));
         } else {
             characterNameLabel.setForeground(Color.WHITE);
-            characterNameLabel.setFont(new Font("SansSerif", Font.BOLD, (int)CHARACTER_NAME_FONT_SIZE));
+            characterNameLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, (int)CHARACTER_NAME_FONT_SIZE));
         }
         characterNameLabel.setText(characterName);
 
         // Start typewriter effect for dialogue text
         fullDialogueText = dialogue;
         currentCharIndex = 0;
-        updateDialogueText(""); // Clear previous text
-        typewriterTimer.start();
+        dialogueText.setText(dialogue); // Laid out once, nothing revealed yet
+        startTypewriter();
         
         // Force repaint to ensure border is updated
         portraitPanel.repaint();
     }
     
-    /**
-     * Update dialogue text with proper HTML formatting for better text wrapping
-     */
-    private void updateDialogueText(String text) {
-        if (text == null || text.isEmpty()) {
-            dialogueTextLabel.setText("");
-            return;
-        }
-
-        // Calculate the correct width for text wrapping
-        // Increase the margin to prevent text cutoff
-        int textWidth = dialogueTextLabel.getWidth() - 200; // Increased margin for greater safety
-
-        // Create HTML with specific width to force proper text wrapping
-        StringBuilder html = new StringBuilder();
-        html.append("<html><div style='width: ").append(textWidth).append("px;'>");
-
-        // Replace newlines with HTML breaks
-        html.append(text.replace("\n", "<br>"));
-
-        html.append("</div></html>");
-
-        // Set the wrapped text
-        dialogueTextLabel.setText(html.toString());
-    }
-    
     /**
      * Load a character portrait with the specified emotion
      */
@@ -538,10 +508,10 @@ public class DialogueManager extends JPanel {
      */
     private void advanceDialogue() {
         // Stop animation
-        typewriterTimer.stop();
+        stopTypewriter();
 
         // IMPORTANT: Clear the previous dialogue text completely
-        updateDialogueText("");
+        dialogueText.setText("");
 
         // Move to next dialogue
         currentDialogueIndex++;
@@ -561,7 +531,7 @@ public class DialogueManager extends JPanel {
      */
     private void skipDialogue() {
         // Stop animation
-        typewriterTimer.stop();
+        stopTypewriter();
         
         // End the dialogue sequence
         endDialogueSequence();
@@ -578,7 +548,7 @@ public class DialogueManager extends JPanel {
         // Clear components
         portraitPanel.setPortrait(null);
         characterNameLabel.setText("");
-        dialogueTextLabel.setText("");
+        dialogueText.setText("");
 
         System.out.println("DEBUG: Dialogue sequence ended, calling dialogue end listener");
 
@@ -611,6 +581,14 @@ public class DialogueManager extends JPanel {
         return isDialoguePlaying;
     }
     
+    @Override
+    public void paint(Graphics g) {
+        // Time the whole dialogue box, including the typewriter text
+        paintTimer.beginFrame();
+        super.paint(g);
+        paintTimer.endFrame();
+    }
+    
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -640,22 +618,36 @@ public class DialogueManager extends JPanel {
     
     // CRITICAL: Add a method to reset the typewriter effect
     public void resetTypewriterSpeed() {
-        if (typewriterTimer != null && typewriterTimer.isRunning()) {
-            typewriterTimer.stop();
-        }
-
-        // Recreate the timer with the original speed
-        typewriterTimer = new Timer(TYPING_SPEED, e -> {
+        // Every line starts a fresh typewriter at TYPING_SPEED, so stopping is enough
+        stopTypewriter();
+    }
+    
+    /**
+     * Type out fullDialogueText one character per TYPING_SPEED ms
+     */
+    private void startTypewriter() {
+        stopTypewriter();
+        typewriterAnimation = animations.every(TYPING_SPEED, () -> {
             if (currentCharIndex < fullDialogueText.length()) {
-                // Display text up to current character
-                updateDialogueText(fullDialogueText.substring(0, currentCharIndex + 1));
+                // Reveal one more character (repaints just that glyph's strip)
                 currentCharIndex++;
-            } else {
-                typewriterTimer.stop();
+                dialogueText.setRevealedCount(currentCharIndex);
             }
+            return currentCharIndex < fullDialogueText.length();
         });
     }
     
+    private void stopTypewriter() {
+        if (typewriterAnimation != null) {
+            typewriterAnimation.cancel();
+            typewriterAnimation = null;
+        }
+    }
+    
+    private boolean isTypewriterRunning() {
+        return typewriterAnimation != null && typewriterAnimation.isRunning();
+    }
+    
     
     
     
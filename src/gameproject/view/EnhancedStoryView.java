@@ -3,8 +3,13 @@ package gameproject.view;
 import gameproject.controller.GameController;
 import gameproject.model.NarrativeSystem;
 import gameproject.model.GameState;
+import gameproject.ui.SceneTransition;
+import gameproject.util.FontRegistry;
+import gameproject.util.AnimationClock;
+import gameproject.util.FrameTimer;
 import gameproject.util.ResourceManager;
 import gameproject.util.GameConstants;
+import gameproject.util.UiMetrics;
 
 import javax.swing.*;
 import java.awt.*;
@@ -23,6 +28,7 @@ public class EnhancedStoryView extends JPanel {
     private GameController controller;
     private NarrativeSystem narrativeSystem;
     private ResourceManager resourceManager;
+    private FontRegistry fontRegistry;
     private DialogueManager dialogueManager;
     
     // Background elements
@@ -75,11 +81,10 @@ public class EnhancedStoryView extends JPanel {
     private String[] phaseNames = {"The Eye of Pattern", "The Hand of Balance", "The Mind of Unity"};
     
     // Animation elements
-    private Timer fadeInTimer;
-    private Timer fadeOutTimer;
-    private float alphaLevel = 0.0f;
-    private boolean isFadingIn = false;
-    private boolean isFadingOut = false;
+    private static final int FADE_MILLIS = 1000;
+    private final AnimationClock.Group animations = AnimationClock.getInstance().createGroup();
+    private final FrameTimer paintTimer = UiMetrics.getInstance().getPaintTimer("EnhancedStoryView");
+    private final SceneTransition sceneTransition = new SceneTransition(animations);
     
     // Current phase tracking
     private int currentPhase = -1; // -1 indicates story intro
@@ -95,6 +100,7 @@ public class EnhancedStoryView extends JPanel {
         this.controller = controller;
         this.narrativeSystem = NarrativeSystem.getInstance();
         this.resourceManager = ResourceManager.getInstance();
+        this.fontRegistry = FontRegistry.getInstance();
         
         // Use null layout for precise component positioning
         setLayout(null);
@@ -107,9 +113,6 @@ public class EnhancedStoryView extends JPanel {
         dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
         add(dialogueManager);
         
-        // Set up animation timers
-        setupAnimationTimers();
-        
         // Load initial background
         loadBackground("prologue");
     }
@@ -150,7 +153,7 @@ public class EnhancedStoryView extends JPanel {
     private void initializeUI() {
         // Title label (initially invisible)
         titleLabel = new JLabel("The Tale of the Harmony of Order", JLabel.CENTER);
-        titleLabel.setFont(new Font("SansSerif", Font.BOLD, 36));
+        titleLabel.setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 36));
         titleLabel.setForeground(Color.WHITE);
         titleLabel.setBounds(0, 100, GameConstants.WINDOW_WIDTH, 50);
         titleLabel.setVisible(false);
@@ -177,7 +180,7 @@ public class EnhancedStoryView extends JPanel {
         phaseLabels = new JLabel[3];
         for (int i = 0; i < 3; i++) {
             phaseLabels[i] = new JLabel(phaseNames[i]);
-            phaseLabels[i].setFont(new Font("SansSerif", Font.BOLD, 18));
+            phaseLabels[i].setFont(fontRegistry.getSystemFont("SansSerif", Font.BOLD, 18));
             phaseLabels[i].setForeground(Color.GRAY);
             phaseLabels[i].setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
             phaseIndicatorsPanel.add(phaseLabels[i]);
@@ -188,45 +191,23 @@ public class EnhancedStoryView extends JPanel {
     }
     
     /**
-     * Set up animation timers for transitions
+     * Fade the view in from black
      */
-    private void setupAnimationTimers() {
-        // Fade in timer
-        fadeInTimer = new Timer(50, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (alphaLevel < 1.0f) {
-                    alphaLevel += 0.05f;
-                    if (alphaLevel > 1.0f) {
-                        alphaLevel = 1.0f;
-                    }
-                    repaint();
-                } else {
-                    isFadingIn = false;
-                    fadeInTimer.stop();
-                }
-            }
-        });
-        
-        // Fade out timer
-        fadeOutTimer = new Timer(50, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (alphaLevel > 0.0f) {
-                    alphaLevel -= 0.05f;
-                    if (alphaLevel < 0.0f) {
-                        alphaLevel = 0.0f;
-                    }
-                    repaint();
-                } else {
-                    isFadingOut = false;
-                    fadeOutTimer.stop();
-                    
-                    // Trigger the next phase after fade out completes
-                    transitionToNextPhase();
-                }
-            }
-        });
+    private void startFadeIn() {
+        sceneTransition.reveal(this, Color.BLACK, FADE_MILLIS, null);
+    }
+    
+    /**
+     * Fade to black, hold it for a second, then fade the new scene in.
+     * whileBlack changes the scene while it is hidden and onRevealed runs
+     * once the new scene is fully visible.
+     */
+    private void fadeThroughBlack(Runnable whileBlack, Runnable onRevealed) {
+        sceneTransition.fadeThrough(this, Color.BLACK, FADE_MILLIS, 1000, () -> {
+            // Hide the old dialogue now that the screen is black
+            dialogueManager.setVisible(false);
+            whileBlack.run();
+        }, onRevealed);
     }
     
     
@@ -352,7 +333,6 @@ public class EnhancedStoryView extends JPanel {
         skipToGameplay = false;
 
         // Reset state
-        alphaLevel = 0.0f;
         currentPhase = -1;
 
         // Make all components invisible initially
@@ -364,39 +344,33 @@ public class EnhancedStoryView extends JPanel {
         loadBackground("prologue");
 
         // Start fade in animation
-        isFadingIn = true;
-        fadeInTimer.start();
+        startFadeIn();
 
         // Start the narrative system
         narrativeSystem.startNarrative();
 
         // Show prologue dialogues after a short delay
-        Timer delayTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                // Show title
-                titleLabel.setVisible(true);
-
-                // Start prologue dialogue
-                List<NarrativeSystem.DialogueEntry> prologueDialogues = 
-                    narrativeSystem.getNextDialogueSequence();
-
-                // IMPORTANT: Set dialogue end listener before starting dialogue
-                dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                    @Override
-                    public void onDialogueEnd() {
-                        // This should trigger gameplay for Level 1
-                        System.out.println("DEBUG: Level 1 prologue dialogue ended, starting Phase 1");
-                        skipToGameplay = true;
-                        controller.startPhaseGameplay(1);
-                    }
-                });
-
-                dialogueManager.startDialogue(prologueDialogues);
-            }
+        animations.after(1000, () -> {
+            // Show title
+            titleLabel.setVisible(true);
+
+            // Start prologue dialogue
+            List<NarrativeSystem.DialogueEntry> prologueDialogues = 
+                narrativeSystem.getNextDialogueSequence();
+
+            // IMPORTANT: Set dialogue end listener before starting dialogue
+            dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                @Override
+                public void onDialogueEnd() {
+                    // This should trigger gameplay for Level 1
+                    System.out.println("DEBUG: Level 1 prologue dialogue ended, starting Phase 1");
+                    skipToGameplay = true;
+                    controller.startPhaseGameplay(1);
+                }
+            });
+
+            dialogueManager.startDialogue(prologueDialogues);
         });
-        delayTimer.setRepeats(false);
-        delayTimer.start();
     }
     
     
@@ -431,12 +405,12 @@ public class EnhancedStoryView extends JPanel {
      * Start transition to a specific phase
      */
     private void startPhaseTransition(int phaseIndex) {
-        // Start fade out animation
-        isFadingOut = true;
-        fadeOutTimer.start();
-        
         // Store the target phase index for the transition
         currentPhase = phaseIndex;
+        
+        // Crossfade from the current scene to the new phase
+        sceneTransition.crossfade(this, FADE_MILLIS, AnimationClock.Easing.EASE_IN_OUT_SINE,
+                this::transitionToNextPhase, null);
     }
     
     /**
@@ -532,126 +506,45 @@ public class EnhancedStoryView extends JPanel {
                 public void onDialogueEnd() {
                     System.out.println("DEBUG: Battle success dialogue ended, now showing fade transition");
 
-                    // Create a black screen overlay with initial transparency of 0
-                    final JPanel blackScreen = new JPanel() {
-                        @Override
-                        protected void paintComponent(Graphics g) {
-                            super.paintComponent(g);
-                            g.setColor(Color.BLACK);
-                            g.fillRect(0, 0, getWidth(), getHeight());
-                        }
-                    };
-                    blackScreen.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-                    blackScreen.setOpaque(true);
-
-                    // Make it initially transparent
-                    blackScreen.setBackground(new Color(0, 0, 0, 0));
-                    add(blackScreen, 0);
-
-                    // Create fade OUT animation (battle dialogue to black)
-                    final float[] alpha = {0.0f};
-                    final int FADE_DURATION = 1000; // 1 second fade
-                    final int FRAMES = 20; // 20 animation frames
-
-                    Timer fadeOutTimer = new Timer(FADE_DURATION/FRAMES, new ActionListener() {
-                        int frame = 0;
-
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            frame++;
-                            // Calculate alpha based on current frame
-                            alpha[0] = (float)frame / FRAMES;
-
-                            // Update black screen opacity
-                            blackScreen.setBackground(new Color(0, 0, 0, Math.min(1.0f, alpha[0])));
-
-                            // When fade out is complete
-                            if (frame >= FRAMES) {
-                                ((Timer)e.getSource()).stop();
-
-                                // Hide the dialogue manager now that screen is black
-                                dialogueManager.setVisible(false);
-
-                                // Wait for 1 second with black screen
-                                Timer blackScreenTimer = new Timer(1000, ev -> {
-                                    // CRITICAL FIX: Record progress for Level 1 completion here
-                                    // This is the important line to add:
-                                    controller.progressTracker.completeLevel("Beginner", 1, 3);
-                                    System.out.println("DEBUG: Level 1 completion recorded! Stars: 3");
-
-                                    // Create a fresh dialogue manager for transition dialogue
-                                    remove(dialogueManager);  // Remove old dialogue manager
-                                    dialogueManager = new DialogueManager(controller);
-                                    dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-                                    add(dialogueManager);
-
-                                    // Ensure the black screen is on top
-                                    setComponentZOrder(blackScreen, 0);
-
-                                    // Start fade IN (black to transition dialogue)
-                                    final float[] fadeInAlpha = {1.0f};
-
-                                    Timer fadeInTimer = new Timer(FADE_DURATION/FRAMES, new ActionListener() {
-                                        int fadeInFrame = 0;
-
-                                        @Override
-                                        public void actionPerformed(ActionEvent evt) {
-                                            fadeInFrame++;
-
-                                            // Calculate alpha based on current frame (decreasing)
-                                            fadeInAlpha[0] = 1.0f - ((float)fadeInFrame / FRAMES);
-
-                                            // Update black screen opacity (getting more transparent)
-                                            blackScreen.setBackground(new Color(0, 0, 0, Math.max(0.0f, fadeInAlpha[0])));
-
-                                            // When fade in is complete
-                                            if (fadeInFrame >= FRAMES) {
-                                                ((Timer)evt.getSource()).stop();
-
-                                                // Remove black screen when completely faded in
-                                                remove(blackScreen);
-
-                                                // Load transition dialogue background
-                                                loadBackground("prologue");  // Use village background for transition dialogue too
-
-                                                // CRUCIAL FIX: Don't call onBossBattleComplete again!
-                                                // Instead, directly show the level transition dialogue
-                                                List<NarrativeSystem.DialogueEntry> transitionDialogues = 
-                                                    narrativeSystem.getDialogueSequence("level1to2_transition");
-
-                                                // CRITICAL FIX: Set a new listener for the transition dialogue completion
-                                                dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                                                    @Override
-                                                    public void onDialogueEnd() {
-                                                        // Make sure progress is saved before returning to level selection
-                                                        controller.progressTracker.saveProgress();
-
-                                                        // Finally navigate to level selection
-                                                        controller.showLevelSelection();
-                                                    }
-                                                });
-
-                                                // Start the transition dialogue
-                                                dialogueManager.startDialogue(transitionDialogues);
-
-                                                // Force refresh
-                                                revalidate();
-                                                repaint();
-                                            }
-                                        }
-                                    });
-
-                                    // Start the fade in animation
-                                    fadeInTimer.start();
-                                });
-                                blackScreenTimer.setRepeats(false);
-                                blackScreenTimer.start();
+                    // Fade to black, swap in the next dialogue, then fade back in
+                    fadeThroughBlack(() -> {
+                        // CRITICAL FIX: Record progress for Level 1 completion here
+                        // This is the important line to add:
+                        controller.completeLevel("Beginner", 1);
+
+                        // Create a fresh dialogue manager for transition dialogue
+                        remove(dialogueManager);  // Remove old dialogue manager
+                        dialogueManager = new DialogueManager(controller);
+                        dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+                        add(dialogueManager);
+
+                        // Load transition dialogue background
+                        loadBackground("prologue");  // Use village background for transition dialogue too
+                    }, () -> {
+                        // CRUCIAL FIX: Don't call onBossBattleComplete again!
+                        // Instead, directly show the level transition dialogue
+                        List<NarrativeSystem.DialogueEntry> transitionDialogues = 
+                            narrativeSystem.getDialogueSequence("level1to2_transition");
+
+                        // CRITICAL FIX: Set a new listener for the transition dialogue completion
+                        dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                            @Override
+                            public void onDialogueEnd() {
+                                // Make sure progress is saved before returning to level selection
+                                controller.progressTracker.saveProgress();
+
+                                // Finally navigate to level selection
+                                controller.showLevelSelection();
                             }
-                        }
-                    });
+                        });
+
+                        // Start the transition dialogue
+                        dialogueManager.startDialogue(transitionDialogues);
 
-                    // Start the fade out animation
-                    fadeOutTimer.start();
+                        // Force refresh
+                        revalidate();
+                        repaint();
+                    });
 
                     // Force refresh to start fade
                     revalidate();
@@ -676,7 +569,7 @@ public class EnhancedStoryView extends JPanel {
     
     
     /**
-     * Complete transition to next phase after fade out
+     * Set up the next phase (runs under the crossfade overlay)
      */
     private void transitionToNextPhase() {
         // Load the background for the new phase
@@ -708,22 +601,13 @@ public class EnhancedStoryView extends JPanel {
         // Show phase indicators
         phaseIndicatorsPanel.setVisible(true);
         
-        // Start fade in animation
-        isFadingIn = true;
-        fadeInTimer.start();
-        
-        // After a delay, show the dialogue for this phase
-        Timer dialogueDelayTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                // Get and display the dialogue for the current phase
-                List<NarrativeSystem.DialogueEntry> phaseDialogues = 
-                    narrativeSystem.getNextDialogueSequence();
-                dialogueManager.startDialogue(phaseDialogues);
-            }
+        // After the crossfade, show the dialogue for this phase
+        animations.after(1000, () -> {
+            // Get and display the dialogue for the current phase
+            List<NarrativeSystem.DialogueEntry> phaseDialogues = 
+                narrativeSystem.getNextDialogueSequence();
+            dialogueManager.startDialogue(phaseDialogues);
         });
-        dialogueDelayTimer.setRepeats(false);
-        dialogueDelayTimer.start();
     }
       
     /**
@@ -760,6 +644,14 @@ public class EnhancedStoryView extends JPanel {
         dialogueManager.startDialogue(dialogueSequence);
     }
     
+    @Override
+    public void paint(Graphics g) {
+        // Time the whole view, including the story panels painted over the background
+        paintTimer.beginFrame();
+        super.paint(g);
+        paintTimer.endFrame();
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -770,19 +662,10 @@ public class EnhancedStoryView extends JPanel {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-        // Set composite for fade effects
-        Composite originalComposite = g2d.getComposite();
-        if (isFadingIn || isFadingOut) {
-            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alphaLevel));
-        }
-
-        // Draw current background image
+        // Draw current background image (fades are drawn by sceneTransition)
         if (currentBackground != null) {
             g2d.drawImage(currentBackground.getImage(), 0, 0, getWidth(), getHeight(), this);
         }
-
-        // Restore original composite
-        g2d.setComposite(originalComposite);
     }
 
     
@@ -796,7 +679,6 @@ public class EnhancedStoryView extends JPanel {
         skipToGameplay = false;
 
         // Reset state
-        alphaLevel = 0.0f;
         currentPhase = -1;
 
         // Clear the background cache to force reload
@@ -814,40 +696,34 @@ public class EnhancedStoryView extends JPanel {
         loadBackground("prologue");
 
         // Start fade in animation
-        isFadingIn = true;
-        fadeInTimer.start();
+        startFadeIn();
 
         // Set the title text for Level 2
         titleLabel.setText("The Corruption of Toxitar");
 
         // Show Level 2 intro dialogues after a short delay
-        Timer delayTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                // Show title
-                titleLabel.setVisible(true);
-
-                // Get the dialogue sequence
-                List<NarrativeSystem.DialogueEntry> level2IntroDialogues = 
-                    narrativeSystem.getDialogueSequence("level2_intro");
-
-                // IMPORTANT: Set a completion handler BEFORE starting dialogue
-                dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                    @Override
-                    public void onDialogueEnd() {
-                        System.out.println("DEBUG: Level 2 intro dialogue ended, starting Phase 1");
-                        skipToGameplay = true;
-                        // Explicitly start Phase 1 of Level 2
-                        controller.startPhaseGameplay(1);
-                    }
-                });
-
-                // Start the dialogue
-                dialogueManager.startDialogue(level2IntroDialogues);
-            }
+        animations.after(1000, () -> {
+            // Show title
+            titleLabel.setVisible(true);
+
+            // Get the dialogue sequence
+            List<NarrativeSystem.DialogueEntry> level2IntroDialogues = 
+                narrativeSystem.getDialogueSequence("level2_intro");
+
+            // IMPORTANT: Set a completion handler BEFORE starting dialogue
+            dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                @Override
+                public void onDialogueEnd() {
+                    System.out.println("DEBUG: Level 2 intro dialogue ended, starting Phase 1");
+                    skipToGameplay = true;
+                    // Explicitly start Phase 1 of Level 2
+                    controller.startPhaseGameplay(1);
+                }
+            });
+
+            // Start the dialogue
+            dialogueManager.startDialogue(level2IntroDialogues);
         });
-        delayTimer.setRepeats(false);
-        delayTimer.start();
     }
 
     
@@ -942,120 +818,43 @@ public class EnhancedStoryView extends JPanel {
                 public void onDialogueEnd() {
                     System.out.println("DEBUG: Battle success dialogue ended, now showing fade transition");
 
-                    // Create a black screen overlay with initial transparency of 0
-                    final JPanel blackScreen = new JPanel() {
-                        @Override
-                        protected void paintComponent(Graphics g) {
-                            super.paintComponent(g);
-                            g.setColor(Color.BLACK);
-                            g.fillRect(0, 0, getWidth(), getHeight());
+                    // Fade to black, swap in the next dialogue, then fade back in
+                    fadeThroughBlack(() -> {
+                        // Record progress if successful
+                        if (success) {
+                            controller.completeLevel("Intermediate", 1);
                         }
-                    };
-                    blackScreen.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-                    blackScreen.setOpaque(true);
-
-                    // Make it initially transparent
-                    blackScreen.setBackground(new Color(0, 0, 0, 0));
-                    add(blackScreen, 0);
-
-                    // Create fade OUT animation (battle dialogue to black)
-                    final float[] alpha = {0.0f};
-                    final int FADE_DURATION = 1000; // 1 second fade
-                    final int FRAMES = 20; // 20 animation frames
-
-                    Timer fadeOutTimer = new Timer(FADE_DURATION/FRAMES, new ActionListener() {
-                        int frame = 0;
-
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            frame++;
-                            // Calculate alpha based on current frame
-                            alpha[0] = (float)frame / FRAMES;
-
-                            // Update black screen opacity
-                            blackScreen.setBackground(new Color(0, 0, 0, Math.min(1.0f, alpha[0])));
-
-                            // When fade out is complete
-                            if (frame >= FRAMES) {
-                                ((Timer)e.getSource()).stop();
-
-                                // Hide the dialogue manager now that screen is black
-                                dialogueManager.setVisible(false);
-
-                                // Wait for 1 second with black screen
-                                Timer blackScreenTimer = new Timer(1000, ev -> {
-                                    // Record progress if successful
-                                    if (success) {
-                                        controller.progressTracker.completeLevel("Intermediate", 1, 3);
-                                    }
-
-                                    // CRITICAL FIX: Create a fresh dialogue manager for level 2 to 3 transition
-                                    remove(dialogueManager);
-                                    dialogueManager = new DialogueManager(controller);
-                                    dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-                                    add(dialogueManager);
-
-                                    // Start fade IN (black to transition dialogue)
-                                    final float[] fadeInAlpha = {1.0f};
-
-                                    Timer fadeInTimer = new Timer(FADE_DURATION/FRAMES, new ActionListener() {
-                                        int fadeInFrame = 0;
-
-                                        @Override
-                                        public void actionPerformed(ActionEvent evt) {
-                                            fadeInFrame++;
-
-                                            // Calculate alpha based on current frame (decreasing)
-                                            fadeInAlpha[0] = 1.0f - ((float)fadeInFrame / FRAMES);
-
-                                            // Update black screen opacity (getting more transparent)
-                                            blackScreen.setBackground(new Color(0, 0, 0, Math.max(0.0f, fadeInAlpha[0])));
-
-                                            // When fade in is complete
-                                            if (fadeInFrame >= FRAMES) {
-                                                ((Timer)evt.getSource()).stop();
-
-                                                // Remove black screen when completely faded in
-                                                remove(blackScreen);
-
-                                                // Load the proper background for transition dialogue
-                                                currentLevel = 2; // Ensure correct level is set
-                                                loadBackground("prologue");
-
-                                                // Get Level 2 to Level 3 transition dialogue
-                                                List<NarrativeSystem.DialogueEntry> transitionDialogues = 
-                                                    narrativeSystem.getDialogueSequence("level2to3_transition");
-
-                                                // CRITICAL FIX: Set a new listener for the transition dialogue completion
-                                                dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                                                    @Override
-                                                    public void onDialogueEnd() {
-                                                        // Finally navigate to level selection
-                                                        controller.showLevelSelection();
-                                                    }
-                                                });
-
-                                                // Start the transition dialogue
-                                                dialogueManager.startDialogue(transitionDialogues);
-
-                                                // Force refresh
-                                                revalidate();
-                                                repaint();
-                                            }
-                                        }
-                                    });
-
-                                    // Start the fade in animation
-                                    fadeInTimer.start();
-                                });
-                                blackScreenTimer.setRepeats(false);
-                                blackScreenTimer.start();
+
+                        // CRITICAL FIX: Create a fresh dialogue manager for level 2 to 3 transition
+                        remove(dialogueManager);
+                        dialogueManager = new DialogueManager(controller);
+                        dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+                        add(dialogueManager);
+
+                        // Load the proper background for transition dialogue
+                        currentLevel = 2; // Ensure correct level is set
+                        loadBackground("prologue");
+                    }, () -> {
+                        // Get Level 2 to Level 3 transition dialogue
+                        List<NarrativeSystem.DialogueEntry> transitionDialogues = 
+                            narrativeSystem.getDialogueSequence("level2to3_transition");
+
+                        // CRITICAL FIX: Set a new listener for the transition dialogue completion
+                        dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                            @Override
+                            public void onDialogueEnd() {
+                                // Finally navigate to level selection
+                                controller.showLevelSelection();
                             }
-                        }
-                    });
+                        });
+
+                        // Start the transition dialogue
+                        dialogueManager.startDialogue(transitionDialogues);
 
-                    // Start the fade out animation
-                    fadeOutTimer.start();
+                        // Force refresh
+                        revalidate();
+                        repaint();
+                    });
 
                     // Force refresh to start fade
                     revalidate();
@@ -1157,7 +956,6 @@ public class EnhancedStoryView extends JPanel {
         skipToGameplay = false;
 
         // Reset state
-        alphaLevel = 0.0f;
         currentPhase = -1;
 
         // Clear the background cache to force reload
@@ -1175,40 +973,34 @@ public class EnhancedStoryView extends JPanel {
         loadBackground("prologue");
 
         // Start fade in animation
-        isFadingIn = true;
-        fadeInTimer.start();
+        startFadeIn();
 
         // Set the title text for Level 3
         titleLabel.setText("The Reality Warper: Lord Chaosa");
 
         // Show Level 3 intro dialogues after a short delay
-        Timer delayTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                // Show title
-                titleLabel.setVisible(true);
-
-                // Get the dialogue sequence
-                List<NarrativeSystem.DialogueEntry> level3IntroDialogues = 
-                    narrativeSystem.getDialogueSequence("level3_intro");
-
-                // IMPORTANT: Set a completion handler BEFORE starting dialogue
-                dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                    @Override
-                    public void onDialogueEnd() {
-                        System.out.println("DEBUG: Level 3 intro dialogue ended, starting Phase 1");
-                        skipToGameplay = true;
-                        // Explicitly start Phase 1 of Level 3
-                        controller.startPhaseGameplay(1);
-                    }
-                });
-
-                // Start the dialogue
-                dialogueManager.startDialogue(level3IntroDialogues);
-            }
+        animations.after(1000, () -> {
+            // Show title
+            titleLabel.setVisible(true);
+
+            // Get the dialogue sequence
+            List<NarrativeSystem.DialogueEntry> level3IntroDialogues = 
+                narrativeSystem.getDialogueSequence("level3_intro");
+
+            // IMPORTANT: Set a completion handler BEFORE starting dialogue
+            dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                @Override
+                public void onDialogueEnd() {
+                    System.out.println("DEBUG: Level 3 intro dialogue ended, starting Phase 1");
+                    skipToGameplay = true;
+                    // Explicitly start Phase 1 of Level 3
+                    controller.startPhaseGameplay(1);
+                }
+            });
+
+            // Start the dialogue
+            dialogueManager.startDialogue(level3IntroDialogues);
         });
-        delayTimer.setRepeats(false);
-        delayTimer.start();
     }
     
     
@@ -1315,119 +1107,39 @@ public class EnhancedStoryView extends JPanel {
                     // [Existing transition code continues here]
                     System.out.println("DEBUG: Battle success dialogue ended, now showing game completion with fade transition");
 
-                    // Create a black screen overlay with initial transparency of 0
-                    final JPanel blackScreen = new JPanel() {
-                        @Override
-                        protected void paintComponent(Graphics g) {
-                            super.paintComponent(g);
-                            g.setColor(Color.BLACK);
-                            g.fillRect(0, 0, getWidth(), getHeight());
-                        }
-                    };
-                    blackScreen.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-                    blackScreen.setOpaque(true);
-
-                    // Make it initially transparent
-                    blackScreen.setBackground(new Color(0, 0, 0, 0));
-                    add(blackScreen, 0);
-
-                    // Create fade OUT animation (battle dialogue to black)
-                    final float[] alpha = {0.0f};
-                    final int FADE_DURATION = 1000; // 1 second fade
-                    final int FRAMES = 20; // 20 animation frames
-
-                    Timer fadeOutTimer = new Timer(FADE_DURATION/FRAMES, new ActionListener() {
-                        int frame = 0;
-
-                        @Override
-                        public void actionPerformed(ActionEvent e) {
-                            frame++;
-                            // Calculate alpha based on current frame
-                            alpha[0] = (float)frame / FRAMES;
-
-                            // Update black screen opacity
-                            blackScreen.setBackground(new Color(0, 0, 0, Math.min(1.0f, alpha[0])));
-
-                            // When fade out is complete
-                            if (frame >= FRAMES) {
-                                ((Timer)e.getSource()).stop();
-
-                                // Hide the dialogue manager now that screen is black
-                                dialogueManager.setVisible(false);
-
-                                // Wait for 1 second with black screen
-                                Timer blackScreenTimer = new Timer(1000, ev -> {
-                                    // Now start fade IN for completion dialogue
-
-                                    // CRITICAL FIX: Create a fresh dialogue manager for completion dialogue 
-                                    remove(dialogueManager);  // Remove old dialogue manager
-                                    dialogueManager = new DialogueManager(controller);
-                                    dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-                                    add(dialogueManager);
-
-                                    // Ensure the black screen is on top
-                                    setComponentZOrder(blackScreen, 0);
-
-                                    // Start fade IN (black to completion dialogue)
-                                    final float[] fadeInAlpha = {1.0f};
-
-                                    Timer fadeInTimer = new Timer(FADE_DURATION/FRAMES, new ActionListener() {
-                                        int fadeInFrame = 0;
-
-                                        @Override
-                                        public void actionPerformed(ActionEvent evt) {
-                                            fadeInFrame++;
-
-                                            // Calculate alpha based on current frame (decreasing)
-                                            fadeInAlpha[0] = 1.0f - ((float)fadeInFrame / FRAMES);
-
-                                            // Update black screen opacity (getting more transparent)
-                                            blackScreen.setBackground(new Color(0, 0, 0, Math.max(0.0f, fadeInAlpha[0])));
-
-                                            // When fade in is complete
-                                            if (fadeInFrame >= FRAMES) {
-                                                ((Timer)evt.getSource()).stop();
-
-                                                // Remove black screen when completely faded in
-                                                remove(blackScreen);
-
-                                                // Load the castle background for the completion dialogue
-                                                currentLevel = 3; // Ensure correct level is set
-                                                loadBackground("prologue");
-
-                                                // Record completion
-                                                controller.progressTracker.completeLevel("Advanced", 1, 3);
-
-                                                // CRITICAL FIX: Set a new listener for the end game completion dialogue
-                                                dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                                                    @Override
-                                                    public void onDialogueEnd() {
-                                                        // Finally navigate to level selection
-                                                        controller.showLevelSelection();
-                                                    }
-                                                });
-
-                                                // Show the completion dialogue
-                                                showGameCompletionDialogue();
-
-                                                // Force refresh
-                                                revalidate();
-                                                repaint();
-                                            }
-                                        }
-                                    });
-
-                                    // Start the fade in animation
-                                    fadeInTimer.start();
-                                });
-                                blackScreenTimer.setRepeats(false);
-                                blackScreenTimer.start();
+                    // Fade to black, swap in the next dialogue, then fade back in
+                    fadeThroughBlack(() -> {
+                        // Now start fade IN for completion dialogue
+
+                        // CRITICAL FIX: Create a fresh dialogue manager for completion dialogue 
+                        remove(dialogueManager);  // Remove old dialogue manager
+                        dialogueManager = new DialogueManager(controller);
+                        dialogueManager.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+                        add(dialogueManager);
+
+                        // Load the castle background for the completion dialogue
+                        currentLevel = 3; // Ensure correct level is set
+                        loadBackground("prologue");
+                    }, () -> {
+                        // Record completion
+                        controller.completeLevel("Advanced", 1);
+
+                        // CRITICAL FIX: Set a new listener for the end game completion dialogue
+                        dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                            @Override
+                            public void onDialogueEnd() {
+                                // Finally navigate to level selection
+                                controller.showLevelSelection();
                             }
-                        }
-                    });
+                        });
+
+                        // Show the completion dialogue
+                        showGameCompletionDialogue();
 
-                    // Start the fade out animation
-                    fadeOutTimer.start();
+                        // Force refresh
+                        revalidate();
+                        repaint();
+                    });
 
                     // Force refresh to start fade
                     revalidate();
@@ -1476,20 +1188,6 @@ public class EnhancedStoryView extends JPanel {
         // CRITICAL FIX: Ensure we're not reusing any old dialogue manager state
         dialogueManager.setBossBattleResultDialogue(false);
 
-        // Create a simple, very brief fade effect (1 second)
-        final JPanel blackoutPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                g.setColor(Color.BLACK);
-                g.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
-        blackoutPanel.setBounds(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-        blackoutPanel.setOpaque(true);
-        add(blackoutPanel, 0);
-        System.out.println("DEBUG: Added black screen for transition");
-
         // Get the game completion dialogue
         List<NarrativeSystem.DialogueEntry> completionDialogues = 
             narrativeSystem.getDialogueSequence("game_completion");
@@ -1504,49 +1202,28 @@ public class EnhancedStoryView extends JPanel {
         titleLabel.setText("The Harmony of Order Restored");
         titleLabel.setVisible(true);
 
-        // Quick 1-second fade transition
-        Timer fadeTimer = new Timer(20, new ActionListener() {
-            float alpha = 1.0f;
-            int frameCount = 0;
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                frameCount++;
-                // Complete fade in 50 frames (1 second)
-                if (frameCount >= 50) {
-                    // Remove the black panel
-                    remove(blackoutPanel);
-                    ((Timer)e.getSource()).stop();
-
-                    // Make dialogue manager visible again
-                    dialogueManager.setVisible(true);
-
-                    // CRITICAL FIX: Set a listener to go to level selection (not main menu) when completion dialogue ends
-                    dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
-                        @Override
-                        public void onDialogueEnd() {
-                            System.out.println("DEBUG: Game completion dialogue ended, returning to level selection");
-                            controller.showLevelSelection();
-                        }
-                    });
-
-                    // Start the dialogue
-                    System.out.println("DEBUG: Starting completion dialogue");
-                    dialogueManager.startDialogue(completionDialogues);
+        // Quick 1-second fade in from black
+        sceneTransition.reveal(this, Color.BLACK, FADE_MILLIS, () -> {
+            // Make dialogue manager visible again
+            dialogueManager.setVisible(true);
 
-                    // Force repaint
-                    revalidate();
-                    repaint();
-                } else {
-                    // Fade out black panel
-                    alpha = 1.0f - (frameCount / 50.0f);
-                    blackoutPanel.setBackground(new Color(0, 0, 0, (int)(alpha * 255)));
-                    repaint();
+            // CRITICAL FIX: Set a listener to go to level selection (not main menu) when completion dialogue ends
+            dialogueManager.setDialogueEndListener(new DialogueManager.DialogueEndListener() {
+                @Override
+                public void onDialogueEnd() {
+                    System.out.println("DEBUG: Game completion dialogue ended, returning to level selection");
+                    controller.showLevelSelection();
                 }
-            }
-        });
+            });
+
+            // Start the dialogue
+            System.out.println("DEBUG: Starting completion dialogue");
+            dialogueManager.startDialogue(completionDialogues);
 
-        // Start the fade timer immediately
-        fadeTimer.start();
+            // Force repaint
+            revalidate();
+            repaint();
+        });
 
         // Force revalidate and repaint
         revalidate();
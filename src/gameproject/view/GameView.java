@@ -4,7 +4,10 @@ package gameproject.view;
 
 import gameproject.controller.GameController;
 import gameproject.model.LevelConfig;
+import gameproject.service.GameClock;
 import gameproject.ui.GameGrid;
+import gameproject.util.AnimationClock;
+import gameproject.util.FontRegistry;
 import gameproject.util.GameConstants;
 import gameproject.util.ResourceManager;
 import javax.swing.plaf.basic.BasicButtonUI;
@@ -14,14 +17,15 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.List;
 /**
  * Enhanced view for the game screen showing sorting challenges
  */
 public class GameView extends JPanel {
    private GameController controller;
     private ResourceManager resourceManager;
+    private FontRegistry fontRegistry;
     private JLabel instructionsLabel;
+    private JLabel controlsLabel;
     private JLabel timerLabel;
     private JButton pauseButton;
     private JButton hintButton;
@@ -31,8 +35,13 @@ public class GameView extends JPanel {
     
     private LevelConfig currentLevel;
     private boolean levelCompleted = false;
+    
+    // The attempt's clock, and the one pending timer refresh
+    private GameClock clock;
+    private final GameClock.BudgetListener budgetListener = this::budgetExceeded;
+    private final AnimationClock.Group timerRefresh = AnimationClock.getInstance().createGroup();
+    private static final Color TIME_UP_COLOR = new Color(230, 60, 60);
     private ImageIcon backgroundImage;
-    private Font pixelifySansFont;
     
     // Button images
     private ImageIcon pauseNormalIcon;
@@ -46,6 +55,7 @@ public class GameView extends JPanel {
     public GameView(GameController controller) {
         this.controller = controller;
         this.resourceManager = ResourceManager.getInstance();
+        this.fontRegistry = FontRegistry.getInstance();
         
         // Use null layout to position components precisely
         setLayout(null);
@@ -66,13 +76,6 @@ public class GameView extends JPanel {
         // Load background image
         backgroundImage = resourceManager.getImage("/gameproject/resources/forest_bg.png");
         
-        // Load custom font
-        pixelifySansFont = resourceManager.getFont(GameConstants.FONT_PATH, 25f);
-        if (pixelifySansFont == null) {
-            // Fallback if custom font can't be loaded
-            pixelifySansFont = new Font("Arial", Font.BOLD, 25);
-        }
-        
         // Load button images
         pauseNormalIcon = resourceManager.getImage("/gameproject/resources/pause_normal.png");
         pauseHoverIcon = resourceManager.getImage("/gameproject/resources/pause_hover.png");
@@ -111,7 +114,7 @@ public class GameView extends JPanel {
 
       // Timer display centered at the top without any background and larger font
       timerLabel = new JLabel("05:00", JLabel.CENTER); // Removed "Time: " prefix
-      timerLabel.setFont(pixelifySansFont.deriveFont(70f)); // Increased to 70 pixels
+      timerLabel.setFont(fontRegistry.getPixelFont(70f)); // Increased to 70 pixels
       timerLabel.setForeground(Color.WHITE);
       timerLabel.setOpaque(false); // No background
       // Center the timer
@@ -131,13 +134,22 @@ public class GameView extends JPanel {
 
       // Instructions with improved visibility
       instructionsLabel = new JLabel("Sort these items by value using Insertion Sort. Move the smaller items to the left.", JLabel.CENTER);
-      instructionsLabel.setFont(new Font("Arial", Font.BOLD, 16));
+      instructionsLabel.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 16));
       instructionsLabel.setForeground(Color.BLACK);
       instructionsLabel.setBackground(new Color(255, 255, 255, 180));
       instructionsLabel.setOpaque(true);
       instructionsLabel.setBounds(0, 100, GameConstants.WINDOW_WIDTH, 30);
       add(instructionsLabel);
 
+      // How to make this level's moves on the grid
+      controlsLabel = new JLabel("", JLabel.CENTER);
+      controlsLabel.setFont(fontRegistry.getSystemFont("Arial", Font.PLAIN, 14));
+      controlsLabel.setForeground(Color.BLACK);
+      controlsLabel.setBackground(new Color(255, 255, 255, 180));
+      controlsLabel.setOpaque(true);
+      controlsLabel.setBounds(0, 130, GameConstants.WINDOW_WIDTH, 22);
+      add(controlsLabel);
+
       // Bottom buttons with proper spacing - UPDATED Y-POSITION and HORIZONTAL SHIFT
         int buttonsY = GameConstants.WINDOW_HEIGHT - 120;  // Vertical position
         int horizontalShift = 140;  // Shift buttons to the right by 250 pixels
@@ -199,7 +211,10 @@ public class GameView extends JPanel {
     * Display pause menu overlay - with semi-transparent dark background
     */
     private void showPauseMenu() {
-
+       // Stop the clock (and the moves) while the menu is open
+       controller.pauseAttempt();
+       timerRefresh.cancelAll();
+       gameGrid.setInputEnabled(false);
 
        // Create semi-transparent dark overlay panel
        JPanel overlay = new JPanel() {
@@ -228,13 +243,16 @@ public class GameView extends JPanel {
            resourceManager.getImage("/gameproject/resources/NormalButton.png"),
            resourceManager.getImage("/gameproject/resources/HoverButton.png"),
            resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-       resumeButton.setFont(pixelifySansFont.deriveFont(28f));
+       resumeButton.setFont(fontRegistry.getPixelFont(28f));
        resumeButton.setForeground(Color.WHITE);
        resumeButton.setMaximumSize(new Dimension(300, 70));
        resumeButton.setPreferredSize(new Dimension(300, 70));
        resumeButton.setAlignmentX(Component.CENTER_ALIGNMENT);
        resumeButton.addActionListener(e -> {
            remove(overlay);
+           controller.resumeAttempt();
+           gameGrid.setInputEnabled(!levelCompleted && !clock.poll());
+           refreshTimer();
            repaint();
 
        });
@@ -243,7 +261,7 @@ public class GameView extends JPanel {
            resourceManager.getImage("/gameproject/resources/NormalButton.png"),
            resourceManager.getImage("/gameproject/resources/HoverButton.png"),
            resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-       restartButton.setFont(pixelifySansFont.deriveFont(28f));
+       restartButton.setFont(fontRegistry.getPixelFont(28f));
        restartButton.setForeground(Color.WHITE);
        restartButton.setMaximumSize(new Dimension(300, 70));
        restartButton.setPreferredSize(new Dimension(300, 70));
@@ -257,7 +275,7 @@ public class GameView extends JPanel {
            resourceManager.getImage("/gameproject/resources/NormalButton.png"),
            resourceManager.getImage("/gameproject/resources/HoverButton.png"),
            resourceManager.getImage("/gameproject/resources/ClickedButton.png"));
-       menuButton.setFont(pixelifySansFont.deriveFont(28f));
+       menuButton.setFont(fontRegistry.getPixelFont(28f));
        menuButton.setForeground(Color.WHITE);
        menuButton.setMaximumSize(new Dimension(300, 70));
        menuButton.setPreferredSize(new Dimension(300, 70));
@@ -412,13 +430,7 @@ public class GameView extends JPanel {
     public void updateLevelInfo(String difficulty, int level) {
         
         // Get the level configuration
-        List<LevelConfig> allLevels = LevelConfig.createAllLevels();
-        for (LevelConfig config : allLevels) {
-            if (config.getDifficulty().equals(difficulty) && config.getLevelNumber() == level) {
-                currentLevel = config;
-                break;
-            }
-        }
+        currentLevel = controller.getLevelConfig(difficulty, level);
         
         if (currentLevel != null) {
             // Update instructions
@@ -435,11 +447,6 @@ public class GameView extends JPanel {
     * Initialize the level with the game grid - with smaller grid
     */
     private void initializeLevel() {
-       // Remove existing grid if any
-       if (gameGrid != null) {
-           remove(gameGrid);
-       }
-
        // Reset level state
        levelCompleted = false;
        nextLevelButton.setEnabled(false);
@@ -451,11 +458,22 @@ public class GameView extends JPanel {
            backgroundImage = resourceManager.getImage("/gameproject/resources/default_bg.png");
        }
 
-       // Create new game grid with smaller size
-       gameGrid = new GameGrid(currentLevel);
-       // Make grid smaller by reducing width and height
-       gameGrid.setBounds((GameConstants.WINDOW_WIDTH - 700) / 2, 150, 700, 450); // Reduced from 800x520
-       add(gameGrid);
+       // Reuse the grid between levels; setLevel rebuilds its cached layer
+       if (gameGrid != null) {
+           gameGrid.setLevel(currentLevel);
+       } else {
+           // Create new game grid with smaller size
+           gameGrid = new GameGrid(currentLevel);
+           // Make grid smaller by reducing width and height
+           gameGrid.setBounds((GameConstants.WINDOW_WIDTH - 700) / 2, 150, 700, 450); // Reduced from 800x520
+           // Every move counts against the level's step budget
+           gameGrid.setMoveListener(controller::recordStep);
+           add(gameGrid);
+       }
+       gameGrid.setInputEnabled(true);
+       controlsLabel.setText(gameGrid.getControlsText());
+
+       startClock();
 
        revalidate();
        repaint();
@@ -468,7 +486,7 @@ public class GameView extends JPanel {
      * Apply consistent styling to buttons
      */
     private void styleButton(JButton button) {
-        button.setFont(new Font("Arial", Font.BOLD, 16));
+        button.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 16));
         button.setFocusPainted(false);
         button.setBackground(Color.WHITE);
         button.setForeground(Color.BLACK);
@@ -477,23 +495,73 @@ public class GameView extends JPanel {
         button.setMargin(new Insets(0, 0, 0, 0));
     }
     
+    /**
+     * Follow the new attempt's clock: show its time and react when a budget runs out
+     */
+    private void startClock() {
+        if (clock != null) {
+            clock.removeBudgetListener(budgetListener);
+        }
+        clock = controller.getAttemptClock();
+        clock.addBudgetListener(budgetListener);
+        timerLabel.setForeground(Color.WHITE);
+        checkButton.setEnabled(true);
+        timerRefresh.cancelAll();
+        refreshTimer();
+    }
+    
+    /**
+     * Show the clock's time, then wake once more when the text next changes.
+     * Each delay is measured from the clock itself, so the display can't drift.
+     */
+    private void refreshTimer() {
+        clock.poll();
+        timerLabel.setText(clock.formatTime());
+        if (clock.isRunning()) {
+            long delayMillis = (clock.getNanosUntilDisplayChange() + 999_999L) / 1_000_000L;
+            timerRefresh.after((int) Math.min(Integer.MAX_VALUE, delayMillis), this::refreshTimer);
+        }
+    }
+    
+    /**
+     * A budget ran out: the attempt is over and can't be checked any more
+     */
+    private void budgetExceeded(GameClock.Budget budget) {
+        if (levelCompleted) {
+            return;
+        }
+        controller.failAttempt(budget);
+        timerRefresh.cancelAll();
+        timerLabel.setText(clock.formatTime());
+        timerLabel.setForeground(TIME_UP_COLOR);
+        checkButton.setEnabled(false);
+        gameGrid.setInputEnabled(false);
+        instructionsLabel.setText(budget == GameClock.Budget.TIME
+                ? "Time's up! Restart the level to try again."
+                : "Out of moves! Restart the level to try again.");
+    }
+    
     /**
     * Check if the current solution is correct
     */
     private void checkSolution() {
-        if (levelCompleted) return;
-
-        // Get the current state from the grid
-        int[] currentArray = gameGrid.getCurrentState();
+        if (levelCompleted || clock.poll()) return;
 
-        // Check if solution is correct
-        boolean isCorrect = currentLevel.validateSolution(currentArray);
+        // The grid keeps its arrangement validated as items move
+        boolean isCorrect = gameGrid.isSolved();
 
         if (isCorrect) {
 
 
             // Mark level as completed
             levelCompleted = true;
+            clock.stop();
+            timerRefresh.cancelAll();
+            gameGrid.setInputEnabled(false);
+            if (currentLevel != null) {
+                // Puzzle moves follow the solver's move model, so stars come from the step count
+                controller.completeLevel(currentLevel.getDifficulty(), currentLevel.getLevelNumber());
+            }
             nextLevelButton.setEnabled(true);    
         }
     }
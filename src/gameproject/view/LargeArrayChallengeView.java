@@ -0,0 +1,271 @@
+package gameproject.view;
+
+import gameproject.controller.GameController;
+import gameproject.model.LargeArrayChallenge;
+import gameproject.service.GameClock;
+import gameproject.ui.LargeArrayCanvas;
+import gameproject.util.AnimationClock;
+import gameproject.util.FontRegistry;
+import gameproject.util.GameConstants;
+import gameproject.util.ResourceManager;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * View for the large-array challenge: the whole array on one canvas, with
+ * controls to merge the selected run with the next one, undo and redo
+ */
+public class LargeArrayChallengeView extends JPanel {
+    private static final Color SOLVED_COLOR = new Color(120, 230, 120);
+    private static final Color SOLVED_STATUS_COLOR = new Color(20, 120, 20);
+
+    private GameController controller;
+    private FontRegistry fontRegistry;
+    private ImageIcon backgroundImage;
+    private JLabel timerLabel;
+    private JLabel instructionsLabel;
+    private JLabel statusLabel;
+    private JButton mergeButton;
+    private JButton undoButton;
+    private JButton redoButton;
+    private JButton modeButton;
+    private LargeArrayCanvas canvas;
+
+    private LargeArrayChallenge challenge;
+    private int selectedIndex = -1;
+
+    // Time of the attempt, and the one pending timer refresh
+    private GameClock clock;
+    private final AnimationClock.Group timerRefresh = AnimationClock.getInstance().createGroup();
+
+    /**
+     * Constructor - Initialize the large-array challenge view
+     */
+    public LargeArrayChallengeView(GameController controller) {
+        this.controller = controller;
+        this.fontRegistry = FontRegistry.getInstance();
+        backgroundImage = ResourceManager.getInstance().getImage("/gameproject/resources/default_bg.png");
+
+        // Use null layout to position components precisely, like the game view
+        setLayout(null);
+        createUIComponents();
+    }
+
+    /**
+     * Create and position all UI components
+     */
+    private void createUIComponents() {
+        timerLabel = new JLabel("00:00", JLabel.CENTER);
+        timerLabel.setFont(fontRegistry.getPixelFont(56f));
+        timerLabel.setForeground(Color.WHITE);
+        timerLabel.setBounds((GameConstants.WINDOW_WIDTH - 200) / 2, 10, 200, 60);
+        add(timerLabel);
+
+        instructionsLabel = new JLabel("", JLabel.CENTER);
+        instructionsLabel.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 16));
+        instructionsLabel.setForeground(Color.BLACK);
+        instructionsLabel.setBackground(new Color(255, 255, 255, 180));
+        instructionsLabel.setOpaque(true);
+        instructionsLabel.setBounds(0, 80, GameConstants.WINDOW_WIDTH, 30);
+        add(instructionsLabel);
+
+        canvas = new LargeArrayCanvas();
+        canvas.setBounds(32, 125, GameConstants.WINDOW_WIDTH - 64, 440);
+        canvas.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
+        canvas.setSelectionListener(this::selectRunAt);
+        add(canvas);
+
+        statusLabel = new JLabel("", JLabel.CENTER);
+        statusLabel.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 16));
+        statusLabel.setForeground(Color.BLACK);
+        statusLabel.setBackground(new Color(255, 255, 255, 180));
+        statusLabel.setOpaque(true);
+        statusLabel.setBounds(0, 575, GameConstants.WINDOW_WIDTH, 30);
+        add(statusLabel);
+
+        // Bottom row of controls
+        int buttonsY = GameConstants.WINDOW_HEIGHT - 130;
+        int buttonWidth = 150;
+        int spacing = 12;
+        int x = (GameConstants.WINDOW_WIDTH - 6 * buttonWidth - 5 * spacing) / 2;
+
+        mergeButton = createButton("Merge Run", x, buttonsY, buttonWidth);
+        mergeButton.addActionListener(e -> mergeSelected());
+        x += buttonWidth + spacing;
+
+        undoButton = createButton("Undo", x, buttonsY, buttonWidth);
+        undoButton.addActionListener(e -> undo());
+        x += buttonWidth + spacing;
+
+        redoButton = createButton("Redo", x, buttonsY, buttonWidth);
+        redoButton.addActionListener(e -> redo());
+        x += buttonWidth + spacing;
+
+        modeButton = createButton("Heat Strip", x, buttonsY, buttonWidth);
+        modeButton.addActionListener(e -> toggleMode());
+        x += buttonWidth + spacing;
+
+        JButton fitButton = createButton("Zoom to Fit", x, buttonsY, buttonWidth);
+        fitButton.addActionListener(e -> canvas.zoomToFit());
+        x += buttonWidth + spacing;
+
+        JButton backButton = createButton("Main Menu", x, buttonsY, buttonWidth);
+        backButton.addActionListener(e -> leave());
+    }
+
+    private JButton createButton(String text, int x, int y, int width) {
+        JButton button = new JButton(text);
+        button.setBounds(x, y, width, 30);
+        styleButton(button);
+        add(button);
+        return button;
+    }
+
+    /**
+     * Apply consistent styling to buttons
+     */
+    private void styleButton(JButton button) {
+        button.setFont(fontRegistry.getSystemFont("Arial", Font.BOLD, 16));
+        button.setFocusPainted(false);
+        button.setBackground(Color.WHITE);
+        button.setForeground(Color.BLACK);
+        button.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
+        button.setMargin(new Insets(0, 0, 0, 0));
+    }
+
+    /**
+     * Start a new attempt at a challenge
+     */
+    public void startChallenge(LargeArrayChallenge challenge) {
+        this.challenge = challenge;
+        selectedIndex = -1;
+        canvas.setChallenge(challenge);
+        instructionsLabel.setText(String.format(
+                "Sort %,d values: click a run, then merge it with the run after it. Drag to scroll, wheel to zoom.",
+                challenge.size()));
+
+        clock = new GameClock(0, 0);
+        clock.start();
+        timerLabel.setForeground(Color.WHITE);
+        timerRefresh.cancelAll();
+        refreshTimer();
+        updateControls();
+    }
+
+    /**
+     * Show the clock's time, then wake once more when the text next changes
+     */
+    private void refreshTimer() {
+        timerLabel.setText(clock.formatTime());
+        if (clock.isRunning()) {
+            long delayMillis = (clock.getNanosUntilDisplayChange() + 999_999L) / 1_000_000L;
+            timerRefresh.after((int) Math.min(Integer.MAX_VALUE, delayMillis), this::refreshTimer);
+        }
+    }
+
+    /**
+     * Select the run containing index
+     */
+    private void selectRunAt(int index) {
+        if (challenge.isSolved()) {
+            return;
+        }
+        selectedIndex = index;
+        updateSelection();
+        updateControls();
+    }
+
+    private void updateSelection() {
+        if (selectedIndex < 0) {
+            canvas.setSelection(0, 0);
+        } else {
+            canvas.setSelection(challenge.getRunStart(selectedIndex), challenge.getRunEnd(selectedIndex));
+        }
+    }
+
+    private void mergeSelected() {
+        if (selectedIndex >= 0 && challenge.mergeWithNext(selectedIndex)) {
+            applyChange();
+        }
+    }
+
+    private void undo() {
+        if (challenge.undo()) {
+            applyChange();
+        }
+    }
+
+    private void redo() {
+        if (challenge.redo()) {
+            applyChange();
+        }
+    }
+
+    /**
+     * Redraw what the last merge, undo or redo changed, and check for the end
+     */
+    private void applyChange() {
+        canvas.valuesChanged(challenge.getChangedStart(), challenge.getChangedEnd());
+        if (challenge.isSolved()) {
+            clock.stop();
+            timerRefresh.cancelAll();
+            timerLabel.setText(clock.formatTime());
+            timerLabel.setForeground(SOLVED_COLOR);
+            selectedIndex = -1;
+        } else if (selectedIndex < 0) {
+            selectedIndex = challenge.getChangedStart();
+        }
+        updateSelection();
+        updateControls();
+    }
+
+    private void updateControls() {
+        boolean solved = challenge.isSolved();
+        mergeButton.setEnabled(!solved && selectedIndex >= 0
+                && challenge.getRunEnd(selectedIndex) < challenge.size());
+        undoButton.setEnabled(!solved && challenge.canUndo());
+        redoButton.setEnabled(!solved && challenge.canRedo());
+
+        String cost = challenge.getOptimalCost() >= 0
+                ? String.format("Cost: %,d (best possible %,d)", challenge.getCost(), challenge.getOptimalCost())
+                : String.format("Cost: %,d", challenge.getCost());
+        if (solved) {
+            statusLabel.setForeground(SOLVED_STATUS_COLOR);
+            statusLabel.setText(String.format("Sorted in %d merges!   %s", challenge.getMerges(), cost));
+        } else {
+            statusLabel.setForeground(Color.BLACK);
+            statusLabel.setText(String.format("Runs left: %d of %d   Merges: %d   %s",
+                    challenge.getRunCount(), challenge.getInitialRuns(), challenge.getMerges(), cost));
+        }
+    }
+
+    private void toggleMode() {
+        if (canvas.getMode() == LargeArrayCanvas.RenderMode.BARS) {
+            canvas.setMode(LargeArrayCanvas.RenderMode.HEAT_STRIP);
+            modeButton.setText("Bars");
+        } else {
+            canvas.setMode(LargeArrayCanvas.RenderMode.BARS);
+            modeButton.setText("Heat Strip");
+        }
+    }
+
+    private void leave() {
+        timerRefresh.cancelAll();
+        if (clock != null) {
+            clock.stop();
+        }
+        controller.showMainMenu();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (backgroundImage != null) {
+            g.drawImage(backgroundImage.getImage(), 0, 0, getWidth(), getHeight(), this);
+        } else {
+            g.setColor(new Color(40, 30, 50));
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package gameproject.view;
 
 import gameproject.controller.GameController;
+import gameproject.util.FontRegistry;
 import gameproject.util.GameConstants;
 
 import javax.swing.*;
@@ -14,7 +15,6 @@ import java.awt.image.BufferedImage;
  */
 public class LevelSelectionView extends JPanel {
     private GameController controller;
-    private Font pixelifyFont;
     private ImageIcon backgroundImage;
     private ImageIcon[] levelBoxIcons = new ImageIcon[3];
     private ImageIcon backArrowIcon;
@@ -55,7 +55,7 @@ public class LevelSelectionView extends JPanel {
         
         // Create title label with larger font - precisely centered
         JLabel titleLabel = new JLabel("SELECT A LEVEL", JLabel.CENTER);
-        titleLabel.setFont(pixelifyFont.deriveFont(Font.BOLD, 80f));
+        titleLabel.setFont(FontRegistry.getInstance().getPixelFont(Font.BOLD, 80f));
         titleLabel.setForeground(Color.WHITE);
         // Position title exactly in the center horizontally and at appropriate vertical position
         titleLabel.setBounds(0, 125, GameConstants.WINDOW_WIDTH, 50);
@@ -149,6 +149,21 @@ public class LevelSelectionView extends JPanel {
             
             // Add level box to main panel
             mainPanel.add(levelBox);
+            
+            // Fastest recorded attempts for this level, below its box
+            final String difficulty = GameConstants.DIFFICULTY_LEVELS[i];
+            JLabel bestTimesLabel = new JLabel("BEST TIMES", JLabel.CENTER);
+            bestTimesLabel.setFont(FontRegistry.getInstance().getPixelFont(Font.BOLD, 24f));
+            bestTimesLabel.setForeground(Color.WHITE);
+            bestTimesLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            bestTimesLabel.setBounds(boxX, boxesY + LEVEL_BOX_SIZE + 15, LEVEL_BOX_SIZE, 30);
+            bestTimesLabel.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    controller.showLeaderboard(difficulty, 1);
+                }
+            });
+            mainPanel.add(bestTimesLabel);
         }
         
         // Add back button as a smaller image
@@ -172,11 +187,6 @@ public class LevelSelectionView extends JPanel {
      */
     private void loadResources() {
         try {
-            // Load custom font
-            pixelifyFont = Font.createFont(Font.TRUETYPE_FONT, 
-                getClass().getResourceAsStream("/gameproject/resources/PixelifySans.ttf"));
-            GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(pixelifyFont);
-            
             // Load images
             backgroundImage = new ImageIcon(getClass().getResource("/gameproject/resources/levelBG.png"));
             
@@ -217,9 +227,6 @@ public class LevelSelectionView extends JPanel {
             System.err.println("Error loading resources: " + e.getMessage());
             e.printStackTrace();
             
-            // Fallback to default font
-            pixelifyFont = new Font("Arial", Font.BOLD, 12);
-            
             // Create fallback level locked icon if not found
             if (lockedLevelIcon == null) {
                 // Create a simple lock icon with chains
@@ -1,6 +1,7 @@
 package gameproject.view;
 
 import gameproject.controller.GameController;
+import gameproject.util.FontRegistry;
 import gameproject.util.ResourceManager;
 
 import javax.swing.*;
@@ -16,6 +17,7 @@ import java.awt.image.BufferedImage;
 public class MainMenuView extends JPanel {
     private GameController controller;
     private ResourceManager resourceManager;
+    private FontRegistry fontRegistry;
     private ImageIcon backgroundImage;
     private ImageIcon normalButtonImage;
     private ImageIcon hoverButtonImage;
@@ -30,6 +32,7 @@ public class MainMenuView extends JPanel {
     public MainMenuView(GameController controller) {
         this.controller = controller;
         this.resourceManager = ResourceManager.getInstance();
+        this.fontRegistry = FontRegistry.getInstance();
         
         // Load resources
         loadResources();
@@ -58,22 +61,10 @@ public class MainMenuView extends JPanel {
             hoverButtonImage = resourceManager.getImage("/gameproject/resources/HoverButton.png");
             clickedButtonImage = resourceManager.getImage("/gameproject/resources/ClickedButton.png");
             
-            // Load fonts - using default font paths, adjust as needed
-            titleFont = new Font("Arial", Font.BOLD, 56);
-            subtitleFont = new Font("Arial", Font.ITALIC, 24);
-            buttonFont = new Font("Arial", Font.BOLD, 28);
-            
-            // Try to load custom font if available
-            try {
-                Font customFont = resourceManager.getFont("/gameproject/resources/PixelifySans.ttf", 24f);
-                if (customFont != null) {
-                    buttonFont = customFont;
-                    titleFont = customFont.deriveFont(Font.BOLD, 24f);
-                    subtitleFont = customFont.deriveFont(Font.ITALIC, 54f);
-                }
-            } catch (Exception e) {
-                System.err.println("Could not load custom font, using defaults");
-            }
+            // Load fonts (the registry falls back to Arial if PixelifySans is missing)
+            buttonFont = fontRegistry.getPixelFont(34f);
+            titleFont = fontRegistry.getPixelFont(Font.BOLD, 24f);
+            subtitleFont = fontRegistry.getPixelFont(Font.ITALIC, 54f);
             
         } catch (Exception e) {
             System.err.println("Error loading resources: " + e.getMessage());
@@ -117,12 +108,14 @@ public class MainMenuView extends JPanel {
         // Create custom animated buttons
         AnimatedButton startButton = createAnimatedButton("START GAME");
         AnimatedButton levelsButton = createAnimatedButton("LEVELS");
+        AnimatedButton challengeButton = createAnimatedButton("CHALLENGE");
         AnimatedButton helpButton = createAnimatedButton("HOW TO PLAY");
         AnimatedButton exitButton = createAnimatedButton("EXIT");
         
         // Add action listeners
         startButton.addActionListener(e -> controller.startGame());
         levelsButton.addActionListener(e -> controller.showLevelSelection());
+        challengeButton.addActionListener(e -> controller.startLargeArrayChallenge());
         helpButton.addActionListener(e -> showHowToPlayOverlay());
         exitButton.addActionListener(e -> controller.exitGame());
         
@@ -132,6 +125,8 @@ public class MainMenuView extends JPanel {
         buttonPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         buttonPanel.add(levelsButton);
         buttonPanel.add(Box.createRigidArea(new Dimension(0, 20)));
+        buttonPanel.add(challengeButton);
+        buttonPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         buttonPanel.add(helpButton);
         buttonPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         buttonPanel.add(exitButton);
@@ -150,7 +145,7 @@ public class MainMenuView extends JPanel {
     private AnimatedButton createAnimatedButton(String text) {
         AnimatedButton button = new AnimatedButton(text, normalButtonImage, hoverButtonImage, clickedButtonImage);
         // Apply font with explicit derivation to ensure proper sizing
-        button.setFont(buttonFont.deriveFont(34f));
+        button.setFont(buttonFont);
         button.setForeground(Color.WHITE);
         button.setMaximumSize(new Dimension(300, 70));
         button.setPreferredSize(new Dimension(300, 70));
@@ -358,12 +353,7 @@ public class MainMenuView extends JPanel {
 
        // Add title
        JLabel titleLabel = new JLabel("HOW TO PLAY", JLabel.CENTER);
-       // Use the pixelifySansFont if available
-       if (buttonFont != null) {
-           titleLabel.setFont(buttonFont.deriveFont(36f));
-       } else {
-           titleLabel.setFont(new Font("Arial", Font.BOLD, 36));
-       }
+       titleLabel.setFont(fontRegistry.getPixelFont(36f));
        titleLabel.setForeground(new Color(255, 215, 0));
        titleLabel.setBounds(0, 20, panelWidth, 50);
        contentPanel.add(titleLabel);